@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS cache_hot_keys (
+    hot_key_id BIGSERIAL PRIMARY KEY,
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key VARCHAR(500) NOT NULL,
+    key_rank INTEGER NOT NULL,
+    captured_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_hot_keys_cache_rank ON cache_hot_keys(cache_name, key_rank);
@@ -0,0 +1,9 @@
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS stripe_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS inventory_stripes (
+    stripe_id SERIAL PRIMARY KEY,
+    product_id INTEGER NOT NULL REFERENCES products(product_id) ON DELETE CASCADE,
+    stripe_index INTEGER NOT NULL,
+    quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    CONSTRAINT uk_inventory_stripe UNIQUE (product_id, stripe_index)
+);
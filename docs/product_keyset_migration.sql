@@ -0,0 +1,8 @@
+-- Keyset pagination of products (the "after" cursor).
+-- Each cursor sort seeks on (sort column, product_id), so these indexes serve
+-- a page as one index range scan at any depth. Sorting by id uses the primary key.
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, product_id);
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (product_name, product_id);
+CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON products (created_at, product_id);
+
+ANALYZE products;
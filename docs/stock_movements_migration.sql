@@ -0,0 +1,14 @@
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS journaled BOOLEAN NOT NULL DEFAULT false;
+
+CREATE TABLE IF NOT EXISTS stock_movements (
+    movement_id BIGSERIAL PRIMARY KEY,
+    product_id INTEGER NOT NULL REFERENCES products(product_id) ON DELETE CASCADE,
+    delta INTEGER NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Compaction deletes folded movements, so the table only holds pending ones
+ALTER TABLE stock_movements DROP COLUMN IF EXISTS compacted;
+DROP INDEX IF EXISTS idx_stock_movement_pending;
+CREATE INDEX IF NOT EXISTS idx_stock_movement_product ON stock_movements (product_id);
@@ -2,6 +2,7 @@ package com.shopjoy.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -10,6 +11,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Slf4j
 @Configuration
@@ -40,7 +42,8 @@ public class AsyncConfig implements AsyncConfigurer {
     }
 
     /**
-     * IO-bound: order creation, payment, email — formula: cores * 2 core, cores * 4 max
+     * IO-bound: order creation, payment, email — formula: cores * 2 core, cores * 4 max.
+     * A saturated pool rejects new tasks, so the caller's future fails instead of hanging.
      */
     @Bean(name = "appTaskExecutor")
     public Executor appTaskExecutor() {
@@ -54,14 +57,29 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setThreadNamePrefix("app-async-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
-        executor.setRejectedExecutionHandler((_, _) ->
-            log.error("Task rejected from appTaskExecutor — queue full, consider scaling")
-        );
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
         executor.initialize();
         log.info("appTaskExecutor: corePoolSize={}, maxPoolSize={} (IO-bound, cores*2/cores*4)", coreSize, maxSize);
         return new DelegatingSecurityContextAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Startup cache warming — a small fixed pool so warm-up queries do not crowd
+     * out the connection pool; excess tasks run on the submitting thread.
+     */
+    @Bean(name = "cacheWarmupExecutor")
+    public Executor cacheWarmupExecutor(@Value("${app.cache.warmup.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cache-warmup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        log.info("cacheWarmupExecutor: poolSize={}", parallelism);
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return (ex, method, _) ->
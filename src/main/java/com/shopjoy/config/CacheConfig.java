@@ -1,6 +1,12 @@
 package com.shopjoy.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopjoy.util.CacheEvictionCounters;
+import com.shopjoy.util.CacheRefresher;
+import com.shopjoy.util.CacheTags;
+import com.shopjoy.util.CatalogValueStore;
+import com.shopjoy.util.ObjectSizeEstimator;
+import com.shopjoy.util.TaggingCaffeineCacheManager;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -8,74 +14,151 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Cache Configuration using Caffeine.
  * Caching Strategy:
- * - SHORT TTL (2 min): Frequently changing data (inventory, cart, stock levels)
- * - MEDIUM TTL (10 min): Moderately changing data (orders, reviews)
- * - LONG TTL (30 min): Relatively stable data (products, categories, users, addresses)
+ * - SHORT TTL (15 min): Frequently changing data (cart; inventory is capped at 2 min by its region)
+ * - MEDIUM TTL (1 h): Moderately changing data (orders, reviews, addresses)
+ * - LONG TTL (2 h): Relatively stable data (products, categories, users)
  * Cache eviction is handled via @CacheEvict annotations on write operations.
+ * All caches are transaction-aware: puts and evictions made inside a
+ * transaction take effect after it commits, and a value loaded before a
+ * later eviction of its key is dropped, so TTLs no longer have to bound
+ * how long a stale entry survives a concurrent write.
+ * Catalog and review list caches are tagged and evicted by
+ * {@link com.shopjoy.util.CacheInvalidator} instead.
+ * Individual caches can override the manager's TTL and size, or be bounded by
+ * estimated retained bytes, through {@link CacheProperties} regions. Every cache
+ * counts its evictions by cause in {@link CacheEvictionCounters}. Regions
+ * with a refresh-after interval reload hot entries in the background through
+ * {@link CacheRefresher} before they expire.
+ * List and aggregate queries use {@code @Cacheable(sync = true)}, so concurrent
+ * misses for the same key share one load ({@link com.shopjoy.util.CoalescingCaffeineCache}).
+ * Product caches store product IDs and resolve them against one shared
+ * {@link CatalogValueStore}, registered as the "catalogStore" cache.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Duration LONG_TTL = Duration.ofHours(2);
+    private static final Duration MEDIUM_TTL = Duration.ofHours(1);
+    private static final Duration SHORT_TTL = Duration.ofMinutes(15);
+
     /**
      * Primary cache manager for long-lived data (Products, Categories, Users).
-     * TTL: 30 minutes, Max size: 1000 entries.
+     * TTL: 2 hours, Max size: 1000 entries.
      */
     @Bean
     @Primary
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+    public CacheManager cacheManager(CacheProperties cacheProperties, CacheRefresher cacheRefresher,
+                                     CacheEvictionCounters evictionCounters, CatalogValueStore catalogValueStore) {
+        TaggingCaffeineCacheManager cacheManager = new TaggingCaffeineCacheManager(Map.of(
+            "products", CacheTags.PRODUCT_LIST,
+            "activeProducts", CacheTags.PRODUCT_LIST,
+            "productsByCategory", CacheTags.PRODUCTS_BY_CATEGORY,
+            "filteredProducts", CacheTags.FILTERED_PRODUCTS,
+            "productSearch", CacheTags.PRODUCT_LIST,
+            "productsByPriceRange", CacheTags.PRODUCT_LIST,
+            "productFacets", CacheTags.PRODUCT_FACETS
+        ));
+        cacheManager.setCompactValues(catalogValueStore, Set.of(
+            "products", "product", "activeProducts", "productsByCategory", "filteredProducts",
+            "productSearch", "productsByPriceRange"
+        ));
+        cacheManager.setTransactionAware(cacheProperties.isTransactionAware());
+        cacheManager.setCacheNames(List.of(
             "products", "product", "activeProducts", "productsByCategory", "productsCount", "filteredProducts",
-            "productSearch", "productsByPriceRange",
+            "productSearch", "productsByPriceRange", "productFacets",
             "categories", "category",
             "users", "userProfile", "userProfileEmail", "userProfileUsername", "usersByIds",
             "userDetails"
-        );
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .expireAfterWrite(30, TimeUnit.MINUTES)
-            .maximumSize(1000)
-            .recordStats());
+        ));
+        buildCaches(cacheManager, LONG_TTL, 1000, cacheProperties, cacheRefresher, evictionCounters);
+        cacheManager.registerCustomCache("catalogStore", catalogValueStore.getNativeCache());
         return cacheManager;
     }
 
     /**
      * Cache manager for medium-lived data (Orders, Reviews).
-     * TTL: 10 minutes, Max size: 500 entries.
+     * TTL: 1 hour, Max size: 500 entries.
      */
     @Bean
-    public CacheManager mediumCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+    public CacheManager mediumCacheManager(CacheProperties cacheProperties, CacheRefresher cacheRefresher,
+                                           CacheEvictionCounters evictionCounters) {
+        TaggingCaffeineCacheManager cacheManager = new TaggingCaffeineCacheManager(Map.of(
+            "reviewsByProduct", CacheTags.BY_PRODUCT_KEY,
+            "productRating", CacheTags.BY_PRODUCT_KEY,
+            "reviewsByUser", CacheTags.BY_USER_KEY
+        ));
+        cacheManager.setTransactionAware(cacheProperties.isTransactionAware());
+        cacheManager.setCacheNames(List.of(
             "orders", "order", "ordersByUser", "ordersByStatus", "pendingOrders",
             "reviews", "review", "reviewsByProduct", "reviewsByUser", "productRating",
             "addresses", "address", "addressesByUser", "defaultAddress"
-        );
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .expireAfterWrite(10, TimeUnit.MINUTES)
-            .maximumSize(500)
-            .recordStats());
+        ));
+        buildCaches(cacheManager, MEDIUM_TTL, 500, cacheProperties, cacheRefresher, evictionCounters);
         return cacheManager;
     }
 
     /**
-     * Cache manager for short-lived data (Inventory, Cart).
-     * TTL: 2 minutes, Max size: 500 entries.
-     * Short TTL because stock levels change frequently.
+     * Cache manager for short-lived data (Inventory, Cart, cached page totals).
+     * TTL: 15 minutes, Max size: 500 entries.
+     * Stock reservations change inventory rows without evicting
+     * "inventoryByProduct", so its region keeps a 2 minute TTL. Availability
+     * checks are answered by {@link com.shopjoy.service.impl.StockSnapshot} instead.
      */
     @Bean
-    public CacheManager shortCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager( 
-            "inventory", "inventoryByProduct", "lowStock", "outOfStock",
-            "cart", "cartItems", "cartTotal", "cartCount"
-        );
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .expireAfterWrite(2, TimeUnit.MINUTES)
-            .maximumSize(500)
-            .recordStats());
+    public CacheManager shortCacheManager(CacheProperties cacheProperties, CacheRefresher cacheRefresher,
+                                          CacheEvictionCounters evictionCounters) {
+        TaggingCaffeineCacheManager cacheManager = new TaggingCaffeineCacheManager(Map.of());
+        cacheManager.setTransactionAware(cacheProperties.isTransactionAware());
+        cacheManager.setCacheNames(List.of(
+            "inventoryByProduct",
+            "cart", "cartItems", "cartTotal", "cartCount",
+            "pageCounts"
+        ));
+        buildCaches(cacheManager, SHORT_TTL, 500, cacheProperties, cacheRefresher, evictionCounters);
         return cacheManager;
     }
+
+    /**
+     * Builds each named cache from its configured region, falling back to the
+     * manager's TTL and entry limit, with eviction counting by cause. These are
+     * the only cache specs; the managers never create caches on demand.
+     */
+    private static void buildCaches(CaffeineCacheManager cacheManager, Duration defaultTtl, long defaultMaxEntries,
+                                    CacheProperties cacheProperties, CacheRefresher cacheRefresher,
+                                    CacheEvictionCounters evictionCounters) {
+        for (String name : List.copyOf(cacheManager.getCacheNames())) {
+            CacheProperties.Region region = cacheProperties.getRegions().getOrDefault(name, new CacheProperties.Region());
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(region.getTtl() != null ? region.getTtl() : defaultTtl)
+                .recordStats(evictionCounters.statsCounterFor(name));
+            if (region.getMaxWeight() != null) {
+                if (region.getMaxEntries() != null) {
+                    throw new IllegalStateException("Cache region '" + name + "' sets both max-entries and max-weight");
+                }
+                builder.maximumWeight(region.getMaxWeight().toBytes()).weigher(CacheConfig::estimatedBytes);
+            } else {
+                builder.maximumSize(region.getMaxEntries() != null ? region.getMaxEntries() : defaultMaxEntries);
+            }
+            if (region.getRefreshAfter() == null) {
+                cacheManager.registerCustomCache(name, builder.build());
+                continue;
+            }
+            builder.refreshAfterWrite(region.getRefreshAfter()).executor(cacheRefresher.executor());
+            cacheManager.registerCustomCache(name, builder.build(cacheRefresher.loaderFor(name)));
+            cacheRefresher.bind(name, cacheManager.getCache(name));
+        }
+    }
+
+    private static int estimatedBytes(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, ObjectSizeEstimator.estimate(key) + ObjectSizeEstimator.estimate(value));
+    }
 }
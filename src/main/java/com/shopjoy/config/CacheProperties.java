@@ -0,0 +1,58 @@
+package com.shopjoy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache size and TTL overrides.
+ * Caches without a region use the defaults of their cache manager.
+ * Example: app.cache.regions.products.max-weight=16MB
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * Whether puts, evictions and clears made inside a transaction are applied
+     * after it commits and dropped on rollback.
+     */
+    private boolean transactionAware = true;
+
+    /**
+     * Region settings keyed by cache name.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * Time to live after write. Defaults to the cache manager's TTL.
+         */
+        private Duration ttl;
+
+        /**
+         * Maximum number of entries. Cannot be combined with maxWeight.
+         */
+        private Long maxEntries;
+
+        /**
+         * Maximum estimated retained size of all entries.
+         * Suited to caches whose entries are lists of very different lengths.
+         */
+        private DataSize maxWeight;
+
+        /**
+         * Age after which the next read reloads the entry in the background
+         * while still returning the cached value. Should be shorter than the TTL.
+         */
+        private Duration refreshAfter;
+    }
+}
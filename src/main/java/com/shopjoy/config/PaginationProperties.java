@@ -0,0 +1,35 @@
+package com.shopjoy.config;
+
+import com.shopjoy.dto.filter.CountMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How paginated endpoints count their totals when the request does not say.
+ * Example: app.pagination.count.audit-logs=estimated
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    /**
+     * Count mode of endpoints without their own entry.
+     */
+    private CountMode defaultCount = CountMode.EXACT;
+
+    /**
+     * Count mode keyed by endpoint: products, product-filter, orders, audit-logs.
+     */
+    private Map<String, CountMode> count = new LinkedHashMap<>();
+
+    /**
+     * Smallest database estimate used as a total. Smaller estimates are too
+     * coarse to show, so those lists are counted as in cached mode instead.
+     */
+    private long estimateMinRows = 10000;
+}
@@ -0,0 +1,41 @@
+package com.shopjoy.config;
+
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductSearchBackend;
+import com.shopjoy.service.impl.FullTextProductSearchBackend;
+import com.shopjoy.service.impl.IndexProductSearchBackend;
+import com.shopjoy.service.impl.LikeProductSearchBackend;
+import com.shopjoy.service.impl.ProductSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the product search backend with {@code app.search.backend}:
+ * - index (default): in-memory inverted index, LIKE queries until it is built
+ * - postgres: full-text search over the generated search_vector column
+ * - like: LIKE queries only, as on H2
+ */
+@Slf4j
+@Configuration
+public class ProductSearchConfig {
+
+    @Bean
+    public ProductSearchBackend productSearchBackend(@Value("${app.search.backend:index}") String backend,
+                                                     ProductRepository productRepository,
+                                                     ProductJdbcRepository productJdbcRepository,
+                                                     ProductSearchIndex productSearchIndex) {
+        LikeProductSearchBackend like = new LikeProductSearchBackend(productRepository, productJdbcRepository);
+        ProductSearchBackend selected = switch (backend) {
+            case ProductSearchIndex.BACKEND -> new IndexProductSearchBackend(productSearchIndex, productRepository, like);
+            case "postgres" -> new FullTextProductSearchBackend(productJdbcRepository, productRepository, like);
+            case "like" -> like;
+            default -> throw new IllegalStateException("Unknown app.search.backend '" + backend
+                    + "', expected index, postgres or like");
+        };
+        log.info("Product search backend: {}", backend);
+        return selected;
+    }
+}
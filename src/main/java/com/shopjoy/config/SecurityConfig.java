@@ -3,6 +3,7 @@ package com.shopjoy.config;
 import com.shopjoy.security.OAuth2LoginSuccessHandler;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -52,6 +53,29 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder(10);
     }
 
+    /**
+     * Filter chain for requests on the management port, which serves health probes
+     * and Prometheus scrapes and is meant to be reachable only from inside the
+     * deployment network. On the public port the scrape endpoint needs authentication.
+     */
+    @Bean
+    @Order(0)
+    public SecurityFilterChain managementSecurityFilterChain(
+            HttpSecurity http, @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        http
+            .securityMatcher(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll()
+                .anyRequest().denyAll()
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            );
+
+        return http.build();
+    }
+
     /**
      * Form-based filter chain with CSRF protection for demo endpoints.
      */
@@ -1,18 +1,23 @@
 package com.shopjoy.controller;
 
 import com.shopjoy.dto.response.ApiResponse;
+import com.shopjoy.dto.response.InventoryImportResponse;
 import com.shopjoy.dto.response.InventoryResponse;
+import com.shopjoy.service.InventoryImportService;
 import com.shopjoy.service.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -25,6 +30,7 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryImportService inventoryImportService;
 
     /**
      * Gets inventory.
@@ -422,4 +428,115 @@ public class InventoryController {
         InventoryResponse response = inventoryService.updateReorderLevel(productId, reorderLevel);
         return ResponseEntity.ok(ApiResponse.success(response, "Reorder level updated successfully"));
     }
+
+    /**
+     * Configure striped stock response entity.
+     *
+     * @param productId   the product id
+     * @param stripeCount the stripe count
+     * @return the response entity
+     */
+    @Operation(
+            summary = "Configure striped stock",
+            description = "Splits a hot product's stock across several bucket rows so concurrent reservations do not contend on one row lock. A stripe count of 0 or 1 disables striping"
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Striping configured successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = InventoryResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/product/{productId}/stripes")
+    public ResponseEntity<ApiResponse<InventoryResponse>> configureStriping(
+            @Parameter(description = "Product unique identifier", required = true, example = "1")
+            @PathVariable Integer productId,
+            @Parameter(description = "Number of stock stripes (0 or 1 disables striping)", required = true, example = "8")
+            @RequestParam Integer stripeCount) {
+        InventoryResponse response = inventoryService.configureStriping(productId, stripeCount);
+        return ResponseEntity.ok(ApiResponse.success(response, "Stock striping configured successfully"));
+    }
+
+    /**
+     * Configure stock journal response entity.
+     *
+     * @param productId the product id
+     * @param enabled   whether the journal is enabled
+     * @return the response entity
+     */
+    @Operation(
+            summary = "Configure stock journal",
+            description = "Records a hot product's stock changes as appended movements that are compacted in the background, so stock additions and releases do not contend on the inventory row"
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Journal configured successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = InventoryResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/product/{productId}/journal")
+    public ResponseEntity<ApiResponse<InventoryResponse>> configureJournal(
+            @Parameter(description = "Product unique identifier", required = true, example = "1")
+            @PathVariable Integer productId,
+            @Parameter(description = "Whether stock changes are journaled", required = true, example = "true")
+            @RequestParam boolean enabled) {
+        InventoryResponse response = inventoryService.configureJournal(productId, enabled);
+        return ResponseEntity.ok(ApiResponse.success(response, "Stock journal configured successfully"));
+    }
+
+    /**
+     * Import stock response entity.
+     *
+     * @param request the request carrying the import body
+     * @return the response entity
+     * @throws IOException if the request body cannot be opened
+     */
+    @Operation(
+            summary = "Import stock levels",
+            description = "Streams a CSV (text/csv, header with productId and quantity and/or delta) or NDJSON (application/x-ndjson) body and applies it in chunks of batched updates. Each row sets an absolute quantity or applies a delta; failed rows are reported without stopping the import"
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Import processed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = InventoryImportResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "CSV header is missing required columns",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<InventoryImportResponse>> importStock(HttpServletRequest request) throws IOException {
+        InventoryImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(
+                MediaType.parseMediaType(request.getContentType()))
+                ? InventoryImportService.Format.NDJSON
+                : InventoryImportService.Format.CSV;
+        InventoryImportResponse response = inventoryImportService.importStock(request.getInputStream(), format);
+        return ResponseEntity.ok(ApiResponse.success(response, "Inventory import processed"));
+    }
 }
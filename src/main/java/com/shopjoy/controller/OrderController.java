@@ -3,6 +3,8 @@ package com.shopjoy.controller;
 import com.shopjoy.dto.request.CreateOrderRequest;
 import com.shopjoy.dto.response.ApiResponse;
 import com.shopjoy.dto.response.OrderResponse;
+import com.shopjoy.exception.DuplicateResourceException;
+import com.shopjoy.service.IdempotencyService;
 import com.shopjoy.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -25,18 +27,26 @@ import java.util.concurrent.CompletionException;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Create a new order (async)")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Order created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderResponse.class))),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid order data or insufficient stock"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "User or product not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "User or product not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Idempotency-Key reused for a different order, or its first request is still running on another instance")
     })
     @PostMapping
     public CompletableFuture<ResponseEntity<ApiResponse<OrderResponse>>> createOrder(
-            @Valid @RequestBody CreateOrderRequest request) {
+            @Valid @RequestBody CreateOrderRequest request,
+            @Parameter(description = "Client key that makes retries of this request return the original order", example = "3f6c1a9e-7b2d-4c1e-9f0a-2d8e5b7c4a10")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        return orderService.createOrder(request)
+        CompletableFuture<OrderResponse> order = idempotencyKey == null
+                ? orderService.createOrder(request)
+                : idempotencyService.createOrderOnce(idempotencyKey, request, () -> orderService.createOrder(request));
+
+        return order
                 .thenApply(response -> ResponseEntity
                         .status(HttpStatus.CREATED)
                         .body(ApiResponse.success(response, "Order created successfully")))
@@ -44,7 +54,7 @@ public class OrderController {
                     Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
                     String message = cause != null ? cause.getMessage() : "Order creation failed";
                     return ResponseEntity
-                            .status(HttpStatus.BAD_REQUEST)
+                            .status(cause instanceof DuplicateResourceException ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST)
                             .body(ApiResponse.error(message));
                 });
     }
@@ -2,7 +2,17 @@ package com.shopjoy.controller;
 
 import com.shopjoy.aspect.PerformanceMetricsCollector;
 import com.shopjoy.dto.response.ApiResponse;
+import com.shopjoy.service.impl.OrderBatchWriter;
+import com.shopjoy.service.impl.ProductSearchIndex;
+import com.shopjoy.service.impl.StockSnapshot;
+import com.shopjoy.util.CacheInvalidator;
+import com.shopjoy.util.CacheMemoryReporter;
+import com.shopjoy.util.CacheRefresher;
+import com.shopjoy.util.CacheWarmer;
 import com.shopjoy.util.CacheMetricsCollector;
+import com.shopjoy.util.CatalogValueStore;
+import com.shopjoy.util.PageCounter;
+import com.shopjoy.util.TransientFailureRetrier;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +33,16 @@ public class PerformanceController {
 
     private final PerformanceMetricsCollector metricsCollector;
     private final CacheMetricsCollector cacheMetricsCollector;
+    private final OrderBatchWriter orderBatchWriter;
+    private final TransientFailureRetrier transientFailureRetrier;
+    private final StockSnapshot stockSnapshot;
+    private final ProductSearchIndex productSearchIndex;
+    private final CacheInvalidator cacheInvalidator;
+    private final CacheMemoryReporter cacheMemoryReporter;
+    private final CacheRefresher cacheRefresher;
+    private final CacheWarmer cacheWarmer;
+    private final CatalogValueStore catalogValueStore;
+    private final PageCounter pageCounter;
 
     @Operation(summary = "Get all performance metrics")
     @PreAuthorize("hasRole('ADMIN')")
@@ -44,6 +64,76 @@ public class PerformanceController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheDetails() {
         return ResponseEntity.ok(ApiResponse.success(cacheMetricsCollector.getAllCacheStats(), "Detailed cache stats retrieved successfully"));
     }
+
+    @Operation(summary = "Get order batch writer statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/orders/batching")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getOrderBatchingStats() {
+        return ResponseEntity.ok(ApiResponse.success(orderBatchWriter.getStats(), "Order batching stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get transient failure retry statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/retries")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRetryStats() {
+        return ResponseEntity.ok(ApiResponse.success(transientFailureRetrier.getStats(), "Retry stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get stock snapshot statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/inventory/snapshot")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStockSnapshotStats() {
+        return ResponseEntity.ok(ApiResponse.success(stockSnapshot.getStats(), "Stock snapshot stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get product search index statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search/index")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSearchIndexStats() {
+        return ResponseEntity.ok(ApiResponse.success(productSearchIndex.getStats(), "Search index stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get cache invalidation statistics and catalog hit ratio")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/invalidation")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheInvalidationStats() {
+        return ResponseEntity.ok(ApiResponse.success(cacheInvalidator.getStats(), "Cache invalidation stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get estimated heap footprint of each cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/memory")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheMemory() {
+        return ResponseEntity.ok(ApiResponse.success(cacheMemoryReporter.getMemoryReport(), "Cache memory report retrieved successfully"));
+    }
+
+    @Operation(summary = "Get refresh-ahead statistics per cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/refresh")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheRefreshStats() {
+        return ResponseEntity.ok(ApiResponse.success(cacheRefresher.getStats(), "Cache refresh stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get startup cache warm-up statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/warmup")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheWarmupStats() {
+        return ResponseEntity.ok(ApiResponse.success(cacheWarmer.getStats(), "Cache warm-up stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get shared catalog value store statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/catalog-store")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCatalogStoreStats() {
+        return ResponseEntity.ok(ApiResponse.success(catalogValueStore.getStats(), "Catalog store stats retrieved successfully"));
+    }
+
+    @Operation(summary = "Get pagination count statistics per count mode")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/pagination/counts")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPaginationCountStats() {
+        return ResponseEntity.ok(ApiResponse.success(pageCounter.getStats(), "Pagination count stats retrieved successfully"));
+    }
     
     @Operation(summary = "Get optimization health")
     @PreAuthorize("hasRole('ADMIN')")
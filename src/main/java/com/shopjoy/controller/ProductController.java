@@ -1,11 +1,16 @@
 package com.shopjoy.controller;
 
+import com.shopjoy.dto.filter.CountMode;
+import com.shopjoy.dto.filter.ProductCursor;
 import com.shopjoy.dto.filter.ProductFilter;
 import com.shopjoy.dto.request.CreateProductRequest;
 import com.shopjoy.dto.request.UpdateProductRequest;
 import com.shopjoy.dto.response.ApiResponse;
+import com.shopjoy.dto.response.CursorPageResponse;
+import com.shopjoy.dto.response.FilteredProductsResponse;
 import com.shopjoy.dto.response.ProductResponse;
 import com.shopjoy.service.ProductService;
+import com.shopjoy.util.PageCounter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,11 +20,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -41,6 +48,7 @@ import java.util.List;
 public class ProductController {
 
         private final ProductService productService;
+        private final PageCounter pageCounter;
 
 
 
@@ -314,22 +322,43 @@ public class ProductController {
          * @param size          the size
          * @param sortBy        the sort by
          * @param sortDirection the sort direction
+         * @param count         the count mode, null for the endpoint's default
          * @return the products paginated
          */
-        @Operation(summary = "Get products with pagination", description = "Retrieves products with pagination support, allowing page number, size, and sorting configuration")
+        @Operation(summary = "Get products with pagination", description = "Retrieves products with pagination support, allowing page number, size, and sorting configuration. The count parameter trades the exactness of totalElements for fewer count queries")
         @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products retrieved with pagination", content = @Content(mediaType = "application/json")),
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid pagination parameters", content = @Content(mediaType = "application/json"))
         })
         @GetMapping("/paginated")
-        public ResponseEntity<ApiResponse<Page<ProductResponse>>> getProductsPaginated(
+        public ResponseEntity<ApiResponse<Slice<ProductResponse>>> getProductsPaginated(
                         @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(defaultValue = "0") @Min(value = 0, message = "Page number cannot be negative") int page,
                         @Parameter(description = "Page size (number of items per page)", example = "10") @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be at least 1") @Max(value = 100, message = "Page size cannot exceed 100") int size,
                         @Parameter(description = "Field to sort by", example = "id") @RequestParam(defaultValue = "id") String sortBy,
-                        @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection) {
+                        @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection,
+                        @Parameter(description = "How the total is counted: exact, cached, estimated, or none for hasNext only; defaults per endpoint", example = "exact") @RequestParam(required = false) String count) {
                 Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
                 Pageable pageable = PageRequest.of(page, size, sort);
-                Page<ProductResponse> response = productService.getProductsPaginated(pageable, sortBy, sortDirection);
+                Slice<ProductResponse> response = productService.getProductsPaginated(pageable, sortBy, sortDirection,
+                                pageCounter.modeFor("products", count));
+                return ResponseEntity.ok(ApiResponse.success(response, "Products retrieved with pagination"));
+        }
+
+        /**
+         * Gets products after a cursor, for clients that walk the whole listing.
+         *
+         * @param after the cursor returned with the previous page, empty for the first page
+         * @return the page and the cursor of the next one
+         */
+        @Operation(summary = "Get products with cursor pagination", description = "Selected by the after parameter. Seeks past the previous page by its sort key instead of skipping rows, so deep pages cost the same as the first, and returns nextCursor without a total count. Sorts: id, productName, price, createdAt")
+        @GetMapping(value = "/paginated", params = "after")
+        public ResponseEntity<ApiResponse<CursorPageResponse<ProductResponse>>> getProductsAfter(
+                        @Parameter(description = "Cursor from the previous page's nextCursor; empty for the first page", example = "") @RequestParam String after,
+                        @Parameter(description = "Page size (number of items per page)", example = "10") @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be at least 1") @Max(value = 100, message = "Page size cannot exceed 100") int size,
+                        @Parameter(description = "Field to sort by", example = "id") @RequestParam(defaultValue = "id") String sortBy,
+                        @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection) {
+                CursorPageResponse<ProductResponse> response = productService.getProductsAfter(null,
+                                ProductCursor.decode(after, sortBy, sortDirection), size);
                 return ResponseEntity.ok(ApiResponse.success(response, "Products retrieved with pagination"));
         }
 
@@ -356,6 +385,26 @@ public class ProductController {
                 return ResponseEntity.ok(ApiResponse.success(response, "Product search completed with pagination"));
         }
 
+        /**
+         * Searches products after a cursor.
+         *
+         * @param after the cursor returned with the previous page, empty for the first page
+         * @return the page and the cursor of the next one
+         */
+        @Operation(summary = "Search products with cursor pagination", description = "Selected by the after parameter. Returns nextCursor without a total count. Sorts: id, productName, price, createdAt")
+        @GetMapping(value = "/search/paginated", params = "after")
+        public ResponseEntity<ApiResponse<CursorPageResponse<ProductResponse>>> searchProductsAfter(
+                        @Parameter(description = "Search term for product name", required = true, example = "Laptop") @RequestParam @NotBlank(message = "Search keyword cannot be empty") String term,
+                        @Parameter(description = "Cursor from the previous page's nextCursor; empty for the first page", example = "") @RequestParam String after,
+                        @Parameter(description = "Page size (number of items per page)", example = "10") @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be at least 1") @Max(value = 100, message = "Page size cannot exceed 100") int size,
+                        @Parameter(description = "Field to sort by", example = "id") @RequestParam(defaultValue = "id") String sortBy,
+                        @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection) {
+                ProductFilter filter = ProductFilter.builder().searchTerm(term).build();
+                CursorPageResponse<ProductResponse> response = productService.getProductsAfter(filter,
+                                ProductCursor.decode(after, sortBy, sortDirection), size);
+                return ResponseEntity.ok(ApiResponse.success(response, "Product search completed with pagination"));
+        }
+
         /**
          * Gets products with filters.
          *
@@ -371,15 +420,54 @@ public class ProductController {
          * @param size          the size
          * @param sortBy        the sort by
          * @param sortDirection the sort direction
+         * @param count         the count mode, null for the endpoint's default
          * @return the products with filters
          */
-        @Operation(summary = "Get products with advanced filters", description = "Retrieves products with comprehensive filtering options including price range, category, stock status, search term, and pagination with sorting")
+        @Operation(summary = "Get products with advanced filters", description = "Retrieves products with comprehensive filtering options including price range, category, stock status, search term, and pagination with sorting. The count parameter trades the exactness of totalElements for fewer count queries; search term filters are always counted exactly")
         @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Filtered products retrieved successfully", content = @Content(mediaType = "application/json")),
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid filter parameters", content = @Content(mediaType = "application/json"))
         })
         @GetMapping("/filter")
-        public ResponseEntity<ApiResponse<Page<ProductResponse>>> getProductsWithFilters(
+        public ResponseEntity<ApiResponse<Slice<ProductResponse>>> getProductsWithFilters(
+                        @Parameter(description = "Minimum price filter", example = "100.00") @RequestParam(required = false) Double minPrice,
+                        @Parameter(description = "Maximum price filter", example = "1000.00") @RequestParam(required = false) Double maxPrice,
+                        @Parameter(description = "Category ID filter", example = "1") @RequestParam(required = false) Integer categoryId,
+                        @Parameter(description = "Search term for product name or description", example = "Laptop") @RequestParam(required = false) String searchTerm,
+                        @Parameter(description = "Filter by stock availability", example = "true") @RequestParam(required = false) Boolean inStock,
+                        @Parameter(description = "Minimum stock quantity", example = "10") @RequestParam(required = false) Integer minStock,
+                        @Parameter(description = "Maximum stock quantity", example = "100") @RequestParam(required = false) Integer maxStock,
+                        @Parameter(description = "Filter by active status", example = "true") @RequestParam(required = false) Boolean isActive,
+                        @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
+                        @Parameter(description = "Page size", example = "10") @RequestParam(defaultValue = "10") int size,
+                        @Parameter(description = "Field to sort by; \"relevance\" ranks search term matches", example = "id") @RequestParam(defaultValue = "id") String sortBy,
+                        @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection,
+                        @Parameter(description = "How the total is counted: exact, cached, estimated, or none for hasNext only; defaults per endpoint", example = "exact") @RequestParam(required = false) String count) {
+
+                ProductFilter filter = toFilter(minPrice, maxPrice, categoryId, searchTerm, inStock, minStock, maxStock,
+                                isActive);
+
+                Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+                Pageable pageable = PageRequest.of(page, size, sort);
+                CountMode countMode = pageCounter.modeFor("product-filter", count);
+
+                // Exact pages are served from the filteredProducts cache, totals included
+                Slice<ProductResponse> response = countMode == CountMode.EXACT
+                                ? productService.getProductsWithFilters(filter, pageable, sortBy, sortDirection)
+                                : productService.getProductsWithFilters(filter, pageable, sortBy, sortDirection,
+                                                countMode);
+                return ResponseEntity.ok(ApiResponse.success(response, "Filtered products retrieved successfully"));
+        }
+
+        /**
+         * Gets products with filters together with the facet counts of the filter,
+         * so that a listing page needs a single call.
+         *
+         * @return the page of products and the facet counts
+         */
+        @Operation(summary = "Get products with advanced filters and facet counts", description = "Same as the filter endpoint, called with facets=true; also returns product counts per category, brand, active status, price bucket and stock availability over all products matching the filter")
+        @GetMapping(value = "/filter", params = {"facets=true", "!after"})
+        public ResponseEntity<ApiResponse<FilteredProductsResponse>> getProductsWithFacets(
                         @Parameter(description = "Minimum price filter", example = "100.00") @RequestParam(required = false) Double minPrice,
                         @Parameter(description = "Maximum price filter", example = "1000.00") @RequestParam(required = false) Double maxPrice,
                         @Parameter(description = "Category ID filter", example = "1") @RequestParam(required = false) Integer categoryId,
@@ -390,9 +478,50 @@ public class ProductController {
                         @Parameter(description = "Filter by active status", example = "true") @RequestParam(required = false) Boolean isActive,
                         @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
                         @Parameter(description = "Page size", example = "10") @RequestParam(defaultValue = "10") int size,
+                        @Parameter(description = "Field to sort by; \"relevance\" ranks search term matches", example = "id") @RequestParam(defaultValue = "id") String sortBy,
+                        @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection) {
+
+                ProductFilter filter = toFilter(minPrice, maxPrice, categoryId, searchTerm, inStock, minStock, maxStock,
+                                isActive);
+                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection), sortBy));
+
+                FilteredProductsResponse response = new FilteredProductsResponse(
+                                productService.getProductsWithFilters(filter, pageable, sortBy, sortDirection),
+                                productService.getProductFacets(filter));
+                return ResponseEntity.ok(ApiResponse.success(response, "Filtered products retrieved successfully"));
+        }
+
+        /**
+         * Gets products with filters after a cursor.
+         *
+         * @param after the cursor returned with the previous page, empty for the first page
+         * @return the page and the cursor of the next one
+         */
+        @Operation(summary = "Get products with advanced filters and cursor pagination", description = "Selected by the after parameter. Returns nextCursor without a total count or facets. Sorts: id, productName, price, createdAt")
+        @GetMapping(value = "/filter", params = "after")
+        public ResponseEntity<ApiResponse<CursorPageResponse<ProductResponse>>> getProductsWithFiltersAfter(
+                        @Parameter(description = "Minimum price filter", example = "100.00") @RequestParam(required = false) Double minPrice,
+                        @Parameter(description = "Maximum price filter", example = "1000.00") @RequestParam(required = false) Double maxPrice,
+                        @Parameter(description = "Category ID filter", example = "1") @RequestParam(required = false) Integer categoryId,
+                        @Parameter(description = "Search term for product name or description", example = "Laptop") @RequestParam(required = false) String searchTerm,
+                        @Parameter(description = "Filter by stock availability", example = "true") @RequestParam(required = false) Boolean inStock,
+                        @Parameter(description = "Minimum stock quantity", example = "10") @RequestParam(required = false) Integer minStock,
+                        @Parameter(description = "Maximum stock quantity", example = "100") @RequestParam(required = false) Integer maxStock,
+                        @Parameter(description = "Filter by active status", example = "true") @RequestParam(required = false) Boolean isActive,
+                        @Parameter(description = "Cursor from the previous page's nextCursor; empty for the first page", example = "") @RequestParam String after,
+                        @Parameter(description = "Page size", example = "10") @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be at least 1") @Max(value = 100, message = "Page size cannot exceed 100") int size,
                         @Parameter(description = "Field to sort by", example = "id") @RequestParam(defaultValue = "id") String sortBy,
                         @Parameter(description = "Sort direction (ASC or DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection) {
 
+                ProductFilter filter = toFilter(minPrice, maxPrice, categoryId, searchTerm, inStock, minStock, maxStock,
+                                isActive);
+                CursorPageResponse<ProductResponse> response = productService.getProductsAfter(filter,
+                                ProductCursor.decode(after, sortBy, sortDirection), size);
+                return ResponseEntity.ok(ApiResponse.success(response, "Filtered products retrieved successfully"));
+        }
+
+        private static ProductFilter toFilter(Double minPrice, Double maxPrice, Integer categoryId, String searchTerm,
+                        Boolean inStock, Integer minStock, Integer maxStock, Boolean isActive) {
                 ProductFilter filter = new ProductFilter();
                 filter.setMinPrice(minPrice);
                 filter.setMaxPrice(maxPrice);
@@ -402,13 +531,7 @@ public class ProductController {
                 filter.setMinStock(minStock);
                 filter.setMaxStock(maxStock);
                 filter.setActive(isActive);
-
-                Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-                Pageable pageable = PageRequest.of(page, size, sort);
-                
-                Page<ProductResponse> response = productService.getProductsWithFilters(filter, pageable, sortBy,
-                                sortDirection);
-                return ResponseEntity.ok(ApiResponse.success(response, "Filtered products retrieved successfully"));
+                return filter;
         }
 
         @Operation(summary = "Get recently added products", description = "Retrieves a list of newest products added to the catalog")
@@ -1,17 +1,19 @@
 package com.shopjoy.controller;
 
+import com.shopjoy.dto.filter.CountMode;
 import com.shopjoy.dto.response.ApiResponse;
 import com.shopjoy.dto.response.SecurityAuditLogResponse;
 import com.shopjoy.entity.SecurityAuditLog;
 import com.shopjoy.entity.SecurityEventType;
 import com.shopjoy.service.SecurityAuditService;
+import com.shopjoy.util.PageCounter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -31,7 +33,11 @@ import java.time.LocalDateTime;
 @PreAuthorize("hasRole('ADMIN')")
 public class SecurityAuditLogController {
 
+    private static final String COUNT_DESCRIPTION =
+            "How the total is counted: exact, cached, estimated, or none for hasNext only; defaults to app.pagination.count.audit-logs";
+
     private final SecurityAuditService securityAuditService;
+    private final PageCounter pageCounter;
 
     /**
      * Get all audit logs with pagination.
@@ -40,21 +46,23 @@ public class SecurityAuditLogController {
      * @param size the page size
      * @param sortBy the field to sort by
      * @param sortDir the sort direction (asc or desc)
+     * @param count the count mode, null for the endpoint's default
      * @return paginated list of audit logs
      */
     @Operation(summary = "Get all audit logs", description = "Retrieve all security audit logs with pagination and sorting")
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<SecurityAuditLogResponse>>> getAllLogs(
+    public ResponseEntity<ApiResponse<Slice<SecurityAuditLogResponse>>> getAllLogs(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "timestamp") String sortBy,
-            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = COUNT_DESCRIPTION) @RequestParam(required = false) String count
     ) {
         Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
-        Page<SecurityAuditLog> logs = securityAuditService.getAllLogs(pageable);
-        Page<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
+        Slice<SecurityAuditLog> logs = securityAuditService.getAllLogs(pageable, countMode(count));
+        Slice<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
         
         return ResponseEntity.ok(ApiResponse.success(responsePage, "Audit logs retrieved successfully"));
     }
@@ -65,18 +73,20 @@ public class SecurityAuditLogController {
      * @param username the username to filter by
      * @param page the page number
      * @param size the page size
+     * @param count the count mode, null for the endpoint's default
      * @return paginated list of audit logs for the user
      */
     @Operation(summary = "Get audit logs by username", description = "Retrieve audit logs for a specific user")
     @GetMapping("/user/{username}")
-    public ResponseEntity<ApiResponse<Page<SecurityAuditLogResponse>>> getLogsByUsername(
+    public ResponseEntity<ApiResponse<Slice<SecurityAuditLogResponse>>> getLogsByUsername(
             @Parameter(description = "Username to filter by") @PathVariable String username,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = COUNT_DESCRIPTION) @RequestParam(required = false) String count
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<SecurityAuditLog> logs = securityAuditService.getLogsByUsername(username, pageable);
-        Page<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
+        Slice<SecurityAuditLog> logs = securityAuditService.getLogsByUsername(username, pageable, countMode(count));
+        Slice<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
         
         return ResponseEntity.ok(ApiResponse.success(responsePage, "User audit logs retrieved successfully"));
     }
@@ -87,18 +97,20 @@ public class SecurityAuditLogController {
      * @param eventType the event type to filter by
      * @param page the page number
      * @param size the page size
+     * @param count the count mode, null for the endpoint's default
      * @return paginated list of audit logs for the event type
      */
     @Operation(summary = "Get audit logs by event type", description = "Retrieve audit logs for a specific event type")
     @GetMapping("/event-type/{eventType}")
-    public ResponseEntity<ApiResponse<Page<SecurityAuditLogResponse>>> getLogsByEventType(
+    public ResponseEntity<ApiResponse<Slice<SecurityAuditLogResponse>>> getLogsByEventType(
             @Parameter(description = "Event type to filter by") @PathVariable SecurityEventType eventType,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = COUNT_DESCRIPTION) @RequestParam(required = false) String count
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<SecurityAuditLog> logs = securityAuditService.getLogsByEventType(eventType, pageable);
-        Page<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
+        Slice<SecurityAuditLog> logs = securityAuditService.getLogsByEventType(eventType, pageable, countMode(count));
+        Slice<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
         
         return ResponseEntity.ok(ApiResponse.success(responsePage, "Event type audit logs retrieved successfully"));
     }
@@ -110,21 +122,23 @@ public class SecurityAuditLogController {
      * @param endTime end timestamp
      * @param page the page number
      * @param size the page size
+     * @param count the count mode, null for the endpoint's default
      * @return paginated list of audit logs within the date range
      */
     @Operation(summary = "Get audit logs by date range", description = "Retrieve audit logs within a specific date range")
     @GetMapping("/date-range")
-    public ResponseEntity<ApiResponse<Page<SecurityAuditLogResponse>>> getLogsByDateRange(
+    public ResponseEntity<ApiResponse<Slice<SecurityAuditLogResponse>>> getLogsByDateRange(
             @Parameter(description = "Start date-time (ISO format)") 
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @Parameter(description = "End date-time (ISO format)") 
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = COUNT_DESCRIPTION) @RequestParam(required = false) String count
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<SecurityAuditLog> logs = securityAuditService.getLogsByDateRange(startTime, endTime, pageable);
-        Page<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
+        Slice<SecurityAuditLog> logs = securityAuditService.getLogsByDateRange(startTime, endTime, pageable, countMode(count));
+        Slice<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
         
         return ResponseEntity.ok(ApiResponse.success(responsePage, "Date range audit logs retrieved successfully"));
     }
@@ -136,20 +150,22 @@ public class SecurityAuditLogController {
      * @param eventType the event type to filter by
      * @param page the page number
      * @param size the page size
+     * @param count the count mode, null for the endpoint's default
      * @return paginated list of audit logs
      */
     @Operation(summary = "Get audit logs by username and event type", 
                description = "Retrieve audit logs for a specific user and event type")
     @GetMapping("/filter")
-    public ResponseEntity<ApiResponse<Page<SecurityAuditLogResponse>>> getLogsByUsernameAndEventType(
+    public ResponseEntity<ApiResponse<Slice<SecurityAuditLogResponse>>> getLogsByUsernameAndEventType(
             @Parameter(description = "Username to filter by") @RequestParam String username,
             @Parameter(description = "Event type to filter by") @RequestParam SecurityEventType eventType,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = COUNT_DESCRIPTION) @RequestParam(required = false) String count
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<SecurityAuditLog> logs = securityAuditService.getLogsByUsernameAndEventType(username, eventType, pageable);
-        Page<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
+        Slice<SecurityAuditLog> logs = securityAuditService.getLogsByUsernameAndEventType(username, eventType, pageable, countMode(count));
+        Slice<SecurityAuditLogResponse> responsePage = logs.map(this::mapToResponse);
         
         return ResponseEntity.ok(ApiResponse.success(responsePage, "Filtered audit logs retrieved successfully"));
     }
@@ -199,6 +215,10 @@ public class SecurityAuditLogController {
         return ResponseEntity.ok(ApiResponse.success(count, "Event count retrieved successfully"));
     }
 
+    private CountMode countMode(String count) {
+        return pageCounter.modeFor("audit-logs", count);
+    }
+
     /**
      * Map SecurityAuditLog entity to response DTO.
      */
@@ -0,0 +1,36 @@
+package com.shopjoy.dto.filter;
+
+import com.shopjoy.exception.ValidationException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * How a paginated listing obtains its total, chosen with the {@code count}
+ * request parameter or configured per endpoint under {@code app.pagination.count}.
+ */
+public enum CountMode {
+
+    /** Runs {@code count(*)} for every page. */
+    EXACT,
+
+    /** Runs {@code count(*)} once per filter and reuses it for a short time. */
+    CACHED,
+
+    /** Uses the database's row estimate where it is large enough to trust, else a cached count. */
+    ESTIMATED,
+
+    /** Runs no count; the page only tells whether another one follows. */
+    NONE;
+
+    /**
+     * @param value the request parameter, case-insensitive
+     */
+    public static CountMode fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("count", "must be one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+    }
+}
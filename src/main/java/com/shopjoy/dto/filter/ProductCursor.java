@@ -0,0 +1,105 @@
+package com.shopjoy.dto.filter;
+
+import com.shopjoy.entity.Product;
+import com.shopjoy.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a product listing ordered by one sort property, with product ID
+ * breaking ties in the same direction. Clients receive it as an opaque token
+ * and pass it back as {@code after} to get the products that follow.
+ *
+ * @param sortBy    id, productName, price or createdAt
+ * @param value     the sort value of the last product returned, null for the first page or an ID sort
+ * @param productId the ID of the last product returned, null for the first page
+ */
+public record ProductCursor(String sortBy, Sort.Direction direction, String value, Integer productId) {
+
+    public static final Set<String> SORT_PROPERTIES = Set.of("id", "productName", "price", "createdAt");
+
+    private static final String VERSION = "v1";
+
+    /**
+     * @return the position before the first product in the given order
+     */
+    public static ProductCursor first(String sortBy, String sortDirection) {
+        if (!SORT_PROPERTIES.contains(sortBy)) {
+            throw new ValidationException("sortBy", "must be one of " + SORT_PROPERTIES + " when paging with a cursor");
+        }
+        return new ProductCursor(sortBy, Sort.Direction.fromString(sortDirection), null, null);
+    }
+
+    /**
+     * Reads an {@code after} token, which must have been issued for the same order.
+     * A blank token stands for the first page.
+     */
+    public static ProductCursor decode(String token, String sortBy, String sortDirection) {
+        ProductCursor first = first(sortBy, sortDirection);
+        if (token == null || token.isBlank()) {
+            return first;
+        }
+        ProductCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unknown cursor format");
+            }
+            cursor = new ProductCursor(parts[1], Sort.Direction.valueOf(parts[2]),
+                    "id".equals(parts[1]) ? null : parts[4], Integer.valueOf(parts[3]));
+            cursor.typedValue();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("after", "is not a valid cursor");
+        }
+        if (!cursor.sortBy.equals(first.sortBy) || cursor.direction != first.direction) {
+            throw new ValidationException("after", "was issued for a different sort");
+        }
+        return cursor;
+    }
+
+    /**
+     * @return the position of the given product in this cursor's order
+     */
+    public ProductCursor after(Product product) {
+        String lastValue = switch (sortBy) {
+            case "productName" -> product.getProductName();
+            case "price" -> product.getPrice().toPlainString();
+            case "createdAt" -> product.getCreatedAt().toString();
+            default -> null;
+        };
+        return new ProductCursor(sortBy, direction, lastValue, product.getId());
+    }
+
+    public boolean isFirst() {
+        return productId == null;
+    }
+
+    /**
+     * @return the sort value as the column type: String, BigDecimal or LocalDateTime; null for an ID sort
+     */
+    public Object typedValue() {
+        if (value == null) {
+            return null;
+        }
+        return switch (sortBy) {
+            case "price" -> new BigDecimal(value);
+            case "createdAt" -> LocalDateTime.parse(value);
+            default -> value;
+        };
+    }
+
+    /**
+     * @return the opaque token for this position
+     */
+    public String encode() {
+        String raw = String.join("|", VERSION, sortBy, direction.name(), String.valueOf(productId),
+                value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
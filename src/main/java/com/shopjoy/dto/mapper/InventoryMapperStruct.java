@@ -21,7 +21,7 @@ public interface InventoryMapperStruct {
     @Mapping(target = "id", source = "inventory.id")
     @Mapping(target = "productId", source = "inventory.product.id")
     @Mapping(target = "productName", source = "inventory.product.productName")
-    @Mapping(target = "stockQuantity", source = "inventory.quantityInStock")
+    @Mapping(target = "stockQuantity", source = "inventory.totalQuantity")
     InventoryResponse toInventoryResponse(Inventory inventory);
 
     /**
@@ -30,6 +30,6 @@ public interface InventoryMapperStruct {
     @Mapping(target = "id", source = "inventory.id")
     @Mapping(target = "productId", source = "inventory.product.id")
     @Mapping(target = "productName", source = "productName")
-    @Mapping(target = "stockQuantity", source = "inventory.quantityInStock")
+    @Mapping(target = "stockQuantity", source = "inventory.totalQuantity")
     InventoryResponse toInventoryResponse(Inventory inventory, String productName);
 }
\ No newline at end of file
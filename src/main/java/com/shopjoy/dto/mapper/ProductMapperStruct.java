@@ -39,7 +39,7 @@ public interface ProductMapperStruct {
      */
     @Mapping(target = "categoryId", source = "category.id")
     @Mapping(target = "categoryName", source = "category.categoryName")
-    @Mapping(target = "stockQuantity", source = "inventory.quantityInStock")
+    @Mapping(target = "stockQuantity", source = "inventory.totalQuantity")
     @Mapping(target = "reorderLevel", source = "inventory.reorderLevel")
     @Mapping(target = "active", source = "active")
     ProductResponse toProductResponse(Product product);
@@ -50,7 +50,7 @@ public interface ProductMapperStruct {
     @Mapping(target = "id", source = "product.id")
     @Mapping(target = "categoryId", source = "product.category.id")
     @Mapping(target = "categoryName", source = "product.category.categoryName")
-    @Mapping(target = "stockQuantity", source = "inventory.quantityInStock")
+    @Mapping(target = "stockQuantity", source = "inventory.totalQuantity")
     @Mapping(target = "active", source = "product.active")
     @Mapping(target = "createdAt", source = "product.createdAt")
     @Mapping(target = "updatedAt", source = "product.updatedAt")
@@ -0,0 +1,27 @@
+package com.shopjoy.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for one page of a cursor-paginated listing. It carries no total,
+ * since none is counted; {@code nextCursor} is passed back as {@code after}
+ * for the following page and is null on the last one.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content = new ArrayList<>();
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+}
@@ -0,0 +1,21 @@
+package com.shopjoy.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Page;
+
+/**
+ * Response DTO for a filtered product page together with the facet counts of its filter.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilteredProductsResponse {
+
+    private Page<ProductResponse> products;
+    private ProductFacetsResponse facets;
+
+}
@@ -0,0 +1,42 @@
+package com.shopjoy.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for a bulk inventory import.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportResponse {
+
+    private long rowsRead;
+    private long rowsApplied;
+    private long rowsFailed;
+    private int chunks;
+    private long durationMs;
+    private boolean failuresTruncated;
+    private List<RowFailure> failures = new ArrayList<>();
+
+    /**
+     * A row that could not be parsed or applied.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowFailure {
+
+        private long line;
+        private Integer productId;
+        private String message;
+
+    }
+}
@@ -20,7 +20,10 @@ public class InventoryResponse {
     private Integer productId;
     private String productName;
     private int stockQuantity;
+    private int reservedQuantity;
     private int reorderLevel;
     private LocalDateTime lastRestocked;
+    private int stripeCount;
+    private boolean journaled;
 
 }
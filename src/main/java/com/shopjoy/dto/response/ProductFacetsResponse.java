@@ -0,0 +1,47 @@
+package com.shopjoy.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for the facet counts of a filtered product listing. Every count
+ * is over the products matching the whole filter.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsResponse {
+
+    private long totalProducts;
+    private Map<Integer, Long> categories = new LinkedHashMap<>();
+    private Map<String, Long> brands = new LinkedHashMap<>();
+    private Map<Boolean, Long> active = new LinkedHashMap<>();
+    private List<PriceBucket> priceBuckets = new ArrayList<>();
+    private long inStock;
+    private long outOfStock;
+
+    /**
+     * Products priced from {@code minPrice} (inclusive) up to {@code maxPrice}
+     * (exclusive, null for the open last bucket).
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private long count;
+
+    }
+}
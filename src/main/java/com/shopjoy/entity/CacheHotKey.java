@@ -0,0 +1,45 @@
+package com.shopjoy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One of the hottest keys of a cache, captured periodically so that the next
+ * instance can warm its caches with the keys that were actually in demand.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cache_hot_keys", indexes = {
+        @Index(name = "idx_cache_hot_keys_cache_rank", columnList = "cache_name, key_rank")
+})
+public class CacheHotKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "hot_key_id")
+    private Long id;
+
+    @Column(name = "cache_name", length = 100, nullable = false)
+    private String cacheName;
+
+    /**
+     * The cache key encoded by {@link com.shopjoy.util.CacheKeyCodec}.
+     */
+    @Column(name = "cache_key", length = 500, nullable = false)
+    private String cacheKey;
+
+    /**
+     * Position in the cache's hotness order, 0 being the hottest.
+     */
+    @Column(name = "key_rank", nullable = false)
+    private int rank;
+
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+}
@@ -0,0 +1,56 @@
+package com.shopjoy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * The durable tier of the order idempotency store.
+ * Records which order a client's Idempotency-Key produced so retries
+ * arriving after a restart still get the original order back.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_key_expiry", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The client key scoped by user ID, so two users can never share a key.
+     */
+    @Id
+    @Column(name = "idempotency_key", length = 140)
+    private String key;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private IdempotencyStatus status;
+
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
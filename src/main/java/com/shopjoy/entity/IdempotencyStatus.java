@@ -0,0 +1,6 @@
+package com.shopjoy.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -3,6 +3,8 @@ package com.shopjoy.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -48,6 +50,54 @@ public class Inventory implements Serializable {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Number of stripe rows the stock is split across; 0 means the product is not striped
+     * and quantityInStock holds all stock.
+     */
+    @ColumnDefault("0")
+    @Column(name = "stripe_count", nullable = false)
+    private int stripeCount;
+
+    /**
+     * Stock currently held in inventory_stripes rows for this product.
+     */
+    @Formula("(SELECT COALESCE(SUM(s.quantity), 0) FROM inventory_stripes s WHERE s.product_id = product_id)")
+    @Setter(AccessLevel.NONE)
+    private int stripedQuantity;
+
+    /**
+     * Whether stock changes are appended to stock_movements instead of updating this row.
+     */
+    @ColumnDefault("false")
+    @Column(name = "journaled", nullable = false)
+    private boolean journaled;
+
+    /**
+     * Sum of journal deltas not yet compacted into quantityInStock.
+     */
+    @Formula("(SELECT COALESCE(SUM(m.delta), 0) FROM stock_movements m WHERE m.product_id = product_id)")
+    @Setter(AccessLevel.NONE)
+    private int journalDelta;
+
+    /**
+     * Stock held by unpaid orders that has not been confirmed, released or expired yet.
+     * Already excluded from quantityInStock; derived from stock_reservations so that
+     * taking, confirming and expiring holds never writes to this row.
+     */
+    @Formula("(SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r WHERE r.product_id = product_id AND r.status = 'HELD')")
+    @Setter(AccessLevel.NONE)
+    private int reservedQuantity;
+
+    /**
+     * Total sellable stock: the unallocated quantity on this row plus all stripe
+     * buckets and any uncompacted journal deltas.
+     *
+     * @return the total quantity
+     */
+    public int getTotalQuantity() {
+        return quantityInStock + stripedQuantity + journalDelta;
+    }
+
     @PrePersist
     protected void onCreate() {
         updatedAt = LocalDateTime.now();
@@ -0,0 +1,41 @@
+package com.shopjoy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * One bucket of a striped product's stock.
+ * Reservations on a hot product spread across several stripe rows
+ * instead of serializing on the single inventory row lock.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inventory_stripes",
+       uniqueConstraints = @UniqueConstraint(name = "uk_inventory_stripe", columnNames = {"product_id", "stripe_index"}))
+public class InventoryStripe implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "stripe_id")
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(name = "stripe_index", nullable = false)
+    private int stripeIndex;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,9 @@
+package com.shopjoy.entity;
+
+public enum MovementType {
+    SET,
+    ADD,
+    REMOVE,
+    RESERVE,
+    RELEASE
+}
@@ -0,0 +1,8 @@
+package com.shopjoy.entity;
+
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,55 @@
+package com.shopjoy.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only stock journal used by journaled products.
+ * Current stock is the inventory row's snapshot plus the deltas not yet
+ * compacted into it; compaction adds movements to the snapshot and deletes them.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movement_product", columnList = "product_id")
+})
+public class StockMovement implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "movement_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    @Column(name = "delta", nullable = false)
+    private int delta;
+
+    @Column(name = "movement_type", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private MovementType type;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
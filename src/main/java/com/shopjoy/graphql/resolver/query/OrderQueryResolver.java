@@ -4,11 +4,12 @@ import com.shopjoy.dto.filter.OrderFilter;
 import com.shopjoy.dto.response.OrderResponse;
 import com.shopjoy.graphql.input.OrderFilterInput;
 import com.shopjoy.graphql.type.OrderConnection;
-import com.shopjoy.graphql.type.PageInfo;
+import com.shopjoy.graphql.type.OrderPageInfo;
 import com.shopjoy.service.OrderService;
-import org.springframework.data.domain.Page;
+import com.shopjoy.util.PageCounter;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -20,9 +21,11 @@ import org.springframework.stereotype.Controller;
 public class OrderQueryResolver {
 
     private final OrderService orderService;
+    private final PageCounter pageCounter;
 
-    public OrderQueryResolver(OrderService orderService) {
+    public OrderQueryResolver(OrderService orderService, PageCounter pageCounter) {
         this.orderService = orderService;
+        this.pageCounter = pageCounter;
     }
 
 
@@ -41,7 +44,8 @@ public class OrderQueryResolver {
             @Argument Integer page,
             @Argument Integer size,
             @Argument String sortBy,
-            @Argument String sortDirection
+            @Argument String sortDirection,
+            @Argument String count
     ) {
         int pageNum = page != null ? page : 0;
         int pageSize = size != null ? size : 20;
@@ -66,15 +70,9 @@ public class OrderQueryResolver {
         }
 
         Integer uid = userId != null ? userId.intValue() : null;
-        Page<OrderResponse> orderPage = orderService.getOrders(uid, orderFilter, pageable);
-        
-        PageInfo pageInfo = new PageInfo(
-                pageNum,
-                pageSize,
-                orderPage.getTotalElements(),
-                orderPage.getTotalPages()
-        );
+        Slice<OrderResponse> orderPage = orderService.getOrders(uid, orderFilter, pageable,
+                pageCounter.modeFor("orders", count));
 
-        return new OrderConnection(orderPage.getContent(), pageInfo);
+        return new OrderConnection(orderPage.getContent(), OrderPageInfo.of(orderPage));
     }
 }
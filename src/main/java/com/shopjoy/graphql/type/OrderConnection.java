@@ -6,5 +6,5 @@ import java.util.List;
 
 public record OrderConnection(
         List<OrderResponse> orders,
-        PageInfo pageInfo
+        OrderPageInfo pageInfo
 ) {}
@@ -0,0 +1,25 @@
+package com.shopjoy.graphql.type;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Paging details of the orders query. The totals are null when the orders were
+ * fetched without a count, as with {@code count: "none"}.
+ */
+public record OrderPageInfo(
+        int page,
+        int size,
+        Long totalElements,
+        Integer totalPages,
+        boolean hasNext
+) {
+
+    public static OrderPageInfo of(Slice<?> slice) {
+        if (slice instanceof Page<?> page) {
+            return new OrderPageInfo(page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages(),
+                    page.hasNext());
+        }
+        return new OrderPageInfo(slice.getNumber(), slice.getSize(), null, null, slice.hasNext());
+    }
+}
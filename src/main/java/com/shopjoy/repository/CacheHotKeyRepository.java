@@ -0,0 +1,13 @@
+package com.shopjoy.repository;
+
+import com.shopjoy.entity.CacheHotKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CacheHotKeyRepository extends JpaRepository<CacheHotKey, Long> {
+
+    List<CacheHotKey> findAllByOrderByRankAsc();
+}
@@ -0,0 +1,45 @@
+package com.shopjoy.repository;
+
+import com.shopjoy.entity.IdempotencyRecord;
+import com.shopjoy.entity.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key. Unlike save, which merges entities with assigned IDs,
+     * this fails with a constraint violation when the key already exists.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, status, expires_at, created_at) " +
+                   "VALUES (:key, :requestHash, 'IN_PROGRESS', :expiresAt, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.orderId = :orderId WHERE r.key = :key")
+    int markCompleted(@Param("key") String key,
+                      @Param("status") IdempotencyStatus status,
+                      @Param("orderId") Integer orderId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.status = :status")
+    int deleteByKeyAndStatus(@Param("key") String key, @Param("status") IdempotencyStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
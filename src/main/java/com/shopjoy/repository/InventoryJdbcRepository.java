@@ -0,0 +1,401 @@
+package com.shopjoy.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Set-based inventory operations that bypass the persistence context.
+ * Used where per-entity find+save would issue one statement per product.
+ */
+@Repository
+@AllArgsConstructor
+public class InventoryJdbcRepository {
+
+    private static final String TOTAL_QUANTITY =
+            "i.quantity_in_stock + " +
+            "COALESCE((SELECT SUM(s.quantity) FROM inventory_stripes s WHERE s.product_id = i.product_id), 0) + " +
+            "COALESCE((SELECT SUM(m.delta) FROM stock_movements m WHERE m.product_id = i.product_id), 0)";
+
+    private static final String SELECT_STOCK_LEVELS =
+            "SELECT i.product_id, " + TOTAL_QUANTITY + " AS quantity_in_stock " +
+            "FROM inventory i WHERE i.product_id IN (:productIds) ORDER BY i.product_id";
+
+    private static final String SELECT_STOCK_SNAPSHOT =
+            "SELECT i.product_id, " + TOTAL_QUANTITY + " AS quantity_in_stock, i.reorder_level FROM inventory i";
+
+    private static final String SELECT_JOURNALED_STOCK =
+            "SELECT i.product_id, " + TOTAL_QUANTITY + " AS quantity_in_stock FROM inventory i WHERE i.journaled = true";
+
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO stock_movements (product_id, delta, movement_type, created_at) " +
+            "VALUES (:productId, :quantity, :movementType, CURRENT_TIMESTAMP)";
+
+    private static final String SELECT_PRODUCTS_WITH_PENDING_MOVEMENTS =
+            "SELECT DISTINCT product_id FROM stock_movements";
+
+    private static final String SELECT_PENDING_MOVEMENTS =
+            "SELECT movement_id, delta FROM stock_movements WHERE product_id = :productId " +
+            "ORDER BY movement_id LIMIT :limit";
+
+    private static final String DELETE_MOVEMENTS =
+            "DELETE FROM stock_movements WHERE movement_id IN (:movementIds)";
+
+    private static final String LOCK_STOCK_LEVELS =
+            "SELECT product_id, quantity_in_stock FROM inventory WHERE product_id IN (:productIds) ORDER BY product_id FOR UPDATE";
+
+    private static final String SELECT_STRIPE_COUNTS =
+            "SELECT product_id, stripe_count FROM inventory WHERE product_id IN (:productIds) AND stripe_count > 1 ORDER BY product_id";
+
+    private static final String LOCK_UNALLOCATED_STOCK =
+            "SELECT quantity_in_stock FROM inventory WHERE product_id = :productId FOR UPDATE";
+
+    private static final String LOCK_STRIPES =
+            "SELECT quantity FROM inventory_stripes WHERE product_id = :productId ORDER BY stripe_index FOR UPDATE";
+
+    private static final String LOCK_FREE_STRIPE =
+            "SELECT stripe_index FROM inventory_stripes WHERE product_id = :productId AND quantity >= :quantity " +
+            "ORDER BY stripe_index LIMIT 1 FOR UPDATE SKIP LOCKED";
+
+    private static final String DECREMENT_STRIPE =
+            "UPDATE inventory_stripes SET quantity = quantity - :quantity " +
+            "WHERE product_id = :productId AND stripe_index = :stripeIndex AND quantity >= :quantity";
+
+    private static final String INCREMENT_STRIPE =
+            "UPDATE inventory_stripes SET quantity = quantity + :quantity " +
+            "WHERE product_id = :productId AND stripe_index = :stripeIndex";
+
+    private static final String SET_STRIPE =
+            "UPDATE inventory_stripes SET quantity = :quantity WHERE product_id = :productId AND stripe_index = :stripeIndex";
+
+    private static final String SET_UNALLOCATED_STOCK =
+            "UPDATE inventory SET quantity_in_stock = :quantity, updated_at = CURRENT_TIMESTAMP WHERE product_id = :productId";
+
+    private static final String DECREMENT_STOCK =
+            "UPDATE inventory SET quantity_in_stock = quantity_in_stock - :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = :productId AND quantity_in_stock >= :quantity";
+
+    private static final String INCREMENT_STOCK =
+            "UPDATE inventory SET quantity_in_stock = quantity_in_stock + :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = :productId";
+
+    private static final String SET_STOCK =
+            "UPDATE inventory SET " +
+            "last_restocked = CASE WHEN :quantity > quantity_in_stock THEN CURRENT_TIMESTAMP ELSE last_restocked END, " +
+            "quantity_in_stock = :quantity, updated_at = CURRENT_TIMESTAMP WHERE product_id = :productId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Total stock and reorder level of one product.
+     */
+    public record StockLevel(int productId, int quantity, int reorderLevel) {
+    }
+
+    /**
+     * Reads current stock for the given products in a single round trip.
+     * Stripe buckets and pending journal deltas are included in the total.
+     *
+     * @param productIds the product IDs
+     * @return map of product ID to quantity in stock, ordered by product ID; missing products are absent
+     */
+    public Map<Integer, Integer> findStockLevels(Collection<Integer> productIds) {
+        return queryStockLevels(SELECT_STOCK_LEVELS, productIds);
+    }
+
+    /**
+     * Reads total stock and reorder level for every product with inventory.
+     *
+     * @return one entry per inventory row
+     */
+    public List<StockLevel> findAllStockLevels() {
+        return jdbcTemplate.query(SELECT_STOCK_SNAPSHOT, (rs, rowNum) -> new StockLevel(
+                rs.getInt("product_id"), rs.getInt("quantity_in_stock"), rs.getInt("reorder_level")));
+    }
+
+    /**
+     * Reads total stock and reorder level for one product.
+     *
+     * @param productId the product ID
+     * @return the stock level, or empty if the product has no inventory
+     */
+    public Optional<StockLevel> findStockLevel(int productId) {
+        return jdbcTemplate.query(SELECT_STOCK_SNAPSHOT + " WHERE i.product_id = :productId",
+                        new MapSqlParameterSource("productId", productId),
+                        (rs, rowNum) -> new StockLevel(
+                                rs.getInt("product_id"), rs.getInt("quantity_in_stock"), rs.getInt("reorder_level")))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Reads and row-locks current stock for the given products.
+     * Rows are locked in ascending product ID order so that two transactions
+     * locking overlapping product sets can never wait on each other in a cycle.
+     *
+     * @param productIds the product IDs
+     * @return map of product ID to quantity in stock, ordered by product ID; missing products are absent
+     */
+    public Map<Integer, Integer> lockStockLevels(Collection<Integer> productIds) {
+        return queryStockLevels(LOCK_STOCK_LEVELS, productIds);
+    }
+
+    /**
+     * Row-locks the given inventory rows without waiting for other transactions.
+     *
+     * @param productIds the product IDs
+     * @throws org.springframework.dao.PessimisticLockingFailureException if another transaction holds one of the rows
+     */
+    public void lockStockLevelsNowait(Collection<Integer> productIds) {
+        queryStockLevels(LOCK_STOCK_LEVELS + " NOWAIT", productIds);
+    }
+
+    /**
+     * Finds which of the given products are striped.
+     *
+     * @param productIds the product IDs
+     * @return map of product ID to stripe count, ordered by product ID; unstriped products are absent
+     */
+    public Map<Integer, Integer> findStripeCounts(Collection<Integer> productIds) {
+        Map<Integer, Integer> stripeCounts = new TreeMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return stripeCounts;
+        }
+        jdbcTemplate.query(SELECT_STRIPE_COUNTS,
+                new MapSqlParameterSource("productIds", List.copyOf(productIds)),
+                rs -> {
+                    stripeCounts.put(rs.getInt("product_id"), rs.getInt("stripe_count"));
+                });
+        return stripeCounts;
+    }
+
+    /**
+     * Row-locks a product's inventory row and returns its unallocated quantity.
+     *
+     * @param productId the product ID
+     * @return the quantity on the inventory row, or empty if the product has no inventory
+     */
+    public Optional<Integer> lockUnallocatedStock(int productId) {
+        return jdbcTemplate.queryForList(LOCK_UNALLOCATED_STOCK,
+                        new MapSqlParameterSource("productId", productId), Integer.class)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Row-locks every stripe of a product in stripe index order.
+     *
+     * @param productId the product ID
+     * @return stripe quantities indexed by stripe index
+     */
+    public List<Integer> lockStripes(int productId) {
+        return jdbcTemplate.queryForList(LOCK_STRIPES, new MapSqlParameterSource("productId", productId), Integer.class);
+    }
+
+    /**
+     * Row-locks every stripe of a product without waiting for other transactions.
+     *
+     * @param productId the product ID
+     * @return stripe quantities indexed by stripe index
+     * @throws org.springframework.dao.PessimisticLockingFailureException if another transaction holds one of the stripes
+     */
+    public List<Integer> lockStripesNowait(int productId) {
+        return jdbcTemplate.queryForList(LOCK_STRIPES + " NOWAIT",
+                new MapSqlParameterSource("productId", productId), Integer.class);
+    }
+
+    /**
+     * Row-locks the first stripe of a product that holds at least the quantity and
+     * that no other transaction has locked. Never waits.
+     *
+     * @return the stripe index, or empty if every such stripe is locked or none holds enough
+     */
+    public Optional<Integer> lockFreeStripe(int productId, int quantity) {
+        return jdbcTemplate.queryForList(LOCK_FREE_STRIPE, new MapSqlParameterSource()
+                        .addValue("productId", productId)
+                        .addValue("quantity", quantity), Integer.class)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Takes stock from a single stripe if it holds enough.
+     *
+     * @return 1 when the stripe was decremented, 0 when it holds less than the quantity
+     */
+    public int decrementStripe(int productId, int stripeIndex, int quantity) {
+        return jdbcTemplate.update(DECREMENT_STRIPE, stripeParams(productId, stripeIndex, quantity));
+    }
+
+    /**
+     * Returns stock to a single stripe.
+     *
+     * @return 1 when the stripe exists, 0 otherwise
+     */
+    public int incrementStripe(int productId, int stripeIndex, int quantity) {
+        return jdbcTemplate.update(INCREMENT_STRIPE, stripeParams(productId, stripeIndex, quantity));
+    }
+
+    /**
+     * Overwrites the unallocated quantity and every stripe quantity of a product.
+     * Callers must hold the locks from {@link #lockUnallocatedStock} and {@link #lockStripes}.
+     *
+     * @param productId           the product ID
+     * @param unallocatedQuantity the quantity to leave on the inventory row
+     * @param stripeQuantities    the new quantity for each stripe, indexed by stripe index
+     */
+    public void redistribute(int productId, int unallocatedQuantity, int[] stripeQuantities) {
+        jdbcTemplate.update(SET_UNALLOCATED_STOCK, new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("quantity", unallocatedQuantity));
+        setStripes(productId, stripeQuantities);
+    }
+
+    /**
+     * Overwrites every stripe quantity of a product, leaving the inventory row alone.
+     * Callers must hold the locks from {@link #lockStripes}.
+     *
+     * @param productId        the product ID
+     * @param stripeQuantities the new quantity for each stripe, indexed by stripe index
+     */
+    public void setStripes(int productId, int[] stripeQuantities) {
+        SqlParameterSource[] batch = new SqlParameterSource[stripeQuantities.length];
+        for (int stripeIndex = 0; stripeIndex < stripeQuantities.length; stripeIndex++) {
+            batch[stripeIndex] = stripeParams(productId, stripeIndex, stripeQuantities[stripeIndex]);
+        }
+        jdbcTemplate.batchUpdate(SET_STRIPE, batch);
+    }
+
+    /**
+     * Applies guarded stock decrements as one JDBC batch.
+     *
+     * @param decrements map of product ID to quantity to remove
+     * @return affected row count per statement, in the map's iteration order
+     */
+    public int[] decrementStockBatch(Map<Integer, Integer> decrements) {
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, quantityParams(decrements));
+    }
+
+    /**
+     * Applies stock increments as one JDBC batch.
+     *
+     * @param increments map of product ID to quantity to add back
+     * @return affected row count per statement, in the map's iteration order
+     */
+    public int[] incrementStockBatch(Map<Integer, Integer> increments) {
+        return jdbcTemplate.batchUpdate(INCREMENT_STOCK, quantityParams(increments));
+    }
+
+    /**
+     * Overwrites stock quantities as one JDBC batch. Rows whose stock goes up are
+     * marked as restocked. Callers must hold the row locks.
+     *
+     * @param quantities map of product ID to new quantity in stock
+     * @return affected row count per statement, in the map's iteration order
+     */
+    public int[] setStockBatch(Map<Integer, Integer> quantities) {
+        return jdbcTemplate.batchUpdate(SET_STOCK, quantityParams(quantities));
+    }
+
+    /**
+     * Reads total stock for every journaled product, used to build the in-memory view.
+     *
+     * @return map of product ID to total quantity
+     */
+    public Map<Integer, Integer> findJournaledStock() {
+        Map<Integer, Integer> stockLevels = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_JOURNALED_STOCK, rs -> {
+            stockLevels.put(rs.getInt("product_id"), rs.getInt("quantity_in_stock"));
+        });
+        return stockLevels;
+    }
+
+    /**
+     * Appends stock movements as one JDBC batch. Inserts never contend on the inventory row.
+     *
+     * @param deltas       map of product ID to signed quantity change
+     * @param movementType the movement type recorded for every row
+     */
+    public void appendMovements(Map<Integer, Integer> deltas, String movementType) {
+        SqlParameterSource[] batch = deltas.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("productId", entry.getKey())
+                        .addValue("quantity", entry.getValue())
+                        .addValue("movementType", movementType))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT, batch);
+    }
+
+    /**
+     * Finds products whose journal has pending movements.
+     */
+    public List<Integer> findProductsWithPendingMovements() {
+        return jdbcTemplate.queryForList(SELECT_PRODUCTS_WITH_PENDING_MOVEMENTS, new MapSqlParameterSource(), Integer.class);
+    }
+
+    /**
+     * Reads the oldest pending movements of a product.
+     *
+     * @param productId the product ID
+     * @param limit     the maximum number of movements to return
+     * @return map of movement ID to delta, in movement order
+     */
+    public Map<Long, Integer> findPendingMovements(int productId, int limit) {
+        Map<Long, Integer> movements = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_PENDING_MOVEMENTS, new MapSqlParameterSource()
+                        .addValue("productId", productId)
+                        .addValue("limit", limit),
+                rs -> {
+                    movements.put(rs.getLong("movement_id"), rs.getInt("delta"));
+                });
+        return movements;
+    }
+
+    /**
+     * Deletes movements that were folded into the inventory snapshot.
+     *
+     * @param movementIds the exact movements that were summed; never a range, since
+     *                    movements can commit out of ID order
+     */
+    public int deleteMovements(Collection<Long> movementIds) {
+        return jdbcTemplate.update(DELETE_MOVEMENTS,
+                new MapSqlParameterSource("movementIds", List.copyOf(movementIds)));
+    }
+
+    private SqlParameterSource[] quantityParams(Map<Integer, Integer> quantitiesByProduct) {
+        return quantitiesByProduct.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("productId", entry.getKey())
+                        .addValue("quantity", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private MapSqlParameterSource stripeParams(int productId, int stripeIndex, int quantity) {
+        return new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("stripeIndex", stripeIndex)
+                .addValue("quantity", quantity);
+    }
+
+    private Map<Integer, Integer> queryStockLevels(String sql, Collection<Integer> productIds) {
+        Map<Integer, Integer> stockLevels = new LinkedHashMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return stockLevels;
+        }
+        jdbcTemplate.query(sql,
+                new MapSqlParameterSource("productIds", List.copyOf(productIds)),
+                rs -> {
+                    stockLevels.put(rs.getInt("product_id"), rs.getInt("quantity_in_stock"));
+                });
+        return stockLevels;
+    }
+}
@@ -2,7 +2,9 @@ package com.shopjoy.repository;
 
 import com.shopjoy.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,8 +14,36 @@ import java.util.Optional;
 public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
     Optional<Inventory> findByProductId(int productId);
     
-    @Query("SELECT i FROM Inventory i WHERE i.quantityInStock <= i.reorderLevel")
+    @Query("SELECT i FROM Inventory i WHERE i.quantityInStock + i.stripedQuantity + i.journalDelta <= i.reorderLevel")
     List<Inventory> findLowStock();
     
     List<Inventory> findByProductIdIn(List<Integer> productIds);
+
+    /**
+     * Atomically decrements stock only when enough is available.
+     * The row lock is held for the single statement, so no read-modify-write
+     * race is possible even at READ COMMITTED.
+     *
+     * @return number of rows updated (0 when stock is insufficient or inventory is missing)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET quantity_in_stock = quantity_in_stock - :quantity, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE product_id = :productId AND quantity_in_stock >= :quantity", nativeQuery = true)
+    int decrementStockIfAvailable(@Param("productId") int productId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically increments stock for a product.
+     *
+     * @return number of rows updated (0 when inventory is missing)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE inventory SET quantity_in_stock = quantity_in_stock + :quantity, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE product_id = :productId", nativeQuery = true)
+    int incrementStock(@Param("productId") int productId, @Param("quantity") int quantity);
+
+    @Query("SELECT i.quantityInStock FROM Inventory i WHERE i.product.id = :productId")
+    Optional<Integer> findQuantityByProductId(@Param("productId") int productId);
+
+    @Query("SELECT i.stripeCount FROM Inventory i WHERE i.product.id = :productId")
+    Optional<Integer> findStripeCountByProductId(@Param("productId") int productId);
 }
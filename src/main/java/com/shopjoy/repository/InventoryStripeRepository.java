@@ -0,0 +1,16 @@
+package com.shopjoy.repository;
+
+import com.shopjoy.entity.InventoryStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryStripeRepository extends JpaRepository<InventoryStripe, Integer> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM InventoryStripe s WHERE s.product.id = :productId")
+    int deleteByProductId(@Param("productId") int productId);
+}
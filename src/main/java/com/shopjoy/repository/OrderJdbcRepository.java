@@ -0,0 +1,117 @@
+package com.shopjoy.repository;
+
+import com.shopjoy.entity.Order;
+import com.shopjoy.entity.OrderItem;
+import com.shopjoy.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched inserts for order ingestion. IDENTITY keys stop Hibernate from batching
+ * these tables, so the rows are written here as JDBC batches instead.
+ */
+@Repository
+@AllArgsConstructor
+public class OrderJdbcRepository {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (user_id, order_date, total_amount, status, shipping_address, payment_method, " +
+            "payment_status, notes, created_at, updated_at) " +
+            "VALUES (:userId, :orderDate, :totalAmount, :status, :shippingAddress, :paymentMethod, " +
+            ":paymentStatus, :notes, :createdAt, :updatedAt)";
+
+    private static final String INSERT_ORDER_ITEM =
+            "INSERT INTO order_items (order_id, product_id, quantity, unit_price, subtotal, created_at) " +
+            "VALUES (:orderId, :productId, :quantity, :unitPrice, :subtotal, :createdAt)";
+
+    private static final String INSERT_STOCK_HOLD =
+            "INSERT INTO stock_reservations (order_id, product_id, quantity, status, expires_at, created_at, updated_at) " +
+            "VALUES (:orderId, :productId, :quantity, :status, :expiresAt, :createdAt, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts orders as one JDBC batch and assigns the generated IDs back to the entities.
+     *
+     * @param orders the orders to insert; each must reference a user
+     */
+    public void insertOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = orders.stream()
+                .map(order -> new MapSqlParameterSource()
+                        .addValue("userId", order.getUser().getId())
+                        .addValue("orderDate", order.getOrderDate())
+                        .addValue("totalAmount", order.getTotalAmount())
+                        .addValue("status", order.getStatus().name())
+                        .addValue("shippingAddress", order.getShippingAddress())
+                        .addValue("paymentMethod", order.getPaymentMethod())
+                        .addValue("paymentStatus", order.getPaymentStatus().name())
+                        .addValue("notes", order.getNotes())
+                        .addValue("createdAt", order.getCreatedAt())
+                        .addValue("updatedAt", order.getUpdatedAt()))
+                .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_ORDER, batch, keyHolder, new String[]{"order_id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(((Number) keys.get(i).values().iterator().next()).intValue());
+        }
+    }
+
+    /**
+     * Inserts order items as one JDBC batch. The owning orders must already have IDs.
+     *
+     * @param items the order items to insert
+     */
+    public void insertOrderItems(List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("orderId", item.getOrder().getId())
+                        .addValue("productId", item.getProduct().getId())
+                        .addValue("quantity", item.getQuantity())
+                        .addValue("unitPrice", item.getUnitPrice())
+                        .addValue("subtotal", item.getSubtotal())
+                        .addValue("createdAt", item.getCreatedAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, batch);
+    }
+
+    /**
+     * Inserts HELD stock reservations for several orders as one JDBC batch.
+     *
+     * @param quantitiesByOrder map of order ID to (product ID to held quantity)
+     * @param expiresAt         when the holds expire
+     */
+    public void insertStockHolds(Map<Integer, Map<Integer, Integer>> quantitiesByOrder, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = quantitiesByOrder.entrySet().stream()
+                .flatMap(order -> order.getValue().entrySet().stream()
+                        .map(product -> new MapSqlParameterSource()
+                                .addValue("orderId", order.getKey())
+                                .addValue("productId", product.getKey())
+                                .addValue("quantity", product.getValue())
+                                .addValue("status", ReservationStatus.HELD.name())
+                                .addValue("expiresAt", expiresAt)
+                                .addValue("createdAt", now)))
+                .toArray(SqlParameterSource[]::new);
+        if (batch.length > 0) {
+            jdbcTemplate.batchUpdate(INSERT_STOCK_HOLD, batch);
+        }
+    }
+}
@@ -2,19 +2,31 @@ package com.shopjoy.repository;
 
 import com.shopjoy.entity.Order;
 import com.shopjoy.entity.OrderStatus;
+import com.shopjoy.entity.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpecificationExecutor<Order> {
+    /**
+     * Same as {@code findAll(Pageable)} without the count query.
+     */
+    @Query("SELECT o FROM Order o")
+    Slice<Order> findSlice(Pageable pageable);
+
     List<Order> findByUserId(int userId);
     Page<Order> findByUserId(int userId, Pageable pageable);
     
@@ -25,6 +37,19 @@ public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpeci
 
     Page<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :orderIds ORDER BY o.id")
+    List<Order> findByIdInForUpdate(@Param("orderIds") Collection<Integer> orderIds);
+
     @Query("SELECT o.user.id FROM Order o WHERE o.id = :orderId")
     Integer findUserIdByOrderId(@Param("orderId") Integer orderId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.updatedAt = :now " +
+           "WHERE o.id IN :orderIds AND o.status = :currentStatus AND o.paymentStatus = :paymentStatus")
+    int updateStatusWhere(@Param("orderIds") Collection<Integer> orderIds,
+                          @Param("currentStatus") OrderStatus currentStatus,
+                          @Param("paymentStatus") PaymentStatus paymentStatus,
+                          @Param("newStatus") OrderStatus newStatus,
+                          @Param("now") LocalDateTime now);
 }
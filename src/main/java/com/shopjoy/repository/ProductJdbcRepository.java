@@ -0,0 +1,310 @@
+package com.shopjoy.repository;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-only product queries that bypass the persistence context: catalog
+ * scans that build in-memory structures without materialising one entity
+ * per product, facet counts, keyset pagination, row estimates, and
+ * PostgreSQL full-text search returning product IDs.
+ */
+@Repository
+@AllArgsConstructor
+public class ProductJdbcRepository {
+
+    private static final String SELECT_SEARCH_DOCUMENTS =
+            "SELECT product_id, product_name, description, brand, category_id, price, is_active, created_at " +
+            "FROM products ORDER BY product_id";
+
+    private static final String FULL_TEXT_QUERY = "websearch_to_tsquery('english', :text)";
+    private static final String FULL_TEXT_RANK = "ts_rank(p.search_vector, " + FULL_TEXT_QUERY + ")";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.product_id",
+            "productName", "p.product_name",
+            "price", "p.price",
+            "createdAt", "p.created_at");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowEstimateRepository rowEstimates;
+
+    /**
+     * The product fields the search index reads.
+     */
+    public record SearchDocument(int productId, String productName, String description, String brand,
+                                 Integer categoryId, double price, boolean active, long createdAtMillis) {
+    }
+
+    /**
+     * The number of products sharing one combination of facet values.
+     */
+    public record FacetCount(Integer categoryId, String brand, boolean active, int priceBucket, long products) {
+    }
+
+    /**
+     * Streams every product in ascending ID order without holding the result in memory.
+     *
+     * @param consumer receives one document per product
+     */
+    public void forEachSearchDocument(Consumer<SearchDocument> consumer) {
+        jdbcTemplate.query(SELECT_SEARCH_DOCUMENTS, new MapSqlParameterSource(),
+                (RowCallbackHandler) rs -> consumer.accept(toSearchDocument(rs)));
+    }
+
+    /**
+     * Finds the IDs of all products matching the text in the generated
+     * {@code search_vector} column (name, brand and description), best match first.
+     * Requires PostgreSQL and docs/product_search_migration.sql.
+     */
+    public List<Integer> searchFullText(String text) {
+        MapSqlParameterSource params = new MapSqlParameterSource("text", text);
+        return jdbcTemplate.queryForList("SELECT p.product_id FROM products p WHERE " + fullTextWhere(null, params)
+                + " ORDER BY " + fullTextOrder(Sort.unsorted()), params, Integer.class);
+    }
+
+    /**
+     * Finds one page of the IDs of products matching the text and the other
+     * conditions of the filter, as {@code findWithFilters} applies them.
+     * Unsorted pages, and pages sorted by "relevance", are ordered by {@code ts_rank}.
+     *
+     * @param filter further conditions; its search term is ignored, may be null
+     */
+    public Page<Integer> searchFullText(String text, ProductFilter filter, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("text", text);
+        String where = fullTextWhere(filter, params);
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM products p WHERE " + where, params, Long.class);
+        params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        List<Integer> productIds = jdbcTemplate.queryForList("SELECT p.product_id FROM products p WHERE " + where
+                + " ORDER BY " + fullTextOrder(pageable.getSort()) + " LIMIT :limit OFFSET :offset", params, Integer.class);
+        return new PageImpl<>(productIds, pageable, total != null ? total : 0);
+    }
+
+    /**
+     * @return the plan of the first page of an unfiltered full-text search,
+     * for checking that the GIN index on {@code search_vector} serves it
+     */
+    public String explainFullTextSearch(String text) {
+        MapSqlParameterSource params = new MapSqlParameterSource("text", text).addValue("limit", 20);
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT p.product_id FROM products p WHERE "
+                + fullTextWhere(null, params) + " ORDER BY " + fullTextOrder(Sort.unsorted()) + " LIMIT :limit",
+                params, String.class);
+        return String.join("\n", plan);
+    }
+
+    /**
+     * @return true if full-text results can be ordered by the given sort
+     */
+    public static boolean isFullTextSortable(Sort sort) {
+        return sort.stream().allMatch(order -> "relevance".equals(order.getProperty())
+                || SORT_COLUMNS.containsKey(order.getProperty()));
+    }
+
+    /**
+     * Counts the products matching the filter, grouped by every facet at once:
+     * category, brand, active flag and price bucket. Summing the rows over the
+     * other columns gives each facet's counts. Stock is not read, so the counts
+     * only change with product writes.
+     *
+     * @param filter      conditions as {@code findWithFilters} applies them; its search term is ignored
+     * @param productIds  restricts the count to these products, may be null
+     * @param priceBounds ascending upper bounds of all price buckets but the last, which is open
+     */
+    public List<FacetCount> countFacets(ProductFilter filter, Collection<Integer> productIds,
+                                        List<BigDecimal> priceBounds) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder bucket = new StringBuilder("CASE");
+        for (int i = 0; i < priceBounds.size(); i++) {
+            bucket.append(" WHEN p.price < :bound").append(i).append(" THEN ").append(i);
+            params.addValue("bound" + i, priceBounds.get(i));
+        }
+        bucket.append(" ELSE ").append(priceBounds.size()).append(" END");
+        StringBuilder where = new StringBuilder("1 = 1");
+        appendFilter(where, filter, params);
+        if (productIds != null) {
+            where.append(" AND p.product_id IN (:productIds)");
+            params.addValue("productIds", productIds);
+        }
+        String sql = "SELECT f.category_id, f.brand, f.is_active, f.price_bucket, count(*) AS products " +
+                "FROM (SELECT p.category_id, p.brand, p.is_active, " + bucket + " AS price_bucket " +
+                "FROM products p WHERE " + where + ") f " +
+                "GROUP BY f.category_id, f.brand, f.is_active, f.price_bucket";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new FacetCount(
+                rs.getObject("category_id", Integer.class),
+                rs.getString("brand"),
+                rs.getBoolean("is_active"),
+                rs.getInt("price_bucket"),
+                rs.getLong("products")));
+    }
+
+    /**
+     * Finds the IDs of all products matching the filter, in ascending order.
+     *
+     * @param filter     conditions as {@code findWithFilters} applies them; its search term is ignored
+     * @param productIds restricts the result to these products, may be null
+     */
+    public int[] findMatchingIds(ProductFilter filter, Collection<Integer> productIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder("1 = 1");
+        appendFilter(where, filter, params);
+        if (productIds != null) {
+            where.append(" AND p.product_id IN (:productIds)");
+            params.addValue("productIds", productIds);
+        }
+        return jdbcTemplate.queryForList("SELECT p.product_id FROM products p WHERE " + where
+                + " ORDER BY p.product_id", params, Integer.class).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Finds the IDs of the products matching the filter that follow the cursor,
+     * seeking with {@code (sort column, product_id) > (value, id)} instead of
+     * skipping an offset, so that deep positions cost the same as the first page.
+     * No count is run. Products without a creation time are left out of
+     * createdAt orders, which cannot place them.
+     *
+     * @param filter   conditions as {@code findWithFilters} applies them, including the search term
+     * @param fullText whether the search term is matched against {@code search_vector} rather than with LIKE
+     * @param cursor   the order and the position to continue after
+     * @param limit    the maximum number of IDs
+     */
+    public List<Integer> seekIds(ProductFilter filter, boolean fullText, ProductCursor cursor, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        StringBuilder where = new StringBuilder("1 = 1");
+        String searchTerm = filter != null ? filter.getSearchTerm() : null;
+        if (searchTerm != null && !searchTerm.isBlank()) {
+            if (fullText) {
+                where.append(" AND p.search_vector @@ ").append(FULL_TEXT_QUERY);
+                params.addValue("text", searchTerm);
+            } else {
+                where.append(" AND (lower(p.product_name) LIKE :pattern OR lower(p.description) LIKE :pattern)");
+                params.addValue("pattern", "%" + searchTerm.toLowerCase(Locale.ROOT) + "%");
+            }
+        }
+        appendFilter(where, filter, params);
+
+        String column = SORT_COLUMNS.get(cursor.sortBy());
+        String direction = cursor.direction().isDescending() ? " DESC" : " ASC";
+        String comparison = cursor.direction().isDescending() ? " < " : " > ";
+        if ("createdAt".equals(cursor.sortBy())) {
+            where.append(" AND p.created_at IS NOT NULL");
+        }
+        if (!cursor.isFirst()) {
+            params.addValue("afterId", cursor.productId());
+            if ("id".equals(cursor.sortBy())) {
+                where.append(" AND p.product_id").append(comparison).append(":afterId");
+            } else {
+                where.append(" AND (").append(column).append(", p.product_id)").append(comparison)
+                        .append("(:afterValue, :afterId)");
+                params.addValue("afterValue", cursor.typedValue());
+            }
+        }
+        String order = "id".equals(cursor.sortBy())
+                ? "p.product_id" + direction
+                : column + direction + ", p.product_id" + direction;
+        return jdbcTemplate.queryForList("SELECT p.product_id FROM products p WHERE " + where
+                + " ORDER BY " + order + " LIMIT :limit", params, Integer.class);
+    }
+
+    /**
+     * Estimates how many products match the filter without counting them:
+     * the table's row estimate when no condition is set, else the planner's.
+     *
+     * @param filter conditions as {@code findWithFilters} applies them; its search term is ignored
+     * @return the estimate, or null if the database has none
+     */
+    public Long estimateMatches(ProductFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder("1 = 1");
+        appendFilter(where, filter, params);
+        if (params.getParameterNames().length == 0) {
+            return rowEstimates.tableRows("products");
+        }
+        return rowEstimates.plannedRows("SELECT p.product_id FROM products p WHERE " + where, params);
+    }
+
+    private static String fullTextWhere(ProductFilter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder("p.search_vector @@ ").append(FULL_TEXT_QUERY);
+        appendFilter(where, filter, params);
+        return where.toString();
+    }
+
+    private static void appendFilter(StringBuilder where, ProductFilter filter, MapSqlParameterSource params) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getCategoryId() != null) {
+            where.append(" AND p.category_id = :categoryId");
+            params.addValue("categoryId", filter.getCategoryId());
+        }
+        if (filter.getMinPrice() != null) {
+            where.append(" AND p.price >= :minPrice");
+            params.addValue("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            where.append(" AND p.price <= :maxPrice");
+            params.addValue("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.getBrand() != null) {
+            where.append(" AND p.brand = :brand");
+            params.addValue("brand", filter.getBrand());
+        }
+        if (filter.getActive() != null) {
+            where.append(" AND p.is_active = :active");
+            params.addValue("active", filter.getActive());
+        }
+    }
+
+    private static String fullTextOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return FULL_TEXT_RANK + " DESC, p.product_id";
+        }
+        StringBuilder order = new StringBuilder();
+        for (Sort.Order sortOrder : sort) {
+            if (!order.isEmpty()) {
+                order.append(", ");
+            }
+            if ("relevance".equals(sortOrder.getProperty())) {
+                order.append(FULL_TEXT_RANK).append(" DESC");
+                continue;
+            }
+            String column = SORT_COLUMNS.get(sortOrder.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + sortOrder.getProperty());
+            }
+            order.append(column).append(sortOrder.isDescending() ? " DESC" : " ASC");
+        }
+        return order.append(", p.product_id").toString();
+    }
+
+    private static SearchDocument toSearchDocument(ResultSet rs) throws SQLException {
+        Integer categoryId = rs.getObject("category_id", Integer.class);
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new SearchDocument(
+                rs.getInt("product_id"),
+                rs.getString("product_name"),
+                rs.getString("description"),
+                rs.getString("brand"),
+                categoryId,
+                rs.getBigDecimal("price").doubleValue(),
+                rs.getBoolean("is_active"),
+                createdAt != null ? createdAt.getTime() : 0L);
+    }
+}
@@ -3,6 +3,7 @@ package com.shopjoy.repository;
 import com.shopjoy.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -11,11 +12,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
 
+    /** IDs per IN list, well below the bind parameter limits of the supported databases. */
+    int ID_BATCH_SIZE = 1000;
+
+    /** The conditions of {@link #findWithFilters}, shared by its slice and count variants. */
+    String FILTER_PREDICATE =
+           "(COALESCE(:searchTerm, '') = '' OR LOWER(p.productName) LIKE LOWER(CONCAT('%', COALESCE(:searchTerm, ''), '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', COALESCE(:searchTerm, ''), '%'))) AND " +
+           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:brand IS NULL OR p.brand = :brand) AND " +
+           "(:active IS NULL OR p.active = :active)";
+
     /**
      * Find all products with inventory eagerly loaded using EntityGraph.
      * This avoids N+1 queries when accessing inventory data.
@@ -35,6 +52,43 @@ public interface ProductRepository extends JpaRepository<Product, Integer>, JpaS
     @EntityGraph(value = "Product.withInventoryAndCategory", type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT p FROM Product p")
     Page<Product> findAllWithInventory(Pageable pageable);
+
+    /**
+     * Same as {@link #findAllWithInventory(Pageable)} without the count query:
+     * fetches one extra row to tell whether another page follows.
+     *
+     * @param pageable pagination information
+     * @return slice of products with inventory pre-loaded
+     */
+    @EntityGraph(value = "Product.withInventoryAndCategory", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("SELECT p FROM Product p")
+    Slice<Product> findSliceWithInventory(Pageable pageable);
+
+    /**
+     * Find the given products with inventory and category eagerly loaded.
+     *
+     * @param ids product IDs
+     * @return the products found, in no particular order
+     */
+    @EntityGraph(value = "Product.withInventoryAndCategory", type = EntityGraph.EntityGraphType.LOAD)
+    List<Product> findAllWithInventoryByIdIn(Collection<Integer> ids);
+
+    /**
+     * Find the given products with inventory and category eagerly loaded, in
+     * the order of the IDs. IDs of products that no longer exist are skipped.
+     *
+     * @param ids product IDs, such as search results in ranked order
+     * @return the products found, in the given order
+     */
+    default List<Product> findAllWithInventoryInOrder(List<Integer> ids) {
+        Map<Integer, Product> products = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            findAllWithInventoryByIdIn(ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size())))
+                    .forEach(product -> products.put(product.getId(), product));
+        }
+        return ids.stream().map(products::get).filter(Objects::nonNull).toList();
+    }
+
     List<Product> findByCategoryId(Integer categoryId);
 
     List<Product> findByCategoryIdIn(List<Integer> categoryIds);
@@ -50,17 +104,16 @@ public interface ProductRepository extends JpaRepository<Product, Integer>, JpaS
             select p from Product p
             where upper(p.productName) like upper(concat('%', ?1, '%')) or upper(p.description) like upper(concat('%', ?2, '%'))""")
     Page<Product> findByProductCategory(String productName, String description, Pageable pageable);
+
+    @Query("""
+            select p.id from Product p
+            where lower(p.productName) like lower(concat('%', ?1, '%')) or lower(p.description) like lower(concat('%', ?1, '%'))""")
+    List<Integer> findIdsByText(String text);
     
     @Query("SELECT p FROM Product p WHERE p.active = true ORDER BY p.createdAt DESC")
     List<Product> findRecentlyAdded(Pageable pageable);
     
-    @Query("SELECT p FROM Product p WHERE " +
-           "(COALESCE(:searchTerm, '') = '' OR LOWER(p.productName) LIKE LOWER(CONCAT('%', COALESCE(:searchTerm, ''), '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', COALESCE(:searchTerm, ''), '%'))) AND " +
-           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "(:brand IS NULL OR p.brand = :brand) AND " +
-           "(:active IS NULL OR p.active = :active)")
+    @Query("SELECT p FROM Product p WHERE " + FILTER_PREDICATE)
     Page<Product> findWithFilters(
             @Param("searchTerm") String searchTerm,
             @Param("categoryId") Integer categoryId,
@@ -70,4 +123,23 @@ public interface ProductRepository extends JpaRepository<Product, Integer>, JpaS
             @Param("active") Boolean active,
             Pageable pageable);
 
+    @Query("SELECT p FROM Product p WHERE " + FILTER_PREDICATE)
+    Slice<Product> findSliceWithFilters(
+            @Param("searchTerm") String searchTerm,
+            @Param("categoryId") Integer categoryId,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("brand") String brand,
+            @Param("active") Boolean active,
+            Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE " + FILTER_PREDICATE)
+    long countWithFilters(
+            @Param("searchTerm") String searchTerm,
+            @Param("categoryId") Integer categoryId,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("brand") String brand,
+            @Param("active") Boolean active);
+
 }
@@ -0,0 +1,74 @@
+package com.shopjoy.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row counts as the PostgreSQL planner estimates them, for totals that do not
+ * need to be exact: {@code pg_class.reltuples}, kept up to date by autovacuum
+ * and ANALYZE, for whole tables, and the planner's row estimate for filtered
+ * queries. Both cost a catalog lookup rather than a scan. Other databases
+ * have no estimates; every method then returns null.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RowEstimateRepository {
+
+    private static final String SELECT_TABLE_ROWS =
+            "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(:table)";
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * @param table table name, a constant of the caller
+     * @return the estimated number of rows, or null if the table was never analyzed
+     */
+    public Long tableRows(String table) {
+        if (!isPostgres()) {
+            return null;
+        }
+        List<Long> rows = jdbcTemplate.queryForList(SELECT_TABLE_ROWS, new MapSqlParameterSource("table", table),
+                Long.class);
+        // reltuples is -1 until the table is first vacuumed or analyzed
+        return rows.isEmpty() || rows.get(0) == null || rows.get(0) < 0 ? null : rows.get(0);
+    }
+
+    /**
+     * @param select a SELECT statement, built by the caller
+     * @return the number of rows the planner expects it to return
+     */
+    public Long plannedRows(String select, MapSqlParameterSource params) {
+        if (!isPostgres()) {
+            return null;
+        }
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + select, params, String.class);
+        if (plan.isEmpty()) {
+            return null;
+        }
+        // The first line is the top plan node, whose estimate covers the whole statement
+        Matcher matcher = PLAN_ROWS.matcher(plan.get(0));
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
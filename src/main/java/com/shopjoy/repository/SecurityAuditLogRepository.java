@@ -4,6 +4,7 @@ import com.shopjoy.entity.SecurityAuditLog;
 import com.shopjoy.entity.SecurityEventType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,6 +29,27 @@ public interface SecurityAuditLogRepository extends JpaRepository<SecurityAuditL
 
     Page<SecurityAuditLog> findByUsernameAndEventType(String username, SecurityEventType eventType, Pageable pageable);
 
+    // Slice variants fetch one extra row instead of running a count; the counts are run separately when needed
+
+    @Query("SELECT s FROM SecurityAuditLog s")
+    Slice<SecurityAuditLog> findSlice(Pageable pageable);
+
+    Slice<SecurityAuditLog> findSliceByUsername(String username, Pageable pageable);
+
+    Slice<SecurityAuditLog> findSliceByEventType(SecurityEventType eventType, Pageable pageable);
+
+    Slice<SecurityAuditLog> findSliceByTimestampBetween(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
+
+    Slice<SecurityAuditLog> findSliceByUsernameAndEventType(String username, SecurityEventType eventType, Pageable pageable);
+
+    long countByUsername(String username);
+
+    long countByEventType(SecurityEventType eventType);
+
+    long countByTimestampBetween(LocalDateTime startTime, LocalDateTime endTime);
+
+    long countByUsernameAndEventType(String username, SecurityEventType eventType);
+
 
     @Query("SELECT s FROM SecurityAuditLog s WHERE s.username = :username AND s.eventType = :eventType AND s.timestamp >= :since ORDER BY s.timestamp DESC")
     List<SecurityAuditLog> findRecentFailedAttempts(@Param("username") String username,
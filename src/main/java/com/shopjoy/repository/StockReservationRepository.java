@@ -0,0 +1,45 @@
+package com.shopjoy.repository;
+
+import com.shopjoy.entity.ReservationStatus;
+import com.shopjoy.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Integer> {
+
+    boolean existsByOrderId(int orderId);
+
+    boolean existsByOrderIdAndStatus(int orderId, ReservationStatus status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to, r.updatedAt = :now WHERE r.order.id = :orderId AND r.status = :from")
+    int transitionByOrderId(@Param("orderId") int orderId,
+                            @Param("from") ReservationStatus from,
+                            @Param("to") ReservationStatus to,
+                            @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.order.id = :orderId ORDER BY r.product.id")
+    List<StockReservation> findByOrderIdForUpdate(@Param("orderId") int orderId);
+
+    @Query("SELECT DISTINCT r.order.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now")
+    List<Integer> findOrderIdsWithExpiredHolds(@Param("status") ReservationStatus status,
+                                               @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.order.id IN :orderIds AND r.status = :status ORDER BY r.product.id")
+    List<StockReservation> findByOrderIdInAndStatusForUpdate(@Param("orderIds") Collection<Integer> orderIds,
+                                                            @Param("status") ReservationStatus status);
+}
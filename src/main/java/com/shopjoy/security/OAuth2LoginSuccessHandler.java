@@ -7,6 +7,7 @@ import com.shopjoy.repository.UserRepository;
 import com.shopjoy.service.RefreshTokenService;
 import com.shopjoy.service.SecurityAuditService;
 import com.shopjoy.util.JwtUtil;
+import com.shopjoy.util.NegativeLookupCache;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -37,6 +38,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
     private final JwtUtil jwtUtil;
     private final SecurityAuditService securityAuditService;
     private final RefreshTokenService refreshTokenService;
+    private final NegativeLookupCache negativeLookupCache;
 
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
@@ -174,6 +176,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
                 .build();
         
         User savedUser = userRepository.save(newUser);
+        negativeLookupCache.forget("userProfile", savedUser.getId());
         log.info("Created new OAuth2 user: {} (ID: {})", savedUser.getUsername(), savedUser.getId());
         
         return savedUser;
@@ -0,0 +1,36 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.request.CreateOrderRequest;
+import com.shopjoy.dto.response.OrderResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Service interface for Idempotency-Key handling on order creation.
+ * Keys live in an in-memory tier for duplicates that arrive while the first
+ * request is still running, and in a database tier that survives restarts.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Creates an order at most once per key.
+     * A repeated key with the same request returns the original order, or the
+     * in-flight future if the first request has not finished yet. A failed
+     * attempt releases the key so the client can retry.
+     *
+     * @param idempotencyKey the client-supplied key
+     * @param request        the order request, used to detect a key reused for a different order
+     * @param createOrder    starts order creation; only invoked for the first request with the key
+     * @return future completed with the order created for this key
+     */
+    CompletableFuture<OrderResponse> createOrderOnce(String idempotencyKey, CreateOrderRequest request,
+                                                     Supplier<CompletableFuture<OrderResponse>> createOrder);
+
+    /**
+     * Deletes stored keys past their retention period.
+     *
+     * @return the number of keys deleted
+     */
+    int purgeExpiredKeys();
+}
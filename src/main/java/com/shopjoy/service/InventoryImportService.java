@@ -0,0 +1,39 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.response.InventoryImportResponse;
+import com.shopjoy.exception.BusinessException;
+import com.shopjoy.exception.ValidationException;
+
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk inventory imports from warehouse syncs.
+ * Files are read incrementally and applied in fixed-size chunks, so memory
+ * use does not grow with the file.
+ */
+public interface InventoryImportService {
+
+    /**
+     * Supported import formats.
+     */
+    enum Format {
+        /** Comma-separated rows with a header naming productId and quantity and/or delta. */
+        CSV,
+        /** One JSON object per line with productId and either quantity or delta. */
+        NDJSON
+    }
+
+    /**
+     * Streams stock rows and applies them chunk by chunk. Each row either sets
+     * the absolute quantity in stock or applies a signed delta. Every chunk is
+     * its own transaction, so rows in earlier chunks stay applied if a later
+     * chunk fails.
+     *
+     * @param input the import body
+     * @param format the body format
+     * @return row counts and per-row failures
+     * @throws ValidationException if the CSV header is missing required columns
+     * @throws BusinessException if the body cannot be read
+     */
+    InventoryImportResponse importStock(InputStream input, Format format);
+}
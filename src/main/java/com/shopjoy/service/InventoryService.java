@@ -1,11 +1,14 @@
 package com.shopjoy.service;
 
 import com.shopjoy.dto.response.InventoryResponse;
+import com.shopjoy.exception.BatchOperationException;
 import com.shopjoy.exception.DuplicateResourceException;
 import com.shopjoy.exception.ResourceNotFoundException;
 import com.shopjoy.exception.ValidationException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for Inventory management operations.
@@ -88,7 +91,8 @@ public interface InventoryService {
     
     /**
      * Reserves stock for an order (decreases available quantity).
-     * Used during order creation to ensure atomicity.
+     * Used during order creation to ensure atomicity. The decrement is applied
+     * with a single conditional UPDATE, so it is safe at READ COMMITTED.
      * 
      * @param productId the product ID
      * @param quantity the quantity to reserve
@@ -96,6 +100,67 @@ public interface InventoryService {
      * @throws InsufficientStockException if not enough stock available
      */
     void reserveStock(Integer productId, int quantity);
+
+    /**
+     * Reserves stock for several products at once (decreases available quantity).
+     * Rows are locked in ascending product ID order so concurrent batches cannot
+     * deadlock, and all decrements are applied in a single JDBC batch.
+     * Either every line is reserved or none is.
+     *
+     * @param quantitiesByProduct map of product ID to quantity to reserve
+     * @throws ResourceNotFoundException if inventory not found for any product
+     * @throws InsufficientStockException if any product lacks enough stock
+     * @throws ValidationException if any quantity is not positive
+     */
+    void reserveStockBatch(Map<Integer, Integer> quantitiesByProduct);
+
+    /**
+     * Enables, resizes or disables striped stock for a hot product.
+     * Striped stock is split across several bucket rows so concurrent
+     * reservations do not all wait on the same row lock. Reported stock
+     * quantities are always the sum across buckets.
+     *
+     * @param productId the product ID
+     * @param stripeCount the number of stripes; 0 or 1 disables striping
+     * @return the updated inventory response
+     * @throws ResourceNotFoundException if inventory not found
+     * @throws ValidationException if stripe count is out of range
+     */
+    InventoryResponse configureStriping(Integer productId, int stripeCount);
+
+    /**
+     * Enables or disables the append-only stock journal for a hot product.
+     * Journaled stock changes are inserted as movements instead of updating the
+     * inventory row, and a background job compacts them into the row. Reported
+     * stock quantities always include uncompacted movements.
+     *
+     * @param productId the product ID
+     * @param enabled whether the product should be journaled
+     * @return the updated inventory response
+     * @throws ResourceNotFoundException if inventory not found
+     */
+    InventoryResponse configureJournal(Integer productId, boolean enabled);
+
+    /**
+     * Reads current stock for multiple products in a single query.
+     *
+     * @param productIds the product IDs
+     * @return map of product ID to quantity in stock; products without inventory are absent
+     */
+    Map<Integer, Integer> getAvailableStock(Collection<Integer> productIds);
+
+    /**
+     * Row-locks the inventory rows that {@link #reserveStockBatch} locks for the given
+     * products, in product ID order, and reads the stock of the plain ones. Striped
+     * products are not locked and journaled ones are not read: their stock is checked
+     * when it is reserved. Must be called inside a transaction; the rows stay locked
+     * until it ends, so reservations made in it see no concurrent writers.
+     *
+     * @param productIds the product IDs
+     * @return map of product ID to quantity in stock for products that are neither
+     *         striped nor journaled; other products and products without inventory are absent
+     */
+    Map<Integer, Integer> lockAvailableStock(Collection<Integer> productIds);
     
     /**
      * Releases reserved stock (increases available quantity).
@@ -107,6 +172,15 @@ public interface InventoryService {
      */
     void releaseStock(Integer productId, int quantity);
     
+    /**
+     * Releases stock for several products at once (increases available quantity).
+     * Used when orders are cancelled or their stock holds expire.
+     *
+     * @param quantitiesByProduct map of product ID to quantity to release
+     * @throws ResourceNotFoundException if inventory not found for any product
+     */
+    void releaseStockBatch(Map<Integer, Integer> quantitiesByProduct);
+    
     /**
      * Retrieves all products with low stock (at or below reorder level).
      * 
@@ -141,9 +215,23 @@ public interface InventoryService {
     List<InventoryResponse> getInventoryByProducts(List<Integer> productIds);
 
     /**
-     * Updates stock for multiple products in a batch using parallel processing.
-     * 
+     * Updates stock for multiple products in a batch.
+     * Rows are locked in product ID order and written with one JDBC batch.
+     * Lines that succeed are kept even when others fail.
+     *
      * @param inventoryUpdates map of product ID to quantity change (positive to add, negative to remove)
+     * @throws BatchOperationException if any line failed, keyed by product ID
      */
     void updateStockBatch(java.util.Map<Integer, Integer> inventoryUpdates);
+
+    /**
+     * Applies one chunk of stock changes in a single transaction.
+     * A product appears in at most one of the two maps. Failing products are
+     * reported rather than thrown, so the rest of the chunk is still applied.
+     *
+     * @param quantities map of product ID to absolute quantity in stock
+     * @param deltas map of product ID to quantity change
+     * @return failures keyed by product ID; empty when every product was applied
+     */
+    Map<Integer, RuntimeException> applyStockChanges(Map<Integer, Integer> quantities, Map<Integer, Integer> deltas);
 }
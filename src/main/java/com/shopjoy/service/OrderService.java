@@ -1,12 +1,13 @@
 package com.shopjoy.service;
 
+import com.shopjoy.dto.filter.CountMode;
 import com.shopjoy.dto.filter.OrderFilter;
 import com.shopjoy.dto.request.CreateOrderRequest;
 import com.shopjoy.dto.request.UpdateOrderRequest;
 import com.shopjoy.dto.response.OrderResponse;
 import com.shopjoy.entity.OrderStatus;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -18,7 +19,7 @@ public interface OrderService {
 
     OrderResponse getOrderById(Integer orderId);
 
-    Page<OrderResponse> getOrders(Integer userId, OrderFilter filter, Pageable pageable);
+    Slice<OrderResponse> getOrders(Integer userId, OrderFilter filter, Pageable pageable, CountMode count);
 
     OrderResponse updateOrder(Integer orderId, UpdateOrderRequest request);
 
@@ -0,0 +1,78 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Text search over products, used by {@link ProductService} for name search,
+ * paginated search and the search term of filtered listings. The backend is
+ * chosen with {@code app.search.backend}: "index" (in-memory inverted index),
+ * "postgres" (full-text search over a tsvector column) or "like" (LIKE queries).
+ */
+public interface ProductSearchBackend {
+
+    /**
+     * Finds products whose name matches the keyword.
+     *
+     * @param keyword the search keyword
+     * @return matching products, best match first where the backend ranks results
+     */
+    List<Product> searchByName(String keyword);
+
+    /**
+     * Finds one page of products whose name or description matches the text.
+     *
+     * @param text     the search text
+     * @param pageable the page; unsorted pages are ordered by relevance where the backend ranks results
+     * @return the page of matching products
+     */
+    Page<Product> search(String text, Pageable pageable);
+
+    /**
+     * Finds one page of products matching the filter, whose search term must be set.
+     * Pages sorted by "relevance" are ordered best match first where the backend ranks results.
+     *
+     * @param filter   the filter
+     * @param pageable the page and sort
+     * @return the page of matching products
+     */
+    Page<Product> searchWithFilters(ProductFilter filter, Pageable pageable);
+
+    /**
+     * Finds the IDs of all products whose name or description matches the text,
+     * as {@link #searchWithFilters} matches its search term, in no particular order.
+     *
+     * @param text the search text
+     * @return the matching product IDs
+     */
+    List<Integer> searchIds(String text);
+
+    /**
+     * Finds the IDs of products matching the filter, whose search term must be
+     * set, that follow the cursor in its order, without counting all matches.
+     *
+     * @param filter the filter
+     * @param cursor the order and the position to continue after
+     * @param limit  the maximum number of IDs
+     * @return the matching product IDs in cursor order
+     */
+    List<Integer> searchIdsAfter(ProductFilter filter, ProductCursor cursor, int limit);
+
+    /**
+     * Called when a product is created or updated, inside the writing
+     * transaction, so backends that keep their own structures can follow it.
+     */
+    default void productSaved(Product product) {
+    }
+
+    /**
+     * Called when a product is deleted, inside the deleting transaction.
+     */
+    default void productDeleted(Integer productId) {
+    }
+}
@@ -1,11 +1,16 @@
 package com.shopjoy.service;
 
+import com.shopjoy.dto.filter.CountMode;
+import com.shopjoy.dto.filter.ProductCursor;
 import com.shopjoy.dto.filter.ProductFilter;
 import com.shopjoy.dto.request.CreateProductRequest;
 import com.shopjoy.dto.request.UpdateProductRequest;
+import com.shopjoy.dto.response.CursorPageResponse;
+import com.shopjoy.dto.response.ProductFacetsResponse;
 import com.shopjoy.dto.response.ProductResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -149,9 +154,11 @@ public interface ProductService {
      * @param pageable      the pageable
      * @param sortBy        the sort by
      * @param sortDirection the sort direction
-     * @return the products paginated
+     * @param count         how the total is obtained
+     * @return the products paginated; a {@code Page} unless count is {@link CountMode#NONE}
      */
-    Page<ProductResponse> getProductsPaginated(Pageable pageable, String sortBy, String sortDirection);
+    Slice<ProductResponse> getProductsPaginated(Pageable pageable, String sortBy, String sortDirection,
+            CountMode count);
 
     /**
      * Search products paginated page.
@@ -174,5 +181,40 @@ public interface ProductService {
     Page<ProductResponse> getProductsWithFilters(ProductFilter filter, Pageable pageable, String sortBy,
             String sortDirection);
 
+    /**
+     * Gets products with filters, obtaining the total as the count mode says.
+     * Pages are not cached; {@link CountMode#EXACT} callers should use the cached
+     * overload. Search term filters keep the exact total of the search backend.
+     *
+     * @param filter        the filter
+     * @param pageable      the pageable
+     * @param sortBy        the sort by
+     * @param sortDirection the sort direction
+     * @param count         how the total is obtained
+     * @return the products with filters; a {@code Page} unless count is {@link CountMode#NONE}
+     */
+    Slice<ProductResponse> getProductsWithFilters(ProductFilter filter, Pageable pageable, String sortBy,
+            String sortDirection, CountMode count);
+
+    /**
+     * Counts the products matching the filter per category, brand, active flag,
+     * price bucket and stock availability.
+     *
+     * @param filter the filter
+     * @return the facet counts
+     */
+    ProductFacetsResponse getProductFacets(ProductFilter filter);
+
+    /**
+     * Gets the products matching the filter that follow the cursor, seeking by
+     * the sort key rather than skipping an offset, and without a total count.
+     *
+     * @param filter the filter; an empty filter lists all products
+     * @param cursor the order and the position to continue after
+     * @param size   the page size
+     * @return the page and the cursor of the next one
+     */
+    CursorPageResponse<ProductResponse> getProductsAfter(ProductFilter filter, ProductCursor cursor, int size);
+
     List<ProductResponse> getRecentlyAddedProducts(int limit);
 }
@@ -1,10 +1,11 @@
 package com.shopjoy.service;
 
+import com.shopjoy.dto.filter.CountMode;
 import com.shopjoy.entity.SecurityAuditLog;
 import com.shopjoy.entity.SecurityEventType;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -84,27 +85,30 @@ public interface SecurityAuditService {
      * Get all audit logs with pagination.
      *
      * @param pageable pagination information
-     * @return page of audit logs
+     * @param count    how the total is obtained
+     * @return page of audit logs, or a slice without a total if count is NONE
      */
-    Page<SecurityAuditLog> getAllLogs(Pageable pageable);
+    Slice<SecurityAuditLog> getAllLogs(Pageable pageable, CountMode count);
 
     /**
      * Get audit logs by username.
      *
      * @param username the username
      * @param pageable pagination information
-     * @return page of audit logs
+     * @param count    how the total is obtained
+     * @return page of audit logs, or a slice without a total if count is NONE
      */
-    Page<SecurityAuditLog> getLogsByUsername(String username, Pageable pageable);
+    Slice<SecurityAuditLog> getLogsByUsername(String username, Pageable pageable, CountMode count);
 
     /**
      * Get audit logs by event type.
      *
      * @param eventType the event type
      * @param pageable  pagination information
-     * @return page of audit logs
+     * @param count     how the total is obtained
+     * @return page of audit logs, or a slice without a total if count is NONE
      */
-    Page<SecurityAuditLog> getLogsByEventType(SecurityEventType eventType, Pageable pageable);
+    Slice<SecurityAuditLog> getLogsByEventType(SecurityEventType eventType, Pageable pageable, CountMode count);
 
     /**
      * Get audit logs within a date range.
@@ -112,9 +116,10 @@ public interface SecurityAuditService {
      * @param startTime start timestamp
      * @param endTime   end timestamp
      * @param pageable  pagination information
-     * @return page of audit logs
+     * @param count     how the total is obtained
+     * @return page of audit logs, or a slice without a total if count is NONE
      */
-    Page<SecurityAuditLog> getLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
+    Slice<SecurityAuditLog> getLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable, CountMode count);
 
     /**
      * Get audit logs by username and event type.
@@ -122,9 +127,10 @@ public interface SecurityAuditService {
      * @param username  the username
      * @param eventType the event type
      * @param pageable  pagination information
-     * @return page of audit logs
+     * @param count     how the total is obtained
+     * @return page of audit logs, or a slice without a total if count is NONE
      */
-    Page<SecurityAuditLog> getLogsByUsernameAndEventType(String username, SecurityEventType eventType, Pageable pageable);
+    Slice<SecurityAuditLog> getLogsByUsernameAndEventType(String username, SecurityEventType eventType, Pageable pageable, CountMode count);
 
     /**
      * Get recent failed login attempts for a username.
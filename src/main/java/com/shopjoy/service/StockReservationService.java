@@ -0,0 +1,45 @@
+package com.shopjoy.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service interface for time-bounded stock holds taken by unpaid orders.
+ * Stock leaves quantity_in_stock when the hold is taken. Payment confirms the
+ * hold without touching the inventory row; cancellation releases it and a
+ * background sweeper returns the stock of holds that expire unpaid.
+ */
+public interface StockReservationService {
+
+    /**
+     * Records holds for several orders in one batched insert.
+     *
+     * @param quantitiesByOrder map of order ID to (product ID to held quantity)
+     */
+    void holdForOrders(Map<Integer, Map<Integer, Integer>> quantitiesByOrder);
+
+    /**
+     * Confirms the order's active holds so they can no longer expire.
+     *
+     * @param orderId the order ID
+     * @return false if the order had holds but they already expired or were released
+     */
+    boolean confirmForOrder(Integer orderId);
+
+    /**
+     * Releases the order's held or confirmed holds.
+     *
+     * @param orderId the order ID
+     * @return quantities to put back in stock per product, or empty if the order has no holds recorded
+     */
+    Optional<Map<Integer, Integer>> releaseForOrder(Integer orderId);
+
+    /**
+     * Expires unpaid holds past their deadline, returns their stock in bulk
+     * and cancels the affected orders. Holds of orders that moved on without
+     * payment are confirmed instead.
+     *
+     * @return the number of orders whose holds expired
+     */
+    int releaseExpiredHolds();
+}
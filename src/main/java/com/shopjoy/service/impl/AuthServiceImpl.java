@@ -21,6 +21,7 @@ import com.shopjoy.service.AuthService;
 import com.shopjoy.service.RateLimitService;
 import com.shopjoy.util.AuthValidationUtil;
 import com.shopjoy.util.JwtUtil;
+import com.shopjoy.util.NegativeLookupCache;
 import com.shopjoy.util.SecurityUtil;
 import lombok.AllArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
@@ -54,6 +55,7 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final RateLimitService rateLimitService;
+    private final NegativeLookupCache negativeLookupCache;
 
     @Override
     @Auditable(action = "USER_REGISTRATION", description = "Registering new user")
@@ -74,6 +76,7 @@ public class AuthServiceImpl implements AuthService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User createdUser = userRepository.save(user);
+        negativeLookupCache.forget("userProfile", createdUser.getId());
 
         return userMapper.toUserResponse(createdUser);
     }
@@ -11,6 +11,8 @@ import com.shopjoy.exception.ValidationException;
 import com.shopjoy.repository.CategoryRepository;
 import com.shopjoy.service.CategoryService;
 import com.shopjoy.service.ProductService;
+import com.shopjoy.util.CacheRefresher;
+import jakarta.annotation.PostConstruct;
 
 import lombok.AllArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -35,6 +37,20 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final ProductService productService;
     private final CategoryMapperStruct categoryMapper;
+    private final CacheRefresher cacheRefresher;
+
+    /**
+     * Registers the loaders that refresh hot category entries in the background.
+     * They call this instance directly, bypassing the cache.
+     */
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void registerRefreshLoaders() {
+        cacheRefresher.register("categories", key -> key instanceof List<?> categoryIds
+                ? getCategoriesByIds((List<Integer>) categoryIds)
+                : getAllCategories());
+        cacheRefresher.register("category", key -> getCategoryById((Integer) key));
+    }
     
     @Override
     @Transactional()
@@ -59,7 +75,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
-    @Cacheable(value = "categories")
+    @Cacheable(value = "categories", sync = true)
     public List<CategoryResponse> getCategoriesByIds(List<Integer> categoryIds) {
         if (categoryIds == null || categoryIds.isEmpty()) {
             return java.util.Collections.emptyList();
@@ -78,7 +94,7 @@ public class CategoryServiceImpl implements CategoryService {
 
 
     @Override
-    @Cacheable(value = "categories")
+    @Cacheable(value = "categories", sync = true)
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findAll().stream()
                 .map(categoryMapper::toCategoryResponse)
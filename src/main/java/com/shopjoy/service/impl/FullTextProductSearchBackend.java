@@ -0,0 +1,66 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductSearchBackend;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Search backend for deployments that keep search in PostgreSQL. Matches
+ * {@code websearch_to_tsquery} against the generated {@code search_vector}
+ * column, served by its GIN index, and ranks by {@code ts_rank} with name
+ * weighted over brand over description. Requires docs/product_search_migration.sql.
+ * <p>
+ * Name search matches the whole vector, so products that mention the keyword
+ * only in their brand or description are found too, ranked after name matches.
+ * Sorts on other properties go to the LIKE backend, which rejects them as before.
+ */
+@AllArgsConstructor
+public class FullTextProductSearchBackend implements ProductSearchBackend {
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductRepository productRepository;
+    private final LikeProductSearchBackend fallback;
+
+    @Override
+    public List<Product> searchByName(String keyword) {
+        return productRepository.findAllWithInventoryInOrder(productJdbcRepository.searchFullText(keyword));
+    }
+
+    @Override
+    public Page<Product> search(String text, Pageable pageable) {
+        return searchWithFilters(text, null, pageable);
+    }
+
+    @Override
+    public Page<Product> searchWithFilters(ProductFilter filter, Pageable pageable) {
+        return searchWithFilters(filter.getSearchTerm(), filter, pageable);
+    }
+
+    @Override
+    public List<Integer> searchIds(String text) {
+        return productJdbcRepository.searchFullText(text);
+    }
+
+    @Override
+    public List<Integer> searchIdsAfter(ProductFilter filter, ProductCursor cursor, int limit) {
+        return productJdbcRepository.seekIds(filter, true, cursor, limit);
+    }
+
+    private Page<Product> searchWithFilters(String text, ProductFilter filter, Pageable pageable) {
+        if (!ProductJdbcRepository.isFullTextSortable(pageable.getSort())) {
+            return filter == null ? fallback.search(text, pageable) : fallback.searchWithFilters(filter, pageable);
+        }
+        Page<Integer> hits = productJdbcRepository.searchFullText(text, filter, pageable);
+        return new PageImpl<>(productRepository.findAllWithInventoryInOrder(hits.getContent()), pageable,
+                hits.getTotalElements());
+    }
+}
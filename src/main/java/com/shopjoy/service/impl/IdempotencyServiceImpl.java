@@ -0,0 +1,204 @@
+package com.shopjoy.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopjoy.dto.request.CreateOrderItemRequest;
+import com.shopjoy.dto.request.CreateOrderRequest;
+import com.shopjoy.dto.response.OrderResponse;
+import com.shopjoy.entity.IdempotencyRecord;
+import com.shopjoy.entity.IdempotencyStatus;
+import com.shopjoy.exception.DuplicateResourceException;
+import com.shopjoy.exception.ValidationException;
+import com.shopjoy.repository.IdempotencyRecordRepository;
+import com.shopjoy.service.IdempotencyService;
+import com.shopjoy.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier idempotency store for order creation.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderService orderService;
+    private final Cache<String, IdempotentCall> calls;
+    private final Duration retention;
+    private final Duration inProgressTimeout;
+
+    /**
+     * An order creation started for a key, shared by every request that repeats the key.
+     */
+    private record IdempotentCall(String requestHash, CompletableFuture<OrderResponse> result) {}
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  OrderService orderService,
+                                  @Value("${app.orders.idempotency.retention-hours:24}") long retentionHours,
+                                  @Value("${app.orders.idempotency.max-entries:10000}") long maxEntries,
+                                  @Value("${app.orders.idempotency.in-progress-timeout-seconds:120}") long inProgressTimeoutSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderService = orderService;
+        this.retention = Duration.ofHours(retentionHours);
+        this.inProgressTimeout = Duration.ofSeconds(inProgressTimeoutSeconds);
+        this.calls = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<OrderResponse> createOrderOnce(String idempotencyKey, CreateOrderRequest request,
+                                                            Supplier<CompletableFuture<OrderResponse>> createOrder) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key", "must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = request.getUserId() + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        IdempotentCall call = new IdempotentCall(requestHash, new CompletableFuture<>());
+        IdempotentCall existing = calls.asMap().putIfAbsent(key, call);
+        if (existing != null) {
+            log.debug("Idempotency key {} seen again, attaching to original request", key);
+            return attach(existing, requestHash, idempotencyKey);
+        }
+
+        try {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+            if (stored.isPresent() && !isAbandoned(stored.get())) {
+                replayStored(key, stored.get(), call, idempotencyKey);
+                return call.result();
+            }
+            if (stored.isPresent()) {
+                // The instance that claimed the key died before finishing; let this request take it over
+                idempotencyRecordRepository.deleteByKeyAndStatus(key, IdempotencyStatus.IN_PROGRESS);
+            }
+            idempotencyRecordRepository.claim(key, requestHash, LocalDateTime.now().plus(retention));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance claimed the key between our lookup and insert
+            fail(key, call, inProgress(idempotencyKey));
+            return call.result();
+        } catch (Exception e) {
+            fail(key, call, e);
+            return call.result();
+        }
+
+        CompletableFuture<OrderResponse> creation;
+        try {
+            creation = createOrder.get();
+        } catch (Exception e) {
+            creation = CompletableFuture.failedFuture(e);
+        }
+
+        creation.whenComplete((orderResponse, error) -> {
+            if (error != null) {
+                try {
+                    idempotencyRecordRepository.deleteByKeyAndStatus(key, IdempotencyStatus.IN_PROGRESS);
+                } catch (Exception e) {
+                    log.warn("Could not release idempotency key {} after failed order: {}", key, e.getMessage());
+                }
+                fail(key, call, error);
+                return;
+            }
+            try {
+                idempotencyRecordRepository.markCompleted(key, IdempotencyStatus.COMPLETED, orderResponse.getId());
+            } catch (Exception e) {
+                // The order exists; only restart-safe replay of this key is lost
+                log.error("Order #{} created but idempotency key {} could not be stored: {}",
+                        orderResponse.getId(), key, e.getMessage());
+            }
+            call.result().complete(orderResponse);
+        });
+        return call.result();
+    }
+
+    /**
+     * Runs hourly and deletes stored keys past their retention period.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpiredKeys() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private CompletableFuture<OrderResponse> attach(IdempotentCall existing, String requestHash, String idempotencyKey) {
+        if (!existing.requestHash().equals(requestHash)) {
+            return CompletableFuture.failedFuture(reusedKey(idempotencyKey));
+        }
+        return existing.result();
+    }
+
+    private boolean isAbandoned(IdempotencyRecord stored) {
+        return stored.getStatus() == IdempotencyStatus.IN_PROGRESS
+                && stored.getCreatedAt() != null
+                && stored.getCreatedAt().isBefore(LocalDateTime.now().minus(inProgressTimeout));
+    }
+
+    private void replayStored(String key, IdempotencyRecord stored, IdempotentCall call, String idempotencyKey) {
+        if (!stored.getRequestHash().equals(call.requestHash())) {
+            fail(key, call, reusedKey(idempotencyKey));
+        } else if (stored.getStatus() == IdempotencyStatus.COMPLETED) {
+            call.result().complete(orderService.getOrderById(stored.getOrderId()));
+        } else {
+            fail(key, call, inProgress(idempotencyKey));
+        }
+    }
+
+    /**
+     * Fails the call and forgets it, so the next retry re-checks the database tier.
+     */
+    private void fail(String key, IdempotentCall call, Throwable error) {
+        calls.asMap().remove(key, call);
+        call.result().completeExceptionally(error);
+    }
+
+    private DuplicateResourceException reusedKey(String idempotencyKey) {
+        return new DuplicateResourceException("A different order", "Idempotency-Key", idempotencyKey);
+    }
+
+    private DuplicateResourceException inProgress(String idempotencyKey) {
+        return new DuplicateResourceException("An order still in progress", "Idempotency-Key", idempotencyKey);
+    }
+
+    private String hash(CreateOrderRequest request) {
+        String items = request.getOrderItems() == null ? "" : request.getOrderItems().stream()
+                .sorted(Comparator.comparing(CreateOrderItemRequest::getProductId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(item -> item.getProductId() + "x" + item.getQuantity())
+                .collect(Collectors.joining(","));
+        String canonical = String.join("|",
+                String.valueOf(request.getUserId()),
+                String.valueOf(request.getShippingAddress()),
+                String.valueOf(request.getPaymentMethod()),
+                String.valueOf(request.getNotes()),
+                items);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
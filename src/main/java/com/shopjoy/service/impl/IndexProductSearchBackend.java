@@ -0,0 +1,83 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductSearchBackend;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Search backend that answers from the in-memory {@link ProductSearchIndex}
+ * and loads the matching products by ID. Queries the index cannot answer,
+ * such as those before the first build, go to the LIKE backend.
+ */
+@AllArgsConstructor
+public class IndexProductSearchBackend implements ProductSearchBackend {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final LikeProductSearchBackend fallback;
+
+    @Override
+    public List<Product> searchByName(String keyword) {
+        List<ProductSearchIndex.Hit> hits = productSearchIndex.search(keyword, false, null);
+        if (hits == null) {
+            return fallback.searchByName(keyword);
+        }
+        return productRepository.findAllWithInventoryInOrder(hits.stream().map(ProductSearchIndex.Hit::productId).toList());
+    }
+
+    @Override
+    public Page<Product> search(String text, Pageable pageable) {
+        Page<Integer> hits = productSearchIndex.searchPage(text, true, null, pageable);
+        if (hits == null) {
+            return fallback.search(text, pageable);
+        }
+        return new PageImpl<>(productRepository.findAllWithInventoryInOrder(hits.getContent()), pageable,
+                hits.getTotalElements());
+    }
+
+    @Override
+    public Page<Product> searchWithFilters(ProductFilter filter, Pageable pageable) {
+        Page<Integer> hits = productSearchIndex.searchPage(filter.getSearchTerm(), true, filter, pageable);
+        if (hits == null) {
+            return fallback.searchWithFilters(filter, pageable);
+        }
+        return new PageImpl<>(productRepository.findAllWithInventoryInOrder(hits.getContent()), pageable,
+                hits.getTotalElements());
+    }
+
+    @Override
+    public List<Integer> searchIds(String text) {
+        List<ProductSearchIndex.Hit> hits = productSearchIndex.search(text, true, null);
+        if (hits == null) {
+            return fallback.searchIds(text);
+        }
+        return hits.stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+
+    @Override
+    public List<Integer> searchIdsAfter(ProductFilter filter, ProductCursor cursor, int limit) {
+        List<Integer> productIds = productSearchIndex.searchAfter(filter.getSearchTerm(), true, filter, cursor, limit);
+        if (productIds == null) {
+            return fallback.searchIdsAfter(filter, cursor, limit);
+        }
+        return productIds;
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        productSearchIndex.index(product);
+    }
+
+    @Override
+    public void productDeleted(Integer productId) {
+        productSearchIndex.remove(productId);
+    }
+}
@@ -0,0 +1,265 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.dto.response.InventoryImportResponse;
+import com.shopjoy.dto.response.InventoryImportResponse.RowFailure;
+import com.shopjoy.exception.BusinessException;
+import com.shopjoy.exception.ValidationException;
+import com.shopjoy.service.InventoryImportService;
+import com.shopjoy.service.InventoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming implementation of {@link InventoryImportService}.
+ * Rows are parsed one line at a time and buffered only up to the chunk size.
+ * Each chunk is handed to {@link InventoryService#applyStockChanges} through the
+ * service proxy, giving one transaction, one set of batched UPDATEs and one
+ * cache invalidation per chunk.
+ */
+@Slf4j
+@Service
+public class InventoryImportServiceImpl implements InventoryImportService {
+
+    private final InventoryService inventoryService;
+    private final JsonMapper jsonMapper;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public InventoryImportServiceImpl(
+            InventoryService inventoryService,
+            JsonMapper jsonMapper,
+            @Value("${app.inventory.import.chunk-size:500}") int chunkSize,
+            @Value("${app.inventory.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.inventoryService = inventoryService;
+        this.jsonMapper = jsonMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    /**
+     * One parsed import row. Exactly one of quantity and delta is set.
+     */
+    private record StockRow(long line, int productId, Integer quantity, Integer delta) {
+    }
+
+    @Override
+    public InventoryImportResponse importStock(InputStream input, Format format) {
+        long startTime = System.currentTimeMillis();
+        InventoryImportResponse response = new InventoryImportResponse();
+        List<StockRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            CsvColumns columns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = CsvColumns.fromHeader(lineNumber, line);
+                    continue;
+                }
+
+                response.setRowsRead(response.getRowsRead() + 1);
+                try {
+                    chunk.add(format == Format.CSV ? columns.parse(lineNumber, line) : parseJson(lineNumber, line));
+                } catch (RuntimeException e) {
+                    recordFailure(response, new RowFailure(lineNumber, null, e.getMessage()));
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    applyChunk(chunk, response);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Failed to read inventory import: " + e.getMessage(), "IMPORT_READ_FAILED", e);
+        } finally {
+            // Rows already parsed are applied even when the stream breaks off
+            if (!chunk.isEmpty()) {
+                applyChunk(chunk, response);
+            }
+        }
+
+        response.setDurationMs(System.currentTimeMillis() - startTime);
+        log.info("Inventory import: {} rows read, {} applied, {} failed in {} chunks ({}ms)",
+                response.getRowsRead(), response.getRowsApplied(), response.getRowsFailed(),
+                response.getChunks(), response.getDurationMs());
+        return response;
+    }
+
+    /**
+     * Folds the chunk's rows per product in file order and applies them in one call.
+     * A quantity row replaces everything before it; deltas after it adjust the quantity.
+     */
+    private void applyChunk(List<StockRow> chunk, InventoryImportResponse response) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        Map<Integer, Integer> deltas = new HashMap<>();
+        for (StockRow row : chunk) {
+            if (row.quantity() != null) {
+                quantities.put(row.productId(), row.quantity());
+                deltas.remove(row.productId());
+            } else if (quantities.containsKey(row.productId())) {
+                quantities.merge(row.productId(), row.delta(), Integer::sum);
+            } else {
+                deltas.merge(row.productId(), row.delta(), Integer::sum);
+            }
+        }
+
+        Map<Integer, RuntimeException> failures;
+        try {
+            failures = inventoryService.applyStockChanges(quantities, deltas);
+        } catch (RuntimeException e) {
+            log.warn("Inventory import chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+            failures = new HashMap<>();
+            for (StockRow row : chunk) {
+                failures.put(row.productId(), e);
+            }
+        }
+
+        response.setChunks(response.getChunks() + 1);
+        for (StockRow row : chunk) {
+            RuntimeException failure = failures.get(row.productId());
+            if (failure == null) {
+                response.setRowsApplied(response.getRowsApplied() + 1);
+            } else {
+                recordFailure(response, new RowFailure(row.line(), row.productId(), failure.getMessage()));
+            }
+        }
+    }
+
+    private void recordFailure(InventoryImportResponse response, RowFailure failure) {
+        response.setRowsFailed(response.getRowsFailed() + 1);
+        if (response.getFailures().size() < maxReportedFailures) {
+            response.getFailures().add(failure);
+        } else {
+            response.setFailuresTruncated(true);
+        }
+    }
+
+    private StockRow parseJson(long lineNumber, String line) {
+        JsonNode node;
+        try {
+            node = jsonMapper.readTree(line);
+        } catch (RuntimeException e) {
+            throw new ValidationException("line " + lineNumber, "must be a JSON object");
+        }
+        if (node == null || !node.isObject() || !node.hasNonNull("productId")) {
+            throw new ValidationException("productId", "is required");
+        }
+        Integer quantity = node.hasNonNull("quantity") ? node.get("quantity").asInt() : null;
+        Integer delta = node.hasNonNull("delta") ? node.get("delta").asInt() : null;
+        return toRow(lineNumber, node.get("productId").asInt(), quantity, delta);
+    }
+
+    private static StockRow toRow(long lineNumber, int productId, Integer quantity, Integer delta) {
+        if ((quantity == null) == (delta == null)) {
+            throw new ValidationException("row", "must set exactly one of quantity and delta");
+        }
+        return new StockRow(lineNumber, productId, quantity, delta);
+    }
+
+    /**
+     * Column positions taken from the CSV header. Names are matched case-insensitively.
+     * Fields follow RFC 4180: a field may be quoted, a quoted field may contain commas
+     * and doubled quotes, and each record is one line.
+     */
+    private record CsvColumns(int productId, int quantity, int delta) {
+
+        static CsvColumns fromHeader(long lineNumber, String header) {
+            List<String> names = split(lineNumber, header).stream()
+                    .map(name -> name.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                    .toList();
+            int productId = names.indexOf("productid");
+            int quantity = names.indexOf("quantity");
+            int delta = names.indexOf("delta");
+            if (productId < 0 || (quantity < 0 && delta < 0)) {
+                throw new ValidationException("header", "must contain productId and quantity or delta");
+            }
+            return new CsvColumns(productId, quantity, delta);
+        }
+
+        StockRow parse(long lineNumber, String line) {
+            List<String> values = split(lineNumber, line);
+            try {
+                return toRow(lineNumber,
+                        Integer.parseInt(values.get(productId).trim()),
+                        valueAt(values, quantity),
+                        valueAt(values, delta));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new ValidationException("line " + lineNumber, "has a missing or non-numeric value");
+            }
+        }
+
+        private static Integer valueAt(List<String> values, int index) {
+            if (index < 0 || index >= values.size() || values.get(index).isBlank()) {
+                return null;
+            }
+            return Integer.parseInt(values.get(index).trim());
+        }
+
+        /**
+         * Splits one CSV line into its fields, unquoting quoted ones.
+         *
+         * @throws ValidationException if a quote is unterminated or stray
+         */
+        static List<String> split(long lineNumber, String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '"') {
+                    if (wasQuoted || !field.toString().isBlank()) {
+                        throw new ValidationException("line " + lineNumber, "has a quote inside an unquoted field");
+                    }
+                    field.setLength(0);
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (wasQuoted) {
+                    if (!Character.isWhitespace(c)) {
+                        throw new ValidationException("line " + lineNumber, "has text after a closing quote");
+                    }
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new ValidationException("line " + lineNumber,
+                        "has an unterminated quoted field; line breaks inside fields are not supported");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -3,24 +3,45 @@ package com.shopjoy.service.impl;
 import com.shopjoy.dto.mapper.InventoryMapperStruct;
 import com.shopjoy.dto.response.InventoryResponse;
 import com.shopjoy.entity.Inventory;
+import com.shopjoy.entity.InventoryStripe;
+import com.shopjoy.entity.MovementType;
 import com.shopjoy.exception.*;
+import com.shopjoy.repository.InventoryJdbcRepository;
 import com.shopjoy.repository.InventoryRepository;
+import com.shopjoy.repository.InventoryStripeRepository;
 import com.shopjoy.repository.ProductRepository;
 import com.shopjoy.service.InventoryService;
+import com.shopjoy.util.CacheInvalidator;
+import com.shopjoy.util.CacheTags;
+import com.shopjoy.util.CatalogValueStore;
+import com.shopjoy.util.NegativeLookupCache;
 import lombok.AllArgsConstructor;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The type Inventory service.
@@ -31,17 +52,28 @@ import java.util.stream.Collectors;
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final InventoryStripeRepository inventoryStripeRepository;
     private final ProductRepository productRepository;
     private final InventoryMapperStruct inventoryMapper;
+    private final StockJournal stockJournal;
+    private final StockSnapshot stockSnapshot;
+    private final CacheInvalidator cacheInvalidator;
+    private final CatalogValueStore catalogValueStore;
+    private final NegativeLookupCache negativeLookupCache;
+
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * Transaction resource key of the inventory locks held by the current transaction.
+     */
+    private static final Object HELD_LOCKS = new Object();
+    private static final int ALL_STRIPES = -1;
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     @Caching(evict = {
-        @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "outOfStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
+        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     })
     public InventoryResponse createInventory(Integer productId, int initialStock, int reorderLevel) {
         Inventory inventory = new Inventory();
@@ -60,6 +92,9 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setUpdatedAt(LocalDateTime.now());
 
         Inventory createdInventory = inventoryRepository.save(inventory);
+        stockSnapshot.track(productId, initialStock, reorderLevel);
+        cacheInvalidator.invalidate(Set.of(CacheTags.product(productId), CacheTags.STOCK));
+        negativeLookupCache.forget("inventoryByProduct", productId);
 
         return inventoryMapper.toInventoryResponse(createdInventory);
     }
@@ -67,46 +102,53 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Cacheable(value = "inventoryByProduct", key = "#productId", unless = "#result == null", cacheManager = "shortCacheManager")
     public InventoryResponse getInventoryByProduct(Integer productId) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
+        Inventory inventory = negativeLookupCache.find("inventoryByProduct", productId,
+                        () -> inventoryRepository.findByProductId(productId))
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
         return inventoryMapper.toInventoryResponse(inventory);
     }
 
     @Override
-    @Cacheable(value = "inventory", key = "'inStock-' + #productId", cacheManager = "shortCacheManager")
     public boolean isProductInStock(Integer productId) {
-        return inventoryRepository.findByProductId(productId)
-                .map(inventory -> inventory.getQuantityInStock() > 0)
-                .orElse(false);
+        if (stockJournal.isJournaled(productId)) {
+            return stockJournal.currentStock(productId) > 0;
+        }
+        return stockSnapshot.isInStock(productId);
     }
 
     @Override
-    @Cacheable(value = "inventory", key = "'available-' + #productId + '-' + #quantity", cacheManager = "shortCacheManager")
     public boolean hasAvailableStock(Integer productId, int quantity) {
-        return inventoryRepository.findByProductId(productId)
-                .map(inventory -> inventory.getQuantityInStock() >= quantity)
-                .orElse(false);
+        if (stockJournal.isJournaled(productId)) {
+            return stockJournal.currentStock(productId) >= quantity;
+        }
+        return stockSnapshot.hasAvailable(productId, quantity);
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    @Caching(
-        put = { @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager") },
-        evict = {
-            @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "outOfStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
-        }
-    )
+    @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     public InventoryResponse updateStock(Integer productId, int newQuantity) {
         if (newQuantity < 0) {
             throw new ValidationException("quantityInStock", "cannot be negative");
         }
 
+        if (stockJournal.isJournaled(productId)) {
+            claimRows(List.of(productId));
+            int delta = stockJournal.set(productId, newQuantity, MovementType.SET);
+            stockChanged(productId, delta);
+            return responseWithStock(productId, newQuantity);
+        }
+
+        if (isStriped(productId)) {
+            stockChanged(productId, newQuantity - restripe(productId, _ -> newQuantity));
+            return responseWithStock(productId, newQuantity);
+        }
+
+        lockRows(List.of(productId));
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
 
+        stockChanged(productId, newQuantity - inventory.getQuantityInStock());
         inventory.setQuantityInStock(newQuantity);
         inventory.setUpdatedAt(LocalDateTime.now());
         
@@ -116,20 +158,31 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    @Caching(
-        put = { @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager") },
-        evict = {
-            @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "outOfStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
-        }
-    )
+    @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     public InventoryResponse addStock(Integer productId, int quantity) {
         if (quantity <= 0) {
             throw new ValidationException("quantity", "must be positive");
         }
 
+        stockChanged(productId, quantity);
+        if (stockJournal.isJournaled(productId)) {
+            stockJournal.give(Map.of(productId, quantity), MovementType.ADD);
+            return responseWithStock(productId, stockJournal.currentStock(productId) + quantity);
+        }
+
+        if (isStriped(productId)) {
+            int total = restripe(productId, current -> current + quantity) + quantity;
+            Inventory inventory = inventoryRepository.findByProductId(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+            inventory.setLastRestocked(LocalDateTime.now());
+            inventory.setUpdatedAt(LocalDateTime.now());
+
+            InventoryResponse response = inventoryMapper.toInventoryResponse(inventoryRepository.save(inventory));
+            response.setStockQuantity(total);
+            return response;
+        }
+
+        lockRows(List.of(productId));
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
 
@@ -143,20 +196,30 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    @Caching(
-        put = { @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager") },
-        evict = {
-            @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "outOfStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
-        }
-    )
+    @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     public InventoryResponse removeStock(Integer productId, int quantity) {
         if (quantity <= 0) {
             throw new ValidationException("quantity", "must be positive");
         }
 
+        stockChanged(productId, -quantity);
+        if (stockJournal.isJournaled(productId)) {
+            claimRows(List.of(productId));
+            stockJournal.take(Map.of(productId, quantity), MovementType.REMOVE);
+            return responseWithStock(productId, stockJournal.currentStock(productId));
+        }
+
+        if (isStriped(productId)) {
+            int previous = restripe(productId, current -> {
+                if (current < quantity) {
+                    throw new InsufficientStockException(productId, quantity, current);
+                }
+                return current - quantity;
+            });
+            return responseWithStock(productId, previous - quantity);
+        }
+
+        lockRows(List.of(productId));
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
 
@@ -180,85 +243,565 @@ public class InventoryServiceImpl implements InventoryService {
      * This method is designed to be called within an existing order transaction.
      * It uses REQUIRED propagation to join the caller's transaction context.
      * If the order creation fails later, this stock decrement will be rolled back.
+     * <p>
+     * The decrement is a single guarded UPDATE whose affected-row count decides
+     * success, so concurrent buyers cannot oversell even at READ COMMITTED.
      */
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     @Caching(evict = {
-        @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "outOfStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
+        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     })
     public void reserveStock(Integer productId, int quantity) {
         if (quantity <= 0) {
             throw new ValidationException("quantity", "must be positive");
         }
 
-        Inventory inventory = inventoryRepository.findByProductId(productId)
+        stockChanged(productId, -quantity);
+        if (stockJournal.isJournaled(productId)) {
+            claimRows(List.of(productId));
+            stockJournal.take(Map.of(productId, quantity), MovementType.RESERVE);
+            return;
+        }
+
+        int stripeCount = inventoryRepository.findStripeCountByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+        if (stripeCount > 1) {
+            reserveFromStripes(productId, quantity, stripeCount);
+            return;
+        }
 
-        if (inventory.getQuantityInStock() < quantity) {
-            throw new InsufficientStockException(
-                    productId,
-                    quantity,
-                    inventory.getQuantityInStock());
+        claimRows(List.of(productId));
+        int updated = inventoryRepository.decrementStockIfAvailable(productId, quantity);
+        if (updated == 0) {
+            int available = inventoryRepository.findQuantityByProductId(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+            throw new InsufficientStockException(productId, quantity, available);
         }
+    }
 
-        inventory.setQuantityInStock(inventory.getQuantityInStock() - quantity);
-        inventory.setUpdatedAt(LocalDateTime.now());
-        inventoryRepository.save(inventory);
+    /**
+     * BATCH RESERVATION TRANSACTION LOGIC
+     * <p>
+     * Locks all affected inventory rows in ascending product ID order, validates
+     * the whole order against the locked quantities, then applies every decrement
+     * in a single JDBC batch. Striped products are reserved from their stripes
+     * afterwards, in product ID order. Caches are evicted once for the batch instead
+     * of once per line item.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @Caching(evict = {
+        @CacheEvict(value = "inventoryByProduct", allEntries = true, cacheManager = "shortCacheManager")
+    })
+    public void reserveStockBatch(Map<Integer, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct == null || quantitiesByProduct.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> sortedRequests = new TreeMap<>(quantitiesByProduct);
+        sortedRequests.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new ValidationException("quantity", "must be positive for product " + productId);
+            }
+        });
+
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        sortedRequests.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+        stockChanged(deltas);
+
+        // Striped products are reserved through their stripes after all rows are locked
+        Map<Integer, Integer> stripeCounts = inventoryJdbcRepository.findStripeCounts(sortedRequests.keySet());
+        Map<Integer, Integer> rowRequests = new TreeMap<>(sortedRequests);
+        rowRequests.keySet().removeAll(stripeCounts.keySet());
+
+        // Journaled rows are locked in the same pass, so rows are always locked in product ID order
+        Map<Integer, Integer> lockedStock = lockRows(rowRequests.keySet());
+
+        Map<Integer, Integer> journalRequests = splitJournaled(rowRequests);
+        if (!journalRequests.isEmpty()) {
+            stockJournal.take(journalRequests, MovementType.RESERVE);
+        }
+
+        rowRequests.forEach((productId, quantity) -> {
+            Integer available = lockedStock.get(productId);
+            if (available == null) {
+                throw new ResourceNotFoundException("Inventory", "productId", productId);
+            }
+            if (available < quantity) {
+                throw new InsufficientStockException(productId, quantity, available);
+            }
+        });
+
+        int[] updateCounts = rowRequests.isEmpty() ? new int[0] : inventoryJdbcRepository.decrementStockBatch(rowRequests);
+
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : rowRequests.entrySet()) {
+            if (updateCounts[index++] == 0) {
+                throw new InsufficientStockException(entry.getKey(), entry.getValue(), lockedStock.get(entry.getKey()));
+            }
+        }
+
+        stripeCounts.forEach((productId, stripeCount) ->
+            reserveFromStripes(productId, sortedRequests.get(productId), stripeCount));
+    }
+
+    @Override
+    public Map<Integer, Integer> getAvailableStock(Collection<Integer> productIds) {
+        Map<Integer, Integer> stockLevels = inventoryJdbcRepository.findStockLevels(productIds);
+        stockLevels.replaceAll((productId, quantity) -> stockJournal.isJournaled(productId)
+                ? stockJournal.currentStock(productId)
+                : quantity);
+        return stockLevels;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Integer, Integer> lockAvailableStock(Collection<Integer> productIds) {
+        Set<Integer> rowProductIds = new TreeSet<>(productIds);
+        rowProductIds.removeAll(inventoryJdbcRepository.findStripeCounts(rowProductIds).keySet());
+        // Journaled rows are locked in the same pass, as the journal locks them anyway, to keep product ID order
+        Map<Integer, Integer> stockLevels = lockRows(rowProductIds);
+        stockLevels.keySet().removeIf(stockJournal::isJournaled);
+        return stockLevels;
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     @Caching(evict = {
-        @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "outOfStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
+        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     })
     public void releaseStock(Integer productId, int quantity) {
         if (quantity <= 0) {
             throw new ValidationException("quantity", "must be positive");
         }
 
+        stockChanged(productId, quantity);
+        if (stockJournal.isJournaled(productId)) {
+            stockJournal.give(Map.of(productId, quantity), MovementType.RELEASE);
+            return;
+        }
+
+        int stripeCount = inventoryRepository.findStripeCountByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+        if (stripeCount > 1) {
+            releaseToStripe(productId, quantity, stripeCount);
+            return;
+        }
+
+        claimRows(List.of(productId));
+        if (inventoryRepository.incrementStock(productId, quantity) == 0) {
+            throw new ResourceNotFoundException("Inventory", "productId", productId);
+        }
+    }
+
+    /**
+     * Returns stock for several products at once. Plain inventory rows are
+     * incremented in one JDBC batch in ascending product ID order; striped
+     * products receive the quantity on a random stripe. Caches are evicted once.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @Caching(evict = {
+        @CacheEvict(value = "inventoryByProduct", allEntries = true, cacheManager = "shortCacheManager")
+    })
+    public void releaseStockBatch(Map<Integer, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct == null || quantitiesByProduct.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> sortedReleases = new TreeMap<>(quantitiesByProduct);
+        sortedReleases.values().removeIf(quantity -> quantity == null || quantity <= 0);
+        stockChanged(sortedReleases);
+
+        Map<Integer, Integer> journalReleases = splitJournaled(sortedReleases);
+        if (!journalReleases.isEmpty()) {
+            stockJournal.give(journalReleases, MovementType.RELEASE);
+        }
+
+        Map<Integer, Integer> stripeCounts = inventoryJdbcRepository.findStripeCounts(sortedReleases.keySet());
+        Map<Integer, Integer> rowReleases = new TreeMap<>(sortedReleases);
+        rowReleases.keySet().removeAll(stripeCounts.keySet());
+
+        if (!rowReleases.isEmpty()) {
+            claimRows(rowReleases.keySet());
+            int[] updateCounts = inventoryJdbcRepository.incrementStockBatch(rowReleases);
+            int index = 0;
+            for (Integer productId : rowReleases.keySet()) {
+                if (updateCounts[index++] == 0) {
+                    throw new ResourceNotFoundException("Inventory", "productId", productId);
+                }
+            }
+        }
+
+        stripeCounts.forEach((productId, stripeCount) ->
+            releaseToStripe(productId, sortedReleases.get(productId), stripeCount));
+    }
+
+    /**
+     * STRIPED STOCK CONFIGURATION
+     * <p>
+     * Splits a hot product's stock across {@code stripeCount} bucket rows so that
+     * concurrent reservations lock different rows. A stripe count of 1 or less
+     * folds the stripes back into the inventory row and disables striping.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @Caching(evict = {
+        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
+    })
+    public InventoryResponse configureStriping(Integer productId, int stripeCount) {
+        if (stripeCount < 0 || stripeCount > MAX_STRIPES) {
+            throw new ValidationException("stripeCount", "must be between 0 and " + MAX_STRIPES);
+        }
+        if (stripeCount > 1 && stockJournal.isJournaled(productId)) {
+            throw new ValidationException("stripeCount", "cannot be set while the product is journaled");
+        }
+
+        lockRows(List.of(productId));
+        collapseStripes(productId);
+        inventoryStripeRepository.deleteByProductId(productId);
+
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
-                
-        inventory.setQuantityInStock(inventory.getQuantityInStock() + quantity);
+        int totalQuantity = inventory.getQuantityInStock();
+
+        if (stripeCount <= 1) {
+            inventory.setStripeCount(0);
+        } else {
+            int[] shares = splitEvenly(totalQuantity, stripeCount);
+            List<InventoryStripe> stripes = IntStream.range(0, stripeCount)
+                    .mapToObj(stripeIndex -> InventoryStripe.builder()
+                            .product(inventory.getProduct())
+                            .stripeIndex(stripeIndex)
+                            .quantity(shares[stripeIndex])
+                            .build())
+                    .collect(Collectors.toList());
+            inventoryStripeRepository.saveAll(stripes);
+            inventory.setQuantityInStock(0);
+            inventory.setStripeCount(stripeCount);
+        }
         inventory.setUpdatedAt(LocalDateTime.now());
-        inventoryRepository.save(inventory);
+
+        InventoryResponse response = inventoryMapper.toInventoryResponse(inventoryRepository.save(inventory));
+        response.setStockQuantity(totalQuantity);
+        return response;
     }
 
+    /**
+     * STOCK JOURNAL CONFIGURATION
+     * <p>
+     * Switches a product between row updates and the append-only stock journal.
+     * Enabling folds any stripes back onto the row; disabling compacts every
+     * pending movement into the row first.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @Caching(evict = {
+        @CacheEvict(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
+    })
+    public InventoryResponse configureJournal(Integer productId, boolean enabled) {
+        claimRows(List.of(productId));
+        inventoryJdbcRepository.lockUnallocatedStock(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+
+        if (enabled == stockJournal.isJournaled(productId)) {
+            return getInventoryByProduct(productId);
+        }
+
+        if (enabled) {
+            collapseStripes(productId);
+            inventoryStripeRepository.deleteByProductId(productId);
+        } else {
+            stockJournal.compactFully(productId);
+        }
+
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+        if (enabled) {
+            inventory.setStripeCount(0);
+            stockJournal.track(productId);
+        } else {
+            stockJournal.untrack(productId);
+        }
+        inventory.setJournaled(enabled);
+        inventory.setUpdatedAt(LocalDateTime.now());
+
+        return inventoryMapper.toInventoryResponse(inventoryRepository.saveAndFlush(inventory));
+    }
+
+    /**
+     * Moves journaled products out of the given map.
+     *
+     * @return the journaled entries, in product ID order
+     */
+    private Map<Integer, Integer> splitJournaled(Map<Integer, Integer> quantitiesByProduct) {
+        Map<Integer, Integer> journaled = new TreeMap<>();
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            if (stockJournal.isJournaled(productId)) {
+                journaled.put(productId, quantity);
+            }
+        });
+        quantitiesByProduct.keySet().removeAll(journaled.keySet());
+        return journaled;
+    }
+
+    /**
+     * Records committed stock changes in the stock snapshot. Cached catalog
+     * entries take their stock from the overlay, so only entries ordered or
+     * counted by stock are evicted; without the overlay, every entry showing
+     * these products is evicted as well.
+     */
+    private void stockChanged(Map<Integer, Integer> deltas) {
+        stockSnapshot.adjust(deltas);
+        Set<String> tags = new HashSet<>(Set.of(CacheTags.STOCK));
+        if (!catalogValueStore.isStockOverlaid()) {
+            deltas.keySet().forEach(productId -> tags.add(CacheTags.product(productId)));
+        }
+        cacheInvalidator.invalidate(tags);
+    }
+
+    private void stockChanged(Integer productId, int delta) {
+        stockChanged(Map.of(productId, delta));
+    }
+
+    private InventoryResponse responseWithStock(Integer productId, int stockQuantity) {
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+        InventoryResponse response = inventoryMapper.toInventoryResponse(inventory);
+        response.setStockQuantity(stockQuantity);
+        return response;
+    }
+
+    /**
+     * Takes stock from a stripe. When no single stripe can cover the quantity, all
+     * stripes are locked, pooled and spread evenly again; the inventory row is not
+     * needed, since striped products keep no stock on it.
+     * <p>
+     * If stripes of this product or of a higher product ID are already held by the
+     * transaction, waiting here could close a cycle, so the stripe is picked among
+     * those no other transaction has locked and the pool is locked without waiting.
+     */
+    private void reserveFromStripes(Integer productId, int quantity, int stripeCount) {
+        HeldLocks held = heldLocks();
+        Integer heldStripe = held.stripes.get(productId);
+        if (heldStripe != null && heldStripe != ALL_STRIPES
+                && inventoryJdbcRepository.decrementStripe(productId, heldStripe, quantity) == 1) {
+            return;
+        }
+
+        if (heldStripe == null && held.stripesInOrder(productId)) {
+            int start = ThreadLocalRandom.current().nextInt(stripeCount);
+            for (int offset = 0; offset < stripeCount; offset++) {
+                int stripeIndex = (start + offset) % stripeCount;
+                if (inventoryJdbcRepository.decrementStripe(productId, stripeIndex, quantity) == 1) {
+                    held.stripes.put(productId, stripeIndex);
+                    return;
+                }
+            }
+        } else if (heldStripe == null || heldStripe != ALL_STRIPES) {
+            Optional<Integer> free = inventoryJdbcRepository.lockFreeStripe(productId, quantity);
+            if (free.isPresent()) {
+                inventoryJdbcRepository.decrementStripe(productId, free.get(), quantity);
+                held.stripes.putIfAbsent(productId, free.get());
+                return;
+            }
+        }
+
+        List<Integer> stripes = lockStripes(productId);
+        int total = stripes.stream().mapToInt(Integer::intValue).sum();
+        if (total < quantity) {
+            throw new InsufficientStockException(productId, quantity, total);
+        }
+        inventoryJdbcRepository.setStripes(productId, splitEvenly(total - quantity, stripes.size()));
+    }
+
+    /**
+     * Returns stock to the stripe this transaction already holds, or else to a random
+     * one, or to one no other transaction has locked when waiting would break the lock order.
+     */
+    private void releaseToStripe(Integer productId, int quantity, int stripeCount) {
+        HeldLocks held = heldLocks();
+        Integer heldStripe = held.stripes.get(productId);
+        int stripeIndex;
+        if (heldStripe != null && heldStripe != ALL_STRIPES) {
+            stripeIndex = heldStripe;
+        } else if (heldStripe != null || held.stripesInOrder(productId)) {
+            stripeIndex = ThreadLocalRandom.current().nextInt(stripeCount);
+        } else {
+            stripeIndex = inventoryJdbcRepository.lockFreeStripe(productId, 0)
+                    .orElseThrow(() -> new CannotAcquireLockException(
+                            "Every stripe of product " + productId + " is locked by another transaction"));
+        }
+        inventoryJdbcRepository.incrementStripe(productId, stripeIndex, quantity);
+        held.stripes.putIfAbsent(productId, stripeIndex);
+    }
+
+    /**
+     * Moves all stripe stock back onto the inventory row, before striping is
+     * switched off. No-op for products that are not striped.
+     */
+    private void collapseStripes(Integer productId) {
+        if (!isStriped(productId)) {
+            return;
+        }
+        List<Integer> stock = lockRowAndStripes(productId);
+        int total = stock.stream().mapToInt(Integer::intValue).sum();
+        inventoryJdbcRepository.redistribute(productId, total, new int[stock.size() - 1]);
+    }
+
+    /**
+     * Moves a striped product to a new total, spread evenly over its stripes, so
+     * that reservations find all of it on the stripes.
+     *
+     * @param newTotal computes the new total from the current one
+     * @return the total before the change
+     */
+    private int restripe(Integer productId, IntUnaryOperator newTotal) {
+        List<Integer> stock = lockRowAndStripes(productId);
+        int total = stock.stream().mapToInt(Integer::intValue).sum();
+        inventoryJdbcRepository.redistribute(productId, 0, splitEvenly(newTotal.applyAsInt(total), stock.size() - 1));
+        return total;
+    }
+
+    /**
+     * Locks the inventory row and then every stripe of a product, in stripe index order.
+     *
+     * @return the unallocated quantity followed by the stripe quantities
+     */
+    private List<Integer> lockRowAndStripes(Integer productId) {
+        claimRows(List.of(productId));
+        int unallocated = inventoryJdbcRepository.lockUnallocatedStock(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", productId));
+        List<Integer> quantities = new ArrayList<>();
+        quantities.add(unallocated);
+        quantities.addAll(lockStripes(productId));
+        return quantities;
+    }
+
+    /**
+     * Locks every stripe of a product, without waiting if that would break the lock order.
+     *
+     * @return stripe quantities indexed by stripe index
+     */
+    private List<Integer> lockStripes(Integer productId) {
+        HeldLocks held = heldLocks();
+        List<Integer> stripes = held.stripesInOrder(productId)
+                ? inventoryJdbcRepository.lockStripes(productId)
+                : inventoryJdbcRepository.lockStripesNowait(productId);
+        held.stripes.put(productId, ALL_STRIPES);
+        return stripes;
+    }
+
+    /**
+     * Locks inventory rows in product ID order.
+     *
+     * @return the unallocated quantity of each row, ordered by product ID; missing products are absent
+     */
+    private Map<Integer, Integer> lockRows(Collection<Integer> productIds) {
+        claimRows(productIds);
+        return inventoryJdbcRepository.lockStockLevels(productIds);
+    }
+
+    /**
+     * Records that the current transaction is about to lock the given inventory rows.
+     * Rows that would be locked out of order are locked here, without waiting.
+     */
+    private void claimRows(Collection<Integer> productIds) {
+        HeldLocks held = heldLocks();
+        if (!held.rowsInOrder(productIds)) {
+            inventoryJdbcRepository.lockStockLevelsNowait(productIds);
+        }
+        held.rows.addAll(productIds);
+    }
+
+    private boolean isStriped(Integer productId) {
+        return inventoryRepository.findStripeCountByProductId(productId).orElse(0) > 1;
+    }
+
+    /**
+     * Inventory locks held by the current transaction. They are taken in one global
+     * order: inventory rows in product ID order, then stripes in product ID and stripe
+     * index order. A lock that would break the order is only taken without waiting,
+     * so it can never be part of a wait cycle; it fails only when another transaction
+     * really holds it.
+     */
+    private static final class HeldLocks {
+
+        private final TreeSet<Integer> rows = new TreeSet<>();
+
+        /**
+         * The stripe held per product, or {@link #ALL_STRIPES} once every stripe is locked.
+         */
+        private final TreeMap<Integer, Integer> stripes = new TreeMap<>();
+
+        boolean rowsInOrder(Collection<Integer> productIds) {
+            for (Integer productId : productIds) {
+                if (!rows.contains(productId)
+                        && (!stripes.isEmpty() || (!rows.isEmpty() && productId < rows.last()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return whether stripes of the product can be waited for: none of them and
+         * no stripe of a higher product ID is held yet
+         */
+        boolean stripesInOrder(Integer productId) {
+            return !stripes.containsKey(productId) && stripes.higherKey(productId) == null;
+        }
+    }
+
+    /**
+     * Inventory locks of the current transaction. Outside a transaction nothing
+     * stays locked, so nothing is recorded.
+     */
+    private HeldLocks heldLocks() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HeldLocks();
+        }
+        HeldLocks held = (HeldLocks) TransactionSynchronizationManager.getResource(HELD_LOCKS);
+        if (held == null) {
+            HeldLocks created = new HeldLocks();
+            TransactionSynchronizationManager.bindResource(HELD_LOCKS, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(HELD_LOCKS);
+                }
+            });
+            held = created;
+        }
+        return held;
+    }
+
+    private int[] splitEvenly(int quantity, int parts) {
+        int[] shares = new int[parts];
+        for (int i = 0; i < parts; i++) {
+            shares[i] = quantity / parts + (i < quantity % parts ? 1 : 0);
+        }
+        return shares;
+    }
+
+    /**
+     * Low and out-of-stock products are picked from the stock snapshot, so only
+     * the matching inventory rows are read.
+     */
     @Override
-    @Cacheable(value = "lowStock", cacheManager = "shortCacheManager")
     public List<InventoryResponse> getLowStockProducts() {
-        return inventoryRepository.findLowStock().stream()
-                .map(inventoryMapper::toInventoryResponse)
-                .collect(Collectors.toList());
+        return getInventoryByProducts(stockSnapshot.lowStockProductIds());
     }
 
     @Override
-    @Cacheable(value = "outOfStock", cacheManager = "shortCacheManager")
     public List<InventoryResponse> getOutOfStockProducts() {
-        return inventoryRepository.findAll().stream()
-                .filter(inventory -> inventory.getQuantityInStock() == 0)
-                .map(inventoryMapper::toInventoryResponse)
-                .collect(Collectors.toList());
+        return getInventoryByProducts(stockSnapshot.outOfStockProductIds());
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    @Caching(
-        put = { @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager") },
-        evict = {
-            @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-            @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
-        }
-    )
+    @CachePut(value = "inventoryByProduct", key = "#productId", cacheManager = "shortCacheManager")
     public InventoryResponse updateReorderLevel(Integer productId, int reorderLevel) {
         if (reorderLevel < 0) {
             throw new ValidationException("reorderLevel", "cannot be negative");
@@ -270,6 +813,8 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setUpdatedAt(LocalDateTime.now());
 
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        stockSnapshot.updateReorderLevel(productId, reorderLevel);
+        cacheInvalidator.invalidateProducts(List.of(productId));
 
         return inventoryMapper.toInventoryResponse(updatedInventory);
     }
@@ -284,44 +829,149 @@ public class InventoryServiceImpl implements InventoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * BATCH STOCK UPDATE
+     * <p>
+     * Applies signed stock changes with set-based JDBC statements in the caller's
+     * transaction. Lines that fail are reported together; successful lines are kept.
+     */
     @Override
-    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class,
+            noRollbackFor = BatchOperationException.class)
     @Caching(evict = {
-        @CacheEvict(value = "inventory", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "lowStock", allEntries = true, cacheManager = "shortCacheManager"),
-        @CacheEvict(value = "products", allEntries = true, cacheManager = "cacheManager")
+        @CacheEvict(value = "inventoryByProduct", allEntries = true, cacheManager = "shortCacheManager")
     })
-    public void updateStockBatch(java.util.Map<Integer, Integer> inventoryUpdates) {
+    public void updateStockBatch(Map<Integer, Integer> inventoryUpdates) {
         if (inventoryUpdates == null || inventoryUpdates.isEmpty()) {
             return;
         }
 
-        java.util.Map<Integer, Exception> failures = new java.util.concurrent.ConcurrentHashMap<>();
+        Map<Integer, Integer> deltas = new TreeMap<>(inventoryUpdates);
+        deltas.values().removeIf(quantityChange -> quantityChange == null || quantityChange == 0);
+
+        Map<Integer, RuntimeException> failures = applyChanges(Map.of(), deltas);
+        if (!failures.isEmpty()) {
+            throw new BatchOperationException(
+                "Batch inventory update partially failed for " + failures.size() + " items",
+                new TreeMap<>(failures)
+            );
+        }
+    }
 
-        // Use parallel stream for processing updates in parallel
-        inventoryUpdates.entrySet().parallelStream().forEach(entry -> {
-            Integer productId = entry.getKey();
-            Integer quantityChange = entry.getValue();
+    /**
+     * STOCK IMPORT CHUNK
+     * <p>
+     * Applies one chunk of an inventory import in a single transaction with one
+     * cache invalidation for the whole chunk.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @Caching(evict = {
+        @CacheEvict(value = "inventoryByProduct", allEntries = true, cacheManager = "shortCacheManager")
+    })
+    public Map<Integer, RuntimeException> applyStockChanges(Map<Integer, Integer> quantities,
+                                                            Map<Integer, Integer> deltas) {
+        return applyChanges(quantities, deltas);
+    }
 
-            if (quantityChange == 0) return;
+    /**
+     * Moves every product to its target stock. All inventory rows are locked first in
+     * product ID order, then the stripes of striped products in product ID order, which
+     * get the new total spread over them. Journaled products go through the journal,
+     * and all other row writes go out as one JDBC batch.
+     *
+     * @return failures keyed by product ID; products absent from the map were applied
+     */
+    private Map<Integer, RuntimeException> applyChanges(Map<Integer, Integer> quantities,
+                                                        Map<Integer, Integer> deltas) {
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        Map<Integer, Integer> applied = new TreeMap<>();
+        Set<Integer> productIds = new TreeSet<>(quantities.keySet());
+        productIds.addAll(deltas.keySet());
+
+        // Every row is locked up front, journaled ones included, so rows are locked in product ID order
+        Map<Integer, Integer> currentStock = lockRows(productIds);
+
+        Set<Integer> rowProductIds = new TreeSet<>();
+        for (Integer productId : productIds) {
+            if (!stockJournal.isJournaled(productId)) {
+                rowProductIds.add(productId);
+                continue;
+            }
+            try {
+                Integer current = stockJournal.lockStock(List.of(productId)).get(productId);
+                if (current == null) {
+                    throw new ResourceNotFoundException("Inventory", "productId", productId);
+                }
+                int change = targetStock(productId, current, quantities, deltas) - current;
+                MovementType type = quantities.containsKey(productId) ? MovementType.SET
+                        : change > 0 ? MovementType.ADD : MovementType.REMOVE;
+                if (change < 0) {
+                    stockJournal.take(Map.of(productId, -change), type);
+                } else if (change > 0) {
+                    stockJournal.give(Map.of(productId, change), type);
+                }
+                applied.put(productId, change);
+            } catch (RuntimeException e) {
+                failures.put(productId, e);
+            }
+        }
 
+        Set<Integer> stripedProductIds = inventoryJdbcRepository.findStripeCounts(rowProductIds).keySet();
+        for (Integer productId : stripedProductIds) {
             try {
-                if (quantityChange > 0) {
-                    addStock(productId, quantityChange);
-                } else {
-                    removeStock(productId, Math.abs(quantityChange));
+                List<Integer> stripes = lockStripes(productId);
+                int current = currentStock.get(productId) + stripes.stream().mapToInt(Integer::intValue).sum();
+                int target = targetStock(productId, current, quantities, deltas);
+                inventoryJdbcRepository.redistribute(productId, 0, splitEvenly(target, stripes.size()));
+                if (target != current) {
+                    applied.put(productId, target - current);
                 }
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
                 failures.put(productId, e);
             }
-        });
+        }
+        rowProductIds.removeAll(stripedProductIds);
+
+        Map<Integer, Integer> newStock = new TreeMap<>();
+        for (Integer productId : rowProductIds) {
+            Integer current = currentStock.get(productId);
+            if (current == null) {
+                failures.put(productId, new ResourceNotFoundException("Inventory", "productId", productId));
+                continue;
+            }
+            try {
+                int target = targetStock(productId, current, quantities, deltas);
+                if (target != current) {
+                    newStock.put(productId, target);
+                    applied.put(productId, target - current);
+                }
+            } catch (RuntimeException e) {
+                failures.put(productId, e);
+            }
+        }
 
-        if (!failures.isEmpty()) {
-            throw new BatchOperationException(
-                "Batch inventory update partially failed for " + failures.size() + " items", 
-                failures
-            );
+        if (!newStock.isEmpty()) {
+            inventoryJdbcRepository.setStockBatch(newStock);
+        }
+        stockChanged(applied);
+        return failures;
+    }
+
+    private int targetStock(Integer productId, int current,
+                            Map<Integer, Integer> quantities, Map<Integer, Integer> deltas) {
+        Integer quantity = quantities.get(productId);
+        if (quantity != null) {
+            if (quantity < 0) {
+                throw new ValidationException("quantityInStock", "cannot be negative");
+            }
+            return quantity;
+        }
+        int delta = deltas.get(productId);
+        if (current + delta < 0) {
+            throw new InsufficientStockException(productId, -delta, current);
         }
+        return current + delta;
     }
 
     private void validateInventoryData(Inventory inventory) {
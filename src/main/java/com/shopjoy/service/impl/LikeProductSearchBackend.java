@@ -0,0 +1,70 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductSearchBackend;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Search backend that runs {@code upper(...) like '%term%'} queries. Works on
+ * any database, including H2 in tests, and is the fallback of the other
+ * backends for queries they cannot answer. Results are not ranked.
+ */
+@AllArgsConstructor
+public class LikeProductSearchBackend implements ProductSearchBackend {
+
+    static final String RELEVANCE = "relevance";
+
+    private final ProductRepository productRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+
+    @Override
+    public List<Product> searchByName(String keyword) {
+        return productRepository.findByProductName(keyword);
+    }
+
+    @Override
+    public Page<Product> search(String text, Pageable pageable) {
+        return productRepository.findByProductCategory(text, text, pageable);
+    }
+
+    @Override
+    public Page<Product> searchWithFilters(ProductFilter filter, Pageable pageable) {
+        return productRepository.findWithFilters(
+                filter.getSearchTerm(),
+                filter.getCategoryId(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                filter.getBrand(),
+                filter.getActive(),
+                withoutRelevance(pageable));
+    }
+
+    @Override
+    public List<Integer> searchIds(String text) {
+        return productRepository.findIdsByText(text);
+    }
+
+    @Override
+    public List<Integer> searchIdsAfter(ProductFilter filter, ProductCursor cursor, int limit) {
+        return productJdbcRepository.seekIds(filter, false, cursor, limit);
+    }
+
+    /**
+     * Drops a "relevance" sort, which only ranking backends can apply.
+     */
+    static Pageable withoutRelevance(Pageable pageable) {
+        if (pageable.getSort().getOrderFor(RELEVANCE) == null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+}
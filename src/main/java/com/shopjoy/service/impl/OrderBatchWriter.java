@@ -0,0 +1,408 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.aspect.PerformanceMetricsCollector;
+import com.shopjoy.dto.mapper.OrderMapperStruct;
+import com.shopjoy.dto.request.CreateOrderRequest;
+import com.shopjoy.dto.response.OrderResponse;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.entity.Order;
+import com.shopjoy.entity.OrderItem;
+import com.shopjoy.entity.OrderStatus;
+import com.shopjoy.entity.PaymentStatus;
+import com.shopjoy.exception.BusinessException;
+import com.shopjoy.exception.InsufficientStockException;
+import com.shopjoy.repository.OrderJdbcRepository;
+import com.shopjoy.repository.OrderRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.repository.UserRepository;
+import com.shopjoy.service.InventoryService;
+import com.shopjoy.service.StockReservationService;
+import com.shopjoy.util.NegativeLookupCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Group-commit writer for new orders.
+ * Validated orders are queued and a single writer thread drains up to
+ * {@code max-size} orders, or whatever arrived within {@code max-wait-ms},
+ * into one transaction with batched inserts. Each caller's future completes
+ * once the transaction holding its order has committed.
+ */
+@Slf4j
+@Component
+public class OrderBatchWriter {
+
+    private static final String METRIC_CATEGORY = "orderBatch";
+
+    private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final StockReservationService stockReservationService;
+    private final OrderMapperStruct orderMapper;
+    private final PerformanceMetricsCollector metricsCollector;
+    private final CacheManager orderCacheManager;
+    private final NegativeLookupCache negativeLookupCache;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+
+    private final BlockingQueue<PendingOrder> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+
+    private final AtomicLong batchesCommitted = new AtomicLong();
+    private final AtomicLong ordersCommitted = new AtomicLong();
+    private final AtomicLong ordersFailed = new AtomicLong();
+    private final AtomicLong ordersRejected = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public OrderBatchWriter(OrderRepository orderRepository,
+                            OrderJdbcRepository orderJdbcRepository,
+                            UserRepository userRepository,
+                            ProductRepository productRepository,
+                            InventoryService inventoryService,
+                            StockReservationService stockReservationService,
+                            OrderMapperStruct orderMapper,
+                            PerformanceMetricsCollector metricsCollector,
+                            @Qualifier("mediumCacheManager") CacheManager orderCacheManager,
+                            NegativeLookupCache negativeLookupCache,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.orders.batch.queue-capacity:1000}") int queueCapacity,
+                            @Value("${app.orders.batch.max-size:50}") int maxBatchSize,
+                            @Value("${app.orders.batch.max-wait-ms:10}") long maxWaitMs) {
+        this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.stockReservationService = stockReservationService;
+        this.orderMapper = orderMapper;
+        this.metricsCollector = metricsCollector;
+        this.orderCacheManager = orderCacheManager;
+        this.negativeLookupCache = negativeLookupCache;
+
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    /**
+     * An order that passed validation and is waiting for the writer.
+     */
+    public record PendingOrder(
+            CreateOrderRequest request,
+            BigDecimal totalAmount,
+            Map<Integer, Integer> quantitiesByProduct,
+            Map<Integer, ProductResponse> productsById,
+            CompletableFuture<OrderResponse> result
+    ) {
+        public PendingOrder(CreateOrderRequest request, BigDecimal totalAmount,
+                            Map<Integer, Integer> quantitiesByProduct, Map<Integer, ProductResponse> productsById) {
+            this(request, totalAmount, quantitiesByProduct, productsById, new CompletableFuture<>());
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "order-batch-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+
+        List<PendingOrder> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result().completeExceptionally(
+                new BusinessException("Order service is shutting down", "ORDER_QUEUE_CLOSED")));
+    }
+
+    /**
+     * Queues a validated order for the next batch.
+     *
+     * @param pending the order to write
+     * @return future completed with the persisted order once its batch commits;
+     *         failed immediately when the queue is full
+     */
+    public CompletableFuture<OrderResponse> submit(PendingOrder pending) {
+        if (!running || !queue.offer(pending)) {
+            ordersRejected.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new BusinessException("Too many orders in flight, please retry shortly", "ORDER_QUEUE_FULL"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Current queue and throughput counters for tuning batch size and wait time.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        stats.put("batchesCommitted", batchesCommitted.get());
+        stats.put("ordersCommitted", ordersCommitted.get());
+        stats.put("ordersFailed", ordersFailed.get());
+        stats.put("ordersRejected", ordersRejected.get());
+        long batches = batchesCommitted.get();
+        stats.put("averageBatchSize", batches == 0 ? 0.0 : (double) ordersCommitted.get() / batches);
+        return stats;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            List<PendingOrder> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                writeBatch(batch);
+            } catch (Exception e) {
+                log.error("Order batch of {} failed unexpectedly: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    /**
+     * Blocks for the first order, then collects more until the batch is full
+     * or the wait window since the first order has passed.
+     */
+    private List<PendingOrder> nextBatch() throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        batch.add(queue.take());
+        metricsCollector.recordMetric(METRIC_CATEGORY, "queueDepth", queue.size() + 1L);
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void writeBatch(List<PendingOrder> batch) {
+        long startTime = System.nanoTime();
+        List<PendingOrder> accepted;
+        List<Order> orders;
+        try {
+            List<Order> written = new ArrayList<>();
+            accepted = writeTransaction.execute(_ -> {
+                List<PendingOrder> allocated = allocateStock(batch);
+                written.addAll(insertOrders(allocated));
+                return allocated;
+            });
+            orders = written;
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                ordersFailed.incrementAndGet();
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            // One bad order must not fail its neighbours: retry each order in its own transaction
+            log.warn("Order batch of {} rolled back ({}), writing orders individually", batch.size(), e.getMessage());
+            batch.stream()
+                    .filter(pending -> !pending.result().isDone())
+                    .forEach(pending -> writeBatch(List.of(pending)));
+            return;
+        }
+
+        long commitLatencyMs = (System.nanoTime() - startTime) / 1_000_000;
+        metricsCollector.recordMetric(METRIC_CATEGORY, "commitLatencyMs", commitLatencyMs);
+        metricsCollector.recordMetric(METRIC_CATEGORY, "batchSize", accepted.size());
+        batchesCommitted.incrementAndGet();
+        ordersCommitted.addAndGet(accepted.size());
+
+        evictOrderCaches(accepted);
+        orders.forEach(order -> negativeLookupCache.forget("order", order.getId()));
+        completeAccepted(accepted, orders);
+    }
+
+    /**
+     * Locks the inventory rows of the batch's plain products, allocates their stock
+     * to the batch in arrival order and reserves the combined quantity. Orders that
+     * cannot be covered are failed here and left out of the batch. Striped and
+     * journaled products are checked when the combined quantity is reserved; a
+     * shortfall there rolls the batch back and its orders are written one by one.
+     */
+    private List<PendingOrder> allocateStock(List<PendingOrder> batch) {
+        Map<Integer, Integer> available = new HashMap<>(inventoryService.lockAvailableStock(
+                batch.stream()
+                        .flatMap(pending -> pending.quantitiesByProduct().keySet().stream())
+                        .collect(Collectors.toSet())));
+
+        List<PendingOrder> accepted = new ArrayList<>(batch.size());
+        Map<Integer, Integer> toReserve = new TreeMap<>();
+        for (PendingOrder pending : batch) {
+            Map.Entry<Integer, Integer> shortfall = pending.quantitiesByProduct().entrySet().stream()
+                    .filter(entry -> available.containsKey(entry.getKey())
+                            && available.get(entry.getKey()) < entry.getValue())
+                    .findFirst()
+                    .orElse(null);
+            if (shortfall != null) {
+                ordersFailed.incrementAndGet();
+                pending.result().completeExceptionally(new InsufficientStockException(
+                        shortfall.getKey(), shortfall.getValue(), available.get(shortfall.getKey())));
+                continue;
+            }
+            pending.quantitiesByProduct().forEach((productId, quantity) -> {
+                available.computeIfPresent(productId, (_, stock) -> stock - quantity);
+                toReserve.merge(productId, quantity, Integer::sum);
+            });
+            accepted.add(pending);
+        }
+
+        if (!toReserve.isEmpty()) {
+            inventoryService.reserveStockBatch(toReserve);
+        }
+        return accepted;
+    }
+
+    private List<Order> insertOrders(List<PendingOrder> accepted) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = accepted.stream()
+                .map(pending -> buildOrder(pending, now))
+                .collect(Collectors.toList());
+        orderJdbcRepository.insertOrders(orders);
+
+        List<OrderItem> items = new ArrayList<>();
+        Map<Integer, Map<Integer, Integer>> holdsByOrder = new LinkedHashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            PendingOrder pending = accepted.get(i);
+            Order order = orders.get(i);
+            items.addAll(buildOrderItems(order, pending, now));
+            holdsByOrder.put(order.getId(), pending.quantitiesByProduct());
+        }
+        orderJdbcRepository.insertOrderItems(items);
+        stockReservationService.holdForOrders(holdsByOrder);
+        return orders;
+    }
+
+    private Order buildOrder(PendingOrder pending, LocalDateTime now) {
+        Order order = orderMapper.toOrder(pending.request());
+        order.setUser(userRepository.getReferenceById(pending.request().getUserId()));
+        order.setTotalAmount(pending.totalAmount());
+        order.setOrderDate(now);
+        order.setStatus(OrderStatus.PENDING);
+        order.setPaymentStatus(PaymentStatus.UNPAID);
+
+        if (order.getPaymentMethod() == null || order.getPaymentMethod().trim().isEmpty()) {
+            order.setPaymentMethod("CASH");
+        }
+
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        return order;
+    }
+
+    private List<OrderItem> buildOrderItems(Order order, PendingOrder pending, LocalDateTime now) {
+        return pending.request().getOrderItems().stream()
+                .map(itemReq -> {
+                    ProductResponse product = pending.productsById().get(itemReq.getProductId());
+                    BigDecimal unitPrice = BigDecimal.valueOf(product.getPrice());
+                    BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(itemReq.getQuantity()));
+
+                    return OrderItem.builder()
+                            .order(order)
+                            .product(productRepository.getReferenceById(itemReq.getProductId()))
+                            .quantity(itemReq.getQuantity())
+                            .unitPrice(unitPrice)
+                            .subtotal(subtotal)
+                            .createdAt(now)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void evictOrderCaches(List<PendingOrder> accepted) {
+        clearCache("orders");
+        clearCache("ordersByStatus");
+        clearCache("pendingOrders");
+        Cache ordersByUser = orderCacheManager.getCache("ordersByUser");
+        if (ordersByUser != null) {
+            accepted.forEach(pending -> ordersByUser.evict(pending.request().getUserId()));
+        }
+    }
+
+    private void clearCache(String name) {
+        Cache cache = orderCacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Reloads the committed orders with their items and completes each caller's future.
+     */
+    private void completeAccepted(List<PendingOrder> accepted, List<Order> orders) {
+        Map<Integer, OrderResponse> responses;
+        try {
+            responses = readTransaction.execute(_ -> orderRepository.findAllById(
+                            orders.stream().map(Order::getId).collect(Collectors.toList()))
+                    .stream()
+                    .map(orderMapper::toOrderResponse)
+                    .collect(Collectors.toMap(OrderResponse::getId, Function.identity())));
+        } catch (Exception e) {
+            log.error("Orders committed but could not be reloaded: {}", e.getMessage(), e);
+            accepted.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).result().complete(responses.get(orders.get(i).getId()));
+        }
+    }
+}
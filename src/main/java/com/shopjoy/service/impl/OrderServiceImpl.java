@@ -1,6 +1,7 @@
 package com.shopjoy.service.impl;
 
 import com.shopjoy.dto.mapper.OrderMapperStruct;
+import com.shopjoy.dto.filter.CountMode;
 import com.shopjoy.dto.filter.OrderFilter;
 import com.shopjoy.dto.request.CreateOrderItemRequest;
 import com.shopjoy.dto.request.CreateOrderRequest;
@@ -16,22 +17,25 @@ import com.shopjoy.exception.ResourceNotFoundException;
 import com.shopjoy.exception.ValidationException;
 import com.shopjoy.repository.OrderItemRepository;
 import com.shopjoy.repository.OrderRepository;
-import com.shopjoy.repository.UserRepository;
-import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.repository.RowEstimateRepository;
 import com.shopjoy.entity.SecurityEventType;
 import com.shopjoy.service.InventoryService;
 import com.shopjoy.service.OrderService;
 import com.shopjoy.service.ProductService;
 import com.shopjoy.service.SecurityAuditService;
+import com.shopjoy.service.StockReservationService;
 import com.shopjoy.service.UserService;
 import com.shopjoy.service.EmailService;
+import com.shopjoy.util.NegativeLookupCache;
+import com.shopjoy.util.PageCounter;
+import com.shopjoy.util.TransientFailureRetrier;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -43,6 +47,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -53,79 +59,89 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final UserRepository userRepository;
-    private final ProductRepository productRepository;
     private final InventoryService inventoryService;
     private final ProductService productService;
     private final UserService userService;
     private final OrderMapperStruct orderMapper;
     private final SecurityAuditService securityAuditService;
     private final EmailService emailService;
-
+    private final StockReservationService stockReservationService;
+    private final OrderBatchWriter orderBatchWriter;
+    private final Executor appTaskExecutor;
+    private final TransientFailureRetrier transientFailureRetrier;
+    private final NegativeLookupCache negativeLookupCache;
+    private final PageCounter pageCounter;
+    private final RowEstimateRepository rowEstimateRepository;
+
+    /**
+     * Validates the order on {@code appTaskExecutor} and hands it to the group-commit
+     * writer, which persists it together with other orders arriving in the same window.
+     */
     @Override
-    @Async("appTaskExecutor")
-    @Transactional(isolation = Isolation.SERIALIZABLE, propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
-    @Caching(evict = {
-        @CacheEvict(value = "orders", allEntries = true, cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "ordersByUser", key = "#request.userId", cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "ordersByStatus", allEntries = true, cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "pendingOrders", allEntries = true, cacheManager = "mediumCacheManager")
-    })
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CompletableFuture<OrderResponse> createOrder(CreateOrderRequest request) {
         long startTime = System.nanoTime();
 
-        try {
-            log.info("Starting async order creation for user {}", request.getUserId());
-
-            validateCreateOrderRequest(request);
-
-            Map<Integer, ProductResponse> productsById = fetchProducts(request.getOrderItems());
-
-            BigDecimal totalAmount = validateStockAndCalculateTotal(request.getOrderItems(), productsById);
-
-            reserveInventory(request.getOrderItems());
-
-            Order createdOrder = buildAndSaveOrder(request, totalAmount);
-
-            createAndSaveOrderItems(createdOrder, request.getOrderItems(), productsById);
+        // Serialization failures, deadlocks and lock timeouts re-run validation and re-queue the order
+        return transientFailureRetrier.execute("createOrder", () ->
+                        CompletableFuture.supplyAsync(() -> prepareOrder(request), appTaskExecutor)
+                                .thenCompose(orderBatchWriter::submit))
+                .thenApply(orderResponse -> {
+                    // The order is committed; a saturated pool may skip the follow-up, never fail the order
+                    try {
+                        appTaskExecutor.execute(() -> afterOrderCreated(request, orderResponse));
+                    } catch (RejectedExecutionException e) {
+                        log.warn("Order #{} created, but its audit event and confirmation email were skipped: {}",
+                                orderResponse.getId(), e.getMessage());
+                    }
 
-            // Fetch user details once
-            var userResponse = userService.getUserById(request.getUserId());
-            String username  = userResponse.getUsername();
-            String userEmail = userResponse.getEmail();
+                    long executionTimeMs = (System.nanoTime() - startTime) / 1_000_000;
+                    log.info("Async order creation completed in {}ms. Order ID: {}", executionTimeMs, orderResponse.getId());
+                    return orderResponse;
+                })
+                .whenComplete((_, e) -> {
+                    if (e != null) {
+                        long executionTimeMs = (System.nanoTime() - startTime) / 1_000_000;
+                        log.error("Async order creation failed after {}ms: {}", executionTimeMs, e.getMessage(), e);
+                    }
+                });
+    }
 
-            securityAuditService.logEvent(
-                username,
-                SecurityEventType.ORDER_CREATED,
-                String.format("Order #%d created with %d items, total amount: $%.2f",
-                    createdOrder.getId(),
-                    request.getOrderItems().size(),
-                    totalAmount),
-                true
-            );
+    private OrderBatchWriter.PendingOrder prepareOrder(CreateOrderRequest request) {
+        log.info("Starting async order creation for user {}", request.getUserId());
 
-            Order refreshedOrder = orderRepository.findById(createdOrder.getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", createdOrder.getId()));
+        validateCreateOrderRequest(request);
 
-            OrderResponse orderResponse = orderMapper.toOrderResponse(refreshedOrder);
+        Map<Integer, ProductResponse> productsById = fetchProducts(request.getOrderItems());
 
-            // Send email in a fire-and-forget fashion — never let email failure fail the order
-            try {
-                emailService.sendOrderConfirmationEmail(orderResponse, userEmail);
-            } catch (Exception emailEx) {
-                log.warn("Order #{} created successfully but confirmation email failed: {}",
-                        orderResponse.getId(), emailEx.getMessage());
-            }
+        BigDecimal totalAmount = validateStockAndCalculateTotal(request.getOrderItems(), productsById);
 
-            long executionTimeMs = (System.nanoTime() - startTime) / 1_000_000;
-            log.info("Async order creation completed in {}ms. Order ID: {}", executionTimeMs, orderResponse.getId());
+        return new OrderBatchWriter.PendingOrder(
+                request, totalAmount, sumQuantitiesByProduct(request.getOrderItems()), productsById);
+    }
 
-            return CompletableFuture.completedFuture(orderResponse);
+    private void afterOrderCreated(CreateOrderRequest request, OrderResponse orderResponse) {
+        // Fetch user details once
+        var userResponse = userService.getUserById(request.getUserId());
+        String username  = userResponse.getUsername();
+        String userEmail = userResponse.getEmail();
+
+        securityAuditService.logEvent(
+            username,
+            SecurityEventType.ORDER_CREATED,
+            String.format("Order #%d created with %d items, total amount: $%.2f",
+                orderResponse.getId(),
+                request.getOrderItems().size(),
+                orderResponse.getTotalAmount()),
+            true
+        );
 
-        } catch (Exception e) {
-            long executionTimeMs = (System.nanoTime() - startTime) / 1_000_000;
-            log.error("Async order creation failed after {}ms: {}", executionTimeMs, e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
+        // Send email in a fire-and-forget fashion — never let email failure fail the order
+        try {
+            emailService.sendOrderConfirmationEmail(orderResponse, userEmail);
+        } catch (Exception emailEx) {
+            log.warn("Order #{} created successfully but confirmation email failed: {}",
+                    orderResponse.getId(), emailEx.getMessage());
         }
     }
 
@@ -150,6 +166,11 @@ public class OrderServiceImpl implements OrderService {
                 throw new InvalidOrderStateException(orderId, "CANCELLED", "process payment");
             }
 
+            // Confirming the stock hold only touches stock_reservations, never the inventory row
+            if (!stockReservationService.confirmForOrder(orderId)) {
+                throw new InvalidOrderStateException(orderId, "HOLD_EXPIRED", "process payment");
+            }
+
             order.setPaymentStatus(PaymentStatus.PAID);
             order.setStatus(OrderStatus.PROCESSING);
             order.setUpdatedAt(LocalDateTime.now());
@@ -216,78 +237,49 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private BigDecimal validateStockAndCalculateTotal(List<CreateOrderItemRequest> items, Map<Integer, ProductResponse> productsById) {
+        Map<Integer, Integer> requestedByProduct = sumQuantitiesByProduct(items);
+        Map<Integer, Integer> availableByProduct = inventoryService.getAvailableStock(requestedByProduct.keySet());
+
+        requestedByProduct.forEach((productId, requested) -> {
+            if (availableByProduct.getOrDefault(productId, 0) < requested) {
+                throw new ValidationException("Insufficient stock for product: " + productsById.get(productId).getProductName());
+            }
+        });
+
         return items.stream()
                 .map(itemReq -> {
                     ProductResponse product = productsById.get(itemReq.getProductId());
                     if (!product.isActive()) {
                         throw new ValidationException("Product " + product.getProductName() + " is not active");
                     }
-                    if (!inventoryService.hasAvailableStock(itemReq.getProductId(), itemReq.getQuantity())) {
-                        throw new ValidationException("Insufficient stock for product: " + product.getProductName());
-                    }
                     return BigDecimal.valueOf(product.getPrice())
                             .multiply(BigDecimal.valueOf(itemReq.getQuantity()));
                 })
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
-    private void reserveInventory(List<CreateOrderItemRequest> items) {
-        items.forEach(itemReq -> 
-            inventoryService.reserveStock(itemReq.getProductId(), itemReq.getQuantity())
-        );
-    }
-
-    private Order buildAndSaveOrder(CreateOrderRequest request, BigDecimal totalAmount) {
-        Order order = orderMapper.toOrder(request);
-        order.setUser(userRepository.getReferenceById(request.getUserId()));
-        order.setTotalAmount(totalAmount);
-        order.setOrderDate(LocalDateTime.now());
-        order.setStatus(OrderStatus.PENDING);
-        order.setPaymentStatus(PaymentStatus.UNPAID);
-        
-        if (order.getPaymentMethod() == null || order.getPaymentMethod().trim().isEmpty()) {
-            order.setPaymentMethod("CASH");
-        }
-        
-        order.setCreatedAt(LocalDateTime.now());
-        order.setUpdatedAt(LocalDateTime.now());
-
-        return orderRepository.save(order);
-    }
-
-    private void createAndSaveOrderItems(Order order, List<CreateOrderItemRequest> items, Map<Integer, ProductResponse> productsById) {
-        List<OrderItem> orderItems = items.stream()
-                .map(itemReq -> {
-                    ProductResponse product = productsById.get(itemReq.getProductId());
-                    BigDecimal unitPrice = BigDecimal.valueOf(product.getPrice());
-                    BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(itemReq.getQuantity()));
-
-                    return OrderItem.builder()
-                            .order(order)
-                            .product(productRepository.getReferenceById(itemReq.getProductId()))
-                            .quantity(itemReq.getQuantity())
-                            .unitPrice(unitPrice)
-                            .subtotal(subtotal)
-                            .createdAt(LocalDateTime.now())
-                            .build();
-                })
-                .collect(Collectors.toList());
-        orderItemRepository.saveAll(orderItems);
+    private Map<Integer, Integer> sumQuantitiesByProduct(List<CreateOrderItemRequest> items) {
+        return items.stream()
+                .collect(Collectors.toMap(
+                        CreateOrderItemRequest::getProductId,
+                        CreateOrderItemRequest::getQuantity,
+                        Integer::sum));
     }
 
     @Override
     @Cacheable(value = "order", key = "#orderId", unless = "#result == null", cacheManager = "mediumCacheManager")
     public OrderResponse getOrderById(Integer orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = negativeLookupCache.find("order", orderId, () -> orderRepository.findById(orderId))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
         return orderMapper.toOrderResponse(order);
     }
 
     @Override
-    @Cacheable(value = "orders", cacheManager = "mediumCacheManager")
-    public Page<OrderResponse> getOrders(Integer userId, OrderFilter filter, Pageable pageable) {
-        Page<Order> orderPage = orderRepository.findAll(pageable);
-        return orderPage.map(orderMapper::toOrderResponse);
+    @Cacheable(value = "orders", sync = true, cacheManager = "mediumCacheManager")
+    public Slice<OrderResponse> getOrders(Integer userId, OrderFilter filter, Pageable pageable, CountMode count) {
+        Slice<Order> orderSlice = orderRepository.findSlice(pageable);
+        return pageCounter.page("orders", count, orderSlice.map(orderMapper::toOrderResponse), Map.of(),
+                orderRepository::count, () -> rowEstimateRepository.tableRows("orders"));
     }
 
     @Override
@@ -333,10 +325,7 @@ public class OrderServiceImpl implements OrderService {
                     "cancel (can only cancel PENDING or PROCESSING orders)");
         }
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
-        orderItems.forEach(item ->
-            inventoryService.releaseStock(item.getProduct().getId(), item.getQuantity())
-        );
+        restockOrder(orderId);
 
         order.setStatus(OrderStatus.CANCELLED);
         order.setUpdatedAt(LocalDateTime.now());
@@ -385,13 +374,24 @@ public class OrderServiceImpl implements OrderService {
                 "delete (can only delete PENDING orders)");
         }
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
-        orderItems.forEach(item ->
-            inventoryService.releaseStock(item.getProduct().getId(), item.getQuantity())
-        );
+        restockOrder(orderId);
 
         orderRepository.deleteById(orderId);
     }
 
+    /**
+     * Returns an order's stock. Orders with stock holds only restock holds that are
+     * still held or confirmed, so stock already returned by expiry is not returned twice.
+     */
+    private void restockOrder(Integer orderId) {
+        Map<Integer, Integer> toRestock = stockReservationService.releaseForOrder(orderId)
+                .orElseGet(() -> orderItemRepository.findByOrderId(orderId).stream()
+                        .collect(Collectors.toMap(
+                                item -> item.getProduct().getId(),
+                                OrderItem::getQuantity,
+                                Integer::sum)));
+        inventoryService.releaseStockBatch(toRestock);
+    }
+
 }
 
@@ -0,0 +1,131 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.dto.response.ProductFacetsResponse;
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.ProductJdbcRepository.FacetCount;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductSearchBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Counts the category, brand, active and price bucket facets of a product filter
+ * with one grouped query, instead of one listing call per facet. A search term is
+ * first resolved to product IDs by the search backend, so the counts cover the
+ * same products as the filtered page.
+ * <p>
+ * The counts are cached with the IDs of the matching products and only change
+ * with product writes. The stock facet is counted over those IDs when the
+ * facets are read, so stock changes never evict them.
+ */
+@Component
+public class ProductFacetCounter {
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductSearchBackend productSearchBackend;
+    private final List<BigDecimal> priceBounds;
+
+    public ProductFacetCounter(
+            ProductJdbcRepository productJdbcRepository,
+            ProductSearchBackend productSearchBackend,
+            @Value("${app.search.facets.price-bounds:25,50,100,250,500,1000}") BigDecimal[] priceBounds) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productSearchBackend = productSearchBackend;
+        this.priceBounds = Arrays.stream(priceBounds).sorted().distinct().toList();
+    }
+
+    /**
+     * Facet counts that do not depend on stock, with the IDs of the products they cover.
+     */
+    public record FacetCounts(ProductFacetsResponse facets, int[] productIds) {
+
+        /**
+         * @param inStock tells whether a product has stock left
+         * @return a new response with these counts and the stock facet
+         */
+        public ProductFacetsResponse withStock(IntPredicate inStock) {
+            long inStockCount = Arrays.stream(productIds).filter(inStock).count();
+            return new ProductFacetsResponse(facets.getTotalProducts(), facets.getCategories(), facets.getBrands(),
+                    facets.getActive(), facets.getPriceBuckets(), inStockCount, productIds.length - inStockCount);
+        }
+    }
+
+    /**
+     * @param filter the filter, applied as {@code getProductsWithFilters} applies it
+     * @return the facet counts over the matching products, without the stock facet
+     */
+    @Cacheable(value = "productFacets",
+               key = "T(String).format('%s:%s:%s:%s:%s:%s', " + ProductServiceImpl.FILTER_KEY_FIELDS + ")",
+               sync = true,
+               cacheManager = "cacheManager")
+    public FacetCounts count(ProductFilter filter) {
+        List<FacetCount> rows;
+        int[] productIds;
+        String searchTerm = filter.getSearchTerm();
+        if (searchTerm == null || searchTerm.isBlank()) {
+            rows = productJdbcRepository.countFacets(filter, null, priceBounds);
+            productIds = productJdbcRepository.findMatchingIds(filter, null);
+        } else {
+            List<Integer> ids = productSearchBackend.searchIds(searchTerm);
+            rows = new ArrayList<>();
+            List<int[]> idBatches = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += ProductRepository.ID_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(from + ProductRepository.ID_BATCH_SIZE, ids.size()));
+                rows.addAll(productJdbcRepository.countFacets(filter, batch, priceBounds));
+                idBatches.add(productJdbcRepository.findMatchingIds(filter, batch));
+            }
+            productIds = idBatches.stream().flatMapToInt(Arrays::stream).toArray();
+        }
+        return new FacetCounts(fold(rows), productIds);
+    }
+
+    private ProductFacetsResponse fold(List<FacetCount> rows) {
+        ProductFacetsResponse facets = new ProductFacetsResponse();
+        Map<Integer, Long> categories = new HashMap<>();
+        Map<String, Long> brands = new HashMap<>();
+        long[] buckets = new long[priceBounds.size() + 1];
+        facets.getActive().put(true, 0L);
+        facets.getActive().put(false, 0L);
+        for (FacetCount row : rows) {
+            facets.setTotalProducts(facets.getTotalProducts() + row.products());
+            if (row.categoryId() != null) {
+                categories.merge(row.categoryId(), row.products(), Long::sum);
+            }
+            if (row.brand() != null) {
+                brands.merge(row.brand(), row.products(), Long::sum);
+            }
+            facets.getActive().merge(row.active(), row.products(), Long::sum);
+            buckets[row.priceBucket()] += row.products();
+        }
+        facets.setCategories(byCountDescending(categories));
+        facets.setBrands(byCountDescending(brands));
+        BigDecimal minPrice = BigDecimal.ZERO;
+        for (int i = 0; i < buckets.length; i++) {
+            BigDecimal maxPrice = i < priceBounds.size() ? priceBounds.get(i) : null;
+            facets.getPriceBuckets().add(new ProductFacetsResponse.PriceBucket(minPrice, maxPrice, buckets[i]));
+            minPrice = maxPrice;
+        }
+        return facets;
+    }
+
+    private static <K extends Comparable<K>> Map<K, Long> byCountDescending(Map<K, Long> counts) {
+        Map<K, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
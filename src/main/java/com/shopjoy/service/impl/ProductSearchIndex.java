@@ -0,0 +1,613 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.ProductJdbcRepository.SearchDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over product names and descriptions, used for
+ * product search instead of {@code upper(...) like '%term%'} scans.
+ * <p>
+ * Text is lower-cased and split into runs of letters and digits; common
+ * English stop words are dropped. Every query token must match a name or
+ * description token, exactly or as a prefix: "lap" finds "laptop", but
+ * unlike LIKE, "top" does not. Hits are scored per query token by where it
+ * matched (name over description, exact over prefix), weighted by how rare
+ * the matched term is.
+ * <p>
+ * Postings are sorted ID arrays that writes replace rather than modify, so
+ * searches take no locks. Product writes are applied after commit, and a
+ * periodic rebuild picks up writes made by other instances. Until the first
+ * build completes, and for queries without a usable token, callers fall back
+ * to the database. The index is only built when it is the selected search backend.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    /** Value of {@code app.search.backend} that enables the index. */
+    public static final String BACKEND = "index";
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double PREFIX_FACTOR = 0.5;
+    /** A short prefix such as "s" would otherwise expand to most of the vocabulary. */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "the", "to", "with");
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final boolean enabled;
+
+    private final Object writeLock = new Object();
+    private volatile Segment segment = new Segment();
+    private volatile boolean ready;
+    /** Writes made while a rebuild runs, replayed onto the rebuilt segment; null when not rebuilding. */
+    private List<Consumer<Segment>> replay;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRebuildMs;
+
+    public ProductSearchIndex(ProductJdbcRepository productJdbcRepository,
+                              @Value("${app.search.backend:index}") String backend) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.enabled = BACKEND.equals(backend);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return true once the index has been built and can answer searches
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Indexes the product, replacing any earlier version, once the surrounding transaction commits.
+     */
+    public void index(Product product) {
+        SearchDocument document = new SearchDocument(
+                product.getId(),
+                product.getProductName(),
+                product.getDescription(),
+                product.getBrand(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getPrice() != null ? product.getPrice().doubleValue() : 0,
+                product.isActive(),
+                product.getCreatedAt() != null
+                        ? product.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L);
+        afterCommit(() -> write(current -> current.add(document)));
+    }
+
+    /**
+     * Removes the product once the surrounding transaction commits.
+     */
+    public void remove(int productId) {
+        afterCommit(() -> write(current -> current.remove(productId)));
+    }
+
+    /**
+     * Runs every ten minutes by default and rebuilds the index from the database.
+     * Writes applied during the rebuild are replayed onto the new index.
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.search.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            replay = new ArrayList<>();
+        }
+        Segment rebuilt;
+        try {
+            SegmentBuilder builder = new SegmentBuilder();
+            productJdbcRepository.forEachSearchDocument(builder::add);
+            rebuilt = builder.build();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                replay = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            replay.forEach(write -> write.accept(rebuilt));
+            replay = null;
+            segment = rebuilt;
+            ready = true;
+        }
+        rebuilds.incrementAndGet();
+        lastRebuildMs = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Product search index rebuilt with {} products, {} terms in {} ms",
+                rebuilt.entries.size(), rebuilt.terms.size(), lastRebuildMs);
+    }
+
+    /**
+     * Finds the products matching every token of the text, best match first.
+     *
+     * @param text               search text
+     * @param includeDescription whether description tokens match as well as name tokens
+     * @param filter             further conditions, as applied by {@code findWithFilters}; may be null
+     * @return the hits, or null if the index cannot answer the query
+     */
+    public List<Hit> search(String text, boolean includeDescription, ProductFilter filter) {
+        List<Scored> scored = score(text, includeDescription, filter);
+        if (scored == null) {
+            return null;
+        }
+        scored.sort(BY_RELEVANCE);
+        return scored.stream().map(Scored::hit).toList();
+    }
+
+    /**
+     * Finds one page of the products matching every token of the text.
+     * Unsorted pages, and pages sorted by "relevance", are ordered best match first.
+     *
+     * @return page of product IDs, or null if the index cannot answer the query or sort
+     */
+    public Page<Integer> searchPage(String text, boolean includeDescription, ProductFilter filter, Pageable pageable) {
+        Comparator<Scored> order = comparatorFor(pageable.getSort());
+        if (order == null) {
+            return null;
+        }
+        List<Scored> scored = score(text, includeDescription, filter);
+        if (scored == null) {
+            return null;
+        }
+        scored.sort(order);
+        int from = (int) Math.min(pageable.getOffset(), scored.size());
+        int to = Math.min(from + pageable.getPageSize(), scored.size());
+        List<Integer> productIds = scored.subList(from, to).stream().map(s -> s.entry.productId).toList();
+        return new PageImpl<>(productIds, pageable, scored.size());
+    }
+
+    /**
+     * Finds the products matching every token of the text that follow the cursor
+     * in its order, product ID breaking ties in the same direction. Names are
+     * compared lower-cased, as in {@link #searchPage}.
+     *
+     * @return up to limit product IDs, or null if the index cannot answer the query
+     */
+    public List<Integer> searchAfter(String text, boolean includeDescription, ProductFilter filter,
+                                     ProductCursor cursor, int limit) {
+        List<Scored> scored = score(text, includeDescription, filter);
+        if (scored == null) {
+            return null;
+        }
+        // Ascending by the property, then by ID
+        Comparator<Scored> order = comparatorFor(Sort.by(cursor.sortBy()));
+        if (cursor.direction().isDescending()) {
+            order = order.reversed();
+        }
+        Stream<Scored> candidates = scored.stream();
+        if ("createdAt".equals(cursor.sortBy())) {
+            candidates = candidates.filter(s -> s.entry.createdAtMillis != 0);
+        }
+        if (!cursor.isFirst()) {
+            Scored position = new Scored(positionOf(cursor), 0);
+            Comparator<Scored> seek = order;
+            candidates = candidates.filter(s -> seek.compare(s, position) > 0);
+        }
+        return candidates.sorted(order).limit(limit).map(s -> s.entry.productId).toList();
+    }
+
+    private static Entry positionOf(ProductCursor cursor) {
+        Object value = cursor.typedValue();
+        return new Entry(cursor.productId(),
+                value instanceof String name ? name.toLowerCase(Locale.ROOT) : "",
+                null, null,
+                value instanceof BigDecimal price ? price.doubleValue() : 0,
+                false,
+                value instanceof LocalDateTime createdAt ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0,
+                new String[0], new String[0]);
+    }
+
+    public Map<String, Object> getStats() {
+        Segment current = segment;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("products", current.entries.size());
+        stats.put("terms", current.terms.size());
+        stats.put("searches", searches.get());
+        stats.put("updates", updates.get());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("lastRebuildMs", lastRebuildMs);
+        return stats;
+    }
+
+    /**
+     * Splits text into lower-case letter and digit runs, without stop words.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean partOfToken = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (partOfToken && start < 0) {
+                start = i;
+            } else if (!partOfToken && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private List<Scored> score(String text, boolean includeDescription, ProductFilter filter) {
+        if (!isReady()) {
+            return null;
+        }
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(text)));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        searches.incrementAndGet();
+        Segment current = segment;
+        // Rarest tokens first keeps the candidate set small
+        tokens.sort(Comparator.comparingInt(current::exactFrequency));
+
+        Map<Integer, Double> scores = null;
+        for (String token : tokens) {
+            Map<Integer, Double> tokenScores = current.scoreToken(token, includeDescription,
+                    scores == null ? null : scores.keySet());
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        List<Scored> scored = new ArrayList<>(scores.size());
+        scores.forEach((productId, score) -> {
+            Entry entry = current.entries.get(productId);
+            if (entry != null && entry.matches(filter)) {
+                scored.add(new Scored(entry, score));
+            }
+        });
+        return scored;
+    }
+
+    private static final Comparator<Scored> BY_ID = Comparator.comparingInt(s -> s.entry.productId);
+    private static final Comparator<Scored> BY_RELEVANCE =
+            Comparator.comparingDouble((Scored s) -> s.score).reversed().thenComparing(BY_ID);
+
+    private static Comparator<Scored> comparatorFor(Sort sort) {
+        if (sort.isUnsorted()) {
+            return BY_RELEVANCE;
+        }
+        Comparator<Scored> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Scored> next = switch (order.getProperty()) {
+                // Best match first whichever direction is asked for
+                case "relevance" -> BY_RELEVANCE;
+                case "id" -> BY_ID;
+                case "productName" -> Comparator.comparing((Scored s) -> s.entry.sortName);
+                case "price" -> Comparator.comparingDouble((Scored s) -> s.entry.price);
+                case "createdAt" -> Comparator.comparingLong((Scored s) -> s.entry.createdAtMillis);
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending() && !"relevance".equals(order.getProperty())) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(BY_ID);
+    }
+
+    private void write(Consumer<Segment> change) {
+        synchronized (writeLock) {
+            change.accept(segment);
+            if (replay != null) {
+                replay.add(change);
+            }
+        }
+        updates.incrementAndGet();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A matching product and its relevance score.
+     */
+    public record Hit(int productId, double score) {
+    }
+
+    private record Scored(Entry entry, double score) {
+
+        Hit hit() {
+            return new Hit(entry.productId, score);
+        }
+    }
+
+    /**
+     * The indexed fields of one product: its terms, for removal, and the
+     * fields that filters and sorts read.
+     */
+    private record Entry(int productId, String sortName, String brand, Integer categoryId, double price,
+                         boolean active, long createdAtMillis, String[] nameTerms, String[] descriptionTerms) {
+
+        static Entry of(SearchDocument document) {
+            return new Entry(document.productId(),
+                    document.productName() != null ? document.productName().toLowerCase(Locale.ROOT) : "",
+                    document.brand(), document.categoryId(), document.price(), document.active(),
+                    document.createdAtMillis(),
+                    distinct(tokenize(document.productName())), distinct(tokenize(document.description())));
+        }
+
+        private static String[] distinct(List<String> tokens) {
+            return new LinkedHashSet<>(tokens).toArray(String[]::new);
+        }
+
+        boolean matches(ProductFilter filter) {
+            if (filter == null) {
+                return true;
+            }
+            return (filter.getCategoryId() == null || filter.getCategoryId().equals(categoryId))
+                    && (filter.getMinPrice() == null || price >= filter.getMinPrice())
+                    && (filter.getMaxPrice() == null || price <= filter.getMaxPrice())
+                    && (filter.getBrand() == null || filter.getBrand().equals(brand))
+                    && (filter.getActive() == null || filter.getActive() == active);
+        }
+    }
+
+    /**
+     * One complete index. Searches read it without locking; writes are
+     * serialised by the write lock and replace posting arrays whole.
+     */
+    private static final class Segment {
+
+        private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, int[]> namePostings = new ConcurrentHashMap<>();
+        private final Map<String, int[]> descriptionPostings = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<String> terms = new ConcurrentSkipListSet<>();
+
+        void add(SearchDocument document) {
+            remove(document.productId());
+            Entry entry = Entry.of(document);
+            for (String term : entry.nameTerms) {
+                namePostings.put(term, insert(namePostings.get(term), entry.productId));
+                terms.add(term);
+            }
+            for (String term : entry.descriptionTerms) {
+                descriptionPostings.put(term, insert(descriptionPostings.get(term), entry.productId));
+                terms.add(term);
+            }
+            entries.put(entry.productId, entry);
+        }
+
+        void remove(int productId) {
+            Entry entry = entries.remove(productId);
+            if (entry == null) {
+                return;
+            }
+            for (String term : entry.nameTerms) {
+                removeFrom(namePostings, term, productId);
+            }
+            for (String term : entry.descriptionTerms) {
+                removeFrom(descriptionPostings, term, productId);
+            }
+        }
+
+        int exactFrequency(String term) {
+            return length(namePostings.get(term)) + length(descriptionPostings.get(term));
+        }
+
+        /**
+         * Scores every product with a term that equals or starts with the token,
+         * keeping each product's best match.
+         *
+         * @param candidates if not null, only these products are scored
+         */
+        Map<Integer, Double> scoreToken(String token, boolean includeDescription, Set<Integer> candidates) {
+            Map<Integer, Double> scores = new HashMap<>();
+            int expansions = 0;
+            for (String term : terms.tailSet(token)) {
+                if (!term.startsWith(token) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                double match = term.length() == token.length() ? 1.0 : PREFIX_FACTOR;
+                collect(namePostings.get(term), NAME_WEIGHT * match, candidates, scores);
+                if (includeDescription) {
+                    collect(descriptionPostings.get(term), DESCRIPTION_WEIGHT * match, candidates, scores);
+                }
+            }
+            return scores;
+        }
+
+        private void collect(int[] productIds, double weight, Set<Integer> candidates, Map<Integer, Double> scores) {
+            if (productIds == null) {
+                return;
+            }
+            double score = weight * Math.log(1.0 + (double) Math.max(entries.size(), 1) / productIds.length);
+            if (candidates != null && candidates.size() < productIds.length) {
+                for (Integer productId : candidates) {
+                    if (Arrays.binarySearch(productIds, productId) >= 0) {
+                        scores.merge(productId, score, Math::max);
+                    }
+                }
+                return;
+            }
+            for (int productId : productIds) {
+                if (candidates == null || candidates.contains(productId)) {
+                    scores.merge(productId, score, Math::max);
+                }
+            }
+        }
+
+        private void removeFrom(Map<String, int[]> postings, String term, int productId) {
+            int[] remaining = without(postings.get(term), productId);
+            if (remaining == null) {
+                postings.remove(term);
+                if (!namePostings.containsKey(term) && !descriptionPostings.containsKey(term)) {
+                    terms.remove(term);
+                }
+            } else {
+                postings.put(term, remaining);
+            }
+        }
+
+        private static int length(int[] productIds) {
+            return productIds == null ? 0 : productIds.length;
+        }
+
+        private static int[] insert(int[] productIds, int productId) {
+            if (productIds == null) {
+                return new int[]{productId};
+            }
+            int position = Arrays.binarySearch(productIds, productId);
+            if (position >= 0) {
+                return productIds;
+            }
+            int insertAt = -position - 1;
+            int[] result = new int[productIds.length + 1];
+            System.arraycopy(productIds, 0, result, 0, insertAt);
+            result[insertAt] = productId;
+            System.arraycopy(productIds, insertAt, result, insertAt + 1, productIds.length - insertAt);
+            return result;
+        }
+
+        /**
+         * @return the IDs without the given one, or null if none remain
+         */
+        private static int[] without(int[] productIds, int productId) {
+            if (productIds == null) {
+                return null;
+            }
+            int position = Arrays.binarySearch(productIds, productId);
+            if (position < 0) {
+                return productIds;
+            }
+            if (productIds.length == 1) {
+                return null;
+            }
+            int[] result = new int[productIds.length - 1];
+            System.arraycopy(productIds, 0, result, 0, position);
+            System.arraycopy(productIds, position + 1, result, position, productIds.length - position - 1);
+            return result;
+        }
+    }
+
+    /**
+     * Builds a segment from scanned documents, appending to growable posting
+     * lists instead of copying an array per document.
+     */
+    private static final class SegmentBuilder {
+
+        private final Map<Integer, Entry> entries = new HashMap<>();
+
+        void add(SearchDocument document) {
+            entries.put(document.productId(), Entry.of(document));
+        }
+
+        Segment build() {
+            Map<String, IntList> names = new HashMap<>();
+            Map<String, IntList> descriptions = new HashMap<>();
+            // Appending in ID order keeps every posting list sorted
+            entries.values().stream()
+                    .sorted(Comparator.comparingInt(Entry::productId))
+                    .forEach(entry -> {
+                        for (String term : entry.nameTerms) {
+                            names.computeIfAbsent(term, t -> new IntList()).add(entry.productId);
+                        }
+                        for (String term : entry.descriptionTerms) {
+                            descriptions.computeIfAbsent(term, t -> new IntList()).add(entry.productId);
+                        }
+                    });
+            Segment segment = new Segment();
+            segment.entries.putAll(entries);
+            names.forEach((term, ids) -> segment.namePostings.put(term, ids.toArray()));
+            descriptions.forEach((term, ids) -> segment.descriptionPostings.put(term, ids.toArray()));
+            segment.terms.addAll(names.keySet());
+            segment.terms.addAll(descriptions.keySet());
+            return segment;
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -1,27 +1,41 @@
 package com.shopjoy.service.impl;
 
 import com.shopjoy.aspect.Auditable;
+import com.shopjoy.dto.filter.CountMode;
+import com.shopjoy.dto.filter.ProductCursor;
 import com.shopjoy.dto.filter.ProductFilter;
 import com.shopjoy.dto.mapper.ProductMapperStruct;
 import com.shopjoy.dto.request.CreateProductRequest;
 import com.shopjoy.dto.request.UpdateProductRequest;
+import com.shopjoy.dto.response.CursorPageResponse;
+import com.shopjoy.dto.response.ProductFacetsResponse;
 import com.shopjoy.dto.response.ProductResponse;
 import com.shopjoy.entity.Product;
 import com.shopjoy.exception.ResourceNotFoundException;
 import com.shopjoy.exception.ValidationException;
 import com.shopjoy.repository.CategoryRepository;
 import com.shopjoy.repository.InventoryRepository;
+import com.shopjoy.repository.ProductJdbcRepository;
 import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductSearchBackend;
 import com.shopjoy.service.ProductService;
+import com.shopjoy.util.CacheInvalidator;
+import com.shopjoy.util.CacheRefresher;
+import com.shopjoy.util.CacheTags;
+import com.shopjoy.util.NegativeLookupCache;
+import com.shopjoy.util.PageCounter;
+import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,8 +43,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -41,10 +59,30 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    /**
+     * The filter part of the filteredProducts key, which productFacets entries
+     * are keyed by alone since facets do not depend on the page or sort.
+     */
+    static final String FILTER_KEY_FIELDS =
+            "#filter?.searchTerm ?: 'null', " +
+            "#filter?.categoryId ?: 'null', " +
+            "#filter?.minPrice ?: 'null', " +
+            "#filter?.maxPrice ?: 'null', " +
+            "#filter?.brand ?: 'null', " +
+            "#filter?.active ?: 'null'";
+
     private final ProductRepository productRepository;
     private final InventoryRepository inventoryRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapperStruct productMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final CacheRefresher cacheRefresher;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ProductSearchBackend productSearchBackend;
+    private final ProductFacetCounter productFacetCounter;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final PageCounter pageCounter;
+    private final StockSnapshot stockSnapshot;
 
     private static final Comparator<Product> PRODUCT_COMPARATOR_BY_NAME = 
             Comparator.comparing(Product::getProductName, String.CASE_INSENSITIVE_ORDER);
@@ -55,10 +93,51 @@ public class ProductServiceImpl implements ProductService {
     private static final Comparator<Product> DEFAULT_PRODUCT_COMPARATOR = 
             PRODUCT_COMPARATOR_BY_NAME.thenComparing(PRODUCT_COMPARATOR_BY_PRICE);
 
+    /**
+     * Registers the loaders that refresh hot catalog entries in the background.
+     * They call this instance directly, bypassing the cache.
+     */
+    @PostConstruct
+    void registerRefreshLoaders() {
+        cacheRefresher.register("products", key -> getAllProducts());
+        cacheRefresher.register("activeProducts", key -> getActiveProducts());
+        cacheRefresher.register("product", key -> getProductById((Integer) key));
+        cacheRefresher.register("filteredProducts", this::loadFilteredProducts);
+    }
+
+    /**
+     * Recomputes a filteredProducts entry from its cache key, which lists the filter
+     * fields, page, size and sort separated by colons. Keys whose search term or
+     * brand contains a colon cannot be split and are left to the next request.
+     */
+    private Page<ProductResponse> loadFilteredProducts(Object key) {
+        String[] parts = key.toString().split(":", -1);
+        if (parts.length != 10) {
+            return null;
+        }
+        ProductFilter filter = ProductFilter.builder()
+                .searchTerm(keyPart(parts[0]))
+                .categoryId(keyPart(parts[1]) == null ? null : Integer.valueOf(parts[1]))
+                .minPrice(keyPart(parts[2]) == null ? null : Double.valueOf(parts[2]))
+                .maxPrice(keyPart(parts[3]) == null ? null : Double.valueOf(parts[3]))
+                .brand(keyPart(parts[4]))
+                .active(keyPart(parts[5]) == null ? null : Boolean.valueOf(parts[5]))
+                .build();
+        String sortBy = keyPart(parts[8]);
+        String sortDirection = keyPart(parts[9]);
+        Sort sort = sortBy == null || sortDirection == null
+                ? Sort.unsorted()
+                : Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Pageable pageable = PageRequest.of(Integer.parseInt(parts[6]), Integer.parseInt(parts[7]), sort);
+        return getProductsWithFilters(filter, pageable, sortBy, sortDirection);
+    }
+
+    private static String keyPart(String part) {
+        return "null".equals(part) ? null : part;
+    }
 
     @Override
     @Transactional
-    @CacheEvict(value = {"products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange"}, allEntries = true, cacheManager = "cacheManager")
     public ProductResponse createProduct(CreateProductRequest request) {
         Product product = productMapper.toProduct(request);
         if (request.getCategoryId() != null) {
@@ -79,6 +158,14 @@ public class ProductServiceImpl implements ProductService {
         inventory.setLastRestocked(LocalDateTime.now());
         inventory.setUpdatedAt(LocalDateTime.now());
         inventoryRepository.save(inventory);
+        negativeLookupCache.forget("product", createdProduct.getId());
+        negativeLookupCache.forget("inventoryByProduct", createdProduct.getId());
+        productSearchBackend.productSaved(createdProduct);
+
+        // A new product can join any list, except other categories' lists
+        cacheInvalidator.invalidate(Set.of(CacheTags.category(createdProduct.getCategory().getId())),
+                "products", "activeProducts", "productSearch", "productsByPriceRange", "filteredProducts",
+                "productFacets");
 
         return productMapper.toProductResponse(createdProduct);
     }
@@ -86,7 +173,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Cacheable(value = "product", key = "#productId", unless = "#result == null")
     public ProductResponse getProductById(Integer productId) {
-        Product product = productRepository.findById(productId)
+        Product product = negativeLookupCache.find("product", productId, () -> productRepository.findById(productId))
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
         return productMapper.toProductResponse(product);
     }
@@ -109,14 +196,14 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = "products")
+    @Cacheable(value = "products", sync = true)
     public List<ProductResponse> getAllProducts() {
         return productRepository.findAllWithInventory().stream()                .sorted(DEFAULT_PRODUCT_COMPARATOR)                .map(productMapper::toProductResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Cacheable(value = "activeProducts")
+    @Cacheable(value = "activeProducts", sync = true)
     public List<ProductResponse> getActiveProducts() {
         return productRepository.findAllWithInventory().stream()
                 .filter(Product::isActive)
@@ -125,7 +212,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = "productsByCategory", key = "#categoryId")
+    @Cacheable(value = "productsByCategory", key = "#categoryId", sync = true)
     public List<ProductResponse> getProductsByCategory(Integer categoryId) {
         if (categoryId == null) {
             throw new ValidationException("Category ID cannot be null");
@@ -136,7 +223,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = "productsByCategory")
+    @Cacheable(value = "productsByCategory", sync = true)
     public List<ProductResponse> getProductsByCategories(List<Integer> categoryIds) {
         if (categoryIds == null || categoryIds.isEmpty()) {
             return Collections.emptyList();
@@ -147,12 +234,12 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = "productSearch", key = "#keyword.toLowerCase()", unless = "#result == null || #result.isEmpty()", cacheManager = "cacheManager")
+    @Cacheable(value = "productSearch", key = "#keyword.toLowerCase()", sync = true, cacheManager = "cacheManager")
     public List<ProductResponse> searchProductsByName(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
             throw new ValidationException("Search keyword cannot be empty");
         }
-        return productRepository.findByProductName(keyword).stream()
+        return productSearchBackend.searchByName(keyword).stream()
                 .map(productMapper::toProductResponse)
                 .collect(Collectors.toList());
     }
@@ -160,7 +247,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Cacheable(value = "productsByPriceRange",
                key = "#minPrice.toString() + ':' + #maxPrice.toString()",
-               unless = "#result == null || #result.isEmpty()",
+               sync = true,
                cacheManager = "cacheManager")
     public List<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         if (minPrice.compareTo(BigDecimal.ZERO) < 0) {
@@ -176,13 +263,11 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional
-    @Caching(
-        put = { @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager") },
-        evict = { @CacheEvict(value = {"products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange"}, allEntries = true, cacheManager = "cacheManager") }
-    )
+    @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager")
     public ProductResponse updateProduct(Integer productId, UpdateProductRequest request) {
         Product existingProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        CatalogFields before = CatalogFields.of(existingProduct);
 
         productMapper.updateProductFromRequest(request, existingProduct);
         if (request.getCategoryId() != null) {
@@ -193,6 +278,12 @@ public class ProductServiceImpl implements ProductService {
         validateProductData(existingProduct);
 
         Product updatedProduct = productRepository.save(existingProduct);
+        productSearchBackend.productSaved(updatedProduct);
+        CatalogFields after = CatalogFields.of(updatedProduct);
+
+        Set<String> tags = new HashSet<>(List.of(CacheTags.product(productId),
+                CacheTags.category(before.categoryId()), CacheTags.category(after.categoryId())));
+        cacheInvalidator.invalidate(tags, before.listsAffectedBy(after));
 
         return productMapper.toProductResponse(updatedProduct);
     }
@@ -200,10 +291,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     @Auditable(action = "UPDATE_PRICE", description = "Updating product price")
-    @Caching(
-        put = { @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager") },
-        evict = { @CacheEvict(value = {"products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange"}, allEntries = true, cacheManager = "cacheManager") }
-    )
+    @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager")
     public ProductResponse updateProductPrice(Integer productId, double newPrice) {
         if (newPrice < 0) {
             throw new ValidationException("price", "must not be negative");
@@ -215,52 +303,56 @@ public class ProductServiceImpl implements ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updatedProduct = productRepository.save(product);
+        productSearchBackend.productSaved(updatedProduct);
+        cacheInvalidator.invalidate(Set.of(CacheTags.product(productId)), "productsByPriceRange", "filteredProducts",
+                "productFacets");
 
         return productMapper.toProductResponse(updatedProduct);
     }
 
     @Override
     @Transactional
-    @Caching(
-        put = { @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager") },
-        evict = { @CacheEvict(value = {"products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange"}, allEntries = true, cacheManager = "cacheManager") }
-    )
+    @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager")
     public ProductResponse activateProduct(Integer productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
         product.setActive(true);
         product.setUpdatedAt(LocalDateTime.now());
+        cacheInvalidator.invalidate(Set.of(CacheTags.product(productId)), "activeProducts", "filteredProducts", "productFacets");
 
-        return productMapper.toProductResponse(productRepository.save(product));
+        Product updatedProduct = productRepository.save(product);
+        productSearchBackend.productSaved(updatedProduct);
+        return productMapper.toProductResponse(updatedProduct);
     }
 
     @Override
     @Transactional
-    @Caching(
-        put = { @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager") },
-        evict = { @CacheEvict(value = {"products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange"}, allEntries = true, cacheManager = "cacheManager") }
-    )
+    @CachePut(value = "product", key = "#productId", cacheManager = "cacheManager")
     public ProductResponse deactivateProduct(Integer productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
         product.setActive(false);
         product.setUpdatedAt(LocalDateTime.now());
+        cacheInvalidator.invalidate(Set.of(CacheTags.product(productId)), "activeProducts", "filteredProducts", "productFacets");
 
-        return productMapper.toProductResponse(productRepository.save(product));
+        Product updatedProduct = productRepository.save(product);
+        productSearchBackend.productSaved(updatedProduct);
+        return productMapper.toProductResponse(updatedProduct);
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "product", key = "#productId", cacheManager = "cacheManager"),
-        @CacheEvict(value = {"products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange"}, allEntries = true, cacheManager = "cacheManager")
-    })
+    @CacheEvict(value = "product", key = "#productId", cacheManager = "cacheManager")
     public void deleteProduct(Integer productId) {
         if (!productRepository.existsById(productId)) {
             throw new ResourceNotFoundException("Product", "id", productId);
         }
 
         productRepository.deleteById(productId);
+        productSearchBackend.productDeleted(productId);
+        stockSnapshot.forget(productId);
+        // Later filtered pages shift up by one, so those are cleared
+        cacheInvalidator.invalidate(Set.of(CacheTags.product(productId)), "filteredProducts", "productFacets");
     }
 
     @Override
@@ -277,14 +369,16 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Page<ProductResponse> getProductsPaginated(Pageable pageable, String sortBy, String sortDirection) {
-        Page<Product> productPage = productRepository.findAllWithInventory(pageable);
+    public Slice<ProductResponse> getProductsPaginated(Pageable pageable, String sortBy, String sortDirection,
+            CountMode count) {
+        Slice<Product> productSlice = productRepository.findSliceWithInventory(pageable);
 
-        List<ProductResponse> responseList = productPage.getContent().stream()
+        List<ProductResponse> responseList = productSlice.getContent().stream()
                 .map(productMapper::toProductResponse)
                 .collect(Collectors.toList());
 
-        return new PageImpl<>(responseList, pageable, productPage.getTotalElements());
+        return pageCounter.page("products", count, new SliceImpl<>(responseList, pageable, productSlice.hasNext()),
+                Map.of(), productRepository::count, () -> productJdbcRepository.estimateMatches(null));
     }
 
     @Override
@@ -293,7 +387,7 @@ public class ProductServiceImpl implements ProductService {
             throw new ValidationException("Search keyword cannot be empty");
         }
 
-        Page<Product> productPage = productRepository.findByProductCategory(keyword, keyword, pageable);
+        Page<Product> productPage = productSearchBackend.search(keyword, pageable);
 
         List<ProductResponse> responseList = productPage.getContent().stream()
                 .map(productMapper::toProductResponse)
@@ -304,17 +398,11 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Cacheable(value = "filteredProducts",
-               key = "T(String).format('%s:%s:%s:%s:%s:%s:%s:%s:%s', " +
-                     "#filter?.searchTerm ?: 'null', " +
-                     "#filter?.categoryId ?: 'null', " +
-                     "#filter?.minPrice ?: 'null', " +
-                     "#filter?.maxPrice ?: 'null', " +
-                     "#filter?.brand ?: 'null', " +
-                     "#filter?.active ?: 'null', " +
+               key = "T(String).format('%s:%s:%s:%s:%s:%s:%s:%s:%s', " + FILTER_KEY_FIELDS + ", " +
                      "#pageable.pageNumber, " +
                      "#pageable.pageSize, " +
                      "#sortBy + ':' + #sortDirection)",
-               unless = "#result == null || #result.isEmpty()",
+               sync = true,
                cacheManager = "cacheManager")
     public Page<ProductResponse> getProductsWithFilters(ProductFilter filter, Pageable pageable, String sortBy,
             String sortDirection) {
@@ -322,19 +410,18 @@ public class ProductServiceImpl implements ProductService {
             filter = ProductFilter.builder().build();
         }
         
-        if (filter.getMinPrice() != null && filter.getMaxPrice() != null &&
-                filter.getMinPrice() > filter.getMaxPrice()) {
-            throw new ValidationException("minPrice", "must be less than or equal to maxPrice");
-        }
-
-        Page<Product> productPage = productRepository.findWithFilters(
-                filter.getSearchTerm(),
-                filter.getCategoryId(),
-                filter.getMinPrice(),
-                filter.getMaxPrice(),
-                filter.getBrand(),
-                filter.getActive(),
-                pageable);
+        validatePriceRange(filter);
+
+        Page<Product> productPage = filter.getSearchTerm() != null && !filter.getSearchTerm().isBlank()
+                ? productSearchBackend.searchWithFilters(filter, pageable)
+                : productRepository.findWithFilters(
+                        filter.getSearchTerm(),
+                        filter.getCategoryId(),
+                        filter.getMinPrice(),
+                        filter.getMaxPrice(),
+                        filter.getBrand(),
+                        filter.getActive(),
+                        LikeProductSearchBackend.withoutRelevance(pageable));
 
         List<ProductResponse> responseList = productPage.getContent().stream()
                 .map(productMapper::toProductResponse)
@@ -343,6 +430,100 @@ public class ProductServiceImpl implements ProductService {
         return new PageImpl<>(responseList, pageable, productPage.getTotalElements());
     }
 
+    @Override
+    public Slice<ProductResponse> getProductsWithFilters(ProductFilter filter, Pageable pageable, String sortBy,
+            String sortDirection, CountMode count) {
+        if (filter == null) {
+            filter = ProductFilter.builder().build();
+        }
+        validatePriceRange(filter);
+
+        if (filter.getSearchTerm() != null && !filter.getSearchTerm().isBlank()) {
+            // The search backends count their matches while finding them
+            Page<Product> productPage = productSearchBackend.searchWithFilters(filter, pageable);
+            List<ProductResponse> responseList = productPage.getContent().stream()
+                    .map(productMapper::toProductResponse)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(responseList, pageable, productPage.getTotalElements());
+        }
+
+        ProductFilter conditions = filter;
+        Slice<Product> productSlice = productRepository.findSliceWithFilters(
+                null,
+                conditions.getCategoryId(),
+                conditions.getMinPrice(),
+                conditions.getMaxPrice(),
+                conditions.getBrand(),
+                conditions.getActive(),
+                LikeProductSearchBackend.withoutRelevance(pageable));
+
+        List<ProductResponse> responseList = productSlice.getContent().stream()
+                .map(productMapper::toProductResponse)
+                .collect(Collectors.toList());
+
+        return pageCounter.page("product-filter", count, new SliceImpl<>(responseList, pageable, productSlice.hasNext()),
+                countKey(conditions),
+                () -> productRepository.countWithFilters(null, conditions.getCategoryId(), conditions.getMinPrice(),
+                        conditions.getMaxPrice(), conditions.getBrand(), conditions.getActive()),
+                () -> productJdbcRepository.estimateMatches(conditions));
+    }
+
+    /**
+     * @return the filter fields the product count depends on
+     */
+    private static Map<String, Object> countKey(ProductFilter filter) {
+        Map<String, Object> key = new LinkedHashMap<>();
+        key.put("categoryId", filter.getCategoryId());
+        key.put("minPrice", filter.getMinPrice());
+        key.put("maxPrice", filter.getMaxPrice());
+        key.put("brand", filter.getBrand());
+        key.put("active", filter.getActive());
+        return key;
+    }
+
+    /**
+     * Stock-independent counts come from the productFacets cache; the stock facet
+     * is counted from the stock snapshot on every read.
+     */
+    @Override
+    public ProductFacetsResponse getProductFacets(ProductFilter filter) {
+        if (filter == null) {
+            filter = ProductFilter.builder().build();
+        }
+        validatePriceRange(filter);
+        return productFacetCounter.count(filter).withStock(stockSnapshot::isInStock);
+    }
+
+    @Override
+    public CursorPageResponse<ProductResponse> getProductsAfter(ProductFilter filter, ProductCursor cursor, int size) {
+        if (filter == null) {
+            filter = ProductFilter.builder().build();
+        }
+        validatePriceRange(filter);
+
+        // One extra row tells whether another page follows
+        List<Integer> productIds = filter.getSearchTerm() != null && !filter.getSearchTerm().isBlank()
+                ? productSearchBackend.searchIdsAfter(filter, cursor, size + 1)
+                : productJdbcRepository.seekIds(filter, false, cursor, size + 1);
+        boolean hasNext = productIds.size() > size;
+        List<Product> products = productRepository.findAllWithInventoryInOrder(
+                hasNext ? productIds.subList(0, size) : productIds);
+        hasNext = hasNext && !products.isEmpty();
+
+        List<ProductResponse> responseList = products.stream()
+                .map(productMapper::toProductResponse)
+                .collect(Collectors.toList());
+        String nextCursor = hasNext ? cursor.after(products.get(products.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(responseList, size, hasNext, nextCursor);
+    }
+
+    private static void validatePriceRange(ProductFilter filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null &&
+                filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new ValidationException("minPrice", "must be less than or equal to maxPrice");
+        }
+    }
+
     @Override
     public List<ProductResponse> getRecentlyAddedProducts(int limit) {
         return productRepository.findRecentlyAdded(PageRequest.of(0, limit)).stream()
@@ -350,6 +531,43 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The product fields that decide which cached lists a product belongs to.
+     */
+    private record CatalogFields(String productName, String description, BigDecimal price, String brand,
+                                 Integer categoryId, boolean active) {
+
+        static CatalogFields of(Product product) {
+            return new CatalogFields(product.getProductName(), product.getDescription(), product.getPrice(),
+                    product.getBrand(), product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.isActive());
+        }
+
+        /**
+         * @return the list caches whose membership or order may differ after the change
+         */
+        String[] listsAffectedBy(CatalogFields after) {
+            Set<String> caches = new HashSet<>();
+            if (!Objects.equals(productName, after.productName)) {
+                caches.addAll(List.of("productSearch", "filteredProducts"));
+            }
+            if (!Objects.equals(description, after.description) || !Objects.equals(brand, after.brand)
+                    || !Objects.equals(categoryId, after.categoryId)) {
+                caches.add("filteredProducts");
+            }
+            if (price == null || after.price == null || price.compareTo(after.price) != 0) {
+                caches.addAll(List.of("productsByPriceRange", "filteredProducts"));
+            }
+            if (active != after.active) {
+                caches.addAll(List.of("activeProducts", "filteredProducts"));
+            }
+            if (caches.contains("filteredProducts")) {
+                caches.add("productFacets");
+            }
+            return caches.toArray(String[]::new);
+        }
+    }
+
     private void validateProductData(Product product) {
         if (product == null) {
             throw new ValidationException("Product data cannot be null");
@@ -13,6 +13,8 @@ import com.shopjoy.repository.ReviewRepository;
 import com.shopjoy.repository.UserRepository;
 import com.shopjoy.service.ReviewService;
 
+import com.shopjoy.util.CacheInvalidator;
+import com.shopjoy.util.CacheTags;
 import com.shopjoy.util.SecurityUtil;
 import lombok.AllArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -25,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -39,6 +42,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final ReviewMapperStruct reviewMapper;
+    private final CacheInvalidator cacheInvalidator;
 
 
 
@@ -78,7 +82,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @Cacheable(value = "reviewsByProduct", key = "#productId", cacheManager = "mediumCacheManager")
+    @Cacheable(value = "reviewsByProduct", key = "#productId", sync = true, cacheManager = "mediumCacheManager")
     public List<ReviewResponse> getReviewsByProduct(Integer productId) {
         return reviewRepository.findByProductId(productId).stream()
                 .map(reviewMapper::toReviewResponse)
@@ -86,7 +90,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @Cacheable(value = "reviewsByUser", key = "#userId", cacheManager = "mediumCacheManager")
+    @Cacheable(value = "reviewsByUser", key = "#userId", sync = true, cacheManager = "mediumCacheManager")
     public List<ReviewResponse> getReviewsByUser(Integer userId) {
         return reviewRepository.findByUserId(userId).stream()
                 .map(reviewMapper::toReviewResponse)
@@ -98,10 +102,7 @@ public class ReviewServiceImpl implements ReviewService {
     @Caching(
         put = { @CachePut(value = "review", key = "#reviewId", cacheManager = "mediumCacheManager") },
         evict = {
-            @CacheEvict(value = "reviews", allEntries = true, cacheManager = "mediumCacheManager"),
-            @CacheEvict(value = "reviewsByProduct", allEntries = true, cacheManager = "mediumCacheManager"),
-            @CacheEvict(value = "reviewsByUser", allEntries = true, cacheManager = "mediumCacheManager"),
-            @CacheEvict(value = "productRating", allEntries = true, cacheManager = "mediumCacheManager")
+            @CacheEvict(value = "reviews", allEntries = true, cacheManager = "mediumCacheManager")
         }
     )
     public ReviewResponse updateReview(Integer reviewId, UpdateReviewRequest request) {
@@ -121,6 +122,7 @@ public class ReviewServiceImpl implements ReviewService {
         validateReviewData(review);
 
         Review updatedReview = reviewRepository.save(review);
+        invalidateReviewLists(updatedReview);
         return reviewMapper.toReviewResponse(updatedReview);
     }
 
@@ -128,10 +130,7 @@ public class ReviewServiceImpl implements ReviewService {
     @Transactional()
     @Caching(evict = {
         @CacheEvict(value = "review", key = "#reviewId", cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "reviews", allEntries = true, cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "reviewsByProduct", allEntries = true, cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "reviewsByUser", allEntries = true, cacheManager = "mediumCacheManager"),
-        @CacheEvict(value = "productRating", allEntries = true, cacheManager = "mediumCacheManager")
+        @CacheEvict(value = "reviews", allEntries = true, cacheManager = "mediumCacheManager")
     })
     public void deleteReview(Integer reviewId) {
         Integer reviewOwnerId = reviewRepository.findUserIdByReviewId(reviewId);
@@ -143,7 +142,20 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AccessDeniedException("You do not have permission to delete this review");
         }
 
-        reviewRepository.deleteById(reviewId);
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Review", "id", reviewId));
+        reviewRepository.delete(review);
+        invalidateReviewLists(review);
+    }
+
+    /**
+     * Evicts the per-product and per-user review lists and the product rating
+     * that include the review, leaving other products' entries cached.
+     */
+    private void invalidateReviewLists(Review review) {
+        cacheInvalidator.invalidate(Set.of(
+                CacheTags.product(review.getProduct().getId()),
+                CacheTags.user(review.getUser().getId())));
     }
 
     @Override
@@ -158,7 +170,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @Cacheable(value = "productRating", key = "#productId", cacheManager = "mediumCacheManager")
+    @Cacheable(value = "productRating", key = "#productId", sync = true, cacheManager = "mediumCacheManager")
     public double getAverageRating(Integer productId) {
         return reviewRepository.getAverageRating(productId);
     }
@@ -172,11 +184,12 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.setHelpfulCount(review.getHelpfulCount() + 1);
         Review updatedReview = reviewRepository.save(review);
+        invalidateReviewLists(updatedReview);
         return reviewMapper.toReviewResponse(updatedReview);
     }
 
     @Override
-    @Cacheable(value = "reviews", cacheManager = "mediumCacheManager")
+    @Cacheable(value = "reviews", sync = true, cacheManager = "mediumCacheManager")
     public List<ReviewResponse> getAllReviews() {
         return reviewRepository.findAll().stream()
                 .map(reviewMapper::toReviewResponse)
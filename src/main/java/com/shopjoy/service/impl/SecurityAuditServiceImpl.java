@@ -1,26 +1,34 @@
 package com.shopjoy.service.impl;
 
+import com.shopjoy.dto.filter.CountMode;
 import com.shopjoy.entity.SecurityAuditLog;
 import com.shopjoy.entity.SecurityEventType;
+import com.shopjoy.repository.RowEstimateRepository;
 import com.shopjoy.repository.SecurityAuditLogRepository;
 import com.shopjoy.service.SecurityAuditService;
+import com.shopjoy.util.PageCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SecurityAuditServiceImpl implements SecurityAuditService {
 
+    private static final String AUDIT_LOGS = "audit-logs";
+
     private final SecurityAuditLogRepository auditLogRepository;
+    private final RowEstimateRepository rowEstimateRepository;
+    private final PageCounter pageCounter;
 
     @Async("taskExecutor")
     @Transactional
@@ -53,32 +61,45 @@ public class SecurityAuditServiceImpl implements SecurityAuditService {
 
     @Transactional(readOnly = true)
     @Override
-    public Page<SecurityAuditLog> getAllLogs(Pageable pageable) {
-        return auditLogRepository.findAll(pageable);
+    public Slice<SecurityAuditLog> getAllLogs(Pageable pageable, CountMode count) {
+        return pageCounter.page(AUDIT_LOGS, count, auditLogRepository.findSlice(pageable), Map.of(),
+                auditLogRepository::count, () -> rowEstimateRepository.tableRows("security_audit_logs"));
     }
 
+    // Filtered lists have no estimate and are counted as in cached mode when an estimate is asked for
+
     @Transactional(readOnly = true)
     @Override
-    public Page<SecurityAuditLog> getLogsByUsername(String username, Pageable pageable) {
-        return auditLogRepository.findByUsername(username, pageable);
+    public Slice<SecurityAuditLog> getLogsByUsername(String username, Pageable pageable, CountMode count) {
+        return pageCounter.page(AUDIT_LOGS, count, auditLogRepository.findSliceByUsername(username, pageable),
+                Map.of("username", username), () -> auditLogRepository.countByUsername(username), null);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Page<SecurityAuditLog> getLogsByEventType(SecurityEventType eventType, Pageable pageable) {
-        return auditLogRepository.findByEventType(eventType, pageable);
+    public Slice<SecurityAuditLog> getLogsByEventType(SecurityEventType eventType, Pageable pageable, CountMode count) {
+        return pageCounter.page(AUDIT_LOGS, count, auditLogRepository.findSliceByEventType(eventType, pageable),
+                Map.of("eventType", eventType), () -> auditLogRepository.countByEventType(eventType), null);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Page<SecurityAuditLog> getLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable) {
-        return auditLogRepository.findByTimestampBetween(startTime, endTime, pageable);
+    public Slice<SecurityAuditLog> getLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable,
+                                                      CountMode count) {
+        return pageCounter.page(AUDIT_LOGS, count,
+                auditLogRepository.findSliceByTimestampBetween(startTime, endTime, pageable),
+                Map.of("startTime", startTime, "endTime", endTime),
+                () -> auditLogRepository.countByTimestampBetween(startTime, endTime), null);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Page<SecurityAuditLog> getLogsByUsernameAndEventType(String username, SecurityEventType eventType, Pageable pageable) {
-        return auditLogRepository.findByUsernameAndEventType(username, eventType, pageable);
+    public Slice<SecurityAuditLog> getLogsByUsernameAndEventType(String username, SecurityEventType eventType,
+                                                                 Pageable pageable, CountMode count) {
+        return pageCounter.page(AUDIT_LOGS, count,
+                auditLogRepository.findSliceByUsernameAndEventType(username, eventType, pageable),
+                Map.of("username", username, "eventType", eventType),
+                () -> auditLogRepository.countByUsernameAndEventType(username, eventType), null);
     }
 
     @Transactional(readOnly = true)
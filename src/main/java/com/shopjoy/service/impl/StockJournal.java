@@ -0,0 +1,369 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.entity.MovementType;
+import com.shopjoy.exception.InsufficientStockException;
+import com.shopjoy.exception.ResourceNotFoundException;
+import com.shopjoy.repository.InventoryJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only stock journal for journaled products.
+ * <p>
+ * Every stock change is an insert into stock_movements instead of an update of
+ * the inventory row. Current stock is the inventory row's snapshot plus the
+ * deltas not compacted yet; a background compactor folds deltas into the
+ * snapshot and deletes them. Additions append without any lock. Removals lock
+ * the inventory row and check the database total before they append, so no
+ * instance can oversell whatever its view says.
+ * <p>
+ * Reads are answered from an in-memory view kept current by this instance's
+ * own writes: removals are applied up front and undone on rollback, additions
+ * are applied after commit. Writes of other instances reach the view through a
+ * periodic resync, which skips products this instance changed meanwhile.
+ */
+@Slf4j
+@Component
+public class StockJournal implements SmartInitializingSingleton {
+
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final TransactionTemplate compactionTransaction;
+    private final int compactionBatchSize;
+
+    private final Map<Integer, Slot> view = new ConcurrentHashMap<>();
+
+    public StockJournal(InventoryJdbcRepository inventoryJdbcRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.inventory.journal.compaction-batch-size:1000}") int compactionBatchSize) {
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.compactionBatchSize = compactionBatchSize;
+        this.compactionTransaction = new TransactionTemplate(transactionManager);
+        this.compactionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Builds the view once the schema is available and before scheduled tasks start writing.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        inventoryJdbcRepository.findJournaledStock()
+                .forEach((productId, quantity) -> view.put(productId, new Slot(quantity)));
+        log.info("Stock journal view loaded for {} journaled products", view.size());
+    }
+
+    public boolean isJournaled(Integer productId) {
+        return view.containsKey(productId);
+    }
+
+    /**
+     * @return current stock of a journaled product, or null if the product is not journaled
+     */
+    public Integer currentStock(Integer productId) {
+        Slot slot = view.get(productId);
+        return slot == null ? null : slot.get();
+    }
+
+    /**
+     * Row-locks the inventory rows of the given products in product ID order and
+     * reads their totals. Removals and compaction take the same locks, so the
+     * totals hold until the surrounding transaction ends.
+     *
+     * @return map of product ID to total stock; products without inventory are absent
+     */
+    public Map<Integer, Integer> lockStock(Collection<Integer> productIds) {
+        inventoryJdbcRepository.lockStockLevels(productIds);
+        return inventoryJdbcRepository.findStockLevels(productIds);
+    }
+
+    /**
+     * Removes stock from journaled products, all or nothing.
+     * The inventory rows are locked and the database totals checked before the
+     * movements are appended. The view is decremented immediately and restored
+     * if the surrounding transaction rolls back.
+     *
+     * @param quantities map of product ID to positive quantity to take
+     * @param type       the movement type to record
+     * @throws InsufficientStockException if any product has less than requested
+     */
+    public void take(Map<Integer, Integer> quantities, MovementType type) {
+        Map<Integer, Integer> sorted = new TreeMap<>(quantities);
+        for (Integer productId : sorted.keySet()) {
+            if (!view.containsKey(productId)) {
+                throw new ResourceNotFoundException("Journaled inventory", "productId", productId);
+            }
+        }
+
+        Map<Integer, Integer> available = lockStock(sorted.keySet());
+        sorted.forEach((productId, quantity) -> {
+            Integer stock = available.get(productId);
+            if (stock == null) {
+                throw new ResourceNotFoundException("Journaled inventory", "productId", productId);
+            }
+            if (stock < quantity) {
+                throw new InsufficientStockException(productId, quantity, stock);
+            }
+        });
+
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        sorted.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+        apply(deltas, type, true);
+    }
+
+    /**
+     * Adds stock to journaled products. The view only shows the stock once the
+     * surrounding transaction commits, so nothing can be sold that might roll back.
+     *
+     * @param quantities map of product ID to positive quantity to add
+     * @param type       the movement type to record
+     */
+    public void give(Map<Integer, Integer> quantities, MovementType type) {
+        apply(new TreeMap<>(quantities), type, false);
+    }
+
+    /**
+     * Moves a journaled product to an absolute quantity. The delta is computed
+     * from the database total under the inventory row lock, so concurrent sets
+     * apply one after the other.
+     *
+     * @return the change applied
+     */
+    public int set(Integer productId, int quantity, MovementType type) {
+        Integer current = lockStock(List.of(productId)).get(productId);
+        if (current == null || !view.containsKey(productId)) {
+            throw new ResourceNotFoundException("Journaled inventory", "productId", productId);
+        }
+        int delta = quantity - current;
+        if (delta != 0) {
+            apply(Map.of(productId, delta), type, delta < 0);
+        }
+        return delta;
+    }
+
+    /**
+     * Starts serving a product from the journal once the switching transaction commits.
+     * The total is re-read at that point so row updates committed meanwhile are included.
+     */
+    public void track(Integer productId) {
+        afterCommit(() -> inventoryJdbcRepository.findStockLevels(List.of(productId))
+                .forEach((id, quantity) -> view.put(id, new Slot(quantity))));
+    }
+
+    /**
+     * Stops serving a product from the journal once the switching transaction commits.
+     */
+    public void untrack(Integer productId) {
+        afterCommit(() -> view.remove(productId));
+    }
+
+    /**
+     * Runs every ten seconds by default and replaces the view with the database
+     * totals, picking up writes and journal switches of other instances. A
+     * product is skipped while this instance has an uncommitted change to it or
+     * changed it since the totals were read, as its slot already differs from them.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.journal.resync-interval-ms:10000}")
+    public void resync() {
+        Map<Integer, Long> versions = new HashMap<>();
+        view.forEach((productId, slot) -> versions.put(productId, slot.version()));
+
+        Map<Integer, Integer> totals = inventoryJdbcRepository.findJournaledStock();
+
+        int corrected = 0;
+        for (Map.Entry<Integer, Integer> entry : totals.entrySet()) {
+            Long version = versions.get(entry.getKey());
+            if (version == null) {
+                if (view.putIfAbsent(entry.getKey(), new Slot(entry.getValue())) == null) {
+                    corrected++;
+                }
+                continue;
+            }
+            Slot slot = view.get(entry.getKey());
+            if (slot != null && slot.resync(version, entry.getValue())) {
+                corrected++;
+            }
+        }
+        for (Map.Entry<Integer, Long> entry : versions.entrySet()) {
+            if (!totals.containsKey(entry.getKey())) {
+                Slot slot = view.get(entry.getKey());
+                if (slot != null && slot.isUnchangedSince(entry.getValue())) {
+                    view.remove(entry.getKey(), slot);
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            log.debug("Stock journal resync corrected {} products", corrected);
+        }
+    }
+
+    /**
+     * Folds all pending movements of a product into its snapshot.
+     * Must run inside a transaction.
+     */
+    public void compactFully(Integer productId) {
+        int folded;
+        do {
+            folded = compactProduct(productId);
+        } while (folded > 0);
+    }
+
+    /**
+     * Runs every five seconds by default and folds pending movements into the
+     * inventory snapshots, one transaction per product.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.journal.compaction-interval-ms:5000}")
+    public void compact() {
+        for (Integer productId : inventoryJdbcRepository.findProductsWithPendingMovements()) {
+            try {
+                Integer folded = compactionTransaction.execute(_ -> compactProduct(productId));
+                log.debug("Compacted {} stock movements for product {}", folded, productId);
+            } catch (Exception e) {
+                log.warn("Stock journal compaction failed for product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Locks the inventory row, adds the oldest pending deltas to it and deletes exactly
+     * those movements. Total stock is unchanged, so the view is not touched.
+     */
+    private int compactProduct(Integer productId) {
+        if (inventoryJdbcRepository.lockUnallocatedStock(productId).isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> pending = inventoryJdbcRepository.findPendingMovements(productId, compactionBatchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int delta = pending.values().stream().mapToInt(Integer::intValue).sum();
+        inventoryJdbcRepository.incrementStockBatch(Map.of(productId, delta));
+        inventoryJdbcRepository.deleteMovements(pending.keySet());
+        return pending.size();
+    }
+
+    /**
+     * Appends movements and records them in the view. Every slot counts the change
+     * as pending until the transaction completes, so a resync cannot overwrite it.
+     *
+     * @param upFront whether the view shows the change immediately rather than after commit
+     */
+    private void apply(Map<Integer, Integer> deltas, MovementType type, boolean upFront) {
+        List<Map.Entry<Slot, Integer>> slots = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            Slot slot = view.get(productId);
+            if (slot != null) {
+                slot.begin(upFront ? delta : 0);
+                slots.add(Map.entry(slot, delta));
+            }
+        });
+
+        boolean synchronizedTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        try {
+            inventoryJdbcRepository.appendMovements(deltas, type.name());
+        } catch (RuntimeException e) {
+            if (!synchronizedTransaction) {
+                slots.forEach(entry -> entry.getKey().end(upFront ? -entry.getValue() : 0));
+            }
+            throw e;
+        }
+        if (!synchronizedTransaction) {
+            slots.forEach(entry -> entry.getKey().end(upFront ? 0 : entry.getValue()));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                slots.forEach(entry -> {
+                    int delta = entry.getValue();
+                    if (upFront) {
+                        entry.getKey().end(committed ? 0 : -delta);
+                    } else {
+                        entry.getKey().end(committed ? delta : 0);
+                    }
+                });
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * View entry of one product. The version counts every change made through
+     * this instance and {@code pending} the changes whose transaction is still open.
+     */
+    private static final class Slot {
+
+        private int quantity;
+        private long version;
+        private int pending;
+
+        Slot(int quantity) {
+            this.quantity = quantity;
+        }
+
+        synchronized int get() {
+            return quantity;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized void begin(int delta) {
+            quantity += delta;
+            pending++;
+            version++;
+        }
+
+        synchronized void end(int delta) {
+            quantity += delta;
+            pending--;
+            version++;
+        }
+
+        synchronized boolean isUnchangedSince(long seenVersion) {
+            return pending == 0 && version == seenVersion;
+        }
+
+        /**
+         * Replaces the quantity with a total read after {@code seenVersion} was taken.
+         *
+         * @return true if the quantity changed
+         */
+        synchronized boolean resync(long seenVersion, int total) {
+            if (!isUnchangedSince(seenVersion) || quantity == total) {
+                return false;
+            }
+            quantity = total;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.shopjoy.service.impl;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Live per-product stock that catalog responses are composed with at read
+ * time. Journaled products are read from the journal's view, all others from
+ * the stock snapshot; both are kept current by inventory writes, so cached
+ * catalog entries do not hold stock and are not evicted when it changes.
+ */
+@Component
+public class StockOverlay {
+
+    private final StockJournal stockJournal;
+    private final StockSnapshot stockSnapshot;
+
+    public StockOverlay(StockJournal stockJournal, StockSnapshot stockSnapshot) {
+        this.stockJournal = stockJournal;
+        this.stockSnapshot = stockSnapshot;
+    }
+
+    /**
+     * @return current stock of the product, or 0 if it has no inventory
+     */
+    public int stockOf(int productId) {
+        Integer journaled = stockJournal.currentStock(productId);
+        return journaled != null ? journaled : Math.max(0, stockSnapshot.stockOf(productId));
+    }
+}
@@ -0,0 +1,156 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.entity.Order;
+import com.shopjoy.entity.OrderStatus;
+import com.shopjoy.entity.PaymentStatus;
+import com.shopjoy.entity.ReservationStatus;
+import com.shopjoy.entity.StockReservation;
+import com.shopjoy.repository.OrderJdbcRepository;
+import com.shopjoy.repository.OrderRepository;
+import com.shopjoy.repository.StockReservationRepository;
+import com.shopjoy.service.InventoryService;
+import com.shopjoy.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock hold service with scheduled expiry sweep.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final InventoryService inventoryService;
+
+    @Value("${app.inventory.reservation-ttl-minutes:15}")
+    private long reservationTtlMinutes;
+
+    @Value("${app.inventory.reservation-sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public void holdForOrders(Map<Integer, Map<Integer, Integer>> quantitiesByOrder) {
+        orderJdbcRepository.insertStockHolds(quantitiesByOrder, LocalDateTime.now().plusMinutes(reservationTtlMinutes));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public boolean confirmForOrder(Integer orderId) {
+        if (stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.EXPIRED)) {
+            return false;
+        }
+        int confirmed = stockReservationRepository.transitionByOrderId(
+                orderId, ReservationStatus.HELD, ReservationStatus.CONFIRMED, LocalDateTime.now());
+        return confirmed > 0 || !stockReservationRepository.existsByOrderId(orderId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public Optional<Map<Integer, Integer>> releaseForOrder(Integer orderId) {
+        List<StockReservation> holds = stockReservationRepository.findByOrderIdForUpdate(orderId);
+        if (holds.isEmpty()) {
+            return Optional.empty();
+        }
+
+        EnumSet<ReservationStatus> releasable = EnumSet.of(ReservationStatus.HELD, ReservationStatus.CONFIRMED);
+        Map<Integer, Integer> toRestock = new TreeMap<>();
+        for (StockReservation hold : holds) {
+            if (releasable.contains(hold.getStatus())) {
+                hold.setStatus(ReservationStatus.RELEASED);
+                toRestock.merge(hold.getProduct().getId(), hold.getQuantity(), Integer::sum);
+            }
+        }
+        return Optional.of(toRestock);
+    }
+
+    /**
+     * Sweeps expired holds. Runs every 30 seconds by default.
+     * The orders are locked before their holds, in the order payment and
+     * cancellation lock them, and only holds of orders that can still be
+     * cancelled are expired and restocked: unpaid PENDING orders, which the
+     * sweep cancels, and orders that are already CANCELLED. Orders that moved
+     * on without payment keep their goods, so their holds are confirmed instead
+     * of returning stock that is still promised to them.
+     * All holds of an order are handled together so an order is never half-released.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.inventory.reservation-sweep-interval-ms:30000}")
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    @CacheEvict(value = {"orders", "order", "ordersByUser", "ordersByStatus", "pendingOrders"},
+                allEntries = true, cacheManager = "mediumCacheManager")
+    public int releaseExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Integer> orderIds = stockReservationRepository.findOrderIdsWithExpiredHolds(
+                ReservationStatus.HELD, now, PageRequest.of(0, sweepBatchSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, Order> orders = orderRepository.findByIdInForUpdate(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<StockReservation> holds = stockReservationRepository.findByOrderIdInAndStatusForUpdate(
+                orderIds, ReservationStatus.HELD);
+
+        Map<Integer, Integer> toRestock = new TreeMap<>();
+        Set<Integer> toCancel = new TreeSet<>();
+        int confirmed = 0;
+        for (StockReservation hold : holds) {
+            Integer orderId = hold.getOrder().getId();
+            Order order = orders.get(orderId);
+            if (order != null && !isReleasable(order)) {
+                hold.setStatus(ReservationStatus.CONFIRMED);
+                confirmed++;
+                continue;
+            }
+            hold.setStatus(ReservationStatus.EXPIRED);
+            toRestock.merge(hold.getProduct().getId(), hold.getQuantity(), Integer::sum);
+            if (order != null && order.getStatus() == OrderStatus.PENDING) {
+                toCancel.add(orderId);
+            }
+        }
+
+        inventoryService.releaseStockBatch(toRestock);
+
+        int cancelled = toCancel.isEmpty() ? 0 : orderRepository.updateStatusWhere(
+                toCancel, OrderStatus.PENDING, PaymentStatus.UNPAID, OrderStatus.CANCELLED, now);
+
+        log.info("Stock hold sweep: {} expired and {} confirmed holds across {} orders, restocked {} products, cancelled {} orders",
+                holds.size() - confirmed, confirmed, orderIds.size(), toRestock.size(), cancelled);
+        return orderIds.size();
+    }
+
+    /**
+     * @return true if the order's held stock may go back on sale
+     */
+    private static boolean isReleasable(Order order) {
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            return true;
+        }
+        return order.getStatus() == OrderStatus.PENDING && order.getPaymentStatus() == PaymentStatus.UNPAID;
+    }
+}
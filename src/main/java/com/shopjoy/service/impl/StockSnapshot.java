@@ -0,0 +1,428 @@
+package com.shopjoy.service.impl;
+
+import com.shopjoy.repository.InventoryJdbcRepository;
+import com.shopjoy.repository.InventoryJdbcRepository.StockLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-product stock snapshot held as two primitive arrays indexed by product ID:
+ * total stock and reorder level. One entry answers in-stock, has-available(q),
+ * low-stock and out-of-stock checks for any quantity, replacing one cache entry
+ * per distinct question.
+ * <p>
+ * Inventory writes apply their signed deltas here after commit, so the snapshot
+ * is updated in place and never evicted. A periodic resync picks up writes made
+ * by other instances or outside the inventory service, and clears products whose
+ * inventory was deleted.
+ * <p>
+ * Values read from the database are only stored if no delta of the product was
+ * pending or applied while they were read: each product counts its open writes
+ * and its applied deltas, and the read value replaces the one observed before
+ * the read by compare-and-set. Otherwise a committed delta could be overwritten
+ * by a value read before its commit, or counted twice.
+ */
+@Slf4j
+@Component
+public class StockSnapshot implements SmartInitializingSingleton {
+
+    /** Marker for products whose stock has not been loaded. */
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Product IDs above this are answered from the database instead of growing the arrays. */
+    private static final int MAX_PRODUCT_ID = 1 << 22;
+
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+
+    // Writers share the read lock; only growing the arrays takes the write lock
+    private final ReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private volatile AtomicIntegerArray stock = emptyArray(INITIAL_CAPACITY);
+    private volatile AtomicIntegerArray reorderLevels = emptyArray(INITIAL_CAPACITY);
+    // Deltas applied per product, and writes whose delta is not applied or discarded yet
+    private volatile AtomicIntegerArray versions = new AtomicIntegerArray(INITIAL_CAPACITY);
+    private volatile AtomicIntegerArray pending = new AtomicIntegerArray(INITIAL_CAPACITY);
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong deltasApplied = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong staleReads = new AtomicLong();
+
+    public StockSnapshot(InventoryJdbcRepository inventoryJdbcRepository) {
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        resync();
+    }
+
+    /**
+     * @return total stock of the product, or -1 if it has no inventory
+     */
+    public int stockOf(int productId) {
+        lookups.incrementAndGet();
+        AtomicIntegerArray current = stock;
+        int quantity = productId >= 0 && productId < current.length() ? current.get(productId) : UNKNOWN;
+        if (quantity != UNKNOWN) {
+            return quantity;
+        }
+
+        // Missing products are not remembered, so inventory created later is picked up
+        loads.incrementAndGet();
+        Observed observed = observe(productId);
+        return inventoryJdbcRepository.findStockLevel(productId)
+                .map(level -> {
+                    store(level, observed);
+                    return level.quantity();
+                })
+                .orElse(-1);
+    }
+
+    public boolean isInStock(int productId) {
+        return stockOf(productId) > 0;
+    }
+
+    public boolean hasAvailable(int productId, int quantity) {
+        return stockOf(productId) >= quantity;
+    }
+
+    /**
+     * @return IDs of loaded products at or below their reorder level, in ascending order
+     */
+    public List<Integer> lowStockProductIds() {
+        AtomicIntegerArray currentStock = stock;
+        AtomicIntegerArray currentLevels = reorderLevels;
+        List<Integer> productIds = new ArrayList<>();
+        for (int productId = 0; productId < Math.min(currentStock.length(), currentLevels.length()); productId++) {
+            int quantity = currentStock.get(productId);
+            if (quantity != UNKNOWN && quantity <= currentLevels.get(productId)) {
+                productIds.add(productId);
+            }
+        }
+        return productIds;
+    }
+
+    /**
+     * @return IDs of loaded products with no stock, in ascending order
+     */
+    public List<Integer> outOfStockProductIds() {
+        AtomicIntegerArray currentStock = stock;
+        List<Integer> productIds = new ArrayList<>();
+        for (int productId = 0; productId < currentStock.length(); productId++) {
+            if (currentStock.get(productId) == 0) {
+                productIds.add(productId);
+            }
+        }
+        return productIds;
+    }
+
+    /**
+     * Applies signed stock changes once the surrounding transaction commits.
+     * Must be called before the write it describes, so the products count the
+     * write as pending until it commits or rolls back. Products that are not
+     * loaded yet keep no value; their next lookup reads the committed one.
+     *
+     * @param deltas map of product ID to signed quantity change
+     */
+    public void adjust(Map<Integer, Integer> deltas) {
+        Map<Integer, Integer> changes = new LinkedHashMap<>(deltas);
+        changes.values().removeIf(delta -> delta == null || delta == 0);
+        changes.keySet().removeIf(productId -> productId == null || productId < 0 || productId > MAX_PRODUCT_ID);
+        if (changes.isEmpty()) {
+            return;
+        }
+        changes.keySet().forEach(this::ensureCapacity);
+        withReadLock(() -> changes.keySet().forEach(productId -> pending.incrementAndGet(productId)));
+
+        afterCompletion(committed -> {
+            withReadLock(() -> {
+                AtomicIntegerArray current = stock;
+                changes.forEach((productId, delta) -> {
+                    if (committed) {
+                        current.getAndUpdate(productId, quantity -> quantity == UNKNOWN ? UNKNOWN : quantity + delta);
+                        versions.incrementAndGet(productId);
+                    }
+                    pending.decrementAndGet(productId);
+                });
+            });
+            if (committed) {
+                deltasApplied.addAndGet(changes.size());
+            }
+        });
+    }
+
+    public void adjust(int productId, int delta) {
+        adjust(Map.of(productId, delta));
+    }
+
+    /**
+     * Records a new inventory row once the surrounding transaction commits.
+     */
+    public void track(int productId, int quantity, int reorderLevel) {
+        afterCommit(() -> set(new StockLevel(productId, quantity, reorderLevel)));
+    }
+
+    /**
+     * Clears a product whose inventory is deleted once the surrounding transaction commits.
+     */
+    public void forget(int productId) {
+        afterCommit(() -> withReadLock(() -> {
+            if (productId >= 0 && productId < stock.length()) {
+                stock.set(productId, UNKNOWN);
+                reorderLevels.set(productId, UNKNOWN);
+                versions.incrementAndGet(productId);
+            }
+        }));
+    }
+
+    /**
+     * Records a reorder level change once the surrounding transaction commits.
+     */
+    public void updateReorderLevel(int productId, int reorderLevel) {
+        afterCommit(() -> withReadLock(() -> {
+            AtomicIntegerArray current = reorderLevels;
+            if (productId >= 0 && productId < current.length()) {
+                current.set(productId, reorderLevel);
+            }
+        }));
+    }
+
+    /**
+     * Runs every minute by default and reloads every product from the database.
+     * Products changed through this instance during the read keep their value,
+     * and loaded products without an inventory row any more are cleared.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.snapshot.resync-interval-ms:60000}",
+            initialDelayString = "${app.inventory.snapshot.resync-interval-ms:60000}")
+    public void resync() {
+        int capacity = stock.length();
+        Observed[] observed = new Observed[capacity];
+        for (int productId = 0; productId < capacity; productId++) {
+            observed[productId] = observe(productId);
+        }
+
+        List<StockLevel> levels = inventoryJdbcRepository.findAllStockLevels();
+        boolean[] present = new boolean[capacity];
+        int skipped = 0;
+        for (StockLevel level : levels) {
+            int productId = level.productId();
+            Observed seen = productId >= 0 && productId < capacity ? observed[productId] : null;
+            if (seen != null) {
+                present[productId] = true;
+            }
+            if (!store(level, seen)) {
+                skipped++;
+            }
+        }
+
+        int cleared = 0;
+        for (int productId = 0; productId < capacity; productId++) {
+            if (!present[productId] && observed[productId].quantity() != UNKNOWN
+                    && clear(productId, observed[productId])) {
+                cleared++;
+            }
+        }
+        resyncs.incrementAndGet();
+        log.debug("Stock snapshot resynced {} products, skipped {} changed meanwhile, cleared {} deleted",
+                levels.size(), skipped, cleared);
+    }
+
+    public Map<String, Object> getStats() {
+        AtomicIntegerArray currentStock = stock;
+        int loaded = 0;
+        for (int productId = 0; productId < currentStock.length(); productId++) {
+            if (currentStock.get(productId) != UNKNOWN) {
+                loaded++;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loadedProducts", loaded);
+        stats.put("capacity", currentStock.length());
+        stats.put("approxBytes", 4L * Integer.BYTES * currentStock.length());
+        stats.put("lookups", lookups.get());
+        stats.put("loads", loads.get());
+        stats.put("deltasApplied", deltasApplied.get());
+        stats.put("resyncs", resyncs.get());
+        stats.put("staleReads", staleReads.get());
+        return stats;
+    }
+
+    /**
+     * Value, applied deltas and pending writes of a product, taken before a database read.
+     */
+    private record Observed(int quantity, int version, int pending) {
+    }
+
+    private Observed observe(int productId) {
+        resizeLock.readLock().lock();
+        try {
+            if (productId < 0 || productId >= stock.length()) {
+                return null;
+            }
+            // Pending first: a write that completes in between then shows as a new version
+            int pendingWrites = pending.get(productId);
+            return new Observed(stock.get(productId), versions.get(productId), pendingWrites);
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a value read from the database if the product had no pending write when
+     * it was observed, applied no delta since, and still holds the observed value.
+     * Products beyond the arrays when observed are stored if nothing is pending now.
+     *
+     * @param observed the product's state taken before the read, or null
+     * @return true if the value was stored
+     */
+    private boolean store(StockLevel level, Observed observed) {
+        int productId = level.productId();
+        if (productId < 0 || productId > MAX_PRODUCT_ID) {
+            return false;
+        }
+        ensureCapacity(productId);
+        resizeLock.readLock().lock();
+        try {
+            boolean stored;
+            if (observed == null) {
+                stored = pending.get(productId) == 0 && versions.get(productId) == 0
+                        && stock.compareAndSet(productId, UNKNOWN, level.quantity());
+            } else {
+                stored = observed.pending() == 0 && pending.get(productId) == 0
+                        && versions.get(productId) == observed.version()
+                        && stock.compareAndSet(productId, observed.quantity(), level.quantity());
+            }
+            if (stored) {
+                reorderLevels.set(productId, level.reorderLevel());
+            } else {
+                staleReads.incrementAndGet();
+            }
+            return stored;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    private boolean clear(int productId, Observed observed) {
+        resizeLock.readLock().lock();
+        try {
+            if (observed.pending() != 0 || pending.get(productId) != 0 || versions.get(productId) != observed.version()
+                    || !stock.compareAndSet(productId, observed.quantity(), UNKNOWN)) {
+                return false;
+            }
+            reorderLevels.set(productId, UNKNOWN);
+            return true;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Overwrites a product with a value known to be committed, such as a newly created row.
+     */
+    private void set(StockLevel level) {
+        int productId = level.productId();
+        if (productId < 0 || productId > MAX_PRODUCT_ID) {
+            return;
+        }
+        ensureCapacity(productId);
+        withReadLock(() -> {
+            stock.set(productId, level.quantity());
+            reorderLevels.set(productId, level.reorderLevel());
+            versions.incrementAndGet(productId);
+        });
+    }
+
+    private void withReadLock(Runnable action) {
+        resizeLock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int productId) {
+        if (productId < stock.length()) {
+            return;
+        }
+        resizeLock.writeLock().lock();
+        try {
+            int capacity = stock.length();
+            if (productId < capacity) {
+                return;
+            }
+            while (capacity <= productId) {
+                capacity *= 2;
+            }
+            stock = copyOf(stock, capacity, UNKNOWN);
+            reorderLevels = copyOf(reorderLevels, capacity, UNKNOWN);
+            versions = copyOf(versions, capacity, 0);
+            pending = copyOf(pending, capacity, 0);
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    private static AtomicIntegerArray emptyArray(int capacity) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, UNKNOWN);
+        return new AtomicIntegerArray(values);
+    }
+
+    private static AtomicIntegerArray copyOf(AtomicIntegerArray source, int capacity, int fill) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, fill);
+        for (int i = 0; i < source.length(); i++) {
+            values[i] = source.get(i);
+        }
+        return new AtomicIntegerArray(values);
+    }
+
+    /**
+     * Runs the action with whether the surrounding transaction committed, or at once
+     * as committed outside a transaction.
+     */
+    private void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
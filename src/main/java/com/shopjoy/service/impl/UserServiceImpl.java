@@ -10,6 +10,7 @@ import com.shopjoy.exception.ResourceNotFoundException;
 import com.shopjoy.exception.ValidationException;
 import com.shopjoy.repository.UserRepository;
 import com.shopjoy.service.UserService;
+import com.shopjoy.util.NegativeLookupCache;
 import com.shopjoy.util.SecurityUtil;
 import lombok.AllArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -35,6 +36,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapperStruct userMapper;
+    private final NegativeLookupCache negativeLookupCache;
 
     @Override
     @Cacheable(value = "userProfile", key = "#userId", unless = "#result == null")
@@ -42,13 +44,13 @@ public class UserServiceImpl implements UserService {
         if (!SecurityUtil.canAccessUser(userId)) {
             throw new AccessDeniedException("You do not have permission to access this user profile");
         }
-        User user = userRepository.findById(userId)
+        User user = negativeLookupCache.find("userProfile", userId, () -> userRepository.findById(userId))
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         return userMapper.toUserResponse(user);
     }
 
     @Override
-    @Cacheable(value = "usersByIds")
+    @Cacheable(value = "usersByIds", sync = true)
     public List<UserResponse> getUsersByIds(List<Integer> userIds) {
         if (userIds == null || userIds.isEmpty()) {
             return java.util.Collections.emptyList();
@@ -0,0 +1,104 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts evictions per cache by cause. Caffeine's own statistics only report
+ * the total, which does not tell a cache that is too small (size evictions)
+ * from one whose TTL is too short (expiries).
+ * <p>
+ * Each cache built with {@link #statsCounterFor(String)} records its usual
+ * statistics plus the per-cause counts kept here.
+ */
+@Component
+public class CacheEvictionCounters {
+
+    /**
+     * Removal causes that count as evictions; explicit removals and replacements do not.
+     */
+    public static final List<RemovalCause> EVICTION_CAUSES =
+            List.of(RemovalCause.SIZE, RemovalCause.EXPIRED, RemovalCause.COLLECTED);
+
+    private final Map<String, CauseCountingStatsCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Stats counter supplier for {@code Caffeine.recordStats(...)}.
+     */
+    public Supplier<StatsCounter> statsCounterFor(String cacheName) {
+        return () -> counters.compute(cacheName, (name, existing) -> new CauseCountingStatsCounter());
+    }
+
+    /**
+     * @return evictions of the cache with the given cause, or 0 if the cache is not counted
+     */
+    public long getEvictions(String cacheName, RemovalCause cause) {
+        CauseCountingStatsCounter counter = counters.get(cacheName);
+        return counter == null ? 0 : counter.evictions.get(cause).sum();
+    }
+
+    /**
+     * @return eviction counts by cause name, empty if the cache is not counted
+     */
+    public Map<String, Long> getEvictionsByCause(String cacheName) {
+        Map<String, Long> byCause = new LinkedHashMap<>();
+        if (counters.containsKey(cacheName)) {
+            EVICTION_CAUSES.forEach(cause -> byCause.put(cause.name().toLowerCase(), getEvictions(cacheName, cause)));
+        }
+        return byCause;
+    }
+
+    private static final class CauseCountingStatsCounter implements StatsCounter {
+
+        private final StatsCounter delegate = new ConcurrentStatsCounter();
+        private final Map<RemovalCause, LongAdder> evictions = new EnumMap<>(RemovalCause.class);
+
+        private CauseCountingStatsCounter() {
+            for (RemovalCause cause : RemovalCause.values()) {
+                evictions.put(cause, new LongAdder());
+            }
+        }
+
+        @Override
+        public void recordHits(int count) {
+            delegate.recordHits(count);
+        }
+
+        @Override
+        public void recordMisses(int count) {
+            delegate.recordMisses(count);
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+            delegate.recordLoadSuccess(loadTime);
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+            delegate.recordLoadFailure(loadTime);
+        }
+
+        @Override
+        public void recordEviction(int weight, RemovalCause cause) {
+            delegate.recordEviction(weight, cause);
+            evictions.get(cause).increment();
+        }
+
+        @Override
+        public CacheStats snapshot() {
+            return delegate.snapshot();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tag-based, debounced invalidation for {@link TaggedCaffeineCache} instances.
+ * Writes name the products, categories or users they changed; once the write
+ * commits, only entries tagged with those IDs are evicted. Caches whose
+ * membership may have changed in ways tags cannot capture (a new product, a
+ * price moving into a range) are named explicitly and cleared. Requests that
+ * arrive within the debounce window are merged into a single pass.
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+    /**
+     * Catalog caches whose hit ratio is reported and that the legacy mode clears on every write.
+     */
+    public static final Set<String> CATALOG_CACHES = Set.of(
+            "products", "activeProducts", "productsByCategory", "filteredProducts", "productSearch", "productsByPriceRange",
+            "productFacets");
+
+    private final List<CacheManager> cacheManagers;
+    private final Executor appTaskExecutor;
+    private final long debounceMs;
+    private volatile boolean taggedEviction;
+
+    private final Object lock = new Object();
+    private Set<String> pendingTags = new HashSet<>();
+    private Set<String> pendingClears = new HashSet<>();
+    private boolean flushScheduled;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong entriesEvicted = new AtomicLong();
+    private final AtomicLong cachesCleared = new AtomicLong();
+
+    public CacheInvalidator(
+            List<CacheManager> cacheManagers,
+            Executor appTaskExecutor,
+            @Value("${app.cache.invalidation.debounce-ms:20}") long debounceMs,
+            @Value("${app.cache.invalidation.tagged:true}") boolean taggedEviction) {
+        this.cacheManagers = cacheManagers;
+        this.appTaskExecutor = appTaskExecutor;
+        this.debounceMs = debounceMs;
+        this.taggedEviction = taggedEviction;
+    }
+
+    /**
+     * Evicts the catalog entries that contain any of the given products.
+     */
+    public void invalidateProducts(Collection<Integer> productIds) {
+        invalidate(productIds.stream().map(CacheTags::product).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Evicts every entry carrying one of the tags and clears the named caches,
+     * after the surrounding transaction commits.
+     *
+     * @param tags          tags built with {@link CacheTags}
+     * @param clearedCaches caches to clear entirely
+     */
+    public void invalidate(Collection<String> tags, String... clearedCaches) {
+        Set<String> tagSet = Set.copyOf(tags);
+        Set<String> clearSet = Set.of(clearedCaches);
+        if (tagSet.isEmpty() && clearSet.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(tagSet, clearSet);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(tagSet, clearSet);
+            }
+        });
+    }
+
+    /**
+     * Switches between tag-based eviction and clearing every catalog cache on each write.
+     */
+    public void setTaggedEviction(boolean taggedEviction) {
+        this.taggedEviction = taggedEviction;
+    }
+
+    /**
+     * Applies pending invalidations now instead of waiting for the debounce window.
+     */
+    public void flush() {
+        Set<String> tags;
+        Set<String> clears;
+        synchronized (lock) {
+            tags = pendingTags;
+            clears = pendingClears;
+            pendingTags = new HashSet<>();
+            pendingClears = new HashSet<>();
+            flushScheduled = false;
+        }
+        if (tags.isEmpty() && clears.isEmpty()) {
+            return;
+        }
+
+        for (TaggedCaffeineCache cache : taggedCaches()) {
+            boolean clearAll = clears.contains(cache.getName())
+                    || (!taggedEviction && CATALOG_CACHES.contains(cache.getName()));
+            if (clearAll) {
+                cache.clear();
+                cachesCleared.incrementAndGet();
+            } else {
+                entriesEvicted.addAndGet(cache.evictTagged(tags));
+            }
+        }
+        flushes.incrementAndGet();
+        log.debug("Cache invalidation flushed {} tags and {} cleared caches", tags.size(), clears.size());
+    }
+
+    /**
+     * Runs every minute by default and drops tag index entries for keys that expired.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.prune-interval-ms:60000}")
+    public void pruneTags() {
+        taggedCaches().forEach(TaggedCaffeineCache::pruneTags);
+    }
+
+    /**
+     * Invalidation counters and the hit ratio of each catalog cache.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> hitRatios = new LinkedHashMap<>();
+        long hits = 0;
+        long requestCount = 0;
+        for (TaggedCaffeineCache cache : taggedCaches()) {
+            if (CATALOG_CACHES.contains(cache.getName())) {
+                CacheStats stats = cache.getNativeCache().stats();
+                hitRatios.put(cache.getName(), String.format("%.2f%%", stats.hitRate() * 100));
+                hits += stats.hitCount();
+                requestCount += stats.requestCount();
+            }
+        }
+
+        long requested = requests.get();
+        long flushed = flushes.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("taggedEviction", taggedEviction);
+        stats.put("debounceMs", debounceMs);
+        stats.put("invalidationRequests", requested);
+        stats.put("flushes", flushed);
+        stats.put("coalescedRequests", Math.max(0, requested - flushed));
+        stats.put("entriesEvictedByTag", entriesEvicted.get());
+        stats.put("cachesCleared", cachesCleared.get());
+        stats.put("catalogHitRatio", String.format("%.2f%%", requestCount > 0 ? (double) hits / requestCount * 100 : 0));
+        stats.put("catalogHitRatioByCache", hitRatios);
+        return stats;
+    }
+
+    private void enqueue(Set<String> tags, Set<String> clears) {
+        requests.incrementAndGet();
+        boolean schedule;
+        synchronized (lock) {
+            pendingTags.addAll(tags);
+            pendingClears.addAll(clears);
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            CompletableFuture.delayedExecutor(debounceMs, TimeUnit.MILLISECONDS).execute(() -> {
+                try {
+                    appTaskExecutor.execute(this::flush);
+                } catch (RejectedExecutionException e) {
+                    // Invalidations must not be lost while the pool is saturated
+                    flush();
+                }
+            });
+        }
+    }
+
+    private List<TaggedCaffeineCache> taggedCaches() {
+        List<TaggedCaffeineCache> caches = new ArrayList<>();
+        for (CacheManager manager : cacheManagers) {
+            for (String name : manager.getCacheNames()) {
+                if (manager.getCache(name) instanceof TaggedCaffeineCache cache) {
+                    caches.add(cache);
+                }
+            }
+        }
+        return caches;
+    }
+}
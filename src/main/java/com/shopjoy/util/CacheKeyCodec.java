@@ -0,0 +1,63 @@
+package com.shopjoy.util;
+
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes cache keys as strings so they can be persisted, and decodes them back.
+ * Supports the key shapes used by the warmable caches: no-argument keys,
+ * integer IDs, strings and lists of integer IDs.
+ */
+public final class CacheKeyCodec {
+
+    private static final String EMPTY = "empty";
+    private static final String INT = "int:";
+    private static final String STRING = "str:";
+    private static final String INT_LIST = "ints:";
+
+    private CacheKeyCodec() {
+    }
+
+    /**
+     * @return the encoded key, or empty if the key's type is not supported
+     */
+    public static Optional<String> encode(Object key) {
+        if (SimpleKey.EMPTY.equals(key)) {
+            return Optional.of(EMPTY);
+        }
+        if (key instanceof Integer id) {
+            return Optional.of(INT + id);
+        }
+        if (key instanceof String string) {
+            return Optional.of(STRING + string);
+        }
+        if (key instanceof List<?> list && list.stream().allMatch(Integer.class::isInstance)) {
+            return Optional.of(INT_LIST + list.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode(Object)}
+     */
+    public static Object decode(String encoded) {
+        if (EMPTY.equals(encoded)) {
+            return SimpleKey.EMPTY;
+        }
+        if (encoded.startsWith(INT)) {
+            return Integer.valueOf(encoded.substring(INT.length()));
+        }
+        if (encoded.startsWith(STRING)) {
+            return encoded.substring(STRING.length());
+        }
+        if (encoded.startsWith(INT_LIST)) {
+            String ids = encoded.substring(INT_LIST.length());
+            return ids.isEmpty() ? List.of() : Arrays.stream(ids.split(",")).map(Integer::valueOf).toList();
+        }
+        throw new IllegalArgumentException("Unknown cache key encoding: " + encoded);
+    }
+}
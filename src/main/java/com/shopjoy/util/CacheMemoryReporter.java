@@ -0,0 +1,105 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Reports the estimated heap footprint of every Caffeine cache, per cache manager.
+ * Weight-bounded caches report the weight Caffeine already tracks; other caches
+ * estimate a sample of entries with {@link ObjectSizeEstimator} and extrapolate.
+ */
+@Component
+public class CacheMemoryReporter {
+
+    private static final int SAMPLE_SIZE = 200;
+
+    private final Map<String, CacheManager> cacheManagers;
+
+    public CacheMemoryReporter(Map<String, CacheManager> cacheManagers) {
+        this.cacheManagers = new TreeMap<>(cacheManagers);
+    }
+
+    /**
+     * Gets entry counts, limits and estimated bytes for each cache.
+     */
+    public Map<String, Object> getMemoryReport() {
+        Map<String, Object> managers = new LinkedHashMap<>();
+        long totalBytes = 0;
+
+        for (Map.Entry<String, CacheManager> entry : cacheManagers.entrySet()) {
+            Map<String, Object> caches = new LinkedHashMap<>();
+            long managerBytes = 0;
+            for (String cacheName : entry.getValue().getCacheNames()) {
+                if (entry.getValue().getCache(cacheName) instanceof CaffeineCache cache) {
+                    Map<String, Object> region = describe(cache.getNativeCache());
+                    managerBytes += (long) region.get("estimatedBytes");
+                    caches.put(cacheName, region);
+                }
+            }
+
+            Map<String, Object> manager = new LinkedHashMap<>();
+            manager.put("estimatedBytes", managerBytes);
+            manager.put("estimatedSize", formatBytes(managerBytes));
+            manager.put("caches", caches);
+            managers.put(entry.getKey(), manager);
+            totalBytes += managerBytes;
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("estimatedBytes", totalBytes);
+        report.put("estimatedSize", formatBytes(totalBytes));
+        report.put("managers", managers);
+        return report;
+    }
+
+    private Map<String, Object> describe(Cache<Object, Object> cache) {
+        Optional<Policy.Eviction<Object, Object>> eviction = cache.policy().eviction();
+        boolean weighted = eviction.map(Policy.Eviction::isWeighted).orElse(false);
+        long entries = cache.estimatedSize();
+        long estimatedBytes = weighted
+                ? eviction.get().weightedSize().orElse(0)
+                : sampledBytes(cache, entries);
+
+        Map<String, Object> region = new LinkedHashMap<>();
+        region.put("entries", entries);
+        region.put("estimatedBytes", estimatedBytes);
+        region.put("estimatedSize", formatBytes(estimatedBytes));
+        region.put("avgEntryBytes", entries > 0 ? estimatedBytes / entries : 0);
+        region.put("weighted", weighted);
+        eviction.ifPresent(policy -> region.put(weighted ? "maxWeightBytes" : "maxEntries", policy.getMaximum()));
+        cache.policy().expireAfterWrite()
+                .ifPresent(expiration -> region.put("ttlSeconds", expiration.getExpiresAfter().toSeconds()));
+        return region;
+    }
+
+    private long sampledBytes(Cache<Object, Object> cache, long entries) {
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (Map.Entry<Object, Object> entry : cache.asMap().entrySet()) {
+            if (sampled == SAMPLE_SIZE) {
+                break;
+            }
+            sampledBytes += ObjectSizeEstimator.estimate(entry.getKey()) + ObjectSizeEstimator.estimate(entry.getValue());
+            sampled++;
+        }
+        return sampled == 0 ? 0 : sampledBytes * entries / sampled;
+    }
+
+    private String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
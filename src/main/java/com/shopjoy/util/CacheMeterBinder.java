@@ -0,0 +1,101 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registers every Caffeine cache of every cache manager with Micrometer, so
+ * cache behaviour is kept as time series and scraped from
+ * {@code /actuator/prometheus} rather than computed on request.
+ * <p>
+ * Each cache gets Micrometer's Caffeine meters (gets by hit/miss, loads by
+ * success/failure, load duration, size, evictions), tagged with {@code cache}
+ * and {@code cache.manager} the same way Spring Boot tags them, plus
+ * {@code cache.evictions.by.cause} and, for coalescing caches,
+ * {@code cache.coalesced.waiters}, {@code cache.deferred.writes} and
+ * {@code cache.stale.puts.dropped}. Binding runs once all singletons exist, as
+ * the caches are fixed at startup.
+ */
+@Component
+public class CacheMeterBinder implements SmartInitializingSingleton {
+
+    private static final String CACHE_MANAGER_SUFFIX = "cachemanager";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CacheManager> cacheManagers;
+    private final CacheEvictionCounters evictionCounters;
+
+    public CacheMeterBinder(MeterRegistry meterRegistry, Map<String, CacheManager> cacheManagers,
+                            CacheEvictionCounters evictionCounters) {
+        this.meterRegistry = meterRegistry;
+        this.cacheManagers = new TreeMap<>(cacheManagers);
+        this.evictionCounters = evictionCounters;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        cacheManagers.forEach((beanName, cacheManager) -> {
+            String managerTag = managerTag(beanName);
+            for (String cacheName : cacheManager.getCacheNames()) {
+                if (cacheManager.getCache(cacheName) instanceof CaffeineCache cache) {
+                    bind(cache, managerTag);
+                }
+            }
+        });
+    }
+
+    private void bind(CaffeineCache cache, String managerTag) {
+        String cacheName = cache.getName();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), cacheName, Tags.of("cache.manager", managerTag));
+
+        Tags tags = Tags.of("cache", cacheName, "cache.manager", managerTag);
+
+        for (RemovalCause cause : CacheEvictionCounters.EVICTION_CAUSES) {
+            FunctionCounter.builder("cache.evictions.by.cause", evictionCounters,
+                            counters -> counters.getEvictions(cacheName, cause))
+                    .tags(tags.and("cause", cause.name().toLowerCase()))
+                    .description("Entries evicted from the cache, by cause: size, expired or collected")
+                    .register(meterRegistry);
+        }
+
+        if (cache instanceof CoalescingCaffeineCache coalescingCache) {
+            FunctionCounter.builder("cache.coalesced.waiters", coalescingCache,
+                            CoalescingCaffeineCache::getCoalescedWaiters)
+                    .tags(tags)
+                    .description("Cache misses served by another caller's in-flight load")
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.deferred.writes", coalescingCache,
+                            CoalescingCaffeineCache::getDeferredWrites)
+                    .tags(tags)
+                    .description("Puts, evictions and clears held back until their transaction committed")
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.stale.puts.dropped", coalescingCache,
+                            CoalescingCaffeineCache::getStalePutsDropped)
+                    .tags(tags)
+                    .description("Loaded values not stored because their key was evicted while they loaded")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Strips the "CacheManager" suffix from the bean name, as Spring Boot does
+     * for its own cache metrics, so the tag values line up.
+     */
+    private static String managerTag(String beanName) {
+        if (beanName.length() > CACHE_MANAGER_SUFFIX.length()
+                && beanName.toLowerCase().endsWith(CACHE_MANAGER_SUFFIX)) {
+            return beanName.substring(0, beanName.length() - CACHE_MANAGER_SUFFIX.length());
+        }
+        return beanName;
+    }
+}
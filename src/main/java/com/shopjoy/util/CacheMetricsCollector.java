@@ -1,6 +1,7 @@
 package com.shopjoy.util;
 
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -17,11 +18,17 @@ import java.util.Map;
 public class CacheMetricsCollector {
 
     private final Map<String, CacheManager> cacheManagers;
+    private final NegativeLookupCache negativeLookupCache;
+    private final CacheEvictionCounters evictionCounters;
 
     public CacheMetricsCollector(
             CacheManager cacheManager, // Primary
-            CacheManager mediumCacheManager,
-            CacheManager shortCacheManager) {
+            @Qualifier("mediumCacheManager") CacheManager mediumCacheManager,
+            @Qualifier("shortCacheManager") CacheManager shortCacheManager,
+            NegativeLookupCache negativeLookupCache,
+            CacheEvictionCounters evictionCounters) {
+        this.negativeLookupCache = negativeLookupCache;
+        this.evictionCounters = evictionCounters;
         this.cacheManagers = new LinkedHashMap<>();
         this.cacheManagers.put("Primary (30m)", cacheManager);
         this.cacheManagers.put("Medium (10m)", mediumCacheManager);
@@ -30,6 +37,8 @@ public class CacheMetricsCollector {
 
     /**
      * Gets statistics for all caches across all CacheManagers.
+     * Not-found lookups answered by {@link NegativeLookupCache} are reported
+     * separately, since they never reach the Caffeine caches.
      */
     public Map<String, Object> getAllCacheStats() {
         Map<String, Object> allStats = new LinkedHashMap<>();
@@ -45,12 +54,18 @@ public class CacheMetricsCollector {
                 for (String cacheName : cacheNames) {
                     CaffeineCache cache = (CaffeineCache) manager.getCache(cacheName);
                     if (cache != null) {
-                        managerStats.put(cacheName, formatStats(cache.getNativeCache().stats()));
+                        Map<String, Object> cacheStats = formatStats(cache.getNativeCache().stats());
+                        cacheStats.put("evictionsByCause", evictionCounters.getEvictionsByCause(cacheName));
+                        if (cache instanceof CoalescingCaffeineCache coalescingCache) {
+                            cacheStats.putAll(formatCoalescing(coalescingCache));
+                        }
+                        managerStats.put(cacheName, cacheStats);
                     }
                 }
                 allStats.put(managerName, managerStats);
             }
         }
+        allStats.put("Negative lookups", negativeLookupCache.getStats());
 
         return allStats;
     }
@@ -63,6 +78,7 @@ public class CacheMetricsCollector {
         long totalMissCount = 0;
         long totalRequestCount = 0;
         long totalEvictionCount = 0;
+        long totalCoalescedWaiters = 0;
 
         for (CacheManager manager : cacheManagers.values()) {
             if (manager instanceof CaffeineCacheManager caffeineManager) {
@@ -74,6 +90,9 @@ public class CacheMetricsCollector {
                         totalMissCount += stats.missCount();
                         totalRequestCount += stats.requestCount();
                         totalEvictionCount += stats.evictionCount();
+                        if (cache instanceof CoalescingCaffeineCache coalescingCache) {
+                            totalCoalescedWaiters += coalescingCache.getCoalescedWaiters();
+                        }
                     }
                 }
             }
@@ -87,6 +106,8 @@ public class CacheMetricsCollector {
         summary.put("totalMisses", totalMissCount);
         summary.put("totalRequests", totalRequestCount);
         summary.put("totalEvictions", totalEvictionCount);
+        summary.put("totalCoalescedWaiters", totalCoalescedWaiters);
+        summary.put("totalNegativeHits", negativeLookupCache.getHitCount());
 
         return summary;
     }
@@ -101,4 +122,13 @@ public class CacheMetricsCollector {
         map.put("averageLoadPenaltyMs", String.format("%.2f", stats.averageLoadPenalty() / 1_000_000.0));
         return map;
     }
+
+    private Map<String, Object> formatCoalescing(CoalescingCaffeineCache cache) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("coalescedLoads", cache.getLoadCount());
+        map.put("coalescedWaiters", cache.getCoalescedWaiters());
+        map.put("maxWaitersPerLoad", cache.getMaxWaitersPerLoad());
+        map.put("averageCoalescedLoadMs", String.format("%.2f", cache.getAverageLoadMs()));
+        return map;
+    }
 }
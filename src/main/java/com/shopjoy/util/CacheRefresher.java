@@ -0,0 +1,162 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Refresh-ahead loading for caches configured with a refresh-after interval.
+ * Once an entry is older than the interval, the next read returns the cached
+ * value and triggers a background reload; readers keep getting the old value
+ * until the reload replaces it. Entries that are not read expire as usual, so
+ * only hot entries are kept warm.
+ * <p>
+ * Services register a loader per cache that computes a value from its cache key
+ * without going through the cache. First loads still go through the cached
+ * method; only refreshes and startup warming use the registered loader.
+ */
+@Slf4j
+@Component
+public class CacheRefresher {
+
+    private final TransactionTemplate readTransaction;
+    private final Executor appTaskExecutor;
+    private final Map<String, Function<Object, Object>> loaders = new ConcurrentHashMap<>();
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, RefreshStats> stats = new ConcurrentHashMap<>();
+
+    public CacheRefresher(PlatformTransactionManager transactionManager, Executor appTaskExecutor) {
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.appTaskExecutor = appTaskExecutor;
+    }
+
+    /**
+     * Registers the loader used to refresh entries of the given cache.
+     *
+     * @param cacheName cache name
+     * @param loader    computes a fresh value from the cache key
+     */
+    public void register(String cacheName, Function<Object, Object> loader) {
+        loaders.put(cacheName, loader);
+    }
+
+    /**
+     * @return names of the caches that have a registered loader
+     */
+    public Set<String> getLoadableCaches() {
+        return Set.copyOf(loaders.keySet());
+    }
+
+    /**
+     * Computes the value for a cache key with the registered loader, in a read-only transaction.
+     *
+     * @return the value, or null if the cache has no loader or the loader cannot handle the key
+     */
+    public Object load(String cacheName, Object key) {
+        Function<Object, Object> loader = loaders.get(cacheName);
+        return loader == null ? null : readTransaction.execute(status -> loader.apply(key));
+    }
+
+    /**
+     * Creates the Caffeine loader for a refreshing cache.
+     */
+    public CacheLoader<Object, Object> loaderFor(String cacheName) {
+        RefreshStats refreshStats = stats.computeIfAbsent(cacheName, name -> new RefreshStats());
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                // A miss falls through to the cached method, which stores the value itself
+                return null;
+            }
+
+            @Override
+            public Object reload(Object key, Object oldValue) {
+                return refresh(cacheName, key, refreshStats);
+            }
+        };
+    }
+
+    /**
+     * Binds the Spring cache wrapping a refreshing cache, so that refreshed
+     * values of tagged caches are tagged like values stored through the cache.
+     */
+    public void bind(String cacheName, Cache cache) {
+        caches.put(cacheName, cache);
+    }
+
+    /**
+     * Executor that runs refreshes.
+     */
+    public Executor executor() {
+        return appTaskExecutor;
+    }
+
+    /**
+     * Refresh counts and the time readers were served the old value while a refresh ran.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> allStats = new LinkedHashMap<>();
+        new TreeMap<>(stats).forEach((cacheName, refreshStats) -> {
+            long refreshes = refreshStats.refreshes.get();
+            long staleNanos = refreshStats.staleNanos.get();
+            Map<String, Object> cacheStats = new LinkedHashMap<>();
+            cacheStats.put("loaderRegistered", loaders.containsKey(cacheName));
+            cacheStats.put("refreshes", refreshes);
+            cacheStats.put("refreshFailures", refreshStats.failures.get());
+            cacheStats.put("staleServeMs", TimeUnit.NANOSECONDS.toMillis(staleNanos));
+            cacheStats.put("avgStaleServeMs", refreshes > 0 ? TimeUnit.NANOSECONDS.toMillis(staleNanos / refreshes) : 0);
+            cacheStats.put("maxStaleServeMs", TimeUnit.NANOSECONDS.toMillis(refreshStats.maxStaleNanos.get()));
+            allStats.put(cacheName, cacheStats);
+        });
+        return allStats;
+    }
+
+    private Object refresh(String cacheName, Object key, RefreshStats refreshStats) {
+        Function<Object, Object> loader = loaders.get(cacheName);
+        if (loader == null) {
+            // Without a loader the entry is dropped and reloaded by the next read
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object value = readTransaction.execute(status -> loader.apply(key));
+            Cache cache = caches.get(cacheName);
+            if (cache instanceof TaggedCaffeineCache taggedCache) {
+                taggedCache.tag(key, value);
+            }
+            refreshStats.refreshes.incrementAndGet();
+            // Caffeine stores the reloaded value as is, so it has to be in the cache's stored form
+            return cache instanceof CompactCatalogCache compactCache ? compactCache.compact(value) : value;
+        } catch (RuntimeException e) {
+            refreshStats.failures.incrementAndGet();
+            log.warn("Refresh of cache '{}' key {} failed, keeping the cached value: {}", cacheName, key, e.getMessage());
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            refreshStats.staleNanos.addAndGet(elapsed);
+            refreshStats.maxStaleNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private static final class RefreshStats {
+        private final AtomicLong refreshes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong staleNanos = new AtomicLong();
+        private final AtomicLong maxStaleNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,100 @@
+package com.shopjoy.util;
+
+import com.shopjoy.dto.response.ProductResponse;
+import org.springframework.data.domain.Page;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Tag names and taggers for cache entries that depend on catalog data.
+ * A tagger derives the tags of an entry from its key and value when the entry
+ * is stored; a write that touches a product, category or user evicts only the
+ * entries carrying that tag.
+ */
+public final class CacheTags {
+
+    /**
+     * Carried by entries whose contents depend on stock levels, which the
+     * stock overlay cannot patch at read time.
+     */
+    public static final String STOCK = "stock";
+
+    private CacheTags() {
+    }
+
+    public static String product(Object productId) {
+        return "product:" + productId;
+    }
+
+    public static String category(Object categoryId) {
+        return "category:" + categoryId;
+    }
+
+    public static String user(Object userId) {
+        return "user:" + userId;
+    }
+
+    /**
+     * Tags a list or page of products with every product and category it contains.
+     */
+    public static final BiFunction<Object, Object, Set<String>> PRODUCT_LIST = (key, value) -> {
+        Set<String> tags = new HashSet<>();
+        Iterable<?> items = value instanceof Page<?> page ? page.getContent()
+                : value instanceof Iterable<?> iterable ? iterable
+                : Set.of();
+        for (Object item : items) {
+            if (item instanceof ProductResponse product) {
+                tags.add(product(product.getId()));
+                if (product.getCategoryId() != null) {
+                    tags.add(category(product.getCategoryId()));
+                }
+            }
+        }
+        return tags;
+    };
+
+    /**
+     * Tags a per-category product list with its categories as well, so that
+     * an empty list is still evicted when a product joins the category.
+     */
+    public static final BiFunction<Object, Object, Set<String>> PRODUCTS_BY_CATEGORY = (key, value) -> {
+        Set<String> tags = PRODUCT_LIST.apply(key, value);
+        if (key instanceof Collection<?> categoryIds) {
+            categoryIds.forEach(categoryId -> tags.add(category(categoryId)));
+        } else {
+            tags.add(category(key));
+        }
+        return tags;
+    };
+
+    /**
+     * Tags a filtered product page like a product list, and with {@link #STOCK}
+     * if it is sorted by an inventory field, since its order then changes with stock.
+     */
+    public static final BiFunction<Object, Object, Set<String>> FILTERED_PRODUCTS = (key, value) -> {
+        Set<String> tags = PRODUCT_LIST.apply(key, value);
+        if (key.toString().contains(":inventory")) {
+            tags.add(STOCK);
+        }
+        return tags;
+    };
+
+    /**
+     * Leaves facet counts untagged: they do not include stock, which is counted
+     * when they are read. Product writes clear the cache along with filteredProducts.
+     */
+    public static final BiFunction<Object, Object, Set<String>> PRODUCT_FACETS = (key, value) -> Set.of();
+
+    /**
+     * Tags an entry keyed by product ID.
+     */
+    public static final BiFunction<Object, Object, Set<String>> BY_PRODUCT_KEY = (key, value) -> Set.of(product(key));
+
+    /**
+     * Tags an entry keyed by user ID.
+     */
+    public static final BiFunction<Object, Object, Set<String>> BY_USER_KEY = (key, value) -> Set.of(user(key));
+}
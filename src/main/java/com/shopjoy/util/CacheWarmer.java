@@ -0,0 +1,287 @@
+package com.shopjoy.util;
+
+import com.shopjoy.entity.CacheHotKey;
+import com.shopjoy.repository.CacheHotKeyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the caches that have a {@link CacheRefresher} loader before the instance
+ * takes traffic. Warming starts when the context is refreshed and runs on the
+ * bounded cacheWarmupExecutor. The ApplicationReadyEvent listener waits for it,
+ * up to the time budget, and Spring Boot only switches readiness to
+ * ACCEPTING_TRAFFIC after that listener returns, so the readiness probe stays
+ * down while the caches are cold.
+ * <p>
+ * The keys come from a snapshot of each cache's hottest keys, which the running
+ * instance saves periodically and on shutdown. Without a snapshot, only the
+ * no-argument list entries are warmed.
+ */
+@Slf4j
+@Component
+public class CacheWarmer {
+
+    /**
+     * Entries warmed when no snapshot exists yet.
+     */
+    private static final Set<String> DEFAULT_CACHES = Set.of("products", "activeProducts", "categories");
+    private static final int MAX_ENCODED_KEY_LENGTH = 500;
+
+    public enum State { PENDING, WARMING, WARMED, BUDGET_EXCEEDED, DISABLED }
+
+    private final CacheRefresher cacheRefresher;
+    private final CacheHotKeyRepository cacheHotKeyRepository;
+    private final List<CacheManager> cacheManagers;
+    private final Executor cacheWarmupExecutor;
+    private final TransactionTemplate writeTransaction;
+    private final boolean enabled;
+    private final long budgetMs;
+    private final int maxKeysPerCache;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile State state = State.PENDING;
+    private volatile long startNanos;
+    private volatile long durationMs;
+    private volatile boolean fromSnapshot;
+    private volatile int plannedKeys;
+    private volatile LocalDateTime lastSnapshotAt;
+    private volatile int lastSnapshotKeys;
+    private final AtomicInteger warmedKeys = new AtomicInteger();
+    private final AtomicInteger failedKeys = new AtomicInteger();
+    private final AtomicInteger skippedKeys = new AtomicInteger();
+
+    public CacheWarmer(
+            CacheRefresher cacheRefresher,
+            CacheHotKeyRepository cacheHotKeyRepository,
+            List<CacheManager> cacheManagers,
+            @Qualifier("cacheWarmupExecutor") Executor cacheWarmupExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.cache.warmup.enabled:true}") boolean enabled,
+            @Value("${app.cache.warmup.budget-ms:30000}") long budgetMs,
+            @Value("${app.cache.warmup.max-keys-per-cache:100}") int maxKeysPerCache) {
+        this.cacheRefresher = cacheRefresher;
+        this.cacheHotKeyRepository = cacheHotKeyRepository;
+        this.cacheManagers = cacheManagers;
+        this.cacheWarmupExecutor = cacheWarmupExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.budgetMs = budgetMs;
+        this.maxKeysPerCache = maxKeysPerCache;
+    }
+
+    /**
+     * Starts warming in the background once all beans are ready.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void startWarmup() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (!enabled) {
+            state = State.DISABLED;
+            finished.countDown();
+            return;
+        }
+
+        startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        List<WarmupKey> keys = planKeys();
+        plannedKeys = keys.size();
+        state = State.WARMING;
+        log.info("Warming {} cache entries ({})", keys.size(), fromSnapshot ? "from hot key snapshot" : "defaults");
+
+        CompletableFuture<?>[] tasks = keys.stream()
+                .map(key -> CompletableFuture.runAsync(() -> warm(key, deadline), cacheWarmupExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).whenComplete((result, error) -> {
+            if (state == State.WARMING) {
+                state = State.WARMED;
+            }
+            durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            log.info("Cache warm-up finished in {} ms: {} warmed, {} failed, {} skipped",
+                    durationMs, warmedKeys.get(), failedKeys.get(), skippedKeys.get());
+            finished.countDown();
+        });
+    }
+
+    /**
+     * Holds back the readiness switch until warming finishes or the budget runs out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void awaitWarmup() throws InterruptedException {
+        long elapsedMs = startNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (!finished.await(Math.max(0, budgetMs - elapsedMs), TimeUnit.MILLISECONDS)) {
+            state = State.BUDGET_EXCEEDED;
+            log.warn("Cache warm-up exceeded its {} ms budget; accepting traffic with {} of {} entries warmed",
+                    budgetMs, warmedKeys.get(), plannedKeys);
+        }
+    }
+
+    /**
+     * Runs every 5 minutes by default and saves the hottest keys of each warmable cache.
+     * An instance with nothing cached keeps the previous snapshot.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.warmup.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.cache.warmup.snapshot-interval-ms:300000}")
+    public void captureSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CacheHotKey> hotKeys = new ArrayList<>();
+        for (String cacheName : new TreeSet<>(cacheRefresher.getLoadableCaches())) {
+            CaffeineCache cache = findCache(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            int rank = 0;
+            for (Object key : hottestKeys(cache)) {
+                String encoded = CacheKeyCodec.encode(key).orElse(null);
+                if (encoded != null && encoded.length() <= MAX_ENCODED_KEY_LENGTH) {
+                    hotKeys.add(CacheHotKey.builder()
+                            .cacheName(cacheName)
+                            .cacheKey(encoded)
+                            .rank(rank++)
+                            .capturedAt(now)
+                            .build());
+                }
+            }
+        }
+        if (hotKeys.isEmpty()) {
+            return;
+        }
+
+        writeTransaction.executeWithoutResult(status -> {
+            cacheHotKeyRepository.deleteAllInBatch();
+            cacheHotKeyRepository.saveAll(hotKeys);
+        });
+        lastSnapshotAt = now;
+        lastSnapshotKeys = hotKeys.size();
+        log.debug("Saved {} hot cache keys", hotKeys.size());
+    }
+
+    @PreDestroy
+    void captureOnShutdown() {
+        try {
+            captureSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Could not save hot cache keys on shutdown: {}", e.getMessage());
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state);
+        stats.put("fromSnapshot", fromSnapshot);
+        stats.put("budgetMs", budgetMs);
+        stats.put("durationMs", durationMs);
+        stats.put("plannedKeys", plannedKeys);
+        stats.put("warmedKeys", warmedKeys.get());
+        stats.put("failedKeys", failedKeys.get());
+        stats.put("skippedKeys", skippedKeys.get());
+        stats.put("lastSnapshotAt", lastSnapshotAt);
+        stats.put("lastSnapshotKeys", lastSnapshotKeys);
+        return stats;
+    }
+
+    /**
+     * Orders the snapshot keys by rank, so every cache's hottest keys are warmed first.
+     */
+    private List<WarmupKey> planKeys() {
+        Set<String> warmableCaches = cacheRefresher.getLoadableCaches();
+        Map<String, Integer> keysPerCache = new HashMap<>();
+        List<WarmupKey> keys = new ArrayList<>();
+        for (CacheHotKey hotKey : cacheHotKeyRepository.findAllByOrderByRankAsc()) {
+            String cacheName = hotKey.getCacheName();
+            if (!warmableCaches.contains(cacheName)
+                    || keysPerCache.merge(cacheName, 1, Integer::sum) > maxKeysPerCache) {
+                continue;
+            }
+            try {
+                keys.add(new WarmupKey(cacheName, CacheKeyCodec.decode(hotKey.getCacheKey()), hotKey.getRank()));
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping hot key {} of cache {}: {}", hotKey.getCacheKey(), cacheName, e.getMessage());
+            }
+        }
+
+        fromSnapshot = !keys.isEmpty();
+        if (keys.isEmpty()) {
+            DEFAULT_CACHES.stream()
+                    .filter(warmableCaches::contains)
+                    .forEach(cacheName -> keys.add(new WarmupKey(cacheName, SimpleKey.EMPTY, 0)));
+        }
+        keys.sort(Comparator.comparingInt(WarmupKey::rank));
+        return keys;
+    }
+
+    private void warm(WarmupKey key, long deadline) {
+        if (System.nanoTime() > deadline) {
+            skippedKeys.incrementAndGet();
+            return;
+        }
+        CaffeineCache cache = findCache(key.cacheName());
+        try {
+            Object value = cache == null ? null : cacheRefresher.load(key.cacheName(), key.key());
+            if (value == null) {
+                skippedKeys.incrementAndGet();
+                return;
+            }
+            cache.putIfAbsent(key.key(), value);
+            warmedKeys.incrementAndGet();
+        } catch (RuntimeException e) {
+            // A key that no longer resolves, such as a deleted product, is not an error worth failing startup for
+            failedKeys.incrementAndGet();
+            log.debug("Could not warm {} key {}: {}", key.cacheName(), key.key(), e.getMessage());
+        }
+    }
+
+    private Collection<Object> hottestKeys(CaffeineCache cache) {
+        return cache.getNativeCache().policy().eviction()
+                .<Collection<Object>>map(eviction -> eviction.hottest(maxKeysPerCache).keySet())
+                .orElseGet(() -> cache.getNativeCache().asMap().keySet().stream().limit(maxKeysPerCache).toList());
+    }
+
+    private CaffeineCache findCache(String cacheName) {
+        for (CacheManager manager : cacheManagers) {
+            if (manager.getCacheNames().contains(cacheName)
+                    && manager.getCache(cacheName) instanceof CaffeineCache cache) {
+                return cache;
+            }
+        }
+        return null;
+    }
+
+    private record WarmupKey(String cacheName, Object key, int rank) {
+    }
+}
@@ -0,0 +1,358 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.service.impl.StockOverlay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Shared, compact store of cached products. Catalog caches keep only the IDs
+ * of the products in each list or page and resolve them here on read, so a
+ * product that appears in many cached lists is held once instead of once per
+ * list.
+ * <p>
+ * Products are stored as immutable {@link CompactProduct} records: category
+ * names, brands and image URL directories are interned, timestamps are packed
+ * into longs, and long descriptions can be deflated. Every read builds new
+ * {@link ProductResponse} objects, so callers that modify a returned DTO no
+ * longer modify the cached copy.
+ * <p>
+ * Stock is not stored: each read takes it from the {@link StockOverlay}, so
+ * stock changes leave cached catalog entries valid.
+ * <p>
+ * A product is only replaced by a value with the same or a newer
+ * {@code updatedAt}, so a list loaded before an update cannot overwrite it.
+ * Products that no cached value reads expire after the idle TTL; a cached list
+ * whose products are no longer all in the store is treated as a miss.
+ */
+@Component
+public class CatalogValueStore {
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final int MAX_INTERNED_STRINGS = 10_000;
+
+    private final StockOverlay stockOverlay;
+    private final boolean enabled;
+    private final int compressThreshold;
+    private final Cache<Object, Object> products;
+    private final ConcurrentMap<String, String> internedStrings = new ConcurrentHashMap<>();
+
+    private final AtomicLong compactedValues = new AtomicLong();
+    private final AtomicLong expandedValues = new AtomicLong();
+    private final AtomicLong expandMisses = new AtomicLong();
+    private final AtomicLong compressedDescriptions = new AtomicLong();
+
+    public CatalogValueStore(
+            StockOverlay stockOverlay,
+            @Value("${app.cache.catalog.compact:true}") boolean enabled,
+            @Value("${app.cache.catalog.compress-threshold:512}") int compressThreshold,
+            @Value("${app.cache.catalog.max-products:200000}") long maxProducts,
+            @Value("${app.cache.catalog.idle-ttl:125m}") Duration idleTtl) {
+        this.stockOverlay = stockOverlay;
+        this.enabled = enabled;
+        this.compressThreshold = compressThreshold;
+        this.products = Caffeine.newBuilder()
+                .expireAfterAccess(idleTtl)
+                .maximumSize(maxProducts)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Native cache holding the products, keyed by product ID.
+     */
+    public Cache<Object, Object> getNativeCache() {
+        return products;
+    }
+
+    /**
+     * Converts a list or page of products into its compact form, storing the
+     * products. Any other value is returned unchanged.
+     */
+    public Object compact(Object value) {
+        if (!enabled) {
+            return value;
+        }
+        if (value instanceof ProductResponse product && product.getId() != null) {
+            store(product);
+            compactedValues.incrementAndGet();
+            return new ProductRef(product.getId());
+        }
+        if (value instanceof Page<?> page && page.getPageable().isPaged() && allProducts(page.getContent())) {
+            int[] ids = storeAll(page.getContent());
+            compactedValues.incrementAndGet();
+            return new ProductIdPage(ids, page.getNumber(), page.getSize(), page.getSort(), page.getTotalElements());
+        }
+        if (value instanceof List<?> list && !list.isEmpty() && allProducts(list)) {
+            int[] ids = storeAll(list);
+            compactedValues.incrementAndGet();
+            return new ProductIdList(ids);
+        }
+        return value;
+    }
+
+    /**
+     * Rebuilds the value a compact form was created from.
+     *
+     * @return the rebuilt value, the value itself if it is not compact,
+     * or null if any of its products is no longer stored
+     */
+    public Object expand(Object value) {
+        if (!(value instanceof Compacted)) {
+            return value;
+        }
+        Object expanded = switch (value) {
+            case ProductRef ref -> {
+                CompactProduct product = (CompactProduct) products.getIfPresent(ref.id());
+                yield product == null ? null : toResponse(product);
+            }
+            case ProductIdList list -> resolve(list.ids());
+            case ProductIdPage page -> {
+                List<ProductResponse> content = resolve(page.ids());
+                yield content == null ? null : new PageImpl<>(content,
+                        PageRequest.of(page.number(), page.size(), page.sort()), page.totalElements());
+            }
+            default -> throw new IllegalStateException("Unknown compact value " + value.getClass());
+        };
+        if (expanded == null) {
+            expandMisses.incrementAndGet();
+        } else {
+            expandedValues.incrementAndGet();
+        }
+        return expanded;
+    }
+
+    /**
+     * @return true if cached products take their stock from the live overlay,
+     * so stock changes need not evict catalog entries
+     */
+    public boolean isStockOverlaid() {
+        return enabled;
+    }
+
+    public boolean isCompact(Object value) {
+        return value instanceof Compacted;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("storedProducts", products.estimatedSize());
+        stats.put("compactedValues", compactedValues.get());
+        stats.put("expandedValues", expandedValues.get());
+        stats.put("expandMisses", expandMisses.get());
+        stats.put("compressedDescriptions", compressedDescriptions.get());
+        stats.put("internedStrings", internedStrings.size());
+        return stats;
+    }
+
+    private int[] storeAll(List<?> list) {
+        int[] ids = new int[list.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ProductResponse product = (ProductResponse) list.get(i);
+            store(product);
+            ids[i] = product.getId();
+        }
+        return ids;
+    }
+
+    private void store(ProductResponse response) {
+        CompactProduct product = toCompact(response);
+        products.asMap().merge(response.getId(), product,
+                (existing, incoming) -> ((CompactProduct) incoming).updatedAt() >= ((CompactProduct) existing).updatedAt()
+                        ? incoming : existing);
+    }
+
+    private List<ProductResponse> resolve(int[] ids) {
+        List<ProductResponse> responses = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            CompactProduct product = (CompactProduct) products.getIfPresent(id);
+            if (product == null) {
+                return null;
+            }
+            responses.add(toResponse(product));
+        }
+        return responses;
+    }
+
+    private static boolean allProducts(List<?> list) {
+        for (Object element : list) {
+            if (!(element instanceof ProductResponse product) || product.getId() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CompactProduct toCompact(ProductResponse response) {
+        String imageUrl = response.getImageUrl();
+        int split = imageUrl == null ? -1 : imageUrl.lastIndexOf('/') + 1;
+        return new CompactProduct(
+                response.getId(),
+                response.getProductName(),
+                compress(response.getDescription()),
+                response.getCategoryId(),
+                intern(response.getCategoryName()),
+                response.getReorderLevel(),
+                response.getPrice(),
+                response.getCostPrice(),
+                response.getSku(),
+                intern(response.getBrand()),
+                split > 0 ? intern(imageUrl.substring(0, split)) : null,
+                split > 0 ? imageUrl.substring(split) : imageUrl,
+                response.isActive(),
+                pack(response.getCreatedAt()),
+                pack(response.getUpdatedAt()));
+    }
+
+    private ProductResponse toResponse(CompactProduct product) {
+        return new ProductResponse(
+                product.id(),
+                product.productName(),
+                decompress(product.description()),
+                product.categoryId(),
+                product.categoryName(),
+                stockOverlay.stockOf(product.id()),
+                product.reorderLevel(),
+                product.price(),
+                product.costPrice(),
+                product.sku(),
+                product.brand(),
+                product.imageUrlPrefix() == null ? product.imageUrlName() : product.imageUrlPrefix() + product.imageUrlName(),
+                product.active(),
+                unpack(product.createdAt()),
+                unpack(product.updatedAt()));
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (internedStrings.size() >= MAX_INTERNED_STRINGS) {
+            return internedStrings.getOrDefault(value, value);
+        }
+        String existing = internedStrings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * @return the text itself, or its deflated UTF-8 bytes if it is at least the compression threshold long
+     */
+    private Object compress(String text) {
+        if (text == null || compressThreshold <= 0 || text.length() < compressThreshold) {
+            return text;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            compressedDescriptions.incrementAndGet();
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String decompress(Object description) {
+        if (!(description instanceof byte[] bytes)) {
+            return (String) description;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated compressed description");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed description", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long pack(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NO_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+    }
+
+    private static LocalDateTime unpack(long packed) {
+        if (packed == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(packed, 1_000_000_000L),
+                (int) Math.floorMod(packed, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Marker for the compact forms stored in catalog caches.
+     */
+    private sealed interface Compacted permits ProductRef, ProductIdList, ProductIdPage {
+    }
+
+    private record ProductRef(int id) implements Compacted {
+    }
+
+    private record ProductIdList(int[] ids) implements Compacted {
+    }
+
+    private record ProductIdPage(int[] ids, int number, int size, Sort sort, long totalElements) implements Compacted {
+    }
+
+    /**
+     * Immutable product as held in the store, without stock. The description
+     * is either a String or deflated UTF-8 bytes.
+     */
+    record CompactProduct(
+            int id,
+            String productName,
+            Object description,
+            Integer categoryId,
+            String categoryName,
+            int reorderLevel,
+            double price,
+            double costPrice,
+            String sku,
+            String brand,
+            String imageUrlPrefix,
+            String imageUrlName,
+            boolean active,
+            long createdAt,
+            long updatedAt) {
+    }
+}
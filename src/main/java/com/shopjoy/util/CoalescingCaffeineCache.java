@@ -0,0 +1,287 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine cache that coalesces concurrent misses for the same key into one load.
+ * Applies to {@code @Cacheable(sync = true)} methods: the first caller runs the
+ * method and stores the result, and callers that miss while it runs wait for
+ * that result instead of running the method themselves.
+ * <p>
+ * Unlike Caffeine's own {@code get(key, mappingFunction)}, the load runs outside
+ * the cache's hash map, so a slow query does not block other keys.
+ * <p>
+ * When transaction-aware, puts, evictions and clears made inside a transaction
+ * are applied after it commits and dropped if it rolls back, as with Spring's
+ * {@code TransactionAwareCacheDecorator}; {@code evictIfPresent} and
+ * {@code invalidate} stay immediate. Every eviction and written value is also
+ * recorded, and a value whose load started before either is not stored, so a
+ * reader that loaded a row just before a write committed cannot put the old
+ * row back after the write's eviction or {@code @CachePut}. Loads that take
+ * longer than the invalidation window are not checked.
+ */
+public class CoalescingCaffeineCache extends CaffeineCache {
+
+    private static final Duration INVALIDATION_WINDOW = Duration.ofMinutes(5);
+    private static final long MAX_TRACKED_INVALIDATIONS = 100_000;
+    private static final Object ALL_KEYS = new Object();
+
+    private final ConcurrentMap<Object, InFlightLoad> inFlight = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> invalidatedAt = Caffeine.newBuilder()
+            .expireAfterWrite(INVALIDATION_WINDOW)
+            .maximumSize(MAX_TRACKED_INVALIDATIONS)
+            .build();
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+    private volatile boolean transactionAware;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong coalescedWaiters = new AtomicLong();
+    private final AtomicLong maxWaitersPerLoad = new AtomicLong();
+    private final AtomicLong deferredWrites = new AtomicLong();
+    private final AtomicLong stalePutsDropped = new AtomicLong();
+
+    public CoalescingCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                   boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    /**
+     * Defers writes made inside a transaction until it commits and drops
+     * values loaded before a later eviction.
+     */
+    public void setTransactionAware(boolean transactionAware) {
+        this.transactionAware = transactionAware;
+    }
+
+    public boolean isTransactionAware() {
+        return transactionAware;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (!transactionAware) {
+            return super.get(key);
+        }
+        long start = System.nanoTime();
+        ValueWrapper cached = super.get(key);
+        if (cached == null) {
+            // Cacheable methods without sync look up, run the method and put on the same thread
+            lastMiss.set(new Miss(key, start));
+        }
+        return cached;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = super.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        InFlightLoad load = new InFlightLoad();
+        InFlightLoad existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            return (T) await(key, valueLoader, existing);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T value = valueLoader.call();
+            afterCommit(() -> storeIfCurrent(key, value, start));
+            load.result.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.result.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, load);
+            loads.incrementAndGet();
+            loadNanos.addAndGet(System.nanoTime() - start);
+            maxWaitersPerLoad.accumulateAndGet(load.waiters.get(), Math::max);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!transactionAware) {
+            store(key, value);
+            return;
+        }
+        Miss miss = takeMiss(key);
+        if (miss == null) {
+            // A put without a preceding miss, as with @CachePut, is the written value itself
+            afterCommit(() -> replace(key, value));
+            return;
+        }
+        afterCommit(() -> storeIfCurrent(key, value, miss.startNanos()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        afterCommit(() -> evictIfPresent(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        if (transactionAware) {
+            invalidatedAt.put(key, System.nanoTime());
+            inFlight.remove(key);
+        }
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(this::invalidate);
+    }
+
+    @Override
+    public boolean invalidate() {
+        if (transactionAware) {
+            invalidatedAt.put(ALL_KEYS, System.nanoTime());
+            inFlight.clear();
+        }
+        return super.invalidate();
+    }
+
+    /**
+     * Stores a value in the underlying cache. Subclasses extend this rather
+     * than {@link #put}, which may defer or drop the write.
+     */
+    protected void store(Object key, Object value) {
+        super.put(key, value);
+    }
+
+    /**
+     * @return true if the key, or anything the value depends on, was evicted
+     * at or after the given time
+     */
+    protected boolean invalidatedSince(Object key, Object value, long loadStart) {
+        return isAtOrAfter(invalidatedAt.getIfPresent(key), loadStart)
+                || isAtOrAfter(invalidatedAt.getIfPresent(ALL_KEYS), loadStart);
+    }
+
+    protected static boolean isAtOrAfter(Long nanos, long since) {
+        return nanos != null && nanos - since >= 0;
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    /**
+     * @return callers that missed and were served by another caller's load
+     */
+    public long getCoalescedWaiters() {
+        return coalescedWaiters.get();
+    }
+
+    public long getMaxWaitersPerLoad() {
+        return maxWaitersPerLoad.get();
+    }
+
+    public double getAverageLoadMs() {
+        long count = loads.get();
+        return count > 0 ? loadNanos.get() / 1_000_000.0 / count : 0;
+    }
+
+    /**
+     * @return puts, evictions and clears held back until their transaction committed
+     */
+    public long getDeferredWrites() {
+        return deferredWrites.get();
+    }
+
+    /**
+     * @return values not stored because their key was evicted while they loaded
+     */
+    public long getStalePutsDropped() {
+        return stalePutsDropped.get();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!transactionAware || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        deferredWrites.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void storeIfCurrent(Object key, Object value, long loadStart) {
+        if (!transactionAware) {
+            store(key, value);
+            return;
+        }
+        if (invalidatedSince(key, value, loadStart)) {
+            stalePutsDropped.incrementAndGet();
+            return;
+        }
+        store(key, value);
+        // An eviction between the check and the store would otherwise leave the old value cached
+        if (invalidatedSince(key, value, loadStart)) {
+            getNativeCache().invalidate(key);
+            stalePutsDropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stores a written value and marks the key, so loads that started before
+     * it cannot overwrite it.
+     */
+    private void replace(Object key, Object value) {
+        invalidatedAt.put(key, System.nanoTime());
+        store(key, value);
+    }
+
+    /**
+     * @return this thread's last missed lookup of the key, or null if the key
+     * was not looked up first
+     */
+    private Miss takeMiss(Object key) {
+        Miss miss = lastMiss.get();
+        if (miss == null) {
+            return null;
+        }
+        lastMiss.remove();
+        return miss.key().equals(key) ? miss : null;
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, InFlightLoad load) {
+        coalescedWaiters.incrementAndGet();
+        load.waiters.incrementAndGet();
+        try {
+            return load.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    private record Miss(Object key, long startNanos) {
+    }
+
+    private static final class InFlightLoad {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
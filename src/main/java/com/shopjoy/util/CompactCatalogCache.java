@@ -0,0 +1,54 @@
+package com.shopjoy.util;
+
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Tagged cache whose product values are stored in compact form: lists and pages
+ * of products keep only product IDs, and single products a reference, with the
+ * products themselves held once in the shared {@link CatalogValueStore}.
+ * Tags are computed from the full value before it is compacted. An entry whose
+ * products have left the store is evicted and read as a miss.
+ */
+public class CompactCatalogCache extends TaggedCaffeineCache {
+
+    private final CatalogValueStore store;
+
+    public CompactCatalogCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                               boolean allowNullValues, BiFunction<Object, Object, Set<String>> tagger,
+                               CatalogValueStore store) {
+        super(name, cache, allowNullValues, tagger);
+        this.store = store;
+    }
+
+    /**
+     * Converts a value computed outside this cache, such as a background
+     * refresh, into the form this cache stores.
+     */
+    public Object compact(Object value) {
+        return store.compact(value);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object stored = super.lookup(key);
+        if (!store.isCompact(stored)) {
+            return stored;
+        }
+        Object expanded = store.expand(stored);
+        if (expanded == null) {
+            getNativeCache().asMap().remove(key, stored);
+        }
+        return expanded;
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return super.toStoreValue(store.compact(userValue));
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return super.fromStoreValue(store.expand(storeValue));
+    }
+}
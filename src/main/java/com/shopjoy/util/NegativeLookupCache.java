@@ -0,0 +1,141 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived record of lookups that found nothing, so repeated requests for
+ * missing IDs, such as crawlers asking for deleted products, are answered
+ * without a query. Spring's caches do not store exceptions, so the by-ID
+ * lookups that throw {@code ResourceNotFoundException} consult this first.
+ * <p>
+ * Entries are grouped by the name of the cache holding the found values.
+ * Creating an entity must call {@link #forget}; a lookup that started before
+ * the forget does not record its miss, so a read racing the insert cannot hide
+ * the new entity for the TTL.
+ */
+@Component
+public class NegativeLookupCache {
+
+    private final boolean enabled;
+    private final Cache<NegativeKey, Long> missing;
+    private final Cache<NegativeKey, Long> forgotten;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public NegativeLookupCache(
+            @Value("${app.cache.negative.enabled:true}") boolean enabled,
+            @Value("${app.cache.negative.ttl:30s}") Duration ttl,
+            @Value("${app.cache.negative.max-entries:10000}") long maxEntries) {
+        this.enabled = enabled;
+        this.missing = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        this.forgotten = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Runs the finder unless the key is known to be missing, and remembers an empty result.
+     *
+     * @param cacheName cache holding the found values
+     * @param key       cache key of the lookup
+     * @param finder    looks the value up
+     * @return the value, or empty if it does not exist
+     */
+    public <T> Optional<T> find(String cacheName, Object key, Supplier<Optional<T>> finder) {
+        if (!enabled) {
+            return finder.get();
+        }
+        NegativeKey negativeKey = new NegativeKey(cacheName, key);
+        Counters cacheCounters = counters.computeIfAbsent(cacheName, name -> new Counters());
+        if (missing.getIfPresent(negativeKey) != null) {
+            cacheCounters.hits.incrementAndGet();
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        Optional<T> found = finder.get();
+        if (found.isEmpty() && !forgottenSince(negativeKey, start)) {
+            missing.put(negativeKey, start);
+            cacheCounters.stored.incrementAndGet();
+            // A forget that ran between the check and the put would otherwise be lost
+            if (forgottenSince(negativeKey, start)) {
+                missing.asMap().remove(negativeKey, start);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Drops the negative entry for a key whose entity was just created. Inside a
+     * transaction the entry is dropped again after commit.
+     */
+    public void forget(String cacheName, Object key) {
+        NegativeKey negativeKey = new NegativeKey(cacheName, key);
+        forgetNow(negativeKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forgetNow(negativeKey);
+                }
+            });
+        }
+    }
+
+    public long getHitCount() {
+        return counters.values().stream().mapToLong(c -> c.hits.get()).sum();
+    }
+
+    /**
+     * Negative hits, stored misses and forgets per cache.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        new TreeMap<>(counters).forEach((cacheName, cacheCounters) -> {
+            Map<String, Object> cacheStats = new LinkedHashMap<>();
+            cacheStats.put("negativeHits", cacheCounters.hits.get());
+            cacheStats.put("negativeEntriesStored", cacheCounters.stored.get());
+            cacheStats.put("negativeEntriesForgotten", cacheCounters.forgotten.get());
+            stats.put(cacheName, cacheStats);
+        });
+        return stats;
+    }
+
+    private boolean forgottenSince(NegativeKey negativeKey, long nanos) {
+        Long forgottenAt = forgotten.getIfPresent(negativeKey);
+        return forgottenAt != null && forgottenAt >= nanos;
+    }
+
+    private void forgetNow(NegativeKey negativeKey) {
+        forgotten.put(negativeKey, System.nanoTime());
+        if (missing.asMap().remove(negativeKey) != null) {
+            counters.computeIfAbsent(negativeKey.cacheName(), name -> new Counters()).forgotten.incrementAndGet();
+        }
+    }
+
+    private record NegativeKey(String cacheName, Object key) {
+    }
+
+    private static final class Counters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong stored = new AtomicLong();
+        private final AtomicLong forgotten = new AtomicLong();
+    }
+}
@@ -0,0 +1,197 @@
+package com.shopjoy.util;
+
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the heap retained by a cached value by walking its object graph.
+ * Sizes assume a 64-bit JVM with compressed references (12-byte headers,
+ * 4-byte references, 8-byte alignment). Objects reachable twice are counted
+ * once and enum constants are not counted.
+ * <p>
+ * The walk visits at most {@value #MAX_VISITED} objects, so very large values
+ * are undercounted rather than slowing down cache writes.
+ */
+public final class ObjectSizeEstimator {
+
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+    private static final int MAX_VISITED = 100_000;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * @return estimated bytes retained by the value, 0 for null
+     */
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(value);
+        long total = 0;
+        while (!pending.isEmpty() && visited.size() < MAX_VISITED) {
+            Object current = pending.pop();
+            if (current instanceof Enum<?> || current instanceof Class<?> || !visited.add(current)) {
+                continue;
+            }
+            total += shallowSize(current, pending);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the size of the object itself and queues the objects it references.
+     */
+    private static long shallowSize(Object value, Deque<Object> pending) {
+        switch (value) {
+            case String string -> {
+                return align(HEADER + 2L * Integer.BYTES) + align(ARRAY_HEADER + string.length());
+            }
+            case Integer ignored -> {
+                return 16;
+            }
+            case Long ignored -> {
+                return 24;
+            }
+            case Double ignored -> {
+                return 24;
+            }
+            case Boolean ignored -> {
+                return 0;
+            }
+            case BigDecimal decimal -> {
+                return decimal.precision() > 18 ? 72 : 40;
+            }
+            case LocalDateTime ignored -> {
+                return 72;
+            }
+            case LocalDate ignored -> {
+                return 24;
+            }
+            case Temporal ignored -> {
+                return 24;
+            }
+            case Slice<?> slice -> {
+                push(pending, slice.getContent());
+                return 64;
+            }
+            case Collection<?> collection -> {
+                collection.forEach(element -> push(pending, element));
+                return 40 + align(ARRAY_HEADER + (long) REFERENCE * collection.size());
+            }
+            case Map<?, ?> map -> {
+                map.forEach((key, entryValue) -> {
+                    push(pending, key);
+                    push(pending, entryValue);
+                });
+                return 48 + align(ARRAY_HEADER + (long) REFERENCE * map.size()) + 32L * map.size();
+            }
+            default -> {
+                if (value.getClass().isArray()) {
+                    return arraySize(value, pending);
+                }
+                Layout layout = LAYOUTS.get(value.getClass());
+                for (Field field : layout.references()) {
+                    try {
+                        push(pending, field.get(value));
+                    } catch (IllegalAccessException e) {
+                        // Inaccessible fields are left out of the estimate
+                    }
+                }
+                return layout.shallowSize();
+            }
+        }
+    }
+
+    private static long arraySize(Object array, Deque<Object> pending) {
+        Class<?> componentType = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) primitiveSize(componentType) * length);
+        }
+        Object[] elements = (Object[]) array;
+        for (Object element : elements) {
+            push(pending, element);
+        }
+        return align(ARRAY_HEADER + (long) REFERENCE * length);
+    }
+
+    private static void push(Deque<Object> pending, Object value) {
+        if (value != null) {
+            pending.push(value);
+        }
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * Shallow size and reference fields of a class, computed once per class.
+     * Fields of JDK classes are not readable, so those classes count their shallow size only.
+     */
+    private record Layout(long shallowSize, List<Field> references) {
+
+        static Layout of(Class<?> type) {
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            boolean readable = !type.getName().startsWith("java.");
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    if (readable && field.trySetAccessible()) {
+                        references.add(field);
+                    }
+                }
+            }
+            return new Layout(align(size), List.copyOf(references));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.shopjoy.util;
+
+import com.shopjoy.config.PaginationProperties;
+import com.shopjoy.dto.filter.CountMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Adds totals to the slices of paginated endpoints according to a {@link CountMode},
+ * so that listings which do not need an exact total skip the {@code count(*)}
+ * a {@code Page} query runs alongside every page.
+ * <p>
+ * Cached counts are held in the "pageCounts" cache, keyed by endpoint and
+ * normalized filter, and are not evicted on writes: they may be behind by up
+ * to the cache's TTL. Whatever the mode, a total never contradicts the page it
+ * comes with, and no count runs when the page shows the list ends on it.
+ */
+@Component
+public class PageCounter {
+
+    private static final String CACHE_NAME = "pageCounts";
+
+    private final PaginationProperties properties;
+    private final Cache countCache;
+
+    private final Map<CountMode, AtomicLong> requests = new EnumMap<>(CountMode.class);
+    private final AtomicLong countQueries = new AtomicLong();
+    private final AtomicLong cachedCountHits = new AtomicLong();
+    private final AtomicLong estimatesUsed = new AtomicLong();
+    private final AtomicLong estimateFallbacks = new AtomicLong();
+    private final AtomicLong countsSkipped = new AtomicLong();
+
+    public PageCounter(PaginationProperties properties, @Qualifier("shortCacheManager") CacheManager shortCacheManager) {
+        this.properties = properties;
+        this.countCache = shortCacheManager.getCache(CACHE_NAME);
+        for (CountMode mode : CountMode.values()) {
+            requests.put(mode, new AtomicLong());
+        }
+    }
+
+    /**
+     * @param endpoint  endpoint name under {@code app.pagination.count}
+     * @param requested the {@code count} request parameter, may be null
+     * @return the requested mode, or the endpoint's configured default
+     */
+    public CountMode modeFor(String endpoint, String requested) {
+        if (requested != null && !requested.isBlank()) {
+            return CountMode.fromParam(requested);
+        }
+        return properties.getCount().getOrDefault(endpoint, properties.getDefaultCount());
+    }
+
+    /**
+     * Adds a total to a slice.
+     *
+     * @param endpoint   endpoint name, which also scopes cached counts
+     * @param mode       how to obtain the total
+     * @param slice      the page content, fetched without a count
+     * @param filter     the conditions the count depends on; null values and blank strings are ignored
+     * @param exactCount runs the count query
+     * @param estimate   returns the database's estimate, or null if it has none
+     * @return a {@code Page} with the total, or the slice itself in {@link CountMode#NONE}
+     */
+    public <T> Slice<T> page(String endpoint, CountMode mode, Slice<T> slice, Map<String, ?> filter,
+                             LongSupplier exactCount, Supplier<Long> estimate) {
+        requests.get(mode).incrementAndGet();
+        if (mode == CountMode.NONE) {
+            countsSkipped.incrementAndGet();
+            return slice;
+        }
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            // The list ends on this page, so its total is known
+            countsSkipped.incrementAndGet();
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), seen);
+        }
+
+        long total = switch (mode) {
+            case EXACT -> {
+                countQueries.incrementAndGet();
+                yield exactCount.getAsLong();
+            }
+            case CACHED -> cachedCount(endpoint, filter, exactCount);
+            default -> {
+                Long estimated = estimate != null ? estimate.get() : null;
+                if (estimated == null || estimated < properties.getEstimateMinRows()) {
+                    estimateFallbacks.incrementAndGet();
+                    yield cachedCount(endpoint, filter, exactCount);
+                }
+                estimatesUsed.incrementAndGet();
+                yield estimated;
+            }
+        };
+        // A stale or estimated total may be below what the page shows
+        total = Math.max(total, seen + (slice.hasNext() ? 1 : 0));
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private long cachedCount(String endpoint, Map<String, ?> filter, LongSupplier exactCount) {
+        AtomicBoolean counted = new AtomicBoolean();
+        Long total = countCache.get(endpoint + ":" + normalize(filter), () -> {
+            counted.set(true);
+            countQueries.incrementAndGet();
+            return exactCount.getAsLong();
+        });
+        if (!counted.get()) {
+            cachedCountHits.incrementAndGet();
+        }
+        return total != null ? total : 0;
+    }
+
+    /**
+     * @return the filter with its entries sorted, without nulls and blank strings,
+     * and with strings trimmed, so equivalent requests share a cached count
+     */
+    private static Map<String, Object> normalize(Map<String, ?> filter) {
+        Map<String, Object> normalized = new TreeMap<>();
+        if (filter == null) {
+            return normalized;
+        }
+        filter.forEach((name, value) -> {
+            if (value instanceof String text) {
+                value = text.isBlank() ? null : text.trim();
+            }
+            if (value != null) {
+                normalized.put(name, value);
+            }
+        });
+        return normalized;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Long> byMode = new LinkedHashMap<>();
+        requests.forEach((mode, count) -> byMode.put(mode.name().toLowerCase(), count.get()));
+        stats.put("requestsByMode", byMode);
+        stats.put("countQueries", countQueries.get());
+        stats.put("cachedCountHits", cachedCountHits.get());
+        stats.put("estimatesUsed", estimatesUsed.get());
+        stats.put("estimateFallbacks", estimateFallbacks.get());
+        stats.put("countsSkipped", countsSkipped.get());
+        stats.put("defaultCount", properties.getDefaultCount().name().toLowerCase());
+        stats.put("endpointCount", properties.getCount());
+        return stats;
+    }
+}
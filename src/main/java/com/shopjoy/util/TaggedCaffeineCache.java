@@ -0,0 +1,132 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Caffeine cache that records which tags each stored entry depends on, so that
+ * entries can be evicted by tag instead of clearing the whole cache.
+ * The tag index only holds keys; keys of entries that Caffeine expired on its
+ * own are dropped by {@link #pruneTags()}.
+ * <p>
+ * When transaction-aware, tag evictions are recorded too, and a value is not
+ * stored if any of its tags was evicted while it loaded: a list loaded just
+ * before a write committed may not have been cached yet when the write's tags
+ * were evicted, so its key alone would not show it is stale.
+ */
+public class TaggedCaffeineCache extends CoalescingCaffeineCache {
+
+    private final BiFunction<Object, Object, Set<String>> tagger;
+    private final Map<String, Set<Object>> keysByTag = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> tagInvalidatedAt = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .maximumSize(100_000)
+            .build();
+
+    public TaggedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                               boolean allowNullValues, BiFunction<Object, Object, Set<String>> tagger) {
+        super(name, cache, allowNullValues);
+        this.tagger = tagger;
+    }
+
+    @Override
+    protected void store(Object key, Object value) {
+        super.store(key, value);
+        tag(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            tag(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    protected boolean invalidatedSince(Object key, Object value, long loadStart) {
+        if (super.invalidatedSince(key, value, loadStart)) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        for (String tag : tagger.apply(key, value)) {
+            if (isAtOrAfter(tagInvalidatedAt.getIfPresent(tag), loadStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evicts every entry carrying any of the given tags.
+     *
+     * @return the number of entries evicted
+     */
+    public int evictTagged(Collection<String> tags) {
+        int evicted = 0;
+        for (String tag : tags) {
+            if (isTransactionAware()) {
+                tagInvalidatedAt.put(tag, System.nanoTime());
+            }
+            Set<Object> keys = keysByTag.remove(tag);
+            if (keys == null) {
+                continue;
+            }
+            for (Object key : keys) {
+                if (super.evictIfPresent(key)) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * @return true if any entry carries one of the given tags
+     */
+    public boolean hasAnyTag(Collection<String> tags) {
+        return tags.stream().anyMatch(keysByTag::containsKey);
+    }
+
+    /**
+     * Drops index entries for keys no longer present in the cache.
+     */
+    public void pruneTags() {
+        Map<Object, Object> entries = getNativeCache().asMap();
+        keysByTag.values().forEach(keys -> keys.removeIf(key -> !entries.containsKey(key)));
+        keysByTag.values().removeIf(Set::isEmpty);
+    }
+
+    public int getTagCount() {
+        return keysByTag.size();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = super.invalidate();
+        keysByTag.clear();
+        return hadEntries;
+    }
+
+    /**
+     * Records the tags of a value stored without going through this cache,
+     * such as a value installed by a background refresh.
+     */
+    public void tag(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        for (String tag : tagger.apply(key, value)) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+}
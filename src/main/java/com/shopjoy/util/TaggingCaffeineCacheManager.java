@@ -0,0 +1,69 @@
+package com.shopjoy.util;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Caffeine cache manager that creates {@link TaggedCaffeineCache} instances for
+ * the caches it has a tagger for, and {@link CoalescingCaffeineCache} instances
+ * for the rest. Caches set up with {@link #setCompactValues} are created as
+ * {@link CompactCatalogCache} instances. Cache names must be set after
+ * construction, once the taggers, compact caches and transaction awareness
+ * are in place.
+ */
+public class TaggingCaffeineCacheManager extends CaffeineCacheManager {
+
+    private static final BiFunction<Object, Object, Set<String>> NO_TAGS = (key, value) -> Set.of();
+
+    private final Map<String, BiFunction<Object, Object, Set<String>>> taggers;
+    private CatalogValueStore catalogValueStore;
+    private Set<String> compactCaches = Set.of();
+    private boolean transactionAware;
+
+    public TaggingCaffeineCacheManager(Map<String, BiFunction<Object, Object, Set<String>>> taggers) {
+        this.taggers = Map.copyOf(taggers);
+    }
+
+    /**
+     * Stores the values of the given caches in compact form, resolved against the store.
+     */
+    public void setCompactValues(CatalogValueStore catalogValueStore, Set<String> cacheNames) {
+        this.catalogValueStore = catalogValueStore;
+        this.compactCaches = Set.copyOf(cacheNames);
+    }
+
+    /**
+     * Makes the caches defer puts, evictions and clears made inside a
+     * transaction until it commits, as {@link CoalescingCaffeineCache#setTransactionAware} describes.
+     */
+    public void setTransactionAware(boolean transactionAware) {
+        this.transactionAware = transactionAware;
+    }
+
+    public boolean isTransactionAware() {
+        return transactionAware;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        CoalescingCaffeineCache adapted = createCache(name, cache);
+        adapted.setTransactionAware(transactionAware);
+        return adapted;
+    }
+
+    private CoalescingCaffeineCache createCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        BiFunction<Object, Object, Set<String>> tagger = taggers == null ? null : taggers.get(name);
+        if (compactCaches != null && compactCaches.contains(name)) {
+            return new CompactCatalogCache(name, cache, isAllowNullValues(), tagger != null ? tagger : NO_TAGS,
+                    catalogValueStore);
+        }
+        if (tagger == null) {
+            return new CoalescingCaffeineCache(name, cache, isAllowNullValues());
+        }
+        return new TaggedCaffeineCache(name, cache, isAllowNullValues(), tagger);
+    }
+}
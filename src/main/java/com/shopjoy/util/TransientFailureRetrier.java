@@ -0,0 +1,208 @@
+package com.shopjoy.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Retries asynchronous operations that failed on a transient concurrency conflict:
+ * serialization failure, deadlock or lock timeout.
+ * Attempts are bounded and spaced with full-jitter exponential backoff. The wait
+ * is a delayed hand-off to {@code appTaskExecutor}, so no thread sleeps; a rejected
+ * hand-off fails the result.
+ */
+@Slf4j
+@Component
+public class TransientFailureRetrier {
+
+    /**
+     * Transient failure causes, matched by SQLState for PostgreSQL and H2.
+     */
+    public enum Cause {
+        SERIALIZATION_FAILURE,
+        DEADLOCK,
+        LOCK_TIMEOUT
+    }
+
+    private final Executor appTaskExecutor;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Map<Cause, AtomicLong> retriesByCause = new EnumMap<>(Cause.class);
+    private final Map<Cause, AtomicLong> exhaustedByCause = new EnumMap<>(Cause.class);
+    private final AtomicLongArray attemptsToSuccess;
+
+    public TransientFailureRetrier(
+            Executor appTaskExecutor,
+            @Value("${app.retry.max-attempts:4}") int maxAttempts,
+            @Value("${app.retry.base-backoff-ms:20}") long baseBackoffMs,
+            @Value("${app.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.appTaskExecutor = appTaskExecutor;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.attemptsToSuccess = new AtomicLongArray(maxAttempts + 1);
+        for (Cause cause : Cause.values()) {
+            retriesByCause.put(cause, new AtomicLong());
+            exhaustedByCause.put(cause, new AtomicLong());
+        }
+    }
+
+    /**
+     * Runs the operation, starting it again after a jittered delay whenever it fails
+     * with a transient concurrency conflict. Other failures are returned as they are.
+     *
+     * @param operation name used in logs
+     * @param attempt   starts one attempt of the operation
+     * @return future of the first successful attempt, or of the last failure
+     */
+    public <T> CompletableFuture<T> execute(String operation, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        runAttempt(operation, attempt, 1, result);
+        return result;
+    }
+
+    /**
+     * Retry counters per cause and the distribution of attempts needed to succeed.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> retries = new LinkedHashMap<>();
+        Map<String, Object> exhausted = new LinkedHashMap<>();
+        for (Cause cause : Cause.values()) {
+            retries.put(cause.name(), retriesByCause.get(cause).get());
+            exhausted.put(cause.name(), exhaustedByCause.get(cause).get());
+        }
+
+        Map<String, Object> histogram = new LinkedHashMap<>();
+        for (int attempts = 1; attempts <= maxAttempts; attempts++) {
+            histogram.put(String.valueOf(attempts), attemptsToSuccess.get(attempts));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxAttempts", maxAttempts);
+        stats.put("baseBackoffMs", baseBackoffMs);
+        stats.put("maxBackoffMs", maxBackoffMs);
+        stats.put("retriesByCause", retries);
+        stats.put("exhaustedByCause", exhausted);
+        stats.put("attemptsToSuccess", histogram);
+        return stats;
+    }
+
+    /**
+     * Classifies a failure as a transient concurrency conflict.
+     *
+     * @param error the failure, possibly wrapped
+     * @return the cause, or empty when the failure is not worth retrying
+     */
+    public static Optional<Cause> classify(Throwable error) {
+        for (Throwable current = error; current != null; current = nextCause(current)) {
+            if (current instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                switch (sqlException.getSQLState()) {
+                    case "40001":
+                        // PostgreSQL serialization_failure; H2 reports deadlocks with the same state
+                        String message = String.valueOf(sqlException.getMessage()).toLowerCase();
+                        return Optional.of(message.contains("deadlock") ? Cause.DEADLOCK : Cause.SERIALIZATION_FAILURE);
+                    case "40P01":
+                        return Optional.of(Cause.DEADLOCK);
+                    case "55P03", "HYT00":
+                        return Optional.of(Cause.LOCK_TIMEOUT);
+                    default:
+                        break;
+                }
+            }
+        }
+
+        // No SQLState in the chain: fall back to Spring's translated exception types
+        for (Throwable current = error; current != null; current = nextCause(current)) {
+            if (current instanceof CannotAcquireLockException) {
+                return Optional.of(Cause.LOCK_TIMEOUT);
+            }
+            if (current instanceof PessimisticLockingFailureException) {
+                return Optional.of(Cause.DEADLOCK);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Throwable nextCause(Throwable current) {
+        return current.getCause() == current ? null : current.getCause();
+    }
+
+    private <T> void runAttempt(String operation, Supplier<CompletableFuture<T>> attempt, int attemptNumber,
+                                CompletableFuture<T> result) {
+        CompletableFuture<T> current;
+        try {
+            current = attempt.get();
+        } catch (Exception e) {
+            current = CompletableFuture.failedFuture(e);
+        }
+
+        current.whenComplete((value, error) -> {
+            if (error == null) {
+                attemptsToSuccess.incrementAndGet(attemptNumber);
+                result.complete(value);
+                return;
+            }
+
+            Throwable failure = unwrap(error);
+            Optional<Cause> cause = classify(failure);
+            if (cause.isEmpty()) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (attemptNumber >= maxAttempts) {
+                exhaustedByCause.get(cause.get()).incrementAndGet();
+                log.warn("{} failed with {} after {} attempts, giving up", operation, cause.get(), attemptNumber);
+                result.completeExceptionally(failure);
+                return;
+            }
+
+            retriesByCause.get(cause.get()).incrementAndGet();
+            long delayMs = backoff(attemptNumber);
+            log.info("{} hit {} on attempt {}, retrying in {}ms", operation, cause.get(), attemptNumber, delayMs);
+            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+                try {
+                    appTaskExecutor.execute(() -> runAttempt(operation, attempt, attemptNumber + 1, result));
+                } catch (RejectedExecutionException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Full jitter: a uniform delay between zero and the capped exponential backoff.
+     */
+    private long backoff(int attemptNumber) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,64 @@
+package com.shopjoy.config;
+
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.service.ProductService;
+import com.shopjoy.util.CacheRefresher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that an entry older than its refresh interval is served from the
+ * cache while a background reload replaces it.
+ */
+@SpringBootTest(properties = "app.cache.regions.activeProducts.refresh-after=500ms")
+@ActiveProfiles("test")
+public class CacheRefreshAheadTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheRefresher cacheRefresher;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStaleEntryIsServedWhileRefreshing() throws InterruptedException {
+        List<ProductResponse> first = productService.getActiveProducts();
+        Thread.sleep(700);
+
+        long start = System.nanoTime();
+        List<ProductResponse> stale = productService.getActiveProducts();
+        long staleReadMicros = (System.nanoTime() - start) / 1_000;
+        // Cached products are rebuilt from the catalog store on each read, so compare by ID
+        assertEquals(ids(first), ids(stale), "The read after the refresh interval should return the cached value");
+
+        Map<String, Object> stats = Map.of();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            stats = (Map<String, Object>) cacheRefresher.getStats().get("activeProducts");
+            if ((long) stats.get("refreshes") > 0) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+
+        System.out.println("\n=== Refresh-Ahead ===");
+        System.out.println("Stale read took " + staleReadMicros + " us");
+        System.out.println("activeProducts refresh stats: " + stats);
+
+        assertTrue((long) stats.get("refreshes") > 0, "The entry should have been refreshed in the background");
+        assertEquals(first.size(), productService.getActiveProducts().size());
+    }
+
+    private static List<Integer> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::getId).toList();
+    }
+}
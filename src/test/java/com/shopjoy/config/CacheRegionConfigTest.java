@@ -0,0 +1,73 @@
+package com.shopjoy.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.shopjoy.service.ProductService;
+import com.shopjoy.util.CacheMemoryReporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheRegionConfigTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheMemoryReporter cacheMemoryReporter;
+
+    @Test
+    void testRegionsOverrideManagerDefaults() {
+        Policy.Eviction<Object, Object> listEviction = nativeCache("activeProducts").policy().eviction().orElseThrow();
+        assertTrue(listEviction.isWeighted());
+        assertEquals(16L * 1024 * 1024, listEviction.getMaximum());
+
+        Policy.Eviction<Object, Object> entryEviction = nativeCache("product").policy().eviction().orElseThrow();
+        assertFalse(entryEviction.isWeighted());
+        assertEquals(10_000, entryEviction.getMaximum());
+
+        Duration countTtl = nativeCache("productsCount").policy().expireAfterWrite().orElseThrow().getExpiresAfter();
+        assertEquals(Duration.ofMinutes(5), countTtl);
+
+        // Caches without a region keep the manager defaults
+        assertEquals(1000, nativeCache("category").policy().eviction().orElseThrow().getMaximum());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMemoryReportEstimatesCachedLists() {
+        int products = productService.getActiveProducts().size();
+
+        Map<String, Object> report = cacheMemoryReporter.getMemoryReport();
+        Map<String, Object> managers = (Map<String, Object>) report.get("managers");
+        Map<String, Object> primary = (Map<String, Object>) managers.get("cacheManager");
+        Map<String, Object> caches = (Map<String, Object>) primary.get("caches");
+        Map<String, Object> activeProducts = (Map<String, Object>) caches.get("activeProducts");
+
+        System.out.println("\n=== Cache Memory ===");
+        System.out.println("Active products cached: " + products + ", estimated " + activeProducts.get("estimatedSize"));
+        System.out.println("Total: " + report.get("estimatedSize"));
+
+        assertEquals(1L, activeProducts.get("entries"));
+        assertTrue((long) activeProducts.get("estimatedBytes") > 0);
+    }
+
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,121 @@
+package com.shopjoy.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.util.CacheInvalidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the catalog cache hit ratio under a mixed read/stock-write load
+ * with tag-based eviction against clearing every catalog cache on each write.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogCacheInvalidationBenchmarkTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Integer writtenProductId;
+    private List<Integer> categoryIds;
+    private final int ITERATIONS = 500;
+    private final int READS_PER_WRITE = 10;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = productRepository.findAll();
+        Product product = products.stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+
+        writtenProductId = product.getId();
+        categoryIds = products.stream()
+                .map(p -> p.getCategory().getId())
+                .distinct()
+                .toList();
+        inventoryService.configureJournal(writtenProductId, false);
+        inventoryService.configureStriping(writtenProductId, 0);
+        inventoryService.updateStock(writtenProductId, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheInvalidator.setTaggedEviction(true);
+    }
+
+    @Test
+    void testTaggedEvictionKeepsMoreCatalogEntries() {
+        double legacyHitRatio = runMixedLoad(false);
+        double taggedHitRatio = runMixedLoad(true);
+
+        System.out.println("\n=== Catalog Cache Hit Ratio (" + ITERATIONS + " reads, 1 stock write per "
+                + READS_PER_WRITE + " reads) ===");
+        System.out.printf("Clear all catalog caches: %.2f%%%n", legacyHitRatio * 100);
+        System.out.printf("Tag-based eviction:       %.2f%%%n", taggedHitRatio * 100);
+
+        assertTrue(taggedHitRatio >= legacyHitRatio,
+                "Tag-based eviction should not lower the catalog hit ratio");
+    }
+
+    private double runMixedLoad(boolean tagged) {
+        cacheInvalidator.setTaggedEviction(tagged);
+        cacheInvalidator.flush();
+        CacheInvalidator.CATALOG_CACHES.forEach(name -> cacheManager.getCache(name).clear());
+        long[] before = catalogHitsAndRequests();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (i % 2 == 0) {
+                productService.getActiveProducts();
+            } else {
+                productService.getProductsByCategory(categoryIds.get(i % categoryIds.size()));
+            }
+
+            if (i % READS_PER_WRITE == 0) {
+                inventoryService.reserveStock(writtenProductId, 1);
+                inventoryService.releaseStock(writtenProductId, 1);
+                // Apply the invalidation now so both runs see every write before the next read
+                cacheInvalidator.flush();
+            }
+        }
+
+        long[] after = catalogHitsAndRequests();
+        long requests = after[1] - before[1];
+        return requests == 0 ? 0 : (double) (after[0] - before[0]) / requests;
+    }
+
+    private long[] catalogHitsAndRequests() {
+        long hits = 0;
+        long requests = 0;
+        for (String name : CacheInvalidator.CATALOG_CACHES) {
+            CacheStats stats = ((CaffeineCache) cacheManager.getCache(name)).getNativeCache().stats();
+            hits += stats.hitCount();
+            requests += stats.requestCount();
+        }
+        return new long[]{hits, requests};
+    }
+}
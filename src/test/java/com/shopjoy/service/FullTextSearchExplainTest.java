@@ -0,0 +1,73 @@
+package com.shopjoy.service;
+
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.RowEstimateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with EXPLAIN that full-text product search is served by the GIN index
+ * on {@code search_vector}. Needs a PostgreSQL database with the ShopJoy schema
+ * (docs/shopjoy_tables.sql), given by SHOPJOY_TEST_POSTGRES_URL, _USER and _PASSWORD.
+ * Everything runs in one transaction that is rolled back.
+ */
+@EnabledIfEnvironmentVariable(named = "SHOPJOY_TEST_POSTGRES_URL", matches = ".+")
+public class FullTextSearchExplainTest {
+
+    private final int PRODUCTS = 20_000;
+
+    @Test
+    void testFullTextSearchUsesGinIndex() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv("SHOPJOY_TEST_POSTGRES_URL"),
+                System.getenv("SHOPJOY_TEST_POSTGRES_USER"),
+                System.getenv("SHOPJOY_TEST_POSTGRES_PASSWORD"));
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        ProductJdbcRepository productJdbcRepository = new ProductJdbcRepository(jdbcTemplate,
+                new RowEstimateRepository(jdbcTemplate));
+        String script = Files.readAllLines(Path.of("docs/product_search_migration.sql")).stream()
+                .filter(line -> !line.startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        List<String> migration = Arrays.stream(script.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .toList();
+
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.executeWithoutResult(status -> {
+            MapSqlParameterSource none = new MapSqlParameterSource();
+            Integer categoryId = jdbcTemplate.queryForObject(
+                    "INSERT INTO categories (category_name) VALUES ('explain-test-' || md5(random()::text)) " +
+                    "RETURNING category_id", none, Integer.class);
+            jdbcTemplate.update(
+                    "INSERT INTO products (product_name, description, category_id, price, sku, brand) " +
+                    "SELECT 'Product ' || n || ' ' || (ARRAY['laptop','camera','kettle','monitor','speaker'])[1 + n % 5], " +
+                    "'Description ' || md5(n::text), :categoryId, 10 + n % 500, 'EXPLAIN-' || n, 'Brand' || n % 50 " +
+                    "FROM generate_series(1, :products) AS n",
+                    new MapSqlParameterSource("categoryId", categoryId).addValue("products", PRODUCTS));
+            migration.forEach(statement -> jdbcTemplate.getJdbcTemplate().execute(statement));
+
+            String plan = productJdbcRepository.explainFullTextSearch("wireless camera");
+            System.out.println("\n=== Full-text Search Plan (" + PRODUCTS + " extra products) ===");
+            System.out.println(plan);
+
+            assertTrue(plan.contains("idx_products_search_vector"), "Full-text search should use the GIN index");
+            assertFalse(plan.contains("Seq Scan on products"), "Full-text search should not scan the table");
+            status.setRollbackOnly();
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.request.CreateOrderItemRequest;
+import com.shopjoy.dto.request.CreateOrderRequest;
+import com.shopjoy.dto.response.OrderResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.InventoryRepository;
+import com.shopjoy.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Integer testProductId;
+    private final int INITIAL_STOCK = 10;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+
+        testProductId = product.getId();
+
+        var inventory = product.getInventory();
+        inventory.setQuantityInStock(INITIAL_STOCK);
+        inventoryRepository.save(inventory);
+    }
+
+    @Test
+    void testRetryStormWithOneKeyCreatesOneOrder() throws InterruptedException {
+        int retries = 20;
+        String idempotencyKey = UUID.randomUUID().toString();
+        CreateOrderRequest request = orderRequest(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(retries);
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<Integer> orderIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger failures = new AtomicInteger(0);
+
+        for (int i = 0; i < retries; i++) {
+            executorService.submit(() -> {
+                latch.await();
+                try {
+                    OrderResponse response = idempotencyService
+                            .createOrderOnce(idempotencyKey, request, () -> orderService.createOrder(request))
+                            .get(60, TimeUnit.SECONDS);
+                    orderIds.add(response.getId());
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(90, TimeUnit.SECONDS);
+
+        // A retry after completion is answered from the store without running createOrder
+        OrderResponse replay = idempotencyService
+                .createOrderOnce(idempotencyKey, request, () -> { throw new AssertionError("Order created twice"); })
+                .join();
+
+        int remainingStock = inventoryRepository.findByProductId(testProductId).get().getQuantityInStock();
+
+        System.out.println("Distinct orders: " + orderIds + ", failures: " + failures.get() + ", remaining stock: " + remainingStock);
+
+        assertEquals(0, failures.get(), "Every retry should get the original order");
+        assertEquals(1, orderIds.size(), "All retries should share one order");
+        assertEquals(orderIds.iterator().next(), replay.getId());
+        assertEquals(INITIAL_STOCK - 1, remainingStock, "Stock should be reserved exactly once");
+    }
+
+    @Test
+    void testKeyReusedForDifferentOrderIsRejected() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CreateOrderRequest first = orderRequest(1);
+        CreateOrderRequest second = orderRequest(2);
+
+        idempotencyService.createOrderOnce(idempotencyKey, first, () -> orderService.createOrder(first)).join();
+
+        assertThrows(CompletionException.class, () ->
+                idempotencyService.createOrderOnce(idempotencyKey, second, () -> orderService.createOrder(second)).join());
+        assertEquals(INITIAL_STOCK - 1, inventoryRepository.findByProductId(testProductId).get().getQuantityInStock());
+    }
+
+    private CreateOrderRequest orderRequest(int quantity) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(1);
+        request.setShippingAddress("Idempotent Address");
+
+        CreateOrderItemRequest itemRequest = new CreateOrderItemRequest();
+        itemRequest.setProductId(testProductId);
+        itemRequest.setQuantity(quantity);
+        request.setOrderItems(List.of(itemRequest));
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.response.InventoryImportResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks chunked stock imports: row accounting, per-row failures, quoted CSV fields
+ * and final stock levels.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class InventoryImportServiceTest {
+
+    @Autowired
+    private InventoryImportService inventoryImportService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Integer> productIds;
+    private final int ROWS = 5_000;
+
+    @BeforeEach
+    void setUp() {
+        productIds = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .map(Product::getId)
+                .limit(10)
+                .toList();
+        if (productIds.isEmpty()) {
+            throw new RuntimeException("No product with inventory found for test");
+        }
+    }
+
+    @Test
+    void testCsvImportAppliesRowsAndReportsFailures() {
+        StringBuilder csv = new StringBuilder("productId,quantity,delta\n");
+        for (Integer productId : productIds) {
+            csv.append(productId).append(",100,\n");
+        }
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(productIds.get(i % productIds.size())).append(",,1\n");
+        }
+        csv.append("abc,,1\n");
+        csv.append(productIds.getFirst()).append(",,-1000000\n");
+
+        long startTime = System.nanoTime();
+        InventoryImportResponse response = inventoryImportService.importStock(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                InventoryImportService.Format.CSV);
+        double elapsedMs = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        System.out.println("CSV import: " + response.getRowsRead() + " rows, " + response.getRowsApplied()
+                + " applied, " + response.getRowsFailed() + " failed in " + response.getChunks()
+                + " chunks (" + String.format("%.1f", elapsedMs) + "ms)");
+
+        assertEquals(productIds.size() + ROWS + 2, response.getRowsRead());
+        assertEquals(response.getRowsRead(), response.getRowsApplied() + response.getRowsFailed());
+        assertEquals(response.getRowsFailed(), response.getFailures().size());
+
+        // The oversized removal only fails the first product, so the last one has every delta applied
+        int rowsPerProduct = ROWS / productIds.size();
+        Integer untouchedProduct = productIds.getLast();
+        if (productIds.size() > 1) {
+            assertEquals(100 + rowsPerProduct,
+                    inventoryService.getInventoryByProduct(untouchedProduct).getStockQuantity());
+        }
+    }
+
+    @Test
+    void testNdjsonImportSetsAbsoluteQuantities() {
+        StringBuilder ndjson = new StringBuilder();
+        for (Integer productId : productIds) {
+            ndjson.append("{\"productId\":").append(productId).append(",\"quantity\":42}\n");
+        }
+        ndjson.append("not json\n");
+
+        InventoryImportResponse response = inventoryImportService.importStock(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                InventoryImportService.Format.NDJSON);
+
+        assertEquals(productIds.size(), response.getRowsApplied());
+        assertEquals(1, response.getRowsFailed());
+        for (Integer productId : productIds) {
+            assertEquals(42, inventoryService.getInventoryByProduct(productId).getStockQuantity());
+        }
+    }
+
+    @Test
+    void testCsvImportHandlesQuotedFields() {
+        Integer productId = productIds.getFirst();
+        String csv = "\"note, free text\",\"product_id\",quantity\n"
+                + "\"restock, \"\"aisle 4\"\"\",\"" + productId + "\",17\n"
+                + "\"unterminated," + productId + ",18\n";
+
+        InventoryImportResponse response = inventoryImportService.importStock(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                InventoryImportService.Format.CSV);
+
+        assertEquals(1, response.getRowsApplied());
+        assertEquals(1, response.getRowsFailed());
+        assertEquals(17, inventoryService.getInventoryByProduct(productId).getStockQuantity());
+    }
+}
@@ -5,6 +5,7 @@ import com.shopjoy.dto.request.CreateOrderRequest;
 import com.shopjoy.entity.Product;
 import com.shopjoy.repository.InventoryRepository;
 import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.impl.OrderBatchWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -31,6 +33,12 @@ public class OrderConcurrencyTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Autowired
+    private InventoryService inventoryService;
+
     private Integer testProductId;
     private final int INITIAL_STOCK = 10;
 
@@ -101,4 +109,152 @@ public class OrderConcurrencyTest {
         assertEquals(0, remainingStock, "Stock should be completely exhausted");
         assertEquals(numberOfThreads - INITIAL_STOCK, failedOrders.get(), "Remaining threads should have failed");
     }
+
+    @Test
+    void testHundredsOfConcurrentBuyersNeverOversellAtReadCommitted() throws InterruptedException {
+        int numberOfBuyers = 300;
+        int flashSaleStock = 100;
+
+        var inventory = inventoryRepository.findByProductId(testProductId).orElseThrow();
+        inventory.setQuantityInStock(flashSaleStock);
+        inventoryRepository.save(inventory);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfBuyers);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger successfulOrders = new AtomicInteger(0);
+        AtomicInteger failedOrders = new AtomicInteger(0);
+
+        for (int i = 0; i < numberOfBuyers; i++) {
+            executorService.submit(() -> {
+                latch.await();
+
+                CreateOrderRequest request = new CreateOrderRequest();
+                request.setUserId(1);
+                request.setShippingAddress("Flash Sale Address");
+
+                CreateOrderItemRequest itemRequest = new CreateOrderItemRequest();
+                itemRequest.setProductId(testProductId);
+                itemRequest.setQuantity(1);
+                request.setOrderItems(List.of(itemRequest));
+
+                try {
+                    orderService.createOrder(request).join();
+                    successfulOrders.incrementAndGet();
+                } catch (Exception e) {
+                    failedOrders.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(90, TimeUnit.SECONDS);
+
+        int remainingStock = inventoryRepository.findByProductId(testProductId).get().getQuantityInStock();
+
+        System.out.println("Successful orders: " + successfulOrders.get());
+        System.out.println("Failed orders: " + failedOrders.get());
+        System.out.println("Remaining stock: " + remainingStock);
+
+        assertEquals(flashSaleStock, successfulOrders.get(), "Every unit should be sold exactly once");
+        assertEquals(0, remainingStock, "Stock should be completely exhausted and never negative");
+        assertEquals(numberOfBuyers - flashSaleStock, failedOrders.get(), "Remaining buyers should have been rejected");
+    }
+
+    @Test
+    void testConcurrentOrdersShareGroupCommits() throws InterruptedException {
+        int numberOfBuyers = 40;
+
+        var inventory = inventoryRepository.findByProductId(testProductId).orElseThrow();
+        inventory.setQuantityInStock(numberOfBuyers);
+        inventoryRepository.save(inventory);
+
+        long batchesBefore = (long) orderBatchWriter.getStats().get("batchesCommitted");
+        long ordersBefore = (long) orderBatchWriter.getStats().get("ordersCommitted");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfBuyers);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger successfulOrders = new AtomicInteger(0);
+
+        for (int i = 0; i < numberOfBuyers; i++) {
+            executorService.submit(() -> {
+                latch.await();
+
+                CreateOrderRequest request = new CreateOrderRequest();
+                request.setUserId(1);
+                request.setShippingAddress("Group Commit Address");
+
+                CreateOrderItemRequest itemRequest = new CreateOrderItemRequest();
+                itemRequest.setProductId(testProductId);
+                itemRequest.setQuantity(1);
+                request.setOrderItems(List.of(itemRequest));
+
+                orderService.createOrder(request).join();
+                successfulOrders.incrementAndGet();
+                return null;
+            });
+        }
+
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(90, TimeUnit.SECONDS);
+
+        long batches = (long) orderBatchWriter.getStats().get("batchesCommitted") - batchesBefore;
+        long orders = (long) orderBatchWriter.getStats().get("ordersCommitted") - ordersBefore;
+
+        System.out.println("Orders committed: " + orders + " in " + batches + " batches");
+        System.out.println("Writer stats: " + orderBatchWriter.getStats());
+
+        assertEquals(numberOfBuyers, successfulOrders.get(), "Every order should be committed");
+        assertEquals(numberOfBuyers, orders, "Every order should go through the batch writer");
+        assertTrue(batches < orders, "Concurrent orders should share commits");
+        assertEquals(0, inventoryRepository.findByProductId(testProductId).get().getQuantityInStock());
+    }
+
+    @Test
+    void testGroupCommitsReserveStripedStockFromTheStripes() throws InterruptedException {
+        int numberOfBuyers = 40;
+        int stock = 30;
+
+        inventoryService.updateStock(testProductId, stock);
+        inventoryService.configureStriping(testProductId, 4);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfBuyers);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger successfulOrders = new AtomicInteger(0);
+
+        for (int i = 0; i < numberOfBuyers; i++) {
+            executorService.submit(() -> {
+                latch.await();
+
+                CreateOrderRequest request = new CreateOrderRequest();
+                request.setUserId(1);
+                request.setShippingAddress("Striped Stock Address");
+
+                CreateOrderItemRequest itemRequest = new CreateOrderItemRequest();
+                itemRequest.setProductId(testProductId);
+                itemRequest.setQuantity(1);
+                request.setOrderItems(List.of(itemRequest));
+
+                try {
+                    orderService.createOrder(request).join();
+                    successfulOrders.incrementAndGet();
+                } catch (Exception e) {
+                    // Buyers beyond the stock are rejected
+                }
+                return null;
+            });
+        }
+
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(90, TimeUnit.SECONDS);
+
+        int remainingStock = inventoryService.getInventoryByProduct(testProductId).getStockQuantity();
+        inventoryService.configureStriping(testProductId, 0);
+
+        assertEquals(stock, successfulOrders.get(), "Every striped unit should be sold exactly once");
+        assertEquals(0, remainingStock);
+    }
 }
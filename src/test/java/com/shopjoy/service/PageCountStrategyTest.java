@@ -0,0 +1,128 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.filter.CountMode;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.exception.ValidationException;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.util.PageCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every count mode reports the same totals as a count query where
+ * it reports one, and when the modes run or skip that query.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class PageCountStrategyTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PageCounter pageCounter;
+
+    @Autowired
+    @Qualifier("shortCacheManager")
+    private CacheManager shortCacheManager;
+
+    @BeforeEach
+    void clearCachedCounts() {
+        Objects.requireNonNull(shortCacheManager.getCache("pageCounts")).clear();
+    }
+
+    @Test
+    void testExactAndNoneAgreeWithTheRepository() {
+        long total = productRepository.count();
+        assertTrue(total > 1, "Test data should span more than one page");
+
+        Slice<ProductResponse> exact = productService.getProductsPaginated(firstPage(), "id", "ASC", CountMode.EXACT);
+        Page<ProductResponse> page = assertInstanceOf(Page.class, exact);
+        assertEquals(total, page.getTotalElements());
+
+        Slice<ProductResponse> none = productService.getProductsPaginated(firstPage(), "id", "ASC", CountMode.NONE);
+        assertFalse(none instanceof Page, "No count should leave a plain slice");
+        assertTrue(none.hasNext());
+        assertEquals(page.getContent().get(0).getId(), none.getContent().get(0).getId());
+    }
+
+    @Test
+    void testCachedCountIsReusedPerFilter() {
+        ProductFilter filter = ProductFilter.builder().build();
+        long total = productRepository.count();
+
+        long queriesBefore = countQueries();
+        Slice<ProductResponse> first = productService.getProductsWithFilters(filter, firstPage(), "id", "ASC",
+                CountMode.CACHED);
+        Slice<ProductResponse> second = productService.getProductsWithFilters(filter,
+                PageRequest.of(1, 1, Sort.by("price")), "price", "ASC", CountMode.CACHED);
+
+        assertEquals(total, ((Page<ProductResponse>) first).getTotalElements());
+        assertEquals(total, ((Page<ProductResponse>) second).getTotalElements());
+        assertEquals(queriesBefore + 1, countQueries(), "Pages of the same filter should share one count");
+    }
+
+    @Test
+    void testEstimateFallsBackToCountWithoutPlannerStatistics() {
+        long total = productRepository.count();
+        long fallbacksBefore = (long) pageCounter.getStats().get("estimateFallbacks");
+
+        Slice<ProductResponse> estimated = productService.getProductsPaginated(firstPage(), "id", "ASC",
+                CountMode.ESTIMATED);
+
+        // H2 has no row estimates, so the total comes from a cached count
+        assertEquals(total, ((Page<ProductResponse>) estimated).getTotalElements());
+        assertEquals(fallbacksBefore + 1, (long) pageCounter.getStats().get("estimateFallbacks"));
+    }
+
+    @Test
+    void testLastPageNeedsNoCount() {
+        long total = productRepository.count();
+        long queriesBefore = countQueries();
+
+        Slice<ProductResponse> all = productService.getProductsPaginated(PageRequest.of(0, (int) total + 1, Sort.by("id")),
+                "id", "ASC", CountMode.EXACT);
+
+        assertEquals(total, ((Page<ProductResponse>) all).getTotalElements());
+        assertEquals(queriesBefore, countQueries());
+    }
+
+    @Test
+    void testCountModeParameter() {
+        assertEquals(CountMode.ESTIMATED, pageCounter.modeFor("products", "Estimated"));
+        assertEquals(CountMode.EXACT, pageCounter.modeFor("products", null));
+        assertEquals(CountMode.ESTIMATED, pageCounter.modeFor("audit-logs", ""));
+        assertThrows(ValidationException.class, () -> pageCounter.modeFor("products", "approximate"));
+    }
+
+    private static PageRequest firstPage() {
+        return PageRequest.of(0, 1, Sort.by("id"));
+    }
+
+    private long countQueries() {
+        Map<String, Object> stats = pageCounter.getStats();
+        return (long) stats.get("countQueries");
+    }
+}
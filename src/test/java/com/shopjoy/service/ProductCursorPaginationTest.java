@@ -0,0 +1,128 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.filter.ProductCursor;
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.dto.response.CursorPageResponse;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.exception.ValidationException;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.impl.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks product listings with the {@code after} cursor and checks that every
+ * product is returned exactly once, in the requested order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductCursorPaginationTest {
+
+    private final int PAGE_SIZE = 3;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Test
+    void testCursorWalksListingByPriceDescending() {
+        List<Integer> expected = productRepository.findAll().stream()
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed())
+                .map(Product::getId)
+                .toList();
+
+        assertEquals(expected, walk(null, "price", "DESC"));
+    }
+
+    @Test
+    void testCursorWalksFilteredListingByName() {
+        ProductFilter filter = ProductFilter.builder().active(true).build();
+        List<Integer> expected = productRepository.findAll().stream()
+                .filter(Product::isActive)
+                .sorted(Comparator.comparing(Product::getProductName).thenComparing(Product::getId))
+                .map(Product::getId)
+                .toList();
+
+        assertEquals(expected, walk(filter, "productName", "ASC"));
+    }
+
+    @Test
+    void testCursorWalksSearchResults() {
+        assertTrue(productSearchIndex.isReady());
+        Product product = productRepository.findAll().stream()
+                .filter(Product::isActive)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No active product found for test"));
+        String term = product.getProductName().split("\\s+")[0];
+        ProductFilter filter = ProductFilter.builder().searchTerm(term).build();
+
+        List<Integer> walked = walk(filter, "price", "ASC");
+        Set<Integer> paged = new HashSet<>();
+        productService.searchProductsPaginated(term, PageRequest.of(0, 1000))
+                .forEach(p -> paged.add(p.getId()));
+
+        assertTrue(walked.contains(product.getId()));
+        assertEquals(paged, new HashSet<>(walked), "Cursor and offset search should find the same products");
+        List<Double> prices = walked.stream()
+                .map(id -> productRepository.findById(id).orElseThrow().getPrice().doubleValue())
+                .toList();
+        assertEquals(prices.stream().sorted().toList(), prices);
+    }
+
+    @Test
+    void testCursorMustMatchTheSort() {
+        CursorPageResponse<ProductResponse> first = productService.getProductsAfter(null,
+                ProductCursor.first("price", "ASC"), 1);
+        assertTrue(first.isHasNext());
+
+        assertThrows(ValidationException.class, () -> ProductCursor.decode(first.getNextCursor(), "price", "DESC"));
+        assertThrows(ValidationException.class, () -> ProductCursor.decode("not-a-cursor", "price", "ASC"));
+        assertThrows(ValidationException.class, () -> ProductCursor.first("relevance", "ASC"));
+    }
+
+    /**
+     * Follows nextCursor to the end, checking that no product appears twice.
+     */
+    private List<Integer> walk(ProductFilter filter, String sortBy, String sortDirection) {
+        List<Integer> walked = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        String after = "";
+        do {
+            CursorPageResponse<ProductResponse> page = productService.getProductsAfter(filter,
+                    ProductCursor.decode(after, sortBy, sortDirection), PAGE_SIZE);
+            assertTrue(page.getContent().size() <= PAGE_SIZE);
+            for (ProductResponse product : page.getContent()) {
+                assertTrue(seen.add(product.getId()), "Product " + product.getId() + " returned twice");
+                walked.add(product.getId());
+            }
+            if (!page.isHasNext()) {
+                assertNull(page.getNextCursor());
+            } else {
+                assertFalse(page.getContent().isEmpty());
+            }
+            after = page.getNextCursor();
+        } while (after != null);
+        return walked;
+    }
+}
@@ -0,0 +1,150 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.dto.response.ProductFacetsResponse;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.impl.ProductFacetCounter;
+import com.shopjoy.util.CacheInvalidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that facet counts agree with the filtered pages they describe, that
+ * the stock facet follows stock changes without evicting cached counts, and
+ * that stock outside the inventory row counts.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductFacetsTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductFacetCounter productFacetCounter;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Test
+    void testFacetsMatchFilteredPages() {
+        ProductFilter filter = ProductFilter.builder().active(true).build();
+        ProductFacetsResponse facets = productService.getProductFacets(filter);
+
+        assertEquals(totalOf(filter), facets.getTotalProducts());
+        assertEquals(facets.getTotalProducts(), facets.getActive().get(true));
+        assertEquals(0L, facets.getActive().get(false));
+        assertEquals(facets.getTotalProducts(), facets.getInStock() + facets.getOutOfStock());
+        assertEquals(facets.getTotalProducts(), facets.getPriceBuckets().stream()
+                .mapToLong(ProductFacetsResponse.PriceBucket::getCount).sum());
+
+        for (Map.Entry<Integer, Long> category : facets.getCategories().entrySet()) {
+            ProductFilter byCategory = ProductFilter.builder().active(true).categoryId(category.getKey()).build();
+            assertEquals(totalOf(byCategory), category.getValue(), "Category " + category.getKey());
+        }
+        for (Map.Entry<String, Long> brand : facets.getBrands().entrySet()) {
+            ProductFilter byBrand = ProductFilter.builder().active(true).brand(brand.getKey()).build();
+            assertEquals(totalOf(byBrand), brand.getValue(), "Brand " + brand.getKey());
+        }
+    }
+
+    @Test
+    void testSearchTermFacetsMatchSearchResults() {
+        Product product = productRepository.findAll().stream()
+                .filter(Product::isActive)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No active product found for test"));
+        String term = product.getProductName().split("\\s+")[0];
+        ProductFilter filter = ProductFilter.builder().searchTerm(term).build();
+
+        ProductFacetsResponse facets = productService.getProductFacets(filter);
+
+        assertEquals(totalOf(filter), facets.getTotalProducts());
+        assertEquals(facets.getTotalProducts(), facets.getInStock() + facets.getOutOfStock());
+    }
+
+    @Test
+    void testStockFacetFollowsStockChangesWithoutEvictingCounts() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null && p.isActive())
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No active product with inventory found for test"));
+        Integer productId = product.getId();
+        int originalStock = product.getInventory().getQuantityInStock();
+        inventoryService.configureJournal(productId, false);
+        inventoryService.configureStriping(productId, 0);
+        ProductFilter filter = ProductFilter.builder().active(true).build();
+
+        try {
+            inventoryService.updateStock(productId, 10);
+            cacheInvalidator.flush();
+            ProductFacetsResponse before = productService.getProductFacets(filter);
+            ProductFacetCounter.FacetCounts counts = productFacetCounter.count(filter);
+
+            inventoryService.updateStock(productId, 0);
+            cacheInvalidator.flush();
+            ProductFacetsResponse after = productService.getProductFacets(filter);
+
+            assertSame(counts, productFacetCounter.count(filter), "A stock change should not evict cached counts");
+            assertEquals(before.getTotalProducts(), after.getTotalProducts());
+            assertEquals(before.getInStock() - 1, after.getInStock());
+            assertEquals(before.getOutOfStock() + 1, after.getOutOfStock());
+        } finally {
+            inventoryService.updateStock(productId, originalStock);
+            cacheInvalidator.flush();
+        }
+    }
+
+    @Test
+    void testStripedStockCountsAsInStock() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+        Integer productId = product.getId();
+        int originalStock = product.getInventory().getQuantityInStock();
+        inventoryService.configureJournal(productId, false);
+        ProductFilter filter = ProductFilter.builder().build();
+
+        try {
+            inventoryService.configureStriping(productId, 0);
+            inventoryService.updateStock(productId, 0);
+            long inStockBefore = productService.getProductFacets(filter).getInStock();
+
+            inventoryService.updateStock(productId, 8);
+            // Every unit moves to the stripes, leaving the inventory row at zero
+            inventoryService.configureStriping(productId, 4);
+
+            assertEquals(inStockBefore + 1, productService.getProductFacets(filter).getInStock(),
+                    "Stock held in stripes must count as in stock");
+        } finally {
+            inventoryService.configureStriping(productId, 0);
+            inventoryService.updateStock(productId, originalStock);
+            cacheInvalidator.flush();
+        }
+    }
+
+    private long totalOf(ProductFilter filter) {
+        Page<ProductResponse> page = productService.getProductsWithFilters(filter,
+                PageRequest.of(0, 5, Sort.by("id")), "id", "ASC");
+        return page.getTotalElements();
+    }
+}
@@ -0,0 +1,184 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.filter.ProductFilter;
+import com.shopjoy.dto.request.UpdateProductRequest;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductJdbcRepository;
+import com.shopjoy.repository.ProductJdbcRepository.SearchDocument;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.impl.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that product search follows writes through the inverted index, and
+ * compares index lookups with the {@code like '%term%'} scan at 100k and 1M products.
+ * <p>
+ * The comparisons build large indexes, so they only run with
+ * {@code -Dshopjoy.benchmarks=true}. Their timings are printed for reference
+ * and not asserted. The scan is run in memory over the same rows, upper-casing
+ * each value as the query does. It does no I/O, so the database path is at least this slow.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductSearchBenchmarkTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private final int QUERIES = 20;
+    private final String[] BRANDS = {"Dell", "Sony", "Apple", "Lenovo", "Bosch", "Philips", "Canon", "Asus"};
+    private final String[] NOUNS = {"laptop", "headphones", "camera", "monitor", "keyboard", "speaker", "tablet",
+            "router", "blender", "kettle", "charger", "printer", "drill", "lamp", "watch", "projector"};
+
+    @Test
+    void testSearchFollowsProductWrites() {
+        assertTrue(productSearchIndex.isReady());
+        Product product = productRepository.findAll().stream()
+                .filter(Product::isActive)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No active product found for test"));
+        String originalName = product.getProductName();
+
+        try {
+            productService.updateProduct(product.getId(),
+                    UpdateProductRequest.builder().productName("Zephyrquill Travel Kettle").build());
+
+            assertTrue(productService.searchProductsByName("zephyrq").stream()
+                    .anyMatch(p -> p.getId().equals(product.getId())), "Prefix of a name token should match");
+            Page<ProductResponse> page = productService.searchProductsPaginated("zephyrquill kettle", PageRequest.of(0, 10));
+            assertEquals(product.getId(), page.getContent().get(0).getId());
+
+            ProductFilter filter = ProductFilter.builder().searchTerm("zephyrquill").active(true).build();
+            Page<ProductResponse> filtered = productService.getProductsWithFilters(filter,
+                    PageRequest.of(0, 10, Sort.by("relevance")), "relevance", "DESC");
+            assertEquals(1, filtered.getTotalElements());
+        } finally {
+            productService.updateProduct(product.getId(),
+                    UpdateProductRequest.builder().productName(originalName).build());
+        }
+
+        assertTrue(productService.searchProductsByName("zephyrquill").isEmpty(),
+                "Renamed product should leave the index after commit");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "shopjoy.benchmarks", matches = "true")
+    void testIndexAgainstLikeScanAt100k() {
+        benchmark(100_000);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "shopjoy.benchmarks", matches = "true")
+    void testIndexAgainstLikeScanAt1M() {
+        benchmark(1_000_000);
+    }
+
+    private void benchmark(int products) {
+        List<String> names = new ArrayList<>(products);
+        List<String> descriptions = new ArrayList<>(products);
+        ProductSearchIndex index = new ProductSearchIndex(new ProductJdbcRepository(null, null) {
+            @Override
+            public void forEachSearchDocument(Consumer<SearchDocument> consumer) {
+                Random random = new Random(42);
+                for (int id = 1; id <= products; id++) {
+                    String name = BRANDS[random.nextInt(BRANDS.length)] + " " + word(random.nextInt(2_000)) + " "
+                            + NOUNS[random.nextInt(NOUNS.length)] + " " + random.nextInt(1_000);
+                    StringBuilder description = new StringBuilder();
+                    for (int w = 0; w < 12; w++) {
+                        description.append(word(random.nextInt(20_000))).append(' ');
+                    }
+                    names.add(name);
+                    descriptions.add(description.toString());
+                    consumer.accept(new SearchDocument(id, name, description.toString(), null, 1,
+                            random.nextInt(100_000) / 100.0, true, id));
+                }
+            }
+        }, ProductSearchIndex.BACKEND);
+        long buildStart = System.nanoTime();
+        index.rebuild();
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(i % 2 == 0 ? NOUNS[random.nextInt(NOUNS.length)] + " " + word(random.nextInt(2_000))
+                    : word(random.nextInt(20_000)));
+        }
+
+        long likeNanos = 0;
+        long indexNanos = 0;
+        for (String query : queries) {
+            long start = System.nanoTime();
+            int likeHits = likeScan(names, descriptions, query);
+            likeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Page<Integer> page = index.searchPage(query, true, null, PageRequest.of(0, 20));
+            indexNanos += System.nanoTime() - start;
+
+            assertNotNull(page);
+            // LIKE matches the whole phrase anywhere, so single tokens find at least the same rows
+            if (!query.contains(" ")) {
+                assertTrue(page.getTotalElements() > 0 && page.getTotalElements() <= likeHits,
+                        "Index hits for '" + query + "' should be a non-empty subset of LIKE hits");
+            }
+        }
+
+        double likeMs = likeNanos / 1_000_000.0 / QUERIES;
+        double indexMs = indexNanos / 1_000_000.0 / QUERIES;
+        System.out.println("\n=== Product Search (" + products + " products, " + QUERIES + " queries) ===");
+        System.out.println("Index build: " + buildMs + " ms, " + index.getStats().get("terms") + " terms");
+        System.out.printf("LIKE scan:      %.3f ms/query%n", likeMs);
+        System.out.printf("Inverted index: %.3f ms/query%n", indexMs);
+    }
+
+    private static int likeScan(List<String> names, List<String> descriptions, String query) {
+        String term = query.toUpperCase(Locale.ROOT);
+        int hits = 0;
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).toUpperCase(Locale.ROOT).contains(term)
+                    || descriptions.get(i).toUpperCase(Locale.ROOT).contains(term)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Deterministic pronounceable word for an index, so words share prefixes as real vocabulary does.
+     */
+    private static String word(int n) {
+        String[] syllables = {"ka", "lo", "mi", "ne", "ru", "ta", "vo", "zen", "pri", "sol", "dar", "qua", "fel",
+                "bro", "tix", "wen", "gul", "hap", "jor", "yst"};
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append(syllables[n % syllables.length]);
+            n /= syllables.length;
+        } while (n > 0);
+        return word.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package com.shopjoy.service;
+
+import com.shopjoy.entity.Product;
+import com.shopjoy.exception.InsufficientStockException;
+import com.shopjoy.repository.InventoryJdbcRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.impl.StockJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that journaled stock never oversells, even past a stale view, and that
+ * compaction preserves the total.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockJournalTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockJournal stockJournal;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Integer testProductId;
+    private final int INITIAL_STOCK = 200;
+    private final int BUYERS = 32;
+    private final int RESERVATIONS_PER_BUYER = 10;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+
+        testProductId = product.getId();
+        inventoryService.configureStriping(testProductId, 0);
+        inventoryService.updateStock(testProductId, INITIAL_STOCK);
+        inventoryService.configureJournal(testProductId, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryService.configureJournal(testProductId, false);
+    }
+
+    @Test
+    void testJournaledReservationsNeverOversell() throws InterruptedException {
+        AtomicInteger reserved = new AtomicInteger(0);
+        AtomicInteger rejected = new AtomicInteger(0);
+        ExecutorService executorService = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        for (int buyer = 0; buyer < BUYERS; buyer++) {
+            executorService.submit(() -> {
+                latch.await();
+                for (int i = 0; i < RESERVATIONS_PER_BUYER; i++) {
+                    try {
+                        inventoryService.reserveStock(testProductId, 1);
+                        reserved.incrementAndGet();
+                    } catch (Exception e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startTime = System.nanoTime();
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(60, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+        System.out.println("Journaled reservations: " + reserved.get() + " reserved, " + rejected.get()
+                + " rejected in " + String.format("%.3f", elapsedSeconds) + "s");
+
+        assertEquals(INITIAL_STOCK, reserved.get(), "Every unit must be sold exactly once");
+        assertEquals(0, stockJournal.currentStock(testProductId));
+        assertFalse(inventoryService.isProductInStock(testProductId));
+
+        stockJournal.compact();
+
+        assertTrue(inventoryJdbcRepository.findPendingMovements(testProductId, 10).isEmpty(),
+                "Compaction must fold every pending movement");
+        assertEquals(0, inventoryService.getInventoryByProduct(testProductId).getStockQuantity(),
+                "Compaction must not change total stock");
+    }
+
+    @Test
+    void testTakesAreCheckedAgainstTheDatabase() {
+        // Another instance sells everything; this instance's view has not seen it yet
+        inventoryJdbcRepository.appendMovements(Map.of(testProductId, -INITIAL_STOCK), "REMOVE");
+        assertEquals(INITIAL_STOCK, stockJournal.currentStock(testProductId));
+
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStock(testProductId, 1));
+        assertEquals(INITIAL_STOCK, stockJournal.currentStock(testProductId), "A rejected take must not touch the view");
+
+        stockJournal.resync();
+        assertEquals(0, stockJournal.currentStock(testProductId));
+    }
+
+    @Test
+    void testConcurrentSetsApplyOneAfterTheOther() throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountDownLatch latch = new CountDownLatch(1);
+        for (int target : new int[]{INITIAL_STOCK + 50, INITIAL_STOCK + 100}) {
+            executorService.submit(() -> {
+                latch.await();
+                inventoryService.updateStock(testProductId, target);
+                return null;
+            });
+        }
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(60, TimeUnit.SECONDS);
+
+        int total = inventoryJdbcRepository.findStockLevels(List.of(testProductId)).get(testProductId);
+        assertTrue(total == INITIAL_STOCK + 50 || total == INITIAL_STOCK + 100,
+                "One set must win, not both deltas: " + total);
+        assertEquals(total, stockJournal.currentStock(testProductId));
+    }
+
+    @Test
+    void testReleasedStockIsVisibleAfterCommit() {
+        inventoryService.reserveStock(testProductId, 5);
+        inventoryService.releaseStock(testProductId, 2);
+
+        assertEquals(INITIAL_STOCK - 3, stockJournal.currentStock(testProductId));
+        assertEquals(INITIAL_STOCK - 3, inventoryService.getInventoryByProduct(testProductId).getStockQuantity());
+    }
+}
@@ -0,0 +1,99 @@
+package com.shopjoy.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.util.CacheInvalidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that stock changes show up in cached catalog entries without
+ * evicting them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockOverlayTest {
+
+    private final int INITIAL_STOCK = 500;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Integer testProductId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null && p.isActive())
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No active product with inventory found for test"));
+        testProductId = product.getId();
+        inventoryService.configureJournal(testProductId, false);
+        inventoryService.configureStriping(testProductId, 0);
+        inventoryService.updateStock(testProductId, INITIAL_STOCK);
+        cacheInvalidator.flush();
+    }
+
+    @Test
+    void testStockChangesKeepCatalogEntries() {
+        CaffeineCache activeProducts = (CaffeineCache) cacheManager.getCache("activeProducts");
+        CaffeineCache product = (CaffeineCache) cacheManager.getCache("product");
+        activeProducts.clear();
+        product.clear();
+
+        assertEquals(INITIAL_STOCK, stockIn(productService.getActiveProducts()));
+        assertEquals(INITIAL_STOCK, productService.getProductById(testProductId).getStockQuantity());
+        CacheStats listBefore = activeProducts.getNativeCache().stats();
+        CacheStats productBefore = product.getNativeCache().stats();
+
+        int reads = 20;
+        for (int i = 1; i <= reads; i++) {
+            inventoryService.reserveStock(testProductId, 1);
+            cacheInvalidator.flush();
+            assertEquals(INITIAL_STOCK - i, stockIn(productService.getActiveProducts()));
+            assertEquals(INITIAL_STOCK - i, productService.getProductById(testProductId).getStockQuantity());
+        }
+
+        CacheStats list = activeProducts.getNativeCache().stats().minus(listBefore);
+        CacheStats single = product.getNativeCache().stats().minus(productBefore);
+        System.out.println("\n=== Stock Overlay (" + reads + " stock writes, each followed by a read) ===");
+        System.out.println("activeProducts: " + list.hitCount() + " hits, " + list.missCount() + " misses");
+        System.out.println("product: " + single.hitCount() + " hits, " + single.missCount() + " misses");
+
+        assertEquals(0, list.missCount(), "Stock changes should not evict the cached list");
+        assertEquals(0, single.missCount(), "Stock changes should not evict the cached product");
+
+        inventoryService.releaseStock(testProductId, reads);
+    }
+
+    private int stockIn(List<ProductResponse> products) {
+        return products.stream()
+                .filter(p -> p.getId().equals(testProductId))
+                .findFirst()
+                .orElseThrow()
+                .getStockQuantity();
+    }
+}
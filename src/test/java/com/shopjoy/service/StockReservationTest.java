@@ -0,0 +1,155 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.request.CreateOrderItemRequest;
+import com.shopjoy.dto.request.CreateOrderRequest;
+import com.shopjoy.dto.response.OrderResponse;
+import com.shopjoy.entity.OrderStatus;
+import com.shopjoy.entity.Product;
+import com.shopjoy.entity.ReservationStatus;
+import com.shopjoy.exception.InvalidOrderStateException;
+import com.shopjoy.repository.OrderRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the life of a stock hold: confirmed by payment, or expired by the
+ * sweep, which restocks and cancels only orders that are still unpaid and pending.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockReservationTest {
+
+    private static final int INITIAL_STOCK = 10;
+    private static final int ORDERED = 2;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer testProductId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+        testProductId = product.getId();
+
+        inventoryService.configureJournal(testProductId, false);
+        inventoryService.configureStriping(testProductId, 0);
+        inventoryService.updateStock(testProductId, INITIAL_STOCK);
+    }
+
+    @Test
+    void testPaymentConfirmsHold() {
+        Integer orderId = placeOrder();
+        assertTrue(stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.HELD));
+
+        orderService.processPayment(orderId, "tx-confirm").join();
+
+        assertTrue(stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.CONFIRMED));
+        assertFalse(stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.HELD));
+        assertEquals(INITIAL_STOCK - ORDERED, stock());
+    }
+
+    @Test
+    void testExpiredHoldIsRestockedAndOrderCancelled() {
+        Integer orderId = placeOrder();
+        assertEquals(INITIAL_STOCK - ORDERED, stock());
+
+        expireHolds(orderId);
+        stockReservationService.releaseExpiredHolds();
+
+        assertTrue(stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.EXPIRED));
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(INITIAL_STOCK, stock());
+    }
+
+    @Test
+    void testPaymentAfterExpiryIsRejected() {
+        Integer orderId = placeOrder();
+        expireHolds(orderId);
+        stockReservationService.releaseExpiredHolds();
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> orderService.processPayment(orderId, "tx-late").join());
+        assertInstanceOf(InvalidOrderStateException.class, thrown.getCause());
+        assertEquals(INITIAL_STOCK, stock());
+    }
+
+    @Test
+    void testOrderMovedOnWithoutPaymentKeepsItsStock() {
+        Integer orderId = placeOrder();
+        orderService.updateOrderStatus(orderId, OrderStatus.SHIPPED);
+
+        expireHolds(orderId);
+        stockReservationService.releaseExpiredHolds();
+
+        assertTrue(stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.CONFIRMED));
+        assertFalse(stockReservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.EXPIRED));
+        assertEquals(OrderStatus.SHIPPED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(INITIAL_STOCK - ORDERED, stock());
+    }
+
+    private Integer placeOrder() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(1);
+        request.setShippingAddress("Test Address");
+
+        CreateOrderItemRequest itemRequest = new CreateOrderItemRequest();
+        itemRequest.setProductId(testProductId);
+        itemRequest.setQuantity(ORDERED);
+        request.setOrderItems(List.of(itemRequest));
+
+        try {
+            OrderResponse order = orderService.createOrder(request).get(60, TimeUnit.SECONDS);
+            return order.getId();
+        } catch (Exception e) {
+            throw new RuntimeException("Order creation failed", e);
+        }
+    }
+
+    private void expireHolds(Integer orderId) {
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE order_id = ?",
+                LocalDateTime.now().minusMinutes(1), orderId);
+    }
+
+    private int stock() {
+        return inventoryService.getAvailableStock(List.of(testProductId)).get(testProductId);
+    }
+}
@@ -0,0 +1,105 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.response.InventoryResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.impl.StockSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the stock snapshot follows inventory writes in place, and that a
+ * resync racing a write neither loses nor repeats its delta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockSnapshotTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockSnapshot stockSnapshot;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer testProductId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+
+        testProductId = product.getId();
+        inventoryService.configureJournal(testProductId, false);
+        inventoryService.configureStriping(testProductId, 0);
+        inventoryService.updateReorderLevel(testProductId, 3);
+        inventoryService.updateStock(testProductId, 10);
+    }
+
+    @Test
+    void testWritesUpdateSnapshotInPlace() {
+        assertEquals(10, stockSnapshot.stockOf(testProductId));
+        assertTrue(inventoryService.hasAvailableStock(testProductId, 10));
+        assertFalse(inventoryService.hasAvailableStock(testProductId, 11));
+
+        inventoryService.reserveStock(testProductId, 8);
+        assertEquals(2, stockSnapshot.stockOf(testProductId));
+        assertTrue(inventoryService.getLowStockProducts().stream()
+                .map(InventoryResponse::getProductId)
+                .anyMatch(testProductId::equals));
+
+        inventoryService.removeStock(testProductId, 2);
+        assertFalse(inventoryService.isProductInStock(testProductId));
+        assertTrue(inventoryService.getOutOfStockProducts().stream()
+                .map(InventoryResponse::getProductId)
+                .anyMatch(testProductId::equals));
+
+        inventoryService.addStock(testProductId, 20);
+        assertTrue(inventoryService.isProductInStock(testProductId));
+        assertEquals(20, stockSnapshot.stockOf(testProductId));
+    }
+
+    @Test
+    void testFailedWriteLeavesSnapshotUnchanged() {
+        try {
+            inventoryService.removeStock(testProductId, 1_000);
+        } catch (Exception e) {
+            // Expected: insufficient stock rolls the transaction back
+        }
+        assertEquals(10, stockSnapshot.stockOf(testProductId));
+
+        stockSnapshot.resync();
+        assertEquals(10, stockSnapshot.stockOf(testProductId));
+        System.out.println("Stock snapshot stats: " + stockSnapshot.getStats());
+    }
+
+    @Test
+    void testResyncDuringWriteDoesNotCountItTwice() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(_ -> {
+            inventoryService.reserveStock(testProductId, 4);
+            // Reads the decremented row through this transaction's connection before it commits
+            stockSnapshot.resync();
+        });
+        assertEquals(6, stockSnapshot.stockOf(testProductId));
+
+        stockSnapshot.resync();
+        assertEquals(6, stockSnapshot.stockOf(testProductId));
+    }
+}
@@ -0,0 +1,127 @@
+package com.shopjoy.service;
+
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that striped stock accounts for every reservation made by concurrent
+ * buyers, whatever the stripe count, and that a transaction holding a stripe can
+ * still reserve more of the product. Throughput per stripe count is printed for
+ * reference only; it depends on the database and is not asserted.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StripedInventoryConcurrencyTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer testProductId;
+    private final int INITIAL_STOCK = 5_000;
+    private final int BUYERS = 32;
+    private final int RESERVATIONS_PER_BUYER = 50;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(p -> p.getInventory() != null)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product with inventory found for test"));
+
+        testProductId = product.getId();
+    }
+
+    @Test
+    void testConcurrentReservationsConserveStockForEveryStripeCount() throws InterruptedException {
+        Map<Integer, Double> throughputByStripes = new LinkedHashMap<>();
+
+        for (int stripes : new int[]{1, 2, 4, 8, 16}) {
+            inventoryService.configureStriping(testProductId, 0);
+            inventoryService.updateStock(testProductId, INITIAL_STOCK);
+            inventoryService.configureStriping(testProductId, stripes);
+
+            AtomicInteger reserved = new AtomicInteger(0);
+            ExecutorService executorService = Executors.newFixedThreadPool(BUYERS);
+            CountDownLatch latch = new CountDownLatch(1);
+
+            for (int buyer = 0; buyer < BUYERS; buyer++) {
+                executorService.submit(() -> {
+                    latch.await();
+                    for (int i = 0; i < RESERVATIONS_PER_BUYER; i++) {
+                        try {
+                            inventoryService.reserveStock(testProductId, 1);
+                            reserved.incrementAndGet();
+                        } catch (Exception e) {
+                            // Lock timeouts are counted by the conservation check below
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            long startTime = System.nanoTime();
+            latch.countDown();
+            executorService.shutdown();
+            executorService.awaitTermination(120, TimeUnit.SECONDS);
+            double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            throughputByStripes.put(stripes, reserved.get() / elapsedSeconds);
+
+            int remainingStock = inventoryService.getInventoryByProduct(testProductId).getStockQuantity();
+            assertEquals(INITIAL_STOCK - reserved.get(), remainingStock,
+                    "Summed stripe stock must account for every reservation with " + stripes + " stripes");
+        }
+
+        inventoryService.configureStriping(testProductId, 0);
+
+        System.out.println("Single-SKU reservation throughput (" + BUYERS + " buyers):");
+        throughputByStripes.forEach((stripes, opsPerSecond) ->
+            System.out.printf("  stripes=%-3d %10.1f reservations/s%n", stripes, opsPerSecond));
+    }
+
+    @Test
+    void testOneTransactionCanReserveMoreThanItsStripeHolds() {
+        inventoryService.configureStriping(testProductId, 0);
+        inventoryService.updateStock(testProductId, 8);
+        inventoryService.configureStriping(testProductId, 4);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(_ -> {
+            inventoryService.reserveStock(testProductId, 2);
+            // No stripe holds 3 any more, so the stripes are pooled while this transaction holds one of them
+            inventoryService.reserveStock(testProductId, 3);
+        });
+        assertEquals(3, inventoryService.getInventoryByProduct(testProductId).getStockQuantity());
+
+        inventoryService.addStock(testProductId, 5);
+        assertEquals(8, inventoryService.getInventoryByProduct(testProductId).getStockQuantity());
+        // Added stock is spread over the stripes, so any of them can cover a small reservation
+        inventoryService.reserveStock(testProductId, 2);
+        assertEquals(6, inventoryService.getInventoryByProduct(testProductId).getStockQuantity());
+
+        inventoryService.configureStriping(testProductId, 0);
+    }
+}
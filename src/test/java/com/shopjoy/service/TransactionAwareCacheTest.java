@@ -0,0 +1,167 @@
+package com.shopjoy.service;
+
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.util.CacheInvalidator;
+import com.shopjoy.util.CoalescingCaffeineCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs concurrent reads and writes against the product caches and checks
+ * that no entry older than the database survives once the writes are done.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransactionAwareCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer productId;
+    private final int READERS = 16;
+    private final int WRITES = 200;
+
+    @BeforeEach
+    void setUp() {
+        Product product = productRepository.findAll().stream()
+                .filter(Product::isActive)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No active product found for test"));
+        productId = product.getId();
+    }
+
+    @Test
+    void testNoStaleEntrySurvivesConcurrentWrites() throws Exception {
+        CoalescingCaffeineCache productCache = (CoalescingCaffeineCache) cacheManager.getCache("product");
+        assertTrue(productCache.isTransactionAware());
+        long droppedBefore = productCache.getStalePutsDropped();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(READERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writesDone = new CountDownLatch(1);
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            int reader = i;
+            readers.add(executorService.submit(() -> {
+                start.await();
+                int reads = 0;
+                while (writesDone.getCount() > 0) {
+                    if (reader % 2 == 0) {
+                        productService.getProductById(productId);
+                    } else {
+                        productService.getActiveProducts();
+                    }
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        Future<?> writer = executorService.submit(() -> {
+            start.await();
+            for (int i = 1; i <= WRITES; i++) {
+                productService.updateProductPrice(productId, 100 + i);
+            }
+            writesDone.countDown();
+            return null;
+        });
+
+        start.countDown();
+        writer.get(60, TimeUnit.SECONDS);
+        int reads = 0;
+        for (Future<Integer> reader : readers) {
+            reads += reader.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        cacheInvalidator.flush();
+
+        double committedPrice = productRepository.findById(productId).orElseThrow().getPrice().doubleValue();
+        ProductResponse cached = productCache.get(productId, ProductResponse.class);
+        ProductResponse listed = productService.getActiveProducts().stream()
+                .filter(p -> p.getId().equals(productId))
+                .findFirst()
+                .orElseThrow();
+
+        System.out.println("\n=== Transaction-aware Caching ===");
+        System.out.println(WRITES + " price updates against " + reads + " concurrent reads, stale puts dropped: "
+                + (productCache.getStalePutsDropped() - droppedBefore));
+
+        assertEquals(100 + WRITES, committedPrice, 0.001);
+        if (cached != null) {
+            assertEquals(committedPrice, cached.getPrice(), 0.001, "Cached product should match the committed row");
+        }
+        assertEquals(committedPrice, productService.getProductById(productId).getPrice(), 0.001);
+        assertEquals(committedPrice, listed.getPrice(), 0.001, "Cached list should match the committed row");
+    }
+
+    @Test
+    void testRolledBackWritesAreDropped() {
+        Cache cache = cacheManager.getCache("order");
+        cache.put("rollback-kept", "before");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            cache.put("rollback-put", "written");
+            cache.evict("rollback-kept");
+            assertNull(cache.get("rollback-put"), "Put should wait for the commit");
+            status.setRollbackOnly();
+        });
+
+        assertNull(cache.get("rollback-put"));
+        assertNotNull(cache.get("rollback-kept"), "Eviction should be dropped on rollback");
+
+        transaction.executeWithoutResult(status -> cache.put("commit-put", "written"));
+        assertEquals("written", cache.get("commit-put", String.class));
+    }
+
+    @Test
+    void testLoadOvertakenByEvictionIsNotStored() {
+        CoalescingCaffeineCache cache = (CoalescingCaffeineCache) cacheManager.getCache("order");
+        long droppedBefore = cache.getStalePutsDropped();
+
+        // A reader misses and loads the old row while a write commits and evicts the key
+        assertNull(cache.get("overtaken"));
+        cache.evict("overtaken");
+        cache.put("overtaken", "old row");
+
+        assertNull(cache.get("overtaken"));
+        assertEquals(1, cache.getStalePutsDropped() - droppedBefore);
+
+        // A written value is stored even without a preceding lookup
+        cache.put("overtaken", "new row");
+        assertEquals("new row", cache.get("overtaken", String.class));
+    }
+}
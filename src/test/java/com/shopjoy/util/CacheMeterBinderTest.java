@@ -0,0 +1,81 @@
+package com.shopjoy.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.shopjoy.service.ProductService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheMeterBinderTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheEvictionCounters evictionCounters;
+
+    @Test
+    void testCachesAreRegisteredPerManager() {
+        productService.getActiveProducts();
+        productService.getActiveProducts();
+
+        FunctionCounter hits = meterRegistry.find("cache.gets")
+                .tags("cache", "activeProducts", "cache.manager", "cache", "result", "hit")
+                .functionCounter();
+        assertNotNull(hits, "activeProducts should be registered under the primary manager");
+        assertTrue(hits.count() >= 1);
+
+        assertNotNull(meterRegistry.find("cache.size").tags("cache", "order", "cache.manager", "medium").gauge());
+        assertNotNull(meterRegistry.find("cache.size").tags("cache", "cart", "cache.manager", "short").gauge());
+        assertNotNull(meterRegistry.find("cache.evictions.by.cause")
+                .tags("cache", "inventoryByProduct", "cause", "expired").functionCounter());
+        assertNotNull(meterRegistry.find("cache.coalesced.waiters").tags("cache", "products").functionCounter());
+
+        System.out.println("\n=== Cache Meters ===");
+        System.out.println("Registered cache meters: " + meterRegistry.find("cache.gets").meters().size() / 2 + " caches");
+    }
+
+    @Test
+    void testEvictionsAreCountedByCause() {
+        AtomicLong nanos = new AtomicLong();
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .recordStats(evictionCounters.statsCounterFor("evictionCauseTest"))
+                .build();
+
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        cache.cleanUp();
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.cleanUp();
+
+        long sizeEvictions = evictionCounters.getEvictions("evictionCauseTest", RemovalCause.SIZE);
+        long expiries = evictionCounters.getEvictions("evictionCauseTest", RemovalCause.EXPIRED);
+        System.out.println("Evictions: " + evictionCounters.getEvictionsByCause("evictionCauseTest"));
+
+        assertEquals(2, sizeEvictions);
+        assertEquals(1, expiries);
+        assertEquals(3, cache.stats().evictionCount());
+    }
+}
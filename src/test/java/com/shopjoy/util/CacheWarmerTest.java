@@ -0,0 +1,64 @@
+package com.shopjoy.util;
+
+import com.shopjoy.entity.CacheHotKey;
+import com.shopjoy.entity.Product;
+import com.shopjoy.repository.CacheHotKeyRepository;
+import com.shopjoy.repository.ProductRepository;
+import com.shopjoy.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheWarmerTest {
+
+    @Autowired
+    private CacheWarmer cacheWarmer;
+
+    @Autowired
+    private CacheHotKeyRepository cacheHotKeyRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Test
+    void testWarmupFinishesBeforeAcceptingTraffic() {
+        System.out.println("\n=== Cache Warm-up ===");
+        System.out.println(cacheWarmer.getStats());
+
+        assertEquals(CacheWarmer.State.WARMED, cacheWarmer.getState());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+        assertTrue((int) cacheWarmer.getStats().get("warmedKeys") > 0);
+    }
+
+    @Test
+    void testSnapshotRecordsHotKeysInDecodableForm() {
+        Product product = productRepository.findAll().stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No product found for test"));
+        productService.getProductById(product.getId());
+        productService.getActiveProducts();
+
+        cacheWarmer.captureSnapshot();
+
+        List<CacheHotKey> hotKeys = cacheHotKeyRepository.findAllByOrderByRankAsc();
+        assertTrue(hotKeys.stream().anyMatch(hotKey -> hotKey.getCacheName().equals("product")
+                && product.getId().equals(CacheKeyCodec.decode(hotKey.getCacheKey()))));
+        assertTrue(hotKeys.stream().anyMatch(hotKey -> hotKey.getCacheName().equals("activeProducts")));
+    }
+}
@@ -0,0 +1,168 @@
+package com.shopjoy.util;
+
+import com.shopjoy.dto.response.ProductResponse;
+import com.shopjoy.service.ProductService;
+import com.shopjoy.service.impl.StockOverlay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogValueStoreTest {
+
+    private final int PRODUCTS = 4_000;
+    private final int CATEGORIES = 20;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogValueStore catalogValueStore;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockOverlay stockOverlay;
+
+    @Test
+    void testCachedProductsAreRebuiltOnRead() {
+        CompactCatalogCache cache = (CompactCatalogCache) cacheManager.getCache("activeProducts");
+        cache.clear();
+
+        List<ProductResponse> first = productService.getActiveProducts();
+        List<ProductResponse> second = productService.getActiveProducts();
+        assertFalse(first.isEmpty());
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertNotSame(first.get(i), second.get(i));
+            assertSameProduct(first.get(i), second.get(i));
+            assertEquals(first.get(i).getStockQuantity(), second.get(i).getStockQuantity());
+        }
+
+        // A caller modifying its copy no longer modifies the cached value
+        double price = second.getFirst().getPrice();
+        second.getFirst().setPrice(price + 100);
+        assertEquals(price, productService.getActiveProducts().getFirst().getPrice());
+
+        // Without its products in the store, the entry reads as a miss and is dropped
+        catalogValueStore.getNativeCache().invalidateAll();
+        assertNull(cache.get(SimpleKey.EMPTY));
+        assertNull(cache.getNativeCache().getIfPresent(SimpleKey.EMPTY));
+        assertEquals(first.size(), productService.getActiveProducts().size());
+    }
+
+    @Test
+    void testPagesAndLongDescriptionsRoundTrip() {
+        CatalogValueStore store = new CatalogValueStore(stockOverlay, true, 512, PRODUCTS, Duration.ofMinutes(35));
+        List<ProductResponse> products = syntheticProducts(3);
+        products.getFirst().setDescription("Long description. ".repeat(100));
+        products.get(1).setImageUrl(null);
+        products.get(2).setUpdatedAt(null);
+        Page<ProductResponse> page = new PageImpl<>(products, PageRequest.of(2, 3, Sort.by("price").descending()), 42);
+
+        Page<?> expanded = (Page<?>) store.expand(store.compact(page));
+
+        assertEquals(page.getTotalElements(), expanded.getTotalElements());
+        assertEquals(page.getPageable(), expanded.getPageable());
+        for (int i = 0; i < products.size(); i++) {
+            ProductResponse product = (ProductResponse) expanded.getContent().get(i);
+            assertSameProduct(products.get(i), product);
+            // Stock is not cached; it comes from the live overlay
+            assertEquals(stockOverlay.stockOf(product.getId()), product.getStockQuantity());
+        }
+        assertEquals(1L, store.getStats().get("compressedDescriptions"));
+    }
+
+    @Test
+    void testCompactListsShareOneCopyOfEachProduct() {
+        // Each list query maps its own DTOs, so every cached list holds separate copies
+        List<List<ProductResponse>> lists = List.of(
+                syntheticProducts(PRODUCTS),
+                syntheticProducts(PRODUCTS).stream().filter(ProductResponse::isActive).toList(),
+                syntheticProducts(PRODUCTS).stream().filter(p -> p.getCategoryId() < CATEGORIES / 2).toList(),
+                syntheticProducts(PRODUCTS).stream().filter(p -> p.getPrice() < 500).toList());
+
+        long fullBytes = 0;
+        for (List<ProductResponse> list : lists) {
+            fullBytes += ObjectSizeEstimator.estimate(list);
+        }
+
+        CatalogValueStore store = new CatalogValueStore(stockOverlay, true, 512, PRODUCTS, Duration.ofMinutes(35));
+        long compactBytes = 0;
+        for (List<ProductResponse> list : lists) {
+            compactBytes += ObjectSizeEstimator.estimate(store.compact(list));
+        }
+        compactBytes += ObjectSizeEstimator.estimate(new ArrayList<>(store.getNativeCache().asMap().values()));
+
+        System.out.println("\n=== Catalog Cache Footprint (" + PRODUCTS + " products, " + lists.size() + " lists) ===");
+        System.out.println("DTO lists: " + fullBytes / 1024 + " KB");
+        System.out.println("Compact:   " + compactBytes / 1024 + " KB (" + String.format("%.1f", (double) fullBytes / compactBytes) + "x smaller)");
+        System.out.println("Store: " + store.getStats());
+
+        store.getNativeCache().cleanUp();
+        assertEquals((long) PRODUCTS, store.getNativeCache().estimatedSize());
+        assertTrue(compactBytes * 3 < fullBytes, "Compact values should take several times less heap");
+    }
+
+    private List<ProductResponse> syntheticProducts(int count) {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 20, 10, 30, 0, 123_456_789);
+        List<ProductResponse> products = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            int categoryId = id % CATEGORIES;
+            products.add(new ProductResponse(
+                    id,
+                    "Product " + id,
+                    "Description of product " + id + " with its main features",
+                    categoryId,
+                    "Category " + categoryId,
+                    id % 200,
+                    10,
+                    (id % 1000) + 0.99,
+                    (id % 1000) * 0.7,
+                    "SKU-" + id,
+                    "Brand " + id % 50,
+                    "https://cdn.example.com/images/products/" + id + ".jpg",
+                    id % 10 != 0,
+                    created,
+                    created.plusDays(id % 30)));
+        }
+        return products;
+    }
+
+    private static void assertSameProduct(ProductResponse expected, ProductResponse actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getProductName(), actual.getProductName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getCategoryId(), actual.getCategoryId());
+        assertEquals(expected.getCategoryName(), actual.getCategoryName());
+        assertEquals(expected.getReorderLevel(), actual.getReorderLevel());
+        assertEquals(expected.getPrice(), actual.getPrice());
+        assertEquals(expected.getCostPrice(), actual.getCostPrice());
+        assertEquals(expected.getSku(), actual.getSku());
+        assertEquals(expected.getBrand(), actual.getBrand());
+        assertEquals(expected.getImageUrl(), actual.getImageUrl());
+        assertEquals(expected.isActive(), actual.isActive());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+}
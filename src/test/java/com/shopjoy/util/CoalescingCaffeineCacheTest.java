@@ -0,0 +1,106 @@
+package com.shopjoy.util;
+
+import com.shopjoy.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CoalescingCaffeineCacheTest {
+
+    private final int CALLERS = 64;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        CoalescingCaffeineCache cache = (CoalescingCaffeineCache) cacheManager.getCache("activeProducts");
+        cache.clear();
+        long waitersBefore = cache.getCoalescedWaiters();
+
+        AtomicInteger loaderRuns = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+
+        results.add(executorService.submit(() -> cache.get("coalescing-test", () -> {
+            loaderRuns.incrementAndGet();
+            loaderStarted.countDown();
+            releaseLoader.await();
+            return "loaded";
+        })));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executorService.submit(() -> cache.get("coalescing-test", () -> {
+                loaderRuns.incrementAndGet();
+                return "duplicate";
+            })));
+        }
+        // Let the other callers reach the in-flight load before it completes
+        Thread.sleep(200);
+        releaseLoader.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+
+        long waiters = cache.getCoalescedWaiters() - waitersBefore;
+        System.out.println("\n=== Miss Coalescing ===");
+        System.out.println("Callers: " + CALLERS + ", loader runs: " + loaderRuns.get() + ", coalesced waiters: " + waiters);
+
+        assertEquals(1, loaderRuns.get());
+        assertEquals(CALLERS - 1, waiters);
+    }
+
+    @Test
+    void testConcurrentServiceCallsAfterEviction() throws Exception {
+        CoalescingCaffeineCache cache = (CoalescingCaffeineCache) cacheManager.getCache("products");
+        cache.clear();
+        long loadsBefore = cache.getLoadCount();
+        long waitersBefore = cache.getCoalescedWaiters();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executorService.submit(() -> {
+                start.await();
+                return productService.getAllProducts().size();
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        long loads = cache.getLoadCount() - loadsBefore;
+        long waiters = cache.getCoalescedWaiters() - waitersBefore;
+        System.out.println("getAllProducts x" + CALLERS + " after eviction: " + loads + " queries, "
+                + waiters + " coalesced waiters, avg load " + String.format("%.2f", cache.getAverageLoadMs()) + " ms");
+
+        assertTrue(loads >= 1 && loads < CALLERS, "Concurrent misses should share loads");
+    }
+}
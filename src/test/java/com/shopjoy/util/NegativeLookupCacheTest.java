@@ -0,0 +1,88 @@
+package com.shopjoy.util;
+
+import com.shopjoy.exception.ResourceNotFoundException;
+import com.shopjoy.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class NegativeLookupCacheTest {
+
+    private final int MISSING_PRODUCT_ID = 987_654_321;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheMetricsCollector cacheMetricsCollector;
+
+    @Test
+    void testRepeatedMissesSkipTheQuery() {
+        long hitsBefore = negativeLookupCache.getHitCount();
+        int requests = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(MISSING_PRODUCT_ID));
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        long negativeHits = negativeLookupCache.getHitCount() - hitsBefore;
+        System.out.println("\n=== Negative Caching ===");
+        System.out.println(requests + " lookups of a missing product: " + negativeHits + " negative hits, "
+                + (requests - negativeHits) + " queries, " + elapsedMicros / requests + " us per lookup");
+        System.out.println("Summary: " + cacheMetricsCollector.getCacheSummary());
+
+        assertEquals(requests - 1, negativeHits);
+        assertTrue((long) cacheMetricsCollector.getCacheSummary().get("totalNegativeHits") >= negativeHits);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testForgetLetsTheNextLookupQuery() {
+        AtomicInteger queries = new AtomicInteger();
+        negativeLookupCache.find("test", 1, () -> query(queries));
+        negativeLookupCache.find("test", 1, () -> query(queries));
+        assertEquals(1, queries.get());
+
+        negativeLookupCache.forget("test", 1);
+        negativeLookupCache.find("test", 1, () -> query(queries));
+        assertEquals(2, queries.get());
+
+        Map<String, Object> stats = (Map<String, Object>) negativeLookupCache.getStats().get("test");
+        assertEquals(1L, stats.get("negativeHits"));
+        assertEquals(1L, stats.get("negativeEntriesForgotten"));
+    }
+
+    @Test
+    void testLookupRacingACreateDoesNotStoreItsMiss() {
+        AtomicInteger queries = new AtomicInteger();
+        // The entity is created while the lookup's query runs, after it read nothing
+        negativeLookupCache.find("test", 2, () -> {
+            Optional<Object> result = query(queries);
+            negativeLookupCache.forget("test", 2);
+            return result;
+        });
+
+        negativeLookupCache.find("test", 2, () -> query(queries));
+        assertEquals(2, queries.get(), "A miss read before the create must not be remembered");
+    }
+
+    private static Optional<Object> query(AtomicInteger queries) {
+        queries.incrementAndGet();
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.shopjoy.util;
+
+import com.shopjoy.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransientFailureRetrierTest {
+
+    @Autowired
+    private TransientFailureRetrier retrier;
+
+    @Test
+    void testSerializationFailuresAreRetriedUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger(0);
+        long retriesBefore = retryCount("SERIALIZATION_FAILURE");
+
+        String result = retrier.execute("test", () -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new CannotAcquireLockException("conflict",
+                        new SQLException("could not serialize access due to concurrent update", "40001")))
+                : CompletableFuture.completedFuture("ok")).join();
+
+        System.out.println("Retry stats: " + retrier.getStats());
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(retriesBefore + 2, retryCount("SERIALIZATION_FAILURE"));
+    }
+
+    @Test
+    void testBusinessFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger(0);
+
+        assertThrows(CompletionException.class, () -> retrier.execute("test", () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new ValidationException("Insufficient stock"));
+        }).join());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testClassifiesPostgresAndH2States() {
+        assertEquals(Optional.of(TransientFailureRetrier.Cause.DEADLOCK),
+                TransientFailureRetrier.classify(new SQLException("deadlock detected", "40P01")));
+        assertEquals(Optional.of(TransientFailureRetrier.Cause.LOCK_TIMEOUT),
+                TransientFailureRetrier.classify(new SQLException("lock not available", "55P03")));
+        assertEquals(Optional.of(TransientFailureRetrier.Cause.LOCK_TIMEOUT),
+                TransientFailureRetrier.classify(new SQLException("Timeout trying to lock table", "HYT00")));
+        assertEquals(Optional.empty(),
+                TransientFailureRetrier.classify(new SQLException("duplicate key", "23505")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long retryCount(String cause) {
+        return (long) ((Map<String, Object>) retrier.getStats().get("retriesByCause")).get(cause);
+    }
+}